@@ -6,12 +6,15 @@ import aor.fpbackend.dao.ProjectDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Asset.*;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
+import aor.fpbackend.dto.Project.ProjectAssetCreateNewProjectDto;
 import aor.fpbackend.dto.Project.ProjectAssetGetDto;
 import aor.fpbackend.dto.Project.ProjectAssetRemoveDto;
 import aor.fpbackend.entity.*;
 import aor.fpbackend.enums.AssetTypeEnum;
 import aor.fpbackend.enums.ProjectStateEnum;
 import aor.fpbackend.exception.*;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.transaction.Transactional;
@@ -22,7 +25,11 @@ import org.apache.logging.log4j.ThreadContext;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 
@@ -112,6 +119,46 @@ public class AssetBean implements Serializable {
         assetEntity.getProjectAssets().add(projectAssetEntity);
     }
 
+    /**
+     * Adds the assets of a new project, reading them with one query.
+     * <br>
+     * Unlike {@link #addProjectAssetToProject(String, long, int)}, the project is not read again and its state is
+     * not checked, and the project assets are inserted together when the transaction flushes.
+     *
+     * @param projectEntity the new project.
+     * @param assets        the names and used quantities of the assets, not empty.
+     * @throws EntityNotFoundException If one of the assets cannot be found.
+     */
+    public void addAssetsToNewProject(ProjectEntity projectEntity, Collection<ProjectAssetCreateNewProjectDto> assets) throws EntityNotFoundException {
+        Map<String, ProjectAssetCreateNewProjectDto> requested = new LinkedHashMap<>();
+        for (ProjectAssetCreateNewProjectDto asset : assets) {
+            requested.putIfAbsent(LookupKey.of(asset.getName()), asset);
+        }
+        Map<String, AssetEntity> assetEntities = new HashMap<>();
+        for (AssetEntity assetEntity : assetDao.findAssetsByNames(requested.keySet())) {
+            assetEntities.put(assetEntity.getNameKey(), assetEntity);
+        }
+        for (Map.Entry<String, ProjectAssetCreateNewProjectDto> asset : requested.entrySet()) {
+            AssetEntity assetEntity = assetEntities.get(asset.getKey());
+            if (assetEntity == null) {
+                throw new EntityNotFoundException("Asset not found: " + asset.getValue().getName());
+            }
+            ProjectAssetEntity projectAssetEntity = new ProjectAssetEntity();
+            projectAssetEntity.setAsset(assetEntity);
+            projectAssetEntity.setProject(projectEntity);
+            projectAssetEntity.setUsedQuantity(asset.getValue().getUsedQuantity());
+            projectAssetDao.persist(projectAssetEntity);
+            projectEntity.getProjectAssetsForProject().add(projectAssetEntity);
+        }
+    }
+
+    /**
+     * Moves the project asset id generator past the existing rows. Called once at startup.
+     */
+    public void alignProjectAssetIdGenerator() {
+        projectAssetDao.alignIdGenerator(GlobalSettings.PROJECT_ASSET_ID_ALLOCATION_SIZE);
+    }
+
     /**
      * Retrieves all assets from the database and converts them into AssetGetDto objects.
      *
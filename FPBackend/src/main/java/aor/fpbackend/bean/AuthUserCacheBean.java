@@ -0,0 +1,213 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dto.Authentication.AuthUserDto;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.TokenHasher;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuthUserCacheBean is a singleton EJB that keeps the result of a successful authentication token validation
+ * in memory, so that {@link SessionBean#validateAuthTokenAndGetUserDetails(String)} does not need to hit the
+ * session, user and role tables on every authenticated request.
+ * <br>
+ * Entries are keyed by the SHA-256 hash of the token (see {@link TokenHasher}) and are bounded in two ways:
+ * <ul>
+ *     <li>Each entry lives at most {@link GlobalSettings#AUTH_CACHE_TTL_MILLIS}, and never past the token expiration.</li>
+ *     <li>The cache holds at most {@link GlobalSettings#AUTH_CACHE_MAX_ENTRIES} entries; the entry closest to
+ *     expiration is dropped when the limit is reached.</li>
+ * </ul>
+ * <br>
+ * Every code path that deactivates a session (logout, session renewal, expiry cleanup) must call
+ * {@link #invalidate(String)} once its transaction commits, and a change of the user's role must call
+ * {@link #invalidateUser(long)}.
+ * <br>
+ * A validation that read the session before such a commit could otherwise store the token again right after the
+ * invalidation. Each invalidation therefore takes a number from a counter and leaves it as a tombstone on the
+ * token or user; a validation reads the counter with {@link #loadStamp()} before reading the session, and
+ * {@link #put} refuses the entry if the token, its user or the whole cache was invalidated since.
+ * <br>
+ * Concurrency is bean managed: the backing map is a {@link ConcurrentHashMap}, so lookups never wait on a
+ * container lock.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuthUserCacheBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(AuthUserCacheBean.class);
+
+    private final Map<String, CachedAuthUser> cache = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    // Token hash or user ID -> value of the counter at its last invalidation
+    private final Map<String, Long> invalidatedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Long> invalidatedUsers = new ConcurrentHashMap<>();
+    private volatile long clearedAt = 0;
+    // Tombstones up to this value were dropped, so loads stamped before it are refused
+    private volatile long forgottenBefore = 0;
+    private long nextForgottenBefore = 0;
+
+    /**
+     * Returns the stamp to pass to {@link #put}, to be taken before the session is read.
+     *
+     * @return the number of invalidations so far.
+     */
+    public long loadStamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Returns the cached user details for the given token, or null if absent or stale.
+     *
+     * @param token the raw authentication token.
+     * @return the cached {@link AuthUserDto}, or null.
+     */
+    public AuthUserDto get(String token) {
+        if (token == null) {
+            return null;
+        }
+        String key = TokenHasher.hash(token);
+        CachedAuthUser cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            cache.remove(key, cached);
+            return null;
+        }
+        return cached.authUser;
+    }
+
+    /**
+     * Stores the validated user details for the given token, unless the token, its user or the whole cache was
+     * invalidated after the session was read.
+     *
+     * @param token           the raw authentication token.
+     * @param authUserDto     the validated user details.
+     * @param tokenExpiration the expiration of the underlying session.
+     * @param loadStamp       the value of {@link #loadStamp()} taken before the session was read.
+     */
+    public void put(String token, AuthUserDto authUserDto, Instant tokenExpiration, long loadStamp) {
+        if (token == null || authUserDto == null || tokenExpiration == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(now + GlobalSettings.AUTH_CACHE_TTL_MILLIS, tokenExpiration.toEpochMilli());
+        if (expiresAt <= now) {
+            return;
+        }
+        if (cache.size() >= GlobalSettings.AUTH_CACHE_MAX_ENTRIES) {
+            makeRoom(now);
+        }
+        CachedAuthUser loaded = new CachedAuthUser(authUserDto, expiresAt);
+        // Checked under the map entry, so an invalidation either sees the new entry or is seen by this check
+        cache.compute(TokenHasher.hash(token), (key, current) ->
+                invalidatedSince(key, authUserDto.getUserId(), loadStamp) ? current : loaded);
+    }
+
+    /**
+     * Removes the entry of the given token, if any.
+     *
+     * @param token the raw authentication token.
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            String key = TokenHasher.hash(token);
+            invalidatedTokens.put(key, invalidations.incrementAndGet());
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Removes every entry belonging to the given user, e.g. after a role change.
+     *
+     * @param userId the ID of the user.
+     */
+    public void invalidateUser(long userId) {
+        invalidatedUsers.put(userId, invalidations.incrementAndGet());
+        cache.values().removeIf(cached -> cached.authUser.getUserId() == userId);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        clearedAt = invalidations.incrementAndGet();
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Periodically drops the entries that are past their expiration, and the tombstones older than the previous
+     * run. A validation still in flight after a whole period is refused, which only costs a cache miss.
+     */
+    @Schedule(hour = "*", minute = "*/1", persistent = false)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        long forgotten = nextForgottenBefore;
+        nextForgottenBefore = invalidations.get();
+        forgottenBefore = forgotten;
+        invalidatedTokens.values().removeIf(invalidatedAt -> invalidatedAt <= forgotten);
+        invalidatedUsers.values().removeIf(invalidatedAt -> invalidatedAt <= forgotten);
+        int before = cache.size();
+        cache.values().removeIf(cached -> cached.isExpired(now));
+        int evicted = before - cache.size();
+        if (evicted > 0) {
+            LOGGER.debug("Evicted {} expired auth cache entries", evicted);
+        }
+    }
+
+    private boolean invalidatedSince(String key, long userId, long loadStamp) {
+        // The tombstones are read before forgottenBefore, which is raised before they are dropped
+        return invalidatedTokens.getOrDefault(key, 0L) > loadStamp
+                || invalidatedUsers.getOrDefault(userId, 0L) > loadStamp
+                || clearedAt > loadStamp
+                || forgottenBefore > loadStamp;
+    }
+
+    private void makeRoom(long now) {
+        cache.values().removeIf(cached -> cached.isExpired(now));
+        while (cache.size() >= GlobalSettings.AUTH_CACHE_MAX_ENTRIES) {
+            String eldestKey = null;
+            long eldestExpiration = Long.MAX_VALUE;
+            for (Map.Entry<String, CachedAuthUser> entry : cache.entrySet()) {
+                if (entry.getValue().expiresAt < eldestExpiration) {
+                    eldestExpiration = entry.getValue().expiresAt;
+                    eldestKey = entry.getKey();
+                }
+            }
+            if (eldestKey == null) {
+                return;
+            }
+            cache.remove(eldestKey);
+        }
+    }
+
+    private static final class CachedAuthUser implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final AuthUserDto authUser;
+        private final long expiresAt;
+
+        private CachedAuthUser(AuthUserDto authUser, long expiresAt) {
+            this.authUser = authUser;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
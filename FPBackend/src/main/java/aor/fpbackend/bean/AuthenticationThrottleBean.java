@@ -0,0 +1,136 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.exception.TooManyRequestsException;
+import aor.fpbackend.utils.GlobalSettings;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AuthenticationThrottleBean is a singleton EJB that limits the attempts of the public endpoints that hash a
+ * password (login, registration, password reset), before any hashing is done.
+ * <br>
+ * Attempts are counted in fixed windows of {@link GlobalSettings#ATTEMPT_THROTTLE_WINDOW_MILLIS}:
+ * <ul>
+ *     <li>Logins, per client IP ({@link GlobalSettings#LOGIN_ATTEMPTS_PER_IP}) against credential stuffing from
+ *     one address, and failed logins per email ({@link GlobalSettings#LOGIN_ATTEMPTS_PER_EMAIL}) against a
+ *     distributed attack on one account. Successful logins do not count against the account, so a user who logs
+ *     in often is never refused.</li>
+ *     <li>Registrations and password resets, per client IP ({@link GlobalSettings#ANONYMOUS_ATTEMPTS_PER_IP}).</li>
+ * </ul>
+ * An attempt over the limit fails with a {@link TooManyRequestsException} (HTTP 429) carrying the time left in
+ * the window. Counters are kept per node and in memory only.
+ * <br>
+ * Concurrency is bean managed: counters live in a {@link ConcurrentHashMap} and are updated atomically per key.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class AuthenticationThrottleBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(AuthenticationThrottleBean.class);
+
+    private final Map<String, AttemptWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Counts a login attempt of the client and checks the failed logins of the account.
+     *
+     * @param clientIp the address of the client.
+     * @param email    the email the client tries to log in with.
+     * @throws TooManyRequestsException if the client made too many attempts or the account too many failed ones.
+     */
+    public void checkLoginAttempt(String clientIp, String email) {
+        count("login-ip:" + clientIp, GlobalSettings.LOGIN_ATTEMPTS_PER_IP);
+        if (email != null) {
+            String key = emailKey(email);
+            long now = System.currentTimeMillis();
+            AttemptWindow window = windows.get(key);
+            if (window != null && !window.isOver(now) && window.attempts >= GlobalSettings.LOGIN_ATTEMPTS_PER_EMAIL) {
+                reject(key, window, now);
+            }
+        }
+    }
+
+    /**
+     * Counts a failed login of the account, after its credentials were refused.
+     *
+     * @param email the email the client tried to log in with.
+     */
+    public void recordFailedLogin(String email) {
+        if (email != null) {
+            increment(emailKey(email), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Counts a registration or password reset attempt.
+     *
+     * @param clientIp the address of the client.
+     * @throws TooManyRequestsException if the client made too many attempts.
+     */
+    public void checkAnonymousAttempt(String clientIp) {
+        count("anonymous-ip:" + clientIp, GlobalSettings.ANONYMOUS_ATTEMPTS_PER_IP);
+    }
+
+    /**
+     * Periodically drops the counters of the windows that ended.
+     */
+    @Schedule(hour = "*", minute = "*/1", persistent = false)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> window.isOver(now));
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private void count(String key, int limit) {
+        long now = System.currentTimeMillis();
+        AttemptWindow window = increment(key, now);
+        if (window.attempts > limit) {
+            reject(key, window, now);
+        }
+    }
+
+    private AttemptWindow increment(String key, long now) {
+        return windows.compute(key, (k, current) ->
+                current == null || current.isOver(now) ? new AttemptWindow(now, 1) : current.increment());
+    }
+
+    private static void reject(String key, AttemptWindow window, long now) {
+        long retryAfterMillis = window.start + GlobalSettings.ATTEMPT_THROTTLE_WINDOW_MILLIS - now;
+        LOGGER.warn("Too many attempts for " + key);
+        throw new TooManyRequestsException("Too many attempts, please retry later",
+                (int) Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    private static String emailKey(String email) {
+        return "login-email:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class AttemptWindow {
+        private final long start;
+        private final int attempts;
+
+        private AttemptWindow(long start, int attempts) {
+            this.start = start;
+            this.attempts = attempts;
+        }
+
+        private AttemptWindow increment() {
+            return new AttemptWindow(start, attempts + 1);
+        }
+
+        private boolean isOver(long now) {
+            return now - start >= GlobalSettings.ATTEMPT_THROTTLE_WINDOW_MILLIS;
+        }
+    }
+}
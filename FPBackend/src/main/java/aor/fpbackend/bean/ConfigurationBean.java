@@ -6,18 +6,33 @@ import aor.fpbackend.dto.Configuration.ConfigurationUpdateDto;
 import aor.fpbackend.entity.ConfigurationEntity;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.InputValidationException;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.ConfigurationSnapshot;
+import jakarta.annotation.Resource;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 
 import java.io.Serializable;
 import java.util.List;
 
+/**
+ * ConfigurationBean is a stateless EJB that manages the configuration entries of the application.
+ * <br>
+ * Values are read from the in-memory {@link ConfigurationSnapshot} held by {@link ConfigurationCacheBean},
+ * never from the database. Changes are written to the configuration table and published to the snapshot once
+ * the transaction commits.
+ */
 @Stateless
 public class ConfigurationBean implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @EJB
     ConfigurationDao configurationDao;
+    @EJB
+    ConfigurationCacheBean configurationCache;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
 
     /**
      * Creates a default configuration entry if it does not already exist in the database.
@@ -29,6 +44,7 @@ public class ConfigurationBean implements Serializable {
         if (!configurationDao.checkConfigExist(configKey)) {
             ConfigurationEntity configEntity = new ConfigurationEntity(configKey, value);
             configurationDao.persist(configEntity);
+            afterCommit(configKey, value);
         }
     }
 
@@ -36,11 +52,38 @@ public class ConfigurationBean implements Serializable {
      * Retrieves the value of a configuration entry based on the given key.
      *
      * @param configKey The key of the configuration entry whose value is to be retrieved.
-     * @return The value associated with the specified configuration key.
-     * @throws EntityNotFoundException If no configuration entry with the specified key is found.
+     * @return The value associated with the specified configuration key, or 0 if there is no such entry.
      */
     public int getConfigValueByKey(String configKey) {
-        return configurationDao.findConfigValueByKey(configKey);
+        return configurationCache.getSnapshot().getValue(configKey);
+    }
+
+    /**
+     * @return The session timeout, in milliseconds.
+     */
+    public int getSessionTimeout() {
+        return configurationCache.getSnapshot().getSessionTimeout();
+    }
+
+    /**
+     * @return The maximum number of members of a project.
+     */
+    public int getMaxProjectMembers() {
+        return configurationCache.getSnapshot().getMaxProjectMembers();
+    }
+
+    /**
+     * @return The number of days ended sessions are kept.
+     */
+    public int getSessionRetentionDays() {
+        return configurationCache.getSnapshot().getSessionRetentionDays();
+    }
+
+    /**
+     * Reloads the configuration snapshot from the database. Called once at startup.
+     */
+    public void loadConfigurationSnapshot() {
+        configurationCache.load();
     }
 
     /**
@@ -74,7 +117,23 @@ public class ConfigurationBean implements Serializable {
                 throw new InputValidationException("New session timeout value lower than the minimum allowed value");
             }
         }
+        // Ended sessions must be kept for at least one day
+        if (configUpdateDto.getConfigKey().equals("sessionRetentionDays") && configUpdateDto.getConfigValue() < 1) {
+            throw new InputValidationException("Session retention must be at least one day");
+        }
         configEntity.setValue(configUpdateDto.getConfigValue());
+        afterCommit(configUpdateDto.getConfigKey(), configUpdateDto.getConfigValue());
+    }
+
+    /**
+     * Publishes a new value to the configuration snapshot once the current transaction commits,
+     * or immediately when there is no transaction.
+     *
+     * @param configKey The key of the configuration entry.
+     * @param value     The new value.
+     */
+    private void afterCommit(String configKey, int value) {
+        AfterCommit.run(transactionRegistry, () -> configurationCache.put(configKey, value));
     }
 
 }
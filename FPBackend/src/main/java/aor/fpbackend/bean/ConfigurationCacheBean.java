@@ -0,0 +1,76 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ConfigurationDao;
+import aor.fpbackend.dto.Configuration.ConfigurationGetDto;
+import aor.fpbackend.utils.ConfigurationSnapshot;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ConfigurationCacheBean is a singleton EJB that holds the current {@link ConfigurationSnapshot}, so that
+ * configuration reads (session timeout on every authenticated request, project member limit) do not query
+ * the configuration table.
+ * <br>
+ * The snapshot is loaded at startup, or on first use, and replaced as a whole through {@link #put(String, int)}.
+ * {@link ConfigurationBean} calls it only after the transaction that changed the value has committed, so a
+ * rolled back change is never visible.
+ * <br>
+ * Concurrency is bean managed: readers load a volatile reference and never lock; writers are serialized so
+ * that two concurrent changes cannot lose each other.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ConfigurationCacheBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(ConfigurationCacheBean.class);
+
+    @EJB
+    ConfigurationDao configurationDao;
+
+    private volatile ConfigurationSnapshot snapshot;
+
+    /**
+     * Returns the current snapshot, loading it from the database if it was not loaded yet.
+     *
+     * @return the current configuration snapshot.
+     */
+    public ConfigurationSnapshot getSnapshot() {
+        ConfigurationSnapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    /**
+     * Replaces the snapshot with the content of the configuration table.
+     *
+     * @return the loaded snapshot.
+     */
+    public synchronized ConfigurationSnapshot load() {
+        List<ConfigurationGetDto> configurations = configurationDao.getAllConfiguration();
+        Map<String, Integer> values = new HashMap<>();
+        for (ConfigurationGetDto configuration : configurations) {
+            values.put(configuration.getConfigKey(), configuration.getConfigValue());
+        }
+        snapshot = new ConfigurationSnapshot(values);
+        LOGGER.info("Configuration snapshot loaded with {} entries", values.size());
+        return snapshot;
+    }
+
+    /**
+     * Replaces the snapshot with a copy holding the new value of one entry.
+     *
+     * @param configKey the key of the configuration entry.
+     * @param value     the committed value.
+     */
+    public synchronized void put(String configKey, int value) {
+        snapshot = getSnapshot().with(configKey, value);
+    }
+}
@@ -3,17 +3,23 @@ package aor.fpbackend.bean;
 import aor.fpbackend.dao.*;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.GroupMessage.GroupMessageGetDto;
+import aor.fpbackend.dto.GroupMessage.GroupMessagePageDto;
 import aor.fpbackend.dto.GroupMessage.GroupMessageSendDto;
 import aor.fpbackend.entity.*;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.UserNotFoundException;
+import aor.fpbackend.utils.GlobalSettings;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.ws.rs.core.SecurityContext;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -29,8 +35,6 @@ public class GroupMessageBean {
     @EJB
     GroupMessageDao groupMessageDao;
     @EJB
-    ProjectMembershipDao projectMemberDao;
-    @EJB
     ProjectDao projectDao;
 
     /**
@@ -102,6 +106,70 @@ public class GroupMessageBean {
         return groupMessageGetDtos;
     }
 
+    /**
+     * Retrieves one page of the message history of a project, using keyset pagination on (sentTime, id).
+     * <p>
+     * Without a cursor the most recent messages are returned. With a cursor, the messages sent before the
+     * cursor message are returned. The messages of the page are in chronological order, so the ID of the
+     * first one is the cursor of the next (older) page.
+     * </p>
+     *
+     * @param projectId       The ID of the project.
+     * @param beforeMessageId The ID of the oldest message already loaded by the client, or null for the latest page.
+     * @param limit           The requested page size; non-positive values use the default page size.
+     * @return A GroupMessagePageDto with the messages and whether older messages exist.
+     * @throws EntityNotFoundException If the cursor message does not exist in the project.
+     */
+    public GroupMessagePageDto getGroupMessageHistory(long projectId, Long beforeMessageId, int limit) throws EntityNotFoundException {
+        int pageSize = normalizePageSize(limit);
+        List<GroupMessageEntity> groupMessageEntities;
+        if (beforeMessageId == null) {
+            groupMessageEntities = groupMessageDao.findLatestGroupMessages(projectId, pageSize + 1);
+        } else {
+            GroupMessageEntity cursor = findCursorMessage(projectId, beforeMessageId);
+            groupMessageEntities = groupMessageDao.findPreviousGroupMessages(projectId, cursor.getSentTime(), cursor.getId(), pageSize + 1);
+        }
+        // One extra row is fetched to know whether there is another page
+        boolean hasMore = groupMessageEntities.size() > pageSize;
+        List<GroupMessageEntity> page = new ArrayList<>(groupMessageEntities.subList(0, Math.min(pageSize, groupMessageEntities.size())));
+        Collections.reverse(page);
+        return new GroupMessagePageDto(convertGroupMessageEntityListToGroupMessageGetDtoList(page), hasMore);
+    }
+
+    /**
+     * Retrieves the messages of a project sent after a given message, in chronological order.
+     * Used by clients to catch up after a reconnection; the ID of the last message is the cursor of the next call.
+     *
+     * @param projectId      The ID of the project.
+     * @param afterMessageId The ID of the newest message already loaded by the client.
+     * @param limit          The requested page size; non-positive values use the default page size.
+     * @return A GroupMessagePageDto with the messages and whether newer messages exist.
+     * @throws EntityNotFoundException If the cursor message does not exist in the project.
+     */
+    public GroupMessagePageDto getGroupMessagesSince(long projectId, long afterMessageId, int limit) throws EntityNotFoundException {
+        int pageSize = normalizePageSize(limit);
+        GroupMessageEntity cursor = findCursorMessage(projectId, afterMessageId);
+        List<GroupMessageEntity> groupMessageEntities = groupMessageDao.findGroupMessagesSince(projectId, cursor.getSentTime(), cursor.getId(), pageSize + 1);
+        boolean hasMore = groupMessageEntities.size() > pageSize;
+        List<GroupMessageEntity> page = groupMessageEntities.subList(0, Math.min(pageSize, groupMessageEntities.size()));
+        return new GroupMessagePageDto(convertGroupMessageEntityListToGroupMessageGetDtoList(page), hasMore);
+    }
+
+    private GroupMessageEntity findCursorMessage(long projectId, long messageId) throws EntityNotFoundException {
+        GroupMessageEntity cursor = groupMessageDao.findGroupMessageById(messageId);
+        if (cursor == null || cursor.getGroup() == null || cursor.getGroup().getId() != projectId) {
+            throw new EntityNotFoundException("Message not found in this project");
+        }
+        return cursor;
+    }
+
+    private int normalizePageSize(int limit) {
+        if (limit <= 0) {
+            return GlobalSettings.GROUP_MESSAGE_PAGE_SIZE;
+        }
+        return Math.min(limit, GlobalSettings.GROUP_MESSAGE_MAX_PAGE_SIZE);
+    }
+
     /**
      * Retrieves group messages based on a list of message IDs.
      *
@@ -112,75 +180,47 @@ public class GroupMessageBean {
         // Retrieve group message entities based on the provided message IDs
         List<GroupMessageEntity> groupMessageEntities = groupMessageDao.getMessagesByIds(messageIds);
         // Convert GroupMessageEntity objects to GroupMessageGetDto objects
-        return groupMessageEntities.stream()
-                .map(this::convertGroupMessageEntityToGroupMessageGetDto)
-                .collect(Collectors.toList());
+        return convertGroupMessageEntityListToGroupMessageGetDtoList(groupMessageEntities);
     }
 
     /**
-     * Marks a group message as read by a specific user.
+     * Marks a set of group messages as read by a set of users.
+     * <p>
+     * The receipts are added with one INSERT ... SELECT, the messages read by every member are found with one
+     * aggregate query, and those still unviewed are flagged with one bulk update, whatever the number of
+     * messages and users.
+     * </p>
      *
-     * @param messageId The ID of the group message to mark as read.
-     * @param userId    The ID of the user who is marking the message as read.
+     * @param projectId  The ID of the project the messages belong to.
+     * @param messageIds The IDs of the messages to mark as read.
+     * @param userIds    The IDs of the users who read the messages.
+     * @return The IDs of the given messages that are now read by every member of the project.
      */
-    public void markMessageAsReadByUser(Long messageId, Long userId) {
-        // Find the group message entity by its ID
-        GroupMessageEntity message = groupMessageDao.findGroupMessageById(messageId);
-        // Find the user entity by its ID
-        UserEntity user = userDao.findUserById(userId);
-        // If both the message and user entities are found
-        if (message != null && user != null) {
-            // Add the user to the list of users who have read the message
-            message.getReadByUsers().add(user);
-            // Check if all users have read the message, and mark it as viewed if true
-            if (allUsersHaveReadMessage(message.getId())) {
-                message.setViewed(true);
-            }
+    public Set<Long> markMessagesAsRead(long projectId, Collection<Long> messageIds, Collection<Long> userIds) {
+        if (messageIds == null || messageIds.isEmpty()) {
+            return new HashSet<>();
         }
+        groupMessageDao.insertReadReceipts(projectId, messageIds, userIds);
+        Set<Long> fullyReadMessageIds = new HashSet<>(groupMessageDao.findFullyReadMessageIds(messageIds));
+        groupMessageDao.markMessagesAsViewed(fullyReadMessageIds);
+        return fullyReadMessageIds;
     }
 
     /**
-     * Checks if all users associated with a group message have read the message.
+     * Marks every message of a project up to, and including, the given message as read by a user.
      *
-     * @param messageId The ID of the group message to check.
-     * @return true if all users associated with the message have read it, false otherwise.
+     * @param projectId     The ID of the project.
+     * @param userId        The ID of the user who read the messages.
+     * @param upToMessageId The ID of the newest message read by the user.
+     * @return The IDs of the messages that became read by every member of the project.
+     * @throws EntityNotFoundException If the message does not exist in the project.
      */
-    private boolean allUsersHaveReadMessage(Long messageId) {
-        // Find the group message entity by its ID
-        GroupMessageEntity messageEntity = groupMessageDao.findGroupMessageById(messageId);
-        // If the message entity is found
-        if (messageEntity != null) {
-            // Get the set of users who have read the message
-            Set<UserEntity> readByUsers = messageEntity.getReadByUsers();
-            // Get the list of users associated with the group (project members)
-            List<UserEntity> groupUsers = projectMemberDao.findProjectMembersByProjectId(messageEntity.getGroup().getId());
-            // Check if all group users have read the message
-            return readByUsers.containsAll(groupUsers);
-        }
-        return false;
-    }
-
-    /**
-     * Verifies if all specified messages are marked as read for a user.
-     *
-     * @param messageIds The list of message IDs to verify as read.
-     * @param userId     The ID of the user to verify message readings for.
-     * @return true if all specified messages are marked as read by the user, false otherwise.
-     */
-    public boolean verifyMessagesAsReadForGroup(List<Long> messageIds, Long userId) {
-        boolean allMarkedAsRead = true;
-        // Iterate through each message ID in the list
-        for (Long messageId : messageIds) {
-            // Mark the message as read by the user
-            markMessageAsReadByUser(messageId, userId);
-            // Check if all users have read the message
-            boolean markedAsRead = allUsersHaveReadMessage(messageId);
-            // Update allMarkedAsRead based on whether the message is marked as read by all users
-            if (!markedAsRead) {
-                allMarkedAsRead = false;
-            }
-        }
-        return allMarkedAsRead;
+    public Set<Long> markMessagesAsReadUpTo(long projectId, long userId, long upToMessageId) throws EntityNotFoundException {
+        findCursorMessage(projectId, upToMessageId);
+        groupMessageDao.insertReadReceiptsUpTo(projectId, userId, upToMessageId);
+        Set<Long> fullyReadMessageIds = new HashSet<>(groupMessageDao.findFullyReadUnviewedMessageIds(projectId));
+        groupMessageDao.markMessagesAsViewed(fullyReadMessageIds);
+        return fullyReadMessageIds;
     }
 
     /**
@@ -208,20 +248,33 @@ public class GroupMessageBean {
 
     /**
      * Converts a list of GroupMessageEntity objects to a list of GroupMessageGetDto objects.
+     * The read receipts of all messages are loaded with a single query instead of one per message.
      *
      * @param groupMessageEntities The list of GroupMessageEntity objects to convert.
      * @return A list of GroupMessageGetDto objects representing the converted GroupMessageEntity objects.
      */
     public List<GroupMessageGetDto> convertGroupMessageEntityListToGroupMessageGetDtoList(List<GroupMessageEntity> groupMessageEntities) {
+        // Load the read receipts of every message in one projection query
+        List<Long> messageIds = groupMessageEntities.stream()
+                .map(GroupMessageEntity::getId)
+                .collect(Collectors.toList());
+        Map<Long, Set<Long>> readReceipts = groupMessageDao.findReadReceiptsByMessageIds(messageIds);
         // Initialize an empty list to store converted GroupMessageGetDto objects
         List<GroupMessageGetDto> groupMessageGetDtos = new ArrayList<>();
         // Iterate through each GroupMessageEntity in the input list
         for (GroupMessageEntity groupMessageEntity : groupMessageEntities) {
             // Convert each GroupMessageEntity to a GroupMessageGetDto and add to the result list
-            GroupMessageGetDto groupMessageGetDto = convertGroupMessageEntityToGroupMessageGetDto(groupMessageEntity);
-            groupMessageGetDtos.add(groupMessageGetDto);
+            groupMessageGetDtos.add(new GroupMessageGetDto(
+                    groupMessageEntity.getId(),
+                    groupMessageEntity.getContent(),
+                    userBean.convertUserEntitytoUserBasicInfoDto(groupMessageEntity.getSender()),
+                    groupMessageEntity.getSentTime(),
+                    readReceipts.getOrDefault(groupMessageEntity.getId(), new HashSet<>()),
+                    groupMessageEntity.isViewed(),
+                    groupMessageEntity.getGroup().getId()
+            ));
         }
         // Return the list of converted GroupMessageGetDto objects
         return groupMessageGetDtos;
     }
-}
\ No newline at end of file
+}
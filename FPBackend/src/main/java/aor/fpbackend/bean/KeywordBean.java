@@ -11,6 +11,7 @@ import aor.fpbackend.exception.DuplicatedAttributeException;
 import aor.fpbackend.exception.ElementAssociationException;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.InputValidationException;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.transaction.Transactional;
@@ -18,7 +19,10 @@ import org.apache.logging.log4j.LogManager;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.List;
 
@@ -58,6 +62,8 @@ public class KeywordBean implements Serializable {
     KeywordDao keywordDao;
     @EJB
     ProjectDao projectDao;
+    @EJB
+    ProjectSearchIndexBean projectSearchIndex;
     private static final long serialVersionUID = 1L;
 
     private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger(KeywordBean.class);
@@ -94,6 +100,36 @@ public class KeywordBean implements Serializable {
             keywordProjects.add(projectEntity);
             keywordEntity.setProjects(keywordProjects);
         }
+        projectSearchIndex.update(projectEntity);
+    }
+
+    /**
+     * Finds the keywords of a new project, creating the missing ones.
+     * <br>
+     * Names are matched ignoring case, as by {@link #addKeyword(String, long)}. The existing keywords are read
+     * with one query and the missing ones are inserted with one statement and read with a second query.
+     *
+     * @param keywordNames the names of the keywords, not empty.
+     * @return the keyword entities, one per distinct name.
+     * @throws EntityNotFoundException if a keyword could not be created.
+     */
+    public Set<KeywordEntity> findOrCreateKeywords(Collection<String> keywordNames) throws EntityNotFoundException {
+        Map<String, String> requested = new LinkedHashMap<>();
+        for (String name : keywordNames) {
+            requested.putIfAbsent(LookupKey.of(name), name);
+        }
+        Set<KeywordEntity> keywordEntities = new HashSet<>(keywordDao.findKeywordsByNames(requested.keySet()));
+        Map<String, String> missing = new LinkedHashMap<>(requested);
+        keywordEntities.forEach(keyword -> missing.remove(keyword.getNameKey()));
+        if (!missing.isEmpty()) {
+            keywordDao.insertKeywordsIfAbsent(missing.values());
+            keywordEntities.addAll(keywordDao.findKeywordsByNames(missing.keySet()));
+            LOGGER.info("Created {} keywords for a new project", missing.size());
+        }
+        if (keywordEntities.size() < requested.size()) {
+            throw new EntityNotFoundException("Keyword not found");
+        }
+        return keywordEntities;
     }
 
     /**
@@ -176,6 +212,7 @@ public class KeywordBean implements Serializable {
         Set<ProjectEntity> keywordProjects = keywordEntity.getProjects();
         keywordProjects.remove(projectEntity);
         keywordEntity.setProjects(keywordProjects);
+        projectSearchIndex.update(projectEntity);
     }
 
     /**
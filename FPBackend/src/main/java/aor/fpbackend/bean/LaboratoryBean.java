@@ -36,6 +36,8 @@ public class LaboratoryBean implements Serializable {
 
     @EJB
     LaboratoryDao laboratoryDao;
+    @EJB
+    ProjectCatalogueBean projectCatalogue;
 
 
     /**
@@ -48,6 +50,7 @@ public class LaboratoryBean implements Serializable {
         if (!laboratoryDao.checkLaboratoryExist(location)) {
             LaboratoryEntity laboratory = new LaboratoryEntity(location);
             laboratoryDao.persist(laboratory);
+            projectCatalogue.invalidate();
         }
     }
 
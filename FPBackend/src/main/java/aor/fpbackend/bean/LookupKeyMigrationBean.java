@@ -0,0 +1,77 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.AssetDao;
+import aor.fpbackend.dao.InterestDao;
+import aor.fpbackend.dao.KeywordDao;
+import aor.fpbackend.dao.ProjectDao;
+import aor.fpbackend.dao.SkillDao;
+import aor.fpbackend.dao.TaskDao;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.function.IntSupplier;
+
+/**
+ * LookupKeyMigrationBean fills the lookup key columns of the rows written before those columns existed.
+ * <br>
+ * Projects, skills, keywords, interests, assets and tasks are looked up by an indexed key column (see
+ * {@link aor.fpbackend.utils.LookupKey}) that the entities set on write. Rows inserted by older versions have no
+ * key and would not be found, so their keys are computed once at startup. Each table is updated in its own
+ * transaction, and a table that fails is logged without stopping the others; it is retried at the next startup.
+ */
+@Stateless
+public class LookupKeyMigrationBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(LookupKeyMigrationBean.class);
+
+    @EJB
+    ProjectDao projectDao;
+    @EJB
+    SkillDao skillDao;
+    @EJB
+    KeywordDao keywordDao;
+    @EJB
+    InterestDao interestDao;
+    @EJB
+    AssetDao assetDao;
+    @EJB
+    TaskDao taskDao;
+
+    /**
+     * Fills the missing lookup keys of every table. Called once at startup.
+     *
+     * @return the number of rows updated.
+     */
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public int backfillLookupKeys() {
+        int updated = backfill("project", projectDao::backfillLookupKeys)
+                + backfill("skill", skillDao::backfillLookupKeys)
+                + backfill("keyword", keywordDao::backfillLookupKeys)
+                + backfill("interest", interestDao::backfillLookupKeys)
+                + backfill("asset", assetDao::backfillLookupKeys)
+                + backfill("task", taskDao::backfillLookupKeys);
+        if (updated > 0) {
+            LOGGER.info("Lookup keys filled for {} rows", updated);
+        }
+        return updated;
+    }
+
+    private int backfill(String table, IntSupplier update) {
+        try {
+            int updated = update.getAsInt();
+            if (updated > 0) {
+                LOGGER.info("Lookup keys filled for {} rows of {}", updated, table);
+            }
+            return updated;
+        } catch (RuntimeException e) {
+            // The DAOs are EJBs: a failed update arrives wrapped in an EJBException, not as a PersistenceException
+            LOGGER.error("Could not fill the lookup keys of {}", table, e);
+            return 0;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import aor.fpbackend.enums.ProjectRoleEnum;
 import aor.fpbackend.enums.ProjectStateEnum;
 import aor.fpbackend.exception.*;
 import aor.fpbackend.utils.EmailService;
+import aor.fpbackend.utils.GlobalSettings;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.transaction.Transactional;
@@ -37,6 +38,10 @@ public class MembershipBean implements Serializable {
     @EJB
     ProjectMembershipDao projectMemberDao;
     @EJB
+    ProjectMembershipCacheBean projectMembershipCache;
+    @EJB
+    ProjectCatalogueBean projectCatalogue;
+    @EJB
     ProjectBean projectBean;
     @EJB
     ConfigurationBean configurationBean;
@@ -70,15 +75,13 @@ public class MembershipBean implements Serializable {
         if (currentState == ProjectStateEnum.CANCELLED || currentState == ProjectStateEnum.FINISHED) {
             throw new ElementAssociationException("Project is not editable anymore");
         }
-        int maxProjectElements = configurationBean.getConfigValueByKey("maxProjectMembers");
-        if (projectEntity.getMembers().size() >= maxProjectElements) {
-            throw new IllegalStateException("Project member's limit is reached");
-        }
         // Check if User is already a project member
-        for (ProjectMembershipEntity pm : projectEntity.getMembers()) {
-            if (pm.getUser().getId() == userEntity.getId()) {
-                throw new DuplicatedAttributeException("User is already member of the project");
-            }
+        if (projectDao.isProjectMember(projectId, userEntity.getId())) {
+            throw new DuplicatedAttributeException("User is already member of the project");
+        }
+        // Take a member slot; the limit check and the increment are one statement
+        if (!projectDao.reserveMemberSlot(projectId, configurationBean.getMaxProjectMembers())) {
+            throw new IllegalStateException("Project member's limit is reached");
         }
         try {
             ProjectMembershipEntity projectMembershipEntity = new ProjectMembershipEntity();
@@ -88,6 +91,7 @@ public class MembershipBean implements Serializable {
             projectMembershipEntity.setAccepted(false);
             projectMembershipEntity.setAcceptanceToken(UUID.randomUUID().toString());
             projectMemberDao.persist(projectMembershipEntity);
+            projectCatalogue.invalidate();
             sendJoinRequisitionToManagers(projectMembershipEntity, userEntity, projectEntity);
             notificationBean.createProjectJoinRequestNotificationsForProjectAdmins(projectMembershipEntity);
             LOGGER.info("User " + userEntity.getUsername() + " asked to join project " + projectEntity.getName());
@@ -137,6 +141,8 @@ public class MembershipBean implements Serializable {
             throw new UnauthorizedAccessException("Approver is not a Project Manager");
         }
         try {
+            projectMembershipCache.invalidate(membershipEntity.getProject().getId(), membershipEntity.getUser().getId());
+            projectCatalogue.invalidate();
             if (approve) {
                 membershipEntity.setAccepted(true);
                 membershipEntity.setAcceptanceToken(null);
@@ -149,6 +155,7 @@ public class MembershipBean implements Serializable {
                 notificationBean.createNotificationForProjectJoinRequestApprovedOrRejected(membershipEntity, false);
                 projectBean.createProjectLog(membershipEntity.getProject(), membershipEntity.getUser(), LogTypeEnum.PROJECT_MEMBERS, content);
                 projectMemberDao.remove(membershipEntity);
+                projectDao.releaseMemberSlot(membershipEntity.getProject().getId());
                 LOGGER.info("User " + membershipEntity.getUser().getUsername() + " rejected to join project " + membershipEntity.getProject().getName());
             }
         } catch (Exception e) {
@@ -211,15 +218,14 @@ public class MembershipBean implements Serializable {
         if (userEntity == null) {
             throw new EntityNotFoundException("User not found");
         }
-        // Check if the project has reached its member limit
-        int maxProjectElements = configurationBean.getConfigValueByKey("maxProjectMembers");
-        if (projectEntity.getMembers().size() >= maxProjectElements) {
-            throw new IllegalStateException("Project member's limit is reached");
-        }
         // Check if the user is already a member of the project
         if (projectDao.isProjectMember(projectId, userEntity.getId())) {
             throw new IllegalStateException("User is already a member of the project");
         }
+        // Take a member slot; the limit check and the increment are one statement
+        if (!projectDao.reserveMemberSlot(projectId, configurationBean.getMaxProjectMembers())) {
+            throw new IllegalStateException("Project member's limit is reached");
+        }
         try {
             // Create a new ProjectMembershipEntity
             ProjectMembershipEntity membershipEntity = new ProjectMembershipEntity();
@@ -239,6 +245,8 @@ public class MembershipBean implements Serializable {
             }
             // Persist the membership entity and update the user and project entities
             projectMemberDao.persist(membershipEntity);
+            projectMembershipCache.invalidate(projectId, userEntity.getId());
+            projectCatalogue.invalidate();
             userEntity.getProjects().add(membershipEntity);
             projectEntity.getMembers().add(membershipEntity);
             // Send an invite or create a notification based on the acceptance status
@@ -261,6 +269,66 @@ public class MembershipBean implements Serializable {
         }
     }
 
+    /**
+     * Adds the creator and the initial members to a new project.
+     * <br>
+     * The members are read with one query and their slots are taken with one conditional update, so the member
+     * limit applies to the whole group. Every membership is accepted, the creator being the project manager, and
+     * the memberships are inserted together when the transaction flushes. Each member is notified and each member
+     * other than the creator is logged, as by {@link #addUserToProject(String, long, boolean, boolean, UserEntity)}.
+     *
+     * @param projectEntity the new project, already persisted.
+     * @param creator       the creator of the project.
+     * @param usernames     the usernames of the other members, may be empty.
+     * @throws EntityNotFoundException if the creator or one of the users is not found or not validated.
+     */
+    public void addMembersToNewProject(ProjectEntity projectEntity, UserEntity creator, Set<String> usernames) throws EntityNotFoundException {
+        // The creator is loaded by ID, so check here that the account is validated
+        if (!creator.isConfirmed()) {
+            throw new EntityNotFoundException("User not found");
+        }
+        if (usernames.contains(creator.getUsername())) {
+            throw new IllegalStateException("User is already a member of the project");
+        }
+        List<UserEntity> members = new ArrayList<>(usernames.size() + 1);
+        members.add(creator);
+        if (!usernames.isEmpty()) {
+            List<UserEntity> users = userDao.findValidatedUsersByUsernames(usernames);
+            if (users.size() < usernames.size()) {
+                Set<String> missing = new TreeSet<>(usernames);
+                users.forEach(user -> missing.remove(user.getUsername()));
+                throw new EntityNotFoundException("User not found: " + String.join(", ", missing));
+            }
+            members.addAll(users);
+        }
+        if (!projectDao.reserveMemberSlots(projectEntity.getId(), members.size(), configurationBean.getMaxProjectMembers())) {
+            throw new IllegalStateException("Project member's limit is reached");
+        }
+        for (UserEntity userEntity : members) {
+            ProjectMembershipEntity membershipEntity = new ProjectMembershipEntity();
+            membershipEntity.setUser(userEntity);
+            membershipEntity.setProject(projectEntity);
+            membershipEntity.setRole(userEntity == creator ? ProjectRoleEnum.PROJECT_MANAGER : ProjectRoleEnum.NORMAL_USER);
+            membershipEntity.setAccepted(true);
+            projectMemberDao.persist(membershipEntity);
+            projectMembershipCache.invalidate(projectEntity.getId(), userEntity.getId());
+            projectEntity.getMembers().add(membershipEntity);
+            notificationBean.createNotificationForUserAutomaticallyAddedToProject(membershipEntity);
+            if (userEntity != creator) {
+                String content = "User: " + userEntity.getUsername() + " added to project";
+                projectBean.createProjectLog(projectEntity, creator, LogTypeEnum.PROJECT_MEMBERS, content);
+            }
+        }
+        projectCatalogue.invalidate();
+        LOGGER.info("{} members added to new project {}", members.size(), projectEntity.getName());
+    }
+
+    /**
+     * Moves the project membership id generator past the existing rows. Called once at startup.
+     */
+    public void alignMembershipIdGenerator() {
+        projectMemberDao.alignIdGenerator(GlobalSettings.PROJECT_MEMBERSHIP_ID_ALLOCATION_SIZE);
+    }
 
     /**
      * Handles the acceptance or rejection of a project invite based on the provided token.
@@ -279,6 +347,9 @@ public class MembershipBean implements Serializable {
             throw new EntityNotFoundException("Project membership not found");
         }
         try {
+            // Drop the cached membership, it is either accepted or removed below
+            projectMembershipCache.invalidate(membershipEntity.getProject().getId(), membershipEntity.getUser().getId());
+            projectCatalogue.invalidate();
             // If the user approves the invite
             if (approve) {
                 // Mark the membership as accepted and clear the acceptance token
@@ -299,6 +370,7 @@ public class MembershipBean implements Serializable {
                 notificationBean.createNotificationForProjectManagersKnowUserApproval(membershipEntity, false);
                 // Remove the membership entity from the database
                 projectMemberDao.remove(membershipEntity);
+                projectDao.releaseMemberSlot(membershipEntity.getProject().getId());
                 // Log the rejection action
                 LOGGER.info("User " + membershipEntity.getUser().getUsername() + " refused to become project member");
             }
@@ -360,6 +432,9 @@ public class MembershipBean implements Serializable {
         if (userMembership != null) {
             notificationBean.createNotificationForUserRemovedFromProject(userMembership);
             projectMemberDao.remove(userMembership);
+            projectDao.releaseMemberSlot(projectId);
+            projectMembershipCache.invalidate(projectId, userEntity.getId());
+            projectCatalogue.invalidate();
         } else {
             throw new IllegalStateException("Project does not have the specified user");
         }
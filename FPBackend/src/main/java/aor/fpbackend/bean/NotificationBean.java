@@ -1,7 +1,7 @@
 package aor.fpbackend.bean;
 
 import aor.fpbackend.dao.NotificationDao;
-import aor.fpbackend.dao.RoleDao;
+import aor.fpbackend.dao.ProjectMembershipDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.IndividualMessage.IndividualMessageGetDto;
@@ -11,9 +11,13 @@ import aor.fpbackend.enums.NotificationTypeENUM;
 import aor.fpbackend.enums.ProjectRoleEnum;
 import aor.fpbackend.enums.UserRoleEnum;
 import aor.fpbackend.exception.EntityNotFoundException;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.GlobalSettings;
 import aor.fpbackend.websocket.GlobalWebSocket;
+import jakarta.annotation.Resource;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.ws.rs.core.SecurityContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.ThreadContext;
@@ -41,7 +45,9 @@ public class NotificationBean implements Serializable {
     @EJB
     UserDao userDao;
     @EJB
-    RoleDao roleDao;
+    ProjectMembershipDao projectMemberDao;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
     private static final long serialVersionUID = 1L;
 
     private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger(NotificationBean.class);
@@ -212,24 +218,25 @@ public class NotificationBean implements Serializable {
      *
      */
     public void createNotificationProjectApprovalSendAllMembers(ProjectEntity projectEntity, UserEntity userEntity, boolean approved) {
-        Set<ProjectMembershipEntity> projectMembershipEntitiesSet = projectEntity.getMembers();
-        List<ProjectMembershipEntity> projectMembershipEntities = new ArrayList<>(projectMembershipEntitiesSet);
-        for (ProjectMembershipEntity projectMembershipEntity : projectMembershipEntities) {
+        String content;
+        if (approved) {
+            content = "Project " + projectEntity.getName() + " has been approved by " + userEntity.getUsername();
+        } else {
+            content = "Project " + projectEntity.getName() + " has been rejected by " + userEntity.getUsername();
+        }
+        List<UserEntity> projectMembers = projectMemberDao.findProjectMembersByProjectId(projectEntity.getId());
+        List<NotificationEntity> notifications = new ArrayList<>(projectMembers.size());
+        for (UserEntity projectMember : projectMembers) {
             NotificationEntity notificationEntity = new NotificationEntity();
             notificationEntity.setType(NotificationTypeENUM.PROJECT_APPROVAL);
-            notificationEntity.setUser(projectMembershipEntity.getUser());
+            notificationEntity.setUser(projectMember);
             notificationEntity.setDateTime(Instant.now());
             notificationEntity.setRead(false);
-            if (approved) {
-                notificationEntity.setContent("Project " + projectEntity.getName() + " has been approved by " + userEntity.getUsername());
-            } else {
-                notificationEntity.setContent("Project " + projectEntity.getName() + " has been rejected by " + userEntity.getUsername());
-            }
+            notificationEntity.setContent(content);
             notificationEntity.setProject(projectEntity);
-            notificationDao.persist(notificationEntity);
-            NotificationGetDto notificationGetDto = convertEntityToDto(notificationEntity);
-            GlobalWebSocket.tryToSendNotificationToUserSessions(notificationGetDto);
+            notifications.add(notificationEntity);
         }
+        createNotifications(notifications);
     }
 
     /**
@@ -238,8 +245,8 @@ public class NotificationBean implements Serializable {
      * @param projectEntity The entity representing the project awaiting approval.
      */
     public void createNotificationForAllPlatformAdminsProjectApproval(ProjectEntity projectEntity) {
-        RoleEntity role = roleDao.findRoleByName(UserRoleEnum.ADMIN);
-        List<UserEntity> platformAdmins = userDao.getUsersByRole(role);
+        List<UserEntity> platformAdmins = userDao.findUsersByRoleName(UserRoleEnum.ADMIN);
+        List<NotificationEntity> notifications = new ArrayList<>(platformAdmins.size());
         for (UserEntity platformAdmin : platformAdmins) {
             NotificationEntity notificationEntity = new NotificationEntity();
             notificationEntity.setType(NotificationTypeENUM.PROJECT_APPROVAL);
@@ -248,10 +255,9 @@ public class NotificationBean implements Serializable {
             notificationEntity.setRead(false);
             notificationEntity.setContent("Project " + projectEntity.getName() + " is ready to be approved. Visit project page to approve or reject.");
             notificationEntity.setProject(projectEntity);
-            notificationDao.persist(notificationEntity);
-            NotificationGetDto notificationGetDto = convertEntityToDto(notificationEntity);
-            GlobalWebSocket.tryToSendNotificationToUserSessions(notificationGetDto);
+            notifications.add(notificationEntity);
         }
+        createNotifications(notifications);
     }
 
     /**
@@ -294,6 +300,14 @@ public class NotificationBean implements Serializable {
         GlobalWebSocket.tryToSendNotificationToUserSessions(notificationGetDto);
     }
 
+    /**
+     * Ensures the notification id generator never hands out an id that is already in use.
+     * Called once at startup.
+     */
+    public void alignNotificationIdGenerator() {
+        notificationDao.alignIdGenerator(GlobalSettings.NOTIFICATION_ID_ALLOCATION_SIZE);
+    }
+
     /**
      * Retrieves unread notifications for the authenticated user.
      *
@@ -374,6 +388,8 @@ public class NotificationBean implements Serializable {
         if (projectMembers == null) {
             throw new IllegalArgumentException("Project members list is null");
         }
+        String content = "You have a new message in group " + groupMessageEntity.getGroup().getName() + " from " + groupMessageEntity.getSender().getUsername();
+        List<NotificationEntity> notifications = new ArrayList<>(projectMembers.size());
         for (UserEntity userEntity : projectMembers) {
             if (!userEntity.equals(groupMessageEntity.getSender())) {
                 NotificationEntity notificationEntity = new NotificationEntity();
@@ -381,16 +397,47 @@ public class NotificationBean implements Serializable {
                 notificationEntity.setUser(userEntity);
                 notificationEntity.setDateTime(Instant.now());
                 notificationEntity.setRead(false);
-                notificationEntity.setContent("You have a new message in group " + groupMessageEntity.getGroup().getName() + " from " + groupMessageEntity.getSender().getUsername());
+                notificationEntity.setContent(content);
                 notificationEntity.setGroupMessage(groupMessageEntity);
                 notificationEntity.setProject(groupMessageEntity.getGroup());
-                notificationDao.persist(notificationEntity);
-                NotificationGetDto notificationGetDto = convertEntityToDto(notificationEntity);
-                GlobalWebSocket.tryToSendNotificationToUserSessions(notificationGetDto);
-                LOGGER.info("Creating notification for group message");
-                ThreadContext.clearMap();
+                notifications.add(notificationEntity);
             }
         }
+        createNotifications(notifications);
+        LOGGER.info("Created {} notifications for group message", notifications.size());
+        ThreadContext.clearMap();
+    }
+
+    /**
+     * Persists a batch of notifications and pushes them to the recipients' WebSocket sessions.
+     * <p>
+     * The inserts are queued in the persistence context and sent as JDBC batches at flush time.
+     * The pushes are deferred until the surrounding transaction commits, so the transaction is not held open
+     * for one WebSocket round trip per recipient, and nothing is pushed if it rolls back.
+     * </p>
+     *
+     * @param notifications The notifications to create.
+     */
+    public void createNotifications(List<NotificationEntity> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        notificationDao.persistAll(notifications);
+        List<NotificationGetDto> notificationGetDtos = new ArrayList<>(notifications.size());
+        for (NotificationEntity notificationEntity : notifications) {
+            notificationGetDtos.add(convertEntityToDto(notificationEntity));
+        }
+        sendAfterCommit(notificationGetDtos);
+    }
+
+    /**
+     * Sends the notifications over WebSocket once the current transaction has committed,
+     * or immediately when there is no active transaction.
+     *
+     * @param notificationGetDtos The notifications to send.
+     */
+    private void sendAfterCommit(List<NotificationGetDto> notificationGetDtos) {
+        AfterCommit.run(transactionRegistry, () -> notificationGetDtos.forEach(GlobalWebSocket::tryToSendNotificationToUserSessions));
     }
 
 }
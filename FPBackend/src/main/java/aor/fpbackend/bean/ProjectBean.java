@@ -6,16 +6,16 @@ import aor.fpbackend.dto.Keyword.KeywordAddDto;
 import aor.fpbackend.dto.Keyword.KeywordCreateNewProjectDto;
 import aor.fpbackend.dto.Project.*;
 import aor.fpbackend.dto.Skill.SkillAddProjectDto;
-import aor.fpbackend.dto.Skill.SkillCreateNewProjectDto;
-import aor.fpbackend.dto.User.UsernameDto;
 import aor.fpbackend.entity.*;
 import aor.fpbackend.enums.*;
 import aor.fpbackend.exception.*;
+import aor.fpbackend.utils.GlobalSettings;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.SecurityContext;
 import jakarta.ws.rs.core.UriInfo;
 import org.apache.logging.log4j.LogManager;
@@ -24,6 +24,7 @@ import org.apache.logging.log4j.ThreadContext;
 import java.io.Serializable;
 import java.net.UnknownHostException;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -80,8 +81,16 @@ public class ProjectBean implements Serializable {
     @EJB
     ProjectLogDao projectLogDao;
     @EJB
+    ProjectLogWriterBean projectLogWriter;
+    @EJB
     ProjectMembershipDao projectMemberDao;
     @EJB
+    ProjectMembershipCacheBean projectMembershipCache;
+    @EJB
+    ProjectCatalogueBean projectCatalogue;
+    @EJB
+    ProjectSearchIndexBean projectSearchIndex;
+    @EJB
     UserBean userBean;
     @EJB
     SkillBean skillBean;
@@ -109,7 +118,7 @@ public class ProjectBean implements Serializable {
      *     <li>Retrieves the laboratory entity and validates existence.</li>
      *     <li>Checks for duplicate project name.</li>
      *     <li>Creates a new project entity and persists it.</li>
-     *     <li>Defines relations for users, skills, keywords, and assets.</li>
+     *     <li>Defines relations for users, skills, keywords, and assets in bulk.</li>
      *     <li>Logs the creation of the project.</li>
      * </ul>
      * <br>
@@ -145,9 +154,11 @@ public class ProjectBean implements Serializable {
             ProjectEntity projectEntity = new ProjectEntity();
             populateProjectEntity(projectCreateDto, projectEntity, user, laboratoryEntity);
             projectDao.persist(projectEntity);
+            projectCatalogue.invalidate();
 
-            ProjectEntity persistedProject = projectDao.findProjectByName(projectEntity.getName());
-            addRelationsToProject(projectCreateDto, persistedProject, user);
+            addRelationsToProject(projectCreateDto, projectEntity, user);
+
+            projectSearchIndex.update(projectEntity);
 
             String content = "Creation of " + projectEntity.getName();
             createProjectLog(projectEntity, user, LogTypeEnum.PROJECT_DATA, content);
@@ -248,65 +259,44 @@ public class ProjectBean implements Serializable {
     /**
      * Adds various relations (users, skills, keywords, assets) to the newly created project.
      * <br>
-     * This method performs the following steps:
+     * The relations are resolved in bulk, with one query per type whatever the size of the payload:
      * <ul>
-     *     <li>Adds the project creator to the project members.</li>
-     *     <li>Defines relations for project members (users) if provided.</li>
-     *     <li>Defines relations for project skills if provided.</li>
-     *     <li>Defines relations for project keywords if provided.</li>
-     *     <li>Defines relations for project assets if provided.</li>
+     *     <li>Adds the project creator and the given users to the project members, taking their slots at once.</li>
+     *     <li>Links the skills and keywords, inserting the missing ones with one statement per type.</li>
+     *     <li>Adds the project assets.</li>
      *     <li>Adds a default final task to the project.</li>
      * </ul>
+     * The project is not read again, and the memberships, links and project assets are inserted in JDBC batches
+     * when the transaction flushes.
      * </p>
      *
      * @param projectCreateDto the DTO containing project creation details.
      * @param projectEntity    the project entity to which relations are to be added.
      * @param userCreator      the user entity representing the creator of the project.
      * @throws EntityNotFoundException       if an entity related to the project is not found.
-     * @throws DuplicatedAttributeException  if there are duplicate attributes in the project relations.
-     * @throws UserNotFoundException         if a user related to the project is not found.
      * @throws InputValidationException      if there is an input validation error.
      * @throws ElementAssociationException   if there is an error in associating elements.
      * @throws UnknownHostException          if there is an unknown host exception.
-     * @throws DatabaseOperationException    if there is an error in the database operation.
      */
-    @Transactional
-    private void addRelationsToProject(ProjectCreateDto projectCreateDto, ProjectEntity projectEntity, UserEntity userCreator) throws EntityNotFoundException, DuplicatedAttributeException, UserNotFoundException, InputValidationException, ElementAssociationException, UnknownHostException, DatabaseOperationException {
-        // Add creator to project
-        memberBean.addUserToProject(userCreator.getUsername(), projectEntity.getId(), true, true, userCreator);
-        // Define relations for project members (Users)
-        if (projectCreateDto.getUsers() != null && !projectCreateDto.getUsers().isEmpty()) {
-            Set<String> usernames = projectCreateDto.getUsers().stream().map(UsernameDto::getUsername).collect(Collectors.toSet());
-            for (String username : usernames) {
-                memberBean.addUserToProject(username, projectEntity.getId(), true, false, userCreator);
-
-            }
+    private void addRelationsToProject(ProjectCreateDto projectCreateDto, ProjectEntity projectEntity, UserEntity userCreator) throws EntityNotFoundException, InputValidationException, ElementAssociationException, UnknownHostException {
+        // Define relations for project members (Users), the creator included
+        Set<String> usernames = new HashSet<>();
+        if (projectCreateDto.getUsers() != null) {
+            projectCreateDto.getUsers().forEach(user -> usernames.add(user.getUsername()));
         }
+        memberBean.addMembersToNewProject(projectEntity, userCreator, usernames);
         // Define relations for project Skills
         if (projectCreateDto.getSkills() != null && !projectCreateDto.getSkills().isEmpty()) {
-            Set<SkillCreateNewProjectDto> skills = projectCreateDto.getSkills().stream().collect(Collectors.toSet());
-            for (SkillCreateNewProjectDto skill : skills) {
-                String skillName = skill.getName();
-                SkillTypeEnum skillType = skill.getType();
-                skillBean.addSkillProject(skillName, skillType, projectEntity.getId());
-            }
+            projectEntity.getProjectSkills().addAll(skillBean.findOrCreateSkills(projectCreateDto.getSkills()));
         }
         // Define relations for project Keywords
         if (projectCreateDto.getKeywords() != null && !projectCreateDto.getKeywords().isEmpty()) {
-            Set<KeywordCreateNewProjectDto> keywords = projectCreateDto.getKeywords().stream().collect(Collectors.toSet());
-            for (KeywordCreateNewProjectDto keyword : keywords) {
-                String keywordName = keyword.getName();
-                keywordBean.addKeyword(keywordName, projectEntity.getId());
-            }
+            Set<String> keywordNames = projectCreateDto.getKeywords().stream().map(KeywordCreateNewProjectDto::getName).collect(Collectors.toSet());
+            projectEntity.getProjectKeywords().addAll(keywordBean.findOrCreateKeywords(keywordNames));
         }
         // Define relations for project ProjectAssets
         if (projectCreateDto.getAssets() != null && !projectCreateDto.getAssets().isEmpty()) {
-            Set<ProjectAssetCreateNewProjectDto> assets = projectCreateDto.getAssets().stream().collect(Collectors.toSet());
-            for (ProjectAssetCreateNewProjectDto asset : assets) {
-                String assetName = asset.getName();
-                int assetUsedQuantity = asset.getUsedQuantity();
-                assetBean.addProjectAssetToProject(assetName, projectEntity.getId(), assetUsedQuantity);
-            }
+            assetBean.addAssetsToNewProject(projectEntity, projectCreateDto.getAssets());
         }
         // Define default final Task
         String title = "Final Presentation nº" + projectEntity.getId();
@@ -316,34 +306,6 @@ public class ProjectBean implements Serializable {
         taskBean.addTask(title, description, plannedStartDate, plannedEndDate, userCreator.getId(), projectEntity.getId());
     }
 
-    /**
-     * Retrieves a list of all projects in the system.
-     * <br>
-     * This method fetches all project entities from the database and converts them into a list of
-     * {@link ProjectGetDto} objects for easier handling and presentation in the application layer.
-     * </p>
-     *
-     * @return an {@link ArrayList} of {@link ProjectGetDto} representing all projects in the system.
-     */
-    public ArrayList<ProjectGetDto> getAllProjects() {
-        try {
-            ArrayList<ProjectEntity> projects = projectDao.findAllProjects();
-            if (projects != null && !projects.isEmpty()) {
-                ArrayList<ProjectGetDto> projectDtos = convertProjectEntityListToProjectDtoList(projects);
-                LOGGER.info("Successfully fetched {} projects", projectDtos.size());
-                return projectDtos;
-            } else {
-                LOGGER.warn("No projects found in the database");
-                return new ArrayList<>();
-            }
-        } catch (Exception e) {
-            LOGGER.error("Error fetching projects: {}", e.getMessage());
-            return new ArrayList<>();
-        } finally {
-            ThreadContext.clearMap();
-        }
-    }
-
     /**
      * Retrieves the details of a specific project by its ID.
      * <br>
@@ -433,8 +395,9 @@ public class ProjectBean implements Serializable {
     /**
      * Retrieves a list of project logs for a specific project.
      * <p>
-     * This method fetches all log entries associated with the given project ID from the database,
-     * converts each log entry to a {@link ProjectLogGetDto} object, and returns the list of DTOs.
+     * The logs are read as {@link ProjectLogGetDto} projections with a single query, with the username and
+     * project name joined as columns, oldest first. Busy projects should be read with
+     * {@link #getProjectLogPage(long, Long, int, String, String, String)} instead.
      * </p>
      * <p>
      * Logging is performed to track the fetching process and any potential errors.
@@ -444,19 +407,8 @@ public class ProjectBean implements Serializable {
      * @return a list of {@link ProjectLogGetDto} representing the logs of the specified project.
      */
     public List<ProjectLogGetDto> getListProjectLogs(long projectId) {
-        List<ProjectLogEntity> projectLogEntities = projectLogDao.findProjectLogsByProjectId(projectId);
-        List<ProjectLogGetDto> projectLogGetDtos = new ArrayList<>();
         try {
-            for (ProjectLogEntity pl : projectLogEntities) {
-                ProjectLogGetDto projectLogDto = new ProjectLogGetDto();
-                projectLogDto.setId(pl.getId());
-                projectLogDto.setCreationDate(pl.getCreationDate());
-                projectLogDto.setContent(pl.getContent());
-                projectLogDto.setType(pl.getType());
-                projectLogDto.setUsername(pl.getUser().getUsername());
-                projectLogDto.setProjectName(pl.getProject().getName());
-                projectLogGetDtos.add(projectLogDto);
-            }
+            List<ProjectLogGetDto> projectLogGetDtos = projectLogDao.findProjectLogDtosByProjectId(projectId);
             LOGGER.info("Successfully fetched {} project logs for project ID: {}", projectLogGetDtos.size(), projectId);
             return projectLogGetDtos;
         } catch (Exception e) {
@@ -467,6 +419,70 @@ public class ProjectBean implements Serializable {
         }
     }
 
+    /**
+     * Retrieves one page of the logs of a project, newest first, using keyset pagination on (creationDate, id).
+     * <p>
+     * Without a cursor the most recent logs are returned. With a cursor, the logs created before the cursor log
+     * are returned, so the ID of the last log of a page is the cursor of the next (older) page. The page is read
+     * with a single query on the (project_id, creation_date) index, plus one to locate the cursor.
+     * </p>
+     *
+     * @param projectId   the ID of the project.
+     * @param beforeLogId the ID of the oldest log already loaded by the client, or null for the latest page.
+     * @param limit       the requested page size; non-positive values use the default page size.
+     * @param type        the log type to keep, or null for every type.
+     * @param from        the earliest creation date to keep, as an ISO-8601 instant, or null.
+     * @param to          the creation date to stop at (exclusive), as an ISO-8601 instant, or null.
+     * @return a ProjectLogPageDto with the logs and whether older logs exist.
+     * @throws InputValidationException if the type or a date is invalid, or the date range is empty.
+     * @throws EntityNotFoundException  if the cursor log does not exist in the project.
+     */
+    public ProjectLogPageDto getProjectLogPage(long projectId, Long beforeLogId, int limit, String type, String from, String to) throws InputValidationException, EntityNotFoundException {
+        LogTypeEnum logType = parseLogType(type);
+        Instant fromDate = parseLogDate(from, "from");
+        Instant toDate = parseLogDate(to, "to");
+        if (fromDate != null && toDate != null && !fromDate.isBefore(toDate)) {
+            throw new InputValidationException("The 'from' date must be before the 'to' date");
+        }
+        Instant cursorDate = null;
+        long cursorId = 0;
+        if (beforeLogId != null) {
+            cursorDate = projectLogDao.findProjectLogCreationDate(projectId, beforeLogId);
+            if (cursorDate == null) {
+                throw new EntityNotFoundException("Log not found in project");
+            }
+            cursorId = beforeLogId;
+        }
+        int pageSize = limit <= 0 ? GlobalSettings.PROJECT_LOG_PAGE_SIZE : Math.min(limit, GlobalSettings.PROJECT_LOG_MAX_PAGE_SIZE);
+        // One extra row is fetched to know whether there is another page
+        List<ProjectLogGetDto> projectLogGetDtos = projectLogDao.findProjectLogPage(projectId, logType, fromDate, toDate, cursorDate, cursorId, pageSize + 1);
+        boolean hasMore = projectLogGetDtos.size() > pageSize;
+        List<ProjectLogGetDto> page = new ArrayList<>(projectLogGetDtos.subList(0, Math.min(pageSize, projectLogGetDtos.size())));
+        return new ProjectLogPageDto(page, hasMore);
+    }
+
+    private LogTypeEnum parseLogType(String type) throws InputValidationException {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return LogTypeEnum.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InputValidationException("Invalid log type: " + type);
+        }
+    }
+
+    private Instant parseLogDate(String date, String name) throws InputValidationException {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(date.trim());
+        } catch (DateTimeParseException e) {
+            throw new InputValidationException("Invalid '" + name + "' date: " + date);
+        }
+    }
+
     /**
      * Approves or rejects a project based on the provided approval DTO.
      * <p>
@@ -499,6 +515,7 @@ public class ProjectBean implements Serializable {
             throw new IllegalStateException("Project is not in READY state");
         }
         try {
+            projectCatalogue.invalidate();
             String comment;
             if (projectApproveDto.isConfirm()) {
                 projectEntity.setApproved(true);
@@ -526,6 +543,8 @@ public class ProjectBean implements Serializable {
      * <p>
      * This method validates the pagination parameters, retrieves the filtered projects from the database,
      * converts them to DTOs, and returns a paginated response containing the project DTOs and total project count.
+     * The text criteria are first resolved to a set of project IDs by the {@link ProjectSearchIndexBean}. A "search"
+     * request without explicit sorting is ordered by relevance, and paged in memory over the ranked IDs.
      * </p>
      *
      * @param page the page number to retrieve, must be greater than 0.
@@ -544,9 +563,18 @@ public class ProjectBean implements Serializable {
             throw new InputValidationException("Page size must be greater than 0.");
         }
         try {
-            List<ProjectEntity> projectEntities = projectDao.findFilteredProjects(page, pageSize, uriInfo);
-            long totalProjects = projectDao.countFilteredProjects(uriInfo);
-            List<ProjectGetDto> projectGetDtos = convertProjectEntityListToProjectDtoList(new ArrayList<>(projectEntities));
+            MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
+            List<Long> matchingIds = projectSearchIndex.resolveTextCriteria(queryParameters);
+            if (matchingIds != null && matchingIds.isEmpty()) {
+                return new ProjectPaginatedDto(new ArrayList<>(), 0);
+            }
+            String search = queryParameters.getFirst(QueryParams.SEARCH);
+            String sortBy = queryParameters.getFirst(QueryParams.SORT_BY);
+            if (search != null && !search.isBlank() && (sortBy == null || sortBy.isEmpty())) {
+                return getProjectsByRelevance(page, pageSize, uriInfo, matchingIds);
+            }
+            List<ProjectGetDto> projectGetDtos = addProjectMembers(projectDao.findFilteredProjects(page, pageSize, uriInfo, matchingIds));
+            long totalProjects = projectDao.countFilteredProjects(uriInfo, matchingIds);
             LOGGER.info("Successfully retrieved {} projects for page: {}", projectGetDtos.size(), page);
             return new ProjectPaginatedDto(projectGetDtos, totalProjects);
         } catch (Exception e) {
@@ -557,6 +585,39 @@ public class ProjectBean implements Serializable {
         }
     }
 
+    /**
+     * Pages the projects matching a text search, ordered by relevance.
+     * <p>
+     * The structured criteria are applied by the database to the IDs ranked by the search index, and the page is
+     * cut from the ranked IDs that remain before its projects are read.
+     * </p>
+     *
+     * @param page        the page number, starting at 1.
+     * @param pageSize    the number of projects per page.
+     * @param uriInfo     the structured filter criteria.
+     * @param rankedIds   the IDs matching the text criteria, best match first.
+     * @return the projects of the page and the total number of matches.
+     */
+    private ProjectPaginatedDto getProjectsByRelevance(int page, int pageSize, UriInfo uriInfo, List<Long> rankedIds) {
+        Set<Long> filteredIds = new HashSet<>(projectDao.findFilteredProjectIds(uriInfo, rankedIds));
+        List<Long> matches = rankedIds.stream().filter(filteredIds::contains).collect(Collectors.toList());
+        int from = (int) Math.min((long) (page - 1) * pageSize, matches.size());
+        List<Long> pageIds = matches.subList(from, Math.min(from + pageSize, matches.size()));
+        Map<Long, ProjectGetDto> projectsById = new HashMap<>();
+        for (ProjectGetDto projectGetDto : projectDao.findProjectDtosByIds(pageIds)) {
+            projectsById.put(projectGetDto.getId(), projectGetDto);
+        }
+        List<ProjectGetDto> projectGetDtos = new ArrayList<>();
+        for (Long projectId : pageIds) {
+            ProjectGetDto projectGetDto = projectsById.get(projectId);
+            if (projectGetDto != null) {
+                projectGetDtos.add(projectGetDto);
+            }
+        }
+        LOGGER.info("Successfully retrieved {} projects by relevance for page: {}", projectGetDtos.size(), page);
+        return new ProjectPaginatedDto(addProjectMembers(projectGetDtos), matches.size());
+    }
+
     /**
      * Updates the role of a project member.
      * <p>
@@ -606,6 +667,8 @@ public class ProjectBean implements Serializable {
         try {
             projectMembershipEntity.setRole(projectRoleUpdateDto.getNewRole());
             projectMemberDao.merge(projectMembershipEntity);
+            projectMembershipCache.invalidate(projectId, userEntity.getId());
+            projectCatalogue.invalidate();
             String content = "User: " + userEntity.getUsername() + " has new project role: " + projectRoleUpdateDto.getNewRole();
             createProjectLog(projectEntity, authUserEntity, LogTypeEnum.PROJECT_MEMBERS, content);
         } catch (PersistenceException e) {
@@ -679,6 +742,7 @@ public class ProjectBean implements Serializable {
         }
         // Save the original state of the project
         ProjectEntity originalProject = copyProjectEntity(projectEntity);
+        projectCatalogue.invalidate();
         // Update fields
         projectEntity.setName(projectUpdateDto.getName());
         projectEntity.setDescription(projectUpdateDto.getDescription());
@@ -710,6 +774,7 @@ public class ProjectBean implements Serializable {
                 }
             }
         }
+        projectSearchIndex.update(projectEntity);
         // Compare old and new project states and create project logs
         compareAndLogChanges(originalProject, projectEntity, userEntity);
     }
@@ -791,6 +856,8 @@ public class ProjectBean implements Serializable {
 
     /**
      * Creates a project log entry for the given project, user, log type, and content.
+     * The entry is handed to the {@link ProjectLogWriterBean} with the default delivery, so it is inserted
+     * in a batch after the transaction commits.
      *
      * @param projectEntity The project entity for which the log is created.
      * @param userEntity    The user entity who performed the action.
@@ -801,14 +868,7 @@ public class ProjectBean implements Serializable {
     @Transactional
     public void createProjectLog(ProjectEntity projectEntity, UserEntity userEntity, LogTypeEnum type, String content)  {
         try{
-            ProjectLogEntity projectLogEntity = new ProjectLogEntity();
-            projectLogEntity.setProject(projectEntity);
-            projectLogEntity.setUser(userEntity);
-            projectLogEntity.setCreationDate(Instant.now());
-            projectLogEntity.setType(type);
-            projectLogEntity.setContent(content);
-            projectLogDao.persist(projectLogEntity);
-            projectEntity.getProjectLogs().add(projectLogEntity);
+            projectLogWriter.write(projectEntity, userEntity, type, content);
             LOGGER.info("Project log created successfully: {}", content);
         } catch (PersistenceException e) {
             LOGGER.error("Error creating project log: {}", e.getMessage());
@@ -840,14 +900,8 @@ public class ProjectBean implements Serializable {
             throw new EntityNotFoundException("User not found");
         }
         try{
-            ProjectLogEntity projectLogEntity = new ProjectLogEntity();
-            projectLogEntity.setProject(projectEntity);
-            projectLogEntity.setUser(authUserEntity);
-            projectLogEntity.setCreationDate(Instant.now());
-            projectLogEntity.setType(LogTypeEnum.MANUAL_ENTRY);
-            projectLogEntity.setContent(createProjectLogDto.getContent());
-            projectLogDao.persist(projectLogEntity);
-            projectEntity.getProjectLogs().add(projectLogEntity);
+            // A manual entry is what the request is about, so it commits with it and is visible right away
+            projectLogWriter.write(projectEntity, authUserEntity, LogTypeEnum.MANUAL_ENTRY, createProjectLogDto.getContent(), ProjectLogDeliveryEnum.SAME_TRANSACTION);
             LOGGER.info("Project log created successfully: {}", createProjectLogDto.getContent());
         } catch (PersistenceException e) {
             LOGGER.error("Error creating project log: {}", e.getMessage());
@@ -887,23 +941,30 @@ public class ProjectBean implements Serializable {
     }
 
     /**
-     * Converts a list of ProjectEntity objects to a list of ProjectGetDto objects.
+     * Fills the members of project projections with a single query for all of them.
      * <p>
-     * This method iterates over the provided list of ProjectEntity objects, converting each
-     * ProjectEntity to a ProjectGetDto using {@link #convertProjectEntityToProjectDto(ProjectEntity)}.
-     * It returns an ArrayList containing all converted ProjectGetDto objects.
+     * The memberships of every project in the list are fetched with one {@code IN} query and grouped by project
+     * in memory, instead of loading the members collection of each project entity.
      * </p>
      *
-     * @param projectEntities The ArrayList of ProjectEntity objects to convert.
-     * @return An ArrayList of ProjectGetDto objects populated with data from the ProjectEntity objects.
+     * @param projectDtos the projects, as returned by the projection queries of {@link ProjectDao}.
+     * @return the same list, with the members of each project set.
      */
-    public ArrayList<ProjectGetDto> convertProjectEntityListToProjectDtoList(ArrayList<ProjectEntity> projectEntities) {
-        ArrayList<ProjectGetDto> projectGetDtos = new ArrayList<>();
-        for (ProjectEntity p : projectEntities) {
-            ProjectGetDto projectGetDto = convertProjectEntityToProjectDto(p);
-            projectGetDtos.add(projectGetDto);
+    public List<ProjectGetDto> addProjectMembers(List<ProjectGetDto> projectDtos) {
+        if (projectDtos.isEmpty()) {
+            return projectDtos;
+        }
+        Map<Long, List<ProjectMembershipDto>> membersByProject = new HashMap<>();
+        for (ProjectGetDto projectDto : projectDtos) {
+            membersByProject.put(projectDto.getId(), new ArrayList<>());
+        }
+        for (ProjectMembershipDto membership : projectMemberDao.getUsersByProjects(membersByProject.keySet())) {
+            membersByProject.get(membership.getProjectId()).add(membership);
+        }
+        for (ProjectGetDto projectDto : projectDtos) {
+            projectDto.setMembers(membersByProject.get(projectDto.getId()));
         }
-        return projectGetDtos;
+        return projectDtos;
     }
 
     /**
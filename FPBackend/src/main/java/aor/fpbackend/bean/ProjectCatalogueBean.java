@@ -0,0 +1,117 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectDao;
+import aor.fpbackend.dto.Project.ProjectGetDto;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.ProjectCatalogue;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ProjectCatalogueBean is a singleton EJB that keeps the public project catalogue in memory.
+ * <br>
+ * The catalogue is every project with its laboratory, creator and members, as served by "GET /projects/all". It
+ * is built once, with the projection queries of {@link ProjectDao} and {@link ProjectBean#addProjectMembers(List)},
+ * and then served from memory until it is invalidated. Each build gets a new version, and with it a new entity
+ * tag, so clients can revalidate their copy with "If-None-Match".
+ * <br>
+ * Every code path that creates or changes a project, a membership or a laboratory must call
+ * {@link #invalidate()}. The catalogue is dropped when the current transaction commits, so a concurrent rebuild
+ * never reads the state from before the change. Changes made elsewhere, such as a member renaming their
+ * account, are picked up once the catalogue is older than {@link GlobalSettings#PROJECT_CATALOGUE_MAX_AGE_MILLIS}.
+ * <br>
+ * Concurrency is bean managed: reads only touch a volatile field, and a single thread rebuilds the catalogue
+ * while the others wait for it.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ProjectCatalogueBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(ProjectCatalogueBean.class);
+
+    @EJB
+    ProjectDao projectDao;
+    @EJB
+    ProjectBean projectBean;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    // Distinguishes the tags of this run from the tags handed out before a restart
+    private final String instanceTag = Long.toHexString(System.currentTimeMillis());
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final Object versionLock = new Object();
+    private long version = 0;
+    private volatile ProjectCatalogue catalogue;
+    private volatile long builtAt;
+
+    /**
+     * Returns the current catalogue, building it if it was invalidated or is too old.
+     *
+     * @return the current catalogue.
+     */
+    public ProjectCatalogue getCatalogue() {
+        ProjectCatalogue current = catalogue;
+        if (current != null && !isExpired()) {
+            return current;
+        }
+        buildLock.lock();
+        try {
+            current = catalogue;
+            if (current != null && !isExpired()) {
+                return current;
+            }
+            return build();
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the catalogue once the current transaction commits, or immediately when there is no transaction.
+     */
+    public void invalidate() {
+        AfterCommit.run(transactionRegistry, this::drop);
+    }
+
+    private ProjectCatalogue build() {
+        long buildVersion;
+        synchronized (versionLock) {
+            buildVersion = ++version;
+        }
+        long start = System.nanoTime();
+        List<ProjectGetDto> projects = projectBean.addProjectMembers(projectDao.findAllProjectDtos());
+        ProjectCatalogue built = new ProjectCatalogue(buildVersion, instanceTag + "-" + buildVersion, projects);
+        synchronized (versionLock) {
+            // An invalidation during the build means the rows read may already be outdated
+            if (version == buildVersion) {
+                catalogue = built;
+                builtAt = System.currentTimeMillis();
+            }
+        }
+        LOGGER.info("Project catalogue version {} built with {} projects in {} ms", buildVersion, projects.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private void drop() {
+        synchronized (versionLock) {
+            version++;
+            catalogue = null;
+        }
+    }
+
+    private boolean isExpired() {
+        return System.currentTimeMillis() - builtAt > GlobalSettings.PROJECT_CATALOGUE_MAX_AGE_MILLIS;
+    }
+}
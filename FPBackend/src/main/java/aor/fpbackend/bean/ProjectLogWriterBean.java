@@ -0,0 +1,194 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectLogDao;
+import aor.fpbackend.entity.ProjectEntity;
+import aor.fpbackend.entity.UserEntity;
+import aor.fpbackend.enums.LogTypeEnum;
+import aor.fpbackend.enums.ProjectLogDeliveryEnum;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.ProjectLogEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ProjectLogWriterBean is a singleton EJB that writes the project logs.
+ * <br>
+ * Writing a log only records the IDs, type, content and time of the entry; neither the project nor the user is
+ * loaded, and the log collection of the project is never touched. How the log reaches the database depends on its
+ * {@link ProjectLogDeliveryEnum delivery}:
+ * <ul>
+ *     <li>SAME_TRANSACTION: the log is persisted in the caller's transaction and inserted with the other
+ *     statements of that transaction when it flushes.</li>
+ *     <li>AFTER_COMMIT: the log is buffered with the transaction. When the transaction commits, its logs join
+ *     an in-memory queue; they are dropped if it rolls back. Every second the queue is inserted in JDBC batches,
+ *     each batch in its own transaction.</li>
+ * </ul>
+ * A batch that fails is retried one log at a time, so one bad log does not block the others. When every log of a
+ * batch fails the database is taken to be unavailable and the batch is queued again, up to
+ * {@link GlobalSettings#PROJECT_LOG_MAX_FAILED_ATTEMPTS} times. Logs that are dropped are written to the
+ * application log with their content.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ProjectLogWriterBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(ProjectLogWriterBean.class);
+    private static final String PENDING_LOGS = ProjectLogWriterBean.class.getName() + ".pendingLogs";
+
+    @EJB
+    ProjectLogDao projectLogDao;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    private final LinkedBlockingDeque<ProjectLogEvent> queue = new LinkedBlockingDeque<>(GlobalSettings.PROJECT_LOG_QUEUE_CAPACITY);
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+
+    /**
+     * Writes a project log with the default delivery ({@link GlobalSettings#PROJECT_LOG_DELIVERY}).
+     *
+     * @param projectEntity the project the log belongs to.
+     * @param userEntity    the user the log is attributed to.
+     * @param type          the type of the log.
+     * @param content       the content of the log.
+     */
+    public void write(ProjectEntity projectEntity, UserEntity userEntity, LogTypeEnum type, String content) {
+        write(projectEntity, userEntity, type, content, GlobalSettings.PROJECT_LOG_DELIVERY);
+    }
+
+    /**
+     * Writes a project log.
+     *
+     * @param projectEntity the project the log belongs to.
+     * @param userEntity    the user the log is attributed to.
+     * @param type          the type of the log.
+     * @param content       the content of the log.
+     * @param delivery      when the log must reach the database.
+     */
+    public void write(ProjectEntity projectEntity, UserEntity userEntity, LogTypeEnum type, String content, ProjectLogDeliveryEnum delivery) {
+        ProjectLogEvent event = new ProjectLogEvent(projectEntity.getId(), userEntity.getId(), type, content, Instant.now());
+        if (delivery == ProjectLogDeliveryEnum.SAME_TRANSACTION || !AfterCommit.inTransaction(transactionRegistry)) {
+            // Without a transaction the DAO call runs in its own one, which is the earliest "after commit"
+            projectLogDao.insertLogs(List.of(event));
+            return;
+        }
+        List<ProjectLogEvent> pending =
+                AfterCommit.buffer(transactionRegistry, PENDING_LOGS, ArrayList::new, this::enqueue);
+        pending.add(event);
+    }
+
+    /**
+     * Inserts the queued logs in batches of {@link GlobalSettings#PROJECT_LOG_ID_ALLOCATION_SIZE}, each batch in
+     * its own transaction, until the queue is empty or the database is unavailable.
+     *
+     * @return the number of logs inserted, or 0 if a flush was already running.
+     */
+    @Schedule(hour = "*", minute = "*", second = "*", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public int flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return 0;
+        }
+        int inserted = 0;
+        try {
+            List<ProjectLogEvent> batch = new ArrayList<>(GlobalSettings.PROJECT_LOG_ID_ALLOCATION_SIZE);
+            while (queue.drainTo(batch, GlobalSettings.PROJECT_LOG_ID_ALLOCATION_SIZE) > 0) {
+                int batchInserted = insertBatch(batch);
+                if (batchInserted < 0) {
+                    requeue(batch);
+                    break;
+                }
+                inserted += batchInserted;
+                batch.clear();
+            }
+        } finally {
+            flushing.set(false);
+        }
+        if (inserted > 0) {
+            LOGGER.debug("Inserted {} project logs", inserted);
+        }
+        return inserted;
+    }
+
+    /**
+     * Moves the project log id generator past the existing rows. Called once at startup.
+     */
+    public void alignIdGenerator() {
+        projectLogDao.alignIdGenerator(GlobalSettings.PROJECT_LOG_ID_ALLOCATION_SIZE);
+    }
+
+    /**
+     * Inserts the logs still queued when the application stops.
+     */
+    @PreDestroy
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void flushOnShutdown() {
+        flush();
+        if (!queue.isEmpty()) {
+            LOGGER.error("{} project logs could not be inserted before shutdown", queue.size());
+            queue.forEach(event -> LOGGER.error("Project log lost: {}", event));
+        }
+    }
+
+    private void enqueue(List<ProjectLogEvent> events) {
+        for (ProjectLogEvent event : events) {
+            if (!queue.offerLast(event)) {
+                LOGGER.error("Project log queue full, log dropped: {}", event);
+            }
+        }
+    }
+
+    /**
+     * Inserts a batch in one transaction, or one log at a time if the batch fails.
+     *
+     * @return the number of logs inserted, or -1 if none could be inserted.
+     */
+    private int insertBatch(List<ProjectLogEvent> batch) {
+        try {
+            projectLogDao.insertLogs(batch);
+            return batch.size();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Project log batch of {} failed, inserting one by one: {}", batch.size(), e.getMessage());
+        }
+        List<ProjectLogEvent> failed = new ArrayList<>();
+        for (ProjectLogEvent event : batch) {
+            try {
+                projectLogDao.insertLogs(List.of(event));
+            } catch (RuntimeException e) {
+                failed.add(event);
+            }
+        }
+        if (failed.size() == batch.size()) {
+            return -1;
+        }
+        failed.forEach(event -> LOGGER.error("Project log rejected by the database, dropped: {}", event));
+        return batch.size() - failed.size();
+    }
+
+    private void requeue(List<ProjectLogEvent> batch) {
+        // Back at the head of the queue, in their original order
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            ProjectLogEvent event = batch.get(i);
+            if (event.recordFailedAttempt() >= GlobalSettings.PROJECT_LOG_MAX_FAILED_ATTEMPTS || !queue.offerFirst(event)) {
+                LOGGER.error("Project log could not be inserted, dropped: {}", event);
+            }
+        }
+    }
+}
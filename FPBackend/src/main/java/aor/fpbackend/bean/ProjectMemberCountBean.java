@@ -0,0 +1,56 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectDao;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ProjectMemberCountBean is a singleton EJB that repairs the member count of the projects.
+ * <br>
+ * The "member_count" column of a project is kept by MembershipBean with conditional updates, taking a slot when a
+ * membership is created and giving it back when one is removed. Memberships written by any other path (manual
+ * fixes, imports, rows created before the column existed) leave the count behind. At startup and once per night,
+ * this bean sets the count of every project that drifted to its actual number of memberships.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ProjectMemberCountBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(ProjectMemberCountBean.class);
+
+    @EJB
+    ProjectDao projectDao;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Sets the member count of every project to its number of memberships, pending ones included.
+     *
+     * @return the number of projects whose count was wrong, or 0 if a repair was already running.
+     */
+    @Schedule(hour = "3", minute = "45", persistent = false)
+    public int reconcileMemberCounts() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            int corrected = projectDao.reconcileMemberCounts();
+            if (corrected > 0) {
+                LOGGER.warn("Member count repaired for {} projects", corrected);
+            } else {
+                LOGGER.info("Member counts checked, no drift found");
+            }
+            return corrected;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectMembershipDao;
+import aor.fpbackend.entity.ProjectMembershipEntity;
+import aor.fpbackend.enums.ProjectRoleEnum;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.GlobalSettings;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProjectMembershipCacheBean is a singleton EJB that caches the project role of a user, keyed by
+ * (projectId, userId), so that the project permission checks of the authorization filter, the group chat
+ * WebSocket and the task validations do not query the project_membership table on every call.
+ * <br>
+ * Only accepted memberships count: a pending invitation or join request is cached as "not a member".
+ * Negative results are cached too, since most repeated checks come from the same few users and projects.
+ * <br>
+ * Every code path that creates, accepts, removes or changes the role of a membership must call
+ * {@link #invalidate(long, long)}. The entry is removed once the transaction commits, and a check that read the
+ * old row before the commit does not store it, since every invalidation also counts against the project.
+ * Entries also expire after
+ * {@link GlobalSettings#MEMBERSHIP_CACHE_TTL_MILLIS}.
+ * <br>
+ * Concurrency is bean managed: the backing map is a {@link ConcurrentHashMap}, so lookups never wait on a
+ * container lock.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ProjectMembershipCacheBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(ProjectMembershipCacheBean.class);
+
+    @EJB
+    ProjectMembershipDao projectMembershipDao;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    private final Map<MembershipKey, CachedMembership> cache = new ConcurrentHashMap<>();
+    // Incremented by every committed invalidation of a project, so that a membership of it read meanwhile is not
+    // cached. Never reset, since a counter going back to null during a load would hide the invalidations it counted.
+    private final Map<Long, Long> invalidations = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the role of the user in the project, loading it from the database on a cache miss.
+     *
+     * @param projectId the ID of the project.
+     * @param userId    the ID of the user.
+     * @return the role of the accepted membership, or null if the user is not a member of the project.
+     */
+    public ProjectRoleEnum getRole(long projectId, long userId) {
+        MembershipKey key = new MembershipKey(projectId, userId);
+        long now = System.currentTimeMillis();
+        CachedMembership cached = cache.get(key);
+        if (cached != null && !cached.isExpired(now)) {
+            return cached.role;
+        }
+        Long invalidationsBeforeLoad = invalidations.get(projectId);
+        ProjectMembershipEntity membership = projectMembershipDao.findProjectMembershipByUserIdAndProjectId(projectId, userId);
+        ProjectRoleEnum role = membership != null ? membership.getRole() : null;
+        if (cache.size() >= GlobalSettings.MEMBERSHIP_CACHE_MAX_ENTRIES) {
+            makeRoom(now);
+        }
+        CachedMembership loaded = new CachedMembership(role, now + GlobalSettings.MEMBERSHIP_CACHE_TTL_MILLIS);
+        // Checked under the map entry, so an invalidation either removes the new entry or is seen by this check
+        cache.compute(key, (k, current) ->
+                Objects.equals(invalidations.get(projectId), invalidationsBeforeLoad) ? loaded : current);
+        return role;
+    }
+
+    public boolean isMember(long projectId, long userId) {
+        return getRole(projectId, userId) != null;
+    }
+
+    public boolean hasRole(long projectId, long userId, ProjectRoleEnum role) {
+        return role != null && role == getRole(projectId, userId);
+    }
+
+    /**
+     * Removes the cached membership of the user in the project, after it was created, accepted, removed or updated.
+     * The entry is removed once the current transaction commits, or immediately when there is no transaction.
+     *
+     * @param projectId the ID of the project.
+     * @param userId    the ID of the user.
+     */
+    public void invalidate(long projectId, long userId) {
+        MembershipKey key = new MembershipKey(projectId, userId);
+        AfterCommit.run(transactionRegistry, () -> {
+            invalidations.merge(projectId, 1L, Long::sum);
+            cache.remove(key);
+        });
+    }
+
+    /**
+     * Removes every cached membership of the given project once the current transaction commits.
+     *
+     * @param projectId the ID of the project.
+     */
+    public void invalidateProject(long projectId) {
+        AfterCommit.run(transactionRegistry, () -> {
+            invalidations.merge(projectId, 1L, Long::sum);
+            cache.keySet().removeIf(key -> key.projectId == projectId);
+        });
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Periodically drops the entries that are past their expiration.
+     */
+    @Schedule(hour = "*", minute = "*/5", persistent = false)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = cache.size();
+        cache.values().removeIf(cached -> cached.isExpired(now));
+        int evicted = before - cache.size();
+        if (evicted > 0) {
+            LOGGER.debug("Evicted {} expired project membership cache entries", evicted);
+        }
+    }
+
+    private void makeRoom(long now) {
+        cache.values().removeIf(cached -> cached.isExpired(now));
+        if (cache.size() >= GlobalSettings.MEMBERSHIP_CACHE_MAX_ENTRIES) {
+            LOGGER.warn("Project membership cache is full, clearing {} entries", cache.size());
+            cache.clear();
+        }
+    }
+
+    private record MembershipKey(long projectId, long userId) implements Serializable {
+    }
+
+    private static final class CachedMembership implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final ProjectRoleEnum role;
+        private final long expiresAt;
+
+        private CachedMembership(ProjectRoleEnum role, long expiresAt) {
+            this.role = role;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
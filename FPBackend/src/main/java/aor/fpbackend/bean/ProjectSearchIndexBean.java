@@ -0,0 +1,204 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectDao;
+import aor.fpbackend.entity.KeywordEntity;
+import aor.fpbackend.entity.ProjectEntity;
+import aor.fpbackend.entity.SkillEntity;
+import aor.fpbackend.enums.ProjectSearchFieldEnum;
+import aor.fpbackend.enums.QueryParams;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.InvertedIndex;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * ProjectSearchIndexBean is a singleton EJB that keeps the full-text search index of the projects.
+ * <br>
+ * The name, description, motivation, keywords and skills of every project are held in an {@link InvertedIndex},
+ * so the text criteria of the project filter are resolved to a ranked list of project IDs in memory instead of
+ * with "LIKE '%term%'" joins the database cannot index.
+ * <br>
+ * The index is built from the database at startup and rebuilt once a day. In between, every code path that
+ * changes an indexed field must call {@link #update(ProjectEntity)} with the modified entity. The new contents
+ * are captured at the call and applied when the transaction commits, once per project and transaction.
+ * <br>
+ * Concurrency is bean managed: the index synchronizes internally, and a rebuild swaps in a complete new index.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ProjectSearchIndexBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(ProjectSearchIndexBean.class);
+    private static final String PENDING_UPDATES = ProjectSearchIndexBean.class.getName() + ".pendingUpdates";
+
+    @EJB
+    ProjectDao projectDao;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    private final Object swapLock = new Object();
+    private volatile InvertedIndex<ProjectSearchFieldEnum> index = createIndex();
+    // Updates committed while a rebuild reads the database, replayed on the new index before it is swapped in
+    private Map<Long, Map<ProjectSearchFieldEnum, String>> updatesDuringRebuild;
+
+    /**
+     * Reindexes a project once the current transaction commits, or immediately when there is no transaction.
+     *
+     * @param projectEntity the project, with its keywords and skills, as it will be committed.
+     */
+    public void update(ProjectEntity projectEntity) {
+        Map<ProjectSearchFieldEnum, String> contents = toContents(projectEntity);
+        if (!AfterCommit.inTransaction(transactionRegistry)) {
+            apply(Map.of(projectEntity.getId(), contents));
+            return;
+        }
+        Map<Long, Map<ProjectSearchFieldEnum, String>> pending =
+                AfterCommit.buffer(transactionRegistry, PENDING_UPDATES, HashMap::new, this::apply);
+        pending.put(projectEntity.getId(), contents);
+    }
+
+    /**
+     * Resolves the text criteria of a project filter request to the IDs of the matching projects.
+     * <br>
+     * "name", "keywords" and "skills" search their own field; "search" searches every field. When several are
+     * given, a project must match all of them.
+     *
+     * @param queryParameters the query parameters of the filter request.
+     * @return the IDs of the matching projects, best match of "search" (or of the first criterion) first,
+     * or null if the request has no text criteria.
+     */
+    public List<Long> resolveTextCriteria(MultivaluedMap<String, String> queryParameters) {
+        Map<String, Set<ProjectSearchFieldEnum>> criteria = new LinkedHashMap<>();
+        criteria.put(QueryParams.SEARCH, EnumSet.allOf(ProjectSearchFieldEnum.class));
+        criteria.put(QueryParams.NAME, EnumSet.of(ProjectSearchFieldEnum.NAME));
+        criteria.put(QueryParams.KEYWORDS, EnumSet.of(ProjectSearchFieldEnum.KEYWORDS));
+        criteria.put(QueryParams.SKILLS, EnumSet.of(ProjectSearchFieldEnum.SKILLS));
+        List<Long> matches = null;
+        for (Map.Entry<String, Set<ProjectSearchFieldEnum>> criterion : criteria.entrySet()) {
+            String text = queryParameters.getFirst(criterion.getKey());
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            List<Long> criterionMatches = search(text, criterion.getValue());
+            if (matches == null) {
+                matches = criterionMatches;
+            } else {
+                matches.retainAll(new HashSet<>(criterionMatches));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Searches the given fields of every project.
+     *
+     * @param text   the query text.
+     * @param fields the fields to search.
+     * @return the IDs of the projects matching every word of the text, best match first.
+     */
+    public List<Long> search(String text, Set<ProjectSearchFieldEnum> fields) {
+        return index.search(text, fields);
+    }
+
+    /**
+     * Rebuilds the whole index from the database with three queries.
+     */
+    @Schedule(hour = "4", minute = "15", persistent = false)
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (swapLock) {
+            updatesDuringRebuild = new HashMap<>();
+        }
+        InvertedIndex<ProjectSearchFieldEnum> rebuilt = createIndex();
+        try {
+            Map<Long, Map<ProjectSearchFieldEnum, String>> documents = new HashMap<>();
+            for (Object[] row : projectDao.findSearchDocuments()) {
+                Map<ProjectSearchFieldEnum, String> contents = new EnumMap<>(ProjectSearchFieldEnum.class);
+                contents.put(ProjectSearchFieldEnum.NAME, (String) row[1]);
+                contents.put(ProjectSearchFieldEnum.DESCRIPTION, (String) row[2]);
+                contents.put(ProjectSearchFieldEnum.MOTIVATION, (String) row[3]);
+                documents.put((Long) row[0], contents);
+            }
+            appendNames(documents, projectDao.findKeywordNamesByProject(), ProjectSearchFieldEnum.KEYWORDS);
+            appendNames(documents, projectDao.findSkillNamesByProject(), ProjectSearchFieldEnum.SKILLS);
+            for (Map.Entry<Long, Map<ProjectSearchFieldEnum, String>> document : documents.entrySet()) {
+                rebuilt.put(document.getKey(), document.getValue());
+            }
+        } catch (RuntimeException e) {
+            synchronized (swapLock) {
+                updatesDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (swapLock) {
+            updatesDuringRebuild.forEach(rebuilt::put);
+            updatesDuringRebuild = null;
+            index = rebuilt;
+        }
+        LOGGER.info("Project search index rebuilt with {} projects in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void apply(Map<Long, Map<ProjectSearchFieldEnum, String>> updates) {
+        synchronized (swapLock) {
+            updates.forEach(index::put);
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.putAll(updates);
+            }
+        }
+    }
+
+    private static void appendNames(Map<Long, Map<ProjectSearchFieldEnum, String>> documents, List<Object[]> rows, ProjectSearchFieldEnum field) {
+        for (Object[] row : rows) {
+            Map<ProjectSearchFieldEnum, String> contents = documents.get((Long) row[0]);
+            if (contents != null) {
+                contents.merge(field, (String) row[1], (names, name) -> names + " " + name);
+            }
+        }
+    }
+
+    private static Map<ProjectSearchFieldEnum, String> toContents(ProjectEntity projectEntity) {
+        Map<ProjectSearchFieldEnum, String> contents = new EnumMap<>(ProjectSearchFieldEnum.class);
+        contents.put(ProjectSearchFieldEnum.NAME, projectEntity.getName());
+        contents.put(ProjectSearchFieldEnum.DESCRIPTION, projectEntity.getDescription());
+        contents.put(ProjectSearchFieldEnum.MOTIVATION, projectEntity.getMotivation());
+        StringJoiner keywords = new StringJoiner(" ");
+        for (KeywordEntity keyword : projectEntity.getProjectKeywords()) {
+            keywords.add(keyword.getName());
+        }
+        contents.put(ProjectSearchFieldEnum.KEYWORDS, keywords.toString());
+        StringJoiner skills = new StringJoiner(" ");
+        for (SkillEntity skill : projectEntity.getProjectSkills()) {
+            skills.add(skill.getName());
+        }
+        contents.put(ProjectSearchFieldEnum.SKILLS, skills.toString());
+        return contents;
+    }
+
+    private static InvertedIndex<ProjectSearchFieldEnum> createIndex() {
+        return new InvertedIndex<>(ProjectSearchFieldEnum.class, ProjectSearchFieldEnum::getWeight, GlobalSettings.PROJECT_SEARCH_MIN_PREFIX_LENGTH);
+    }
+}
@@ -45,6 +45,8 @@ public class RoleBean implements Serializable {
 
     @EJB
     MethodDao methodDao;
+    @EJB
+    RolePermissionBean rolePermissionBean;
     private static final long serialVersionUID = 1L;
 
     private static final Logger LOGGER = LogManager.getLogger(RoleBean.class);
@@ -87,6 +89,7 @@ public class RoleBean implements Serializable {
             }
             role.getMethods().add(method);
             method.getRoles().add(role);
+            rolePermissionBean.grant(role.getId(), methodEnum);
             LOGGER.info("Permission {} added to role {}", methodEnum, roleEnum);
         } catch (Exception e) {
             LOGGER.error("Error adding permission {} to role {}", methodEnum, roleEnum, e);
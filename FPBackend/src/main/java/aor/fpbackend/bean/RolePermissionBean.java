@@ -0,0 +1,93 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.RoleDao;
+import aor.fpbackend.entity.RoleEntity;
+import aor.fpbackend.enums.MethodEnum;
+import aor.fpbackend.utils.PermissionSet;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RolePermissionBean is a singleton EJB that keeps the permissions of every role as a precomputed
+ * {@link PermissionSet}, so that method authorization never reads the role/method tables per request.
+ * <br>
+ * The role map is immutable and published through a volatile field: lookups are plain reads, and the
+ * rare writes ({@link #rebuild()} at startup, {@link #grant(Long, MethodEnum)} when a permission is added)
+ * build a new map and swap it in. Any change also clears the {@link AuthUserCacheBean}, because cached
+ * authentications carry the permission set of the role at the time they were validated.
+ * <br>
+ * Concurrency is bean managed; writers synchronize among themselves only.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class RolePermissionBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(RolePermissionBean.class);
+
+    @EJB
+    RoleDao roleDao;
+    @EJB
+    AuthUserCacheBean authUserCache;
+
+    private volatile Map<Long, PermissionSet> permissionsByRole = Collections.emptyMap();
+    private volatile boolean loaded = false;
+
+    /**
+     * Returns the permissions of the given role, loading all roles on first use.
+     *
+     * @param roleId the role id.
+     * @return the role permissions, or {@link PermissionSet#EMPTY} for an unknown role.
+     */
+    public PermissionSet getPermissions(long roleId) {
+        if (!loaded) {
+            rebuild();
+        }
+        return permissionsByRole.getOrDefault(roleId, PermissionSet.EMPTY);
+    }
+
+    /**
+     * Reloads the permissions of every role from the database.
+     */
+    public synchronized void rebuild() {
+        List<RoleEntity> roles = roleDao.findAllRolesWithPermissions();
+        Map<Long, PermissionSet> rebuilt = new HashMap<>();
+        for (RoleEntity role : roles) {
+            rebuilt.put(role.getId(), PermissionSet.fromMethods(role.getMethods()));
+        }
+        permissionsByRole = Collections.unmodifiableMap(rebuilt);
+        loaded = true;
+        authUserCache.clear();
+        LOGGER.info("Permissions loaded for {} roles", rebuilt.size());
+    }
+
+    /**
+     * Adds a permission to the precomputed set of a role, after it has been added to the database.
+     *
+     * @param roleId the role id.
+     * @param method the granted permission.
+     */
+    public synchronized void grant(Long roleId, MethodEnum method) {
+        if (!loaded || roleId == null) {
+            return;
+        }
+        PermissionSet current = permissionsByRole.getOrDefault(roleId, PermissionSet.EMPTY);
+        PermissionSet updated = current.with(method);
+        if (updated == current) {
+            return;
+        }
+        Map<Long, PermissionSet> copy = new HashMap<>(permissionsByRole);
+        copy.put(roleId, updated);
+        permissionsByRole = Collections.unmodifiableMap(copy);
+        authUserCache.clear();
+    }
+}
@@ -1,25 +1,29 @@
 package aor.fpbackend.bean;
 
-import aor.fpbackend.dao.RoleDao;
 import aor.fpbackend.dao.SessionDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.User.UserLoginDto;
 import aor.fpbackend.entity.SessionEntity;
 import aor.fpbackend.entity.UserEntity;
+import aor.fpbackend.enums.TokenVerificationModeEnum;
 import aor.fpbackend.exception.DatabaseOperationException;
 import aor.fpbackend.exception.InputValidationException;
 import aor.fpbackend.exception.InvalidCredentialsException;
 import aor.fpbackend.exception.UserNotFoundException;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.GlobalSettings;
 import aor.fpbackend.utils.JwtKeyProvider;
+import aor.fpbackend.utils.ParsedToken;
 import aor.fpbackend.utils.PassEncoder;
-import aor.fpbackend.websocket.GlobalWebSocket;
+import aor.fpbackend.utils.TokenHasher;
 import io.jsonwebtoken.*;
+import jakarta.annotation.Resource;
 import jakarta.ejb.EJB;
-import jakarta.ejb.Schedule;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceException;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.NewCookie;
@@ -34,10 +38,8 @@ import java.security.Key;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Date;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -46,21 +48,25 @@ import java.util.UUID;
  * authentication and session tokens, and managing session expiration and invalidation.
  * <br>
  * This bean interacts with various DAOs to fetch user and session data and relies on utility
- * classes for JWT operations and websocket communication.
+ * classes for JWT operations. Session deadlines are handed to {@link SessionExpiryBean}.
+ * <br>
+ * Authentication tokens are verified in one of two modes ({@link GlobalSettings#TOKEN_VERIFICATION_MODE}):
+ * {@link TokenVerificationModeEnum#DATABASE} checks every token against its session row, while
+ * {@link TokenVerificationModeEnum#STATELESS} trusts the signed claims and only checks the tokens that
+ * {@link TokenRevocationBean} reports as possibly revoked.
  * <br>
  * <br>
  * Technologies Used:
  * <ul>
  *     <li><b>Java EE</b>: For building the EJB and managing transactions.</li>
  *     <li><b>JWT</b>: For token generation and validation via {@link JwtKeyProvider}.</li>
- *     <li><b>Jakarta EE</b>: For dependency injection and scheduling.</li>
+ *     <li><b>Jakarta EE</b>: For dependency injection.</li>
  *     <li><b>SLF4J</b>: For logging operations.</li>
  * </ul>
  * <br>
  * <br>
  * Dependencies are injected using the {@link EJB} annotation, which includes DAOs for user,
- * session, and role entities. The bean also uses utility classes for JWT operations and
- * websocket communication.
+ * session, and role entities. The bean also uses utility classes for JWT operations.
  * <br>
  */
 @Stateless
@@ -70,12 +76,21 @@ public class SessionBean implements Serializable {
     @EJB
     UserDao userDao;
     @EJB
-    RoleDao roleDao;
+    RolePermissionBean rolePermissionBean;
     @EJB
     ConfigurationBean configurationBean;
     @EJB
     PassEncoder passEncoder;
+    @EJB
+    AuthUserCacheBean authUserCache;
+    @EJB
+    SessionExpiryBean sessionExpiryBean;
+    @EJB
+    TokenRevocationBean tokenRevocationBean;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
 
+    private TokenVerificationModeEnum tokenVerificationMode = GlobalSettings.TOKEN_VERIFICATION_MODE;
 
     private static final long serialVersionUID = 1L;
     private static final org.apache.logging.log4j.Logger LOGGER = LogManager.getLogger(SessionBean.class);
@@ -113,8 +128,8 @@ public class SessionBean implements Serializable {
             throw new InvalidCredentialsException("Invalid credentials");
         }
         // Get session timeout from configuration entity
-        Integer definedTimeOut = configurationBean.getConfigValueByKey("sessionTimeout");
-        if (definedTimeOut == null) {
+        int definedTimeOut = configurationBean.getSessionTimeout();
+        if (definedTimeOut <= 0) {
             throw new IllegalStateException("Session timeout not defined");
         }
         if (!userEntity.isConfirmed()) {
@@ -131,7 +146,10 @@ public class SessionBean implements Serializable {
             String sessionToken = generateJwtToken(userEntity, definedTimeOut, "session");
             NewCookie sessionCookie = new NewCookie("sessionToken", sessionToken, "/", null, "Session Token", cookieExpiration, true, false);
             // Persist the new session in the database
-            sessionDao.persist(new SessionEntity(authToken, sessionToken, expirationInstant, userEntity));
+            String authTokenHash = TokenHasher.hash(authToken);
+            String sessionTokenHash = TokenHasher.hash(sessionToken);
+            sessionDao.persist(new SessionEntity(authTokenHash, sessionTokenHash, expirationInstant, userEntity));
+            sessionExpiryBean.schedule(authTokenHash, sessionTokenHash, userEntity.getId(), expirationInstant);
             LOGGER.info("Successful login new session created");
             // Return the response with the cookies
             return Response.ok().cookie(authCookie).cookie(sessionCookie).build();
@@ -166,6 +184,10 @@ public class SessionBean implements Serializable {
         try{
             // Invalidate session in the database using the authentication token
             sessionDao.inativateSessionbyAuthToken(authUserDto.getToken());
+            invalidateCachedAuthentication(authUserDto.getToken());
+            String authTokenHash = TokenHasher.hash(authUserDto.getToken());
+            sessionExpiryBean.cancel(authTokenHash);
+            tokenRevocationBean.revoke(authTokenHash);
             LOGGER.info("Successful logout");
         } catch (NoResultException e) {
             LOGGER.error("Error while logging out user at: " + e.getMessage());
@@ -175,69 +197,6 @@ public class SessionBean implements Serializable {
         }
     }
 
-    /**
-     * Scheduled method to clean up expired sessions and manage user sessions.
-     * <br>
-     * This method is executed every minute to check for user sessions that are about to expire within the next three minutes
-     * or have already expired. The primary goal is to ensure that sessions are properly managed, thereby enhancing security
-     * and user experience. The method performs the following tasks:
-     * <ul>
-     *     <li>Fetches sessions that are expiring in the next three minutes or have already expired but are still active.</li>
-     *     <li>Logs the number of such sessions for monitoring purposes.</li>
-     *     <li>For each session:
-     *         <ul>
-     *             <li>If the session is expiring in one minute or less, it deactivates the session in the backend, assuming
-     *             that the user does not have an active WebSocket session.</li>
-     *             <li>If the session is expiring in more than one minute but less than three minutes, it sends a forced logout
-     *             request via WebSocket. This prompts the frontend to initiate a REST request that invalidates the authentication cookie.
-     *             (html only)
-     *             </li>
-     *         </ul>
-     *     </li>
-     * </ul>
-     * This approach ensures that:
-     * <ul>
-     *     <li>Active sessions that are about to expire are properly closed, preventing unauthorized access.</li>
-     *     <li>Users are notified of their session's imminent expiration and prompted to re-authenticate, improving security and user experience.</li>
-     * </ul>
-     * <br>
-     */
-    @Transactional
-    @Schedule(hour = "*", minute = "*/1", persistent = false)
-    public void cleanupExpiredTokens() throws DatabaseOperationException {
-        // Find sessions expiring within 3 minutes
-        List<SessionEntity> sessions = sessionDao.findSessionsExpiringInThreeMinutes();
-        Instant now = Instant.now();
-        // Iterate through each session
-        for (SessionEntity session : sessions) {
-            Instant expirationTime = session.getTokenExpiration();
-            // Calculate minutes until expiration
-            long minutesUntilExpiration = ChronoUnit.MINUTES.between(now, expirationTime);
-            // Check if session is within 1 minute of expiration
-            if (minutesUntilExpiration <= 1) {
-                if (session.isActive()) {
-                    try {
-                        // Mark session as inactive in the database
-                        session.setActive(false);
-                        sessionDao.merge(session);
-                        LOGGER.info("Session inactivated: " + session.getId());
-                    } catch (PersistenceException e) {
-                        throw new DatabaseOperationException("Error inactivating session: " + e.getMessage());
-                    } finally {
-                        ThreadContext.clearMap();
-                    }
-                }
-            } else {
-                // Session has expired
-                if (session.isActive()) {
-                    GlobalWebSocket.sendForcedLogoutRequest(session);
-                    LOGGER.info("Forced logout sent for session: " + session.getId());
-                    ThreadContext.clearMap();
-                }
-            }
-        }
-    }
-
     /**
      * Generates a JSON Web Token (JWT) for the given user with specified expiration time and token type.
      * <br>
@@ -326,53 +285,93 @@ public class SessionBean implements Serializable {
     /**
      * Validates a JSON Web Token (JWT) and retrieves the authenticated user's details.
      * <br>
-     * This method performs the following steps:
+     * In {@link TokenVerificationModeEnum#STATELESS} mode the token is verified from its claims instead (see
+     * {@link #validateAuthTokenClaims(String)}). Otherwise, this method performs the following steps:
      * <ul>
-     *     <li>Checks if the secret key is configured.</li>
+     *     <li>Returns the cached user details if the token was validated recently (see {@link AuthUserCacheBean}).</li>
+     *     <li>Verifies and parses the JWT once with the shared parser, keeping the claims in a {@link ParsedToken}.</li>
      *     <li>Finds the session associated with the provided token and validates its status.</li>
-     *     <li>Parses the JWT and extracts the claims.</li>
      *     <li>Retrieves the user's details from the database and constructs an {@link AuthUserDto} object.</li>
+     *     <li>Caches the result until the cache TTL or the session expiration, whichever comes first.</li>
      * </ul>
      * <br>
+     * The returned {@link AuthUserDto} carries the {@link ParsedToken}, so later steps of the request
+     * (token renewal, security context) can read the expiration without parsing the token again.
+     * <br>
      *
      * @param token the JWT to be validated.
      * @return an {@link AuthUserDto} containing the authenticated user's details.
      * @throws InvalidCredentialsException if the token is invalid, expired, or if any error occurs during processing.
      */
     public AuthUserDto validateAuthTokenAndGetUserDetails(String token) throws InvalidCredentialsException {
-        Key secretKey = JwtKeyProvider.getKey();
-        if (secretKey == null) {
-            throw new InvalidCredentialsException("Secret key not configured");
+        if (tokenVerificationMode == TokenVerificationModeEnum.STATELESS) {
+            return validateAuthTokenClaims(token);
         }
-        SessionEntity session = sessionDao.findSessionByAuthToken(token);
-        if (session == null) {
-            throw new InvalidCredentialsException("Invalid token");
+        AuthUserDto cachedAuthUser = authUserCache.get(token);
+        if (cachedAuthUser != null) {
+            return cachedAuthUser;
         }
-        if (!session.isActive()) {
-            throw new InvalidCredentialsException("Token inativated");
+        return validateAuthTokenSession(parseToken(token));
+    }
+
+    /**
+     * Validates an authentication token without reading the session table, unless it may have been revoked.
+     * <br>
+     * This method performs the following steps:
+     * <ul>
+     *     <li>Verifies and parses the JWT, and checks that it is an authentication token.</li>
+     *     <li>Asks {@link TokenRevocationBean} whether the token may have been revoked or carries a stale role.
+     *     If so, the token is validated against its session as in the database mode.</li>
+     *     <li>Otherwise, builds the {@link AuthUserDto} from the signed user ID, role and username claims.</li>
+     * </ul>
+     * <br>
+     * The session ID is not known in this case and is left null.
+     *
+     * @param token the JWT to be validated.
+     * @return an {@link AuthUserDto} containing the authenticated user's details.
+     * @throws InvalidCredentialsException if the token is invalid, expired or revoked.
+     */
+    private AuthUserDto validateAuthTokenClaims(String token) throws InvalidCredentialsException {
+        ParsedToken parsedToken = parseToken(token);
+        Claims claims = parsedToken.getClaims();
+        if (!"auth".equals(claims.get("type", String.class))) {
+            throw new InvalidCredentialsException("Invalid token type");
         }
-        if (session.getTokenExpiration().isBefore(Instant.now())) {
-            throw new InvalidCredentialsException("Token expired");
+        Instant issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        if (tokenRevocationBean.mightBeRevoked(TokenHasher.hash(token), parsedToken.getUserId(), issuedAt)) {
+            AuthUserDto cachedAuthUser = authUserCache.get(token);
+            return cachedAuthUser != null ? cachedAuthUser : validateAuthTokenSession(parsedToken);
         }
-        try {
-            Jws<Claims> jwsClaims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
-            Claims claims = jwsClaims.getBody();
-            Long userId = Long.parseLong(claims.getSubject());
-
-            UserEntity user = userDao.findUserById(userId);
-            AuthUserDto authUserDto = new AuthUserDto(user.getId(), user.getRole().getId(), roleDao.findPermissionsByRoleId(user.getRole().getId()), token, session.getId(), user.getUsername());
-            return authUserDto;
-
-        } catch (ExpiredJwtException e) {
-            throw new InvalidCredentialsException("Token expired: " + e.getMessage());
-        } catch (JwtException | IllegalArgumentException e) {
-            throw new InvalidCredentialsException("Invalid token: " + e.getMessage());
-        } catch (Exception e) {
-            throw new InvalidCredentialsException("Error processing token: " + e.getMessage());
+        Object roleClaim = claims.get("role");
+        if (!(roleClaim instanceof Number)) {
+            throw new InvalidCredentialsException("Invalid token: missing role");
         }
+        long roleId = ((Number) roleClaim).longValue();
+        AuthUserDto authUserDto = new AuthUserDto(
+                parsedToken.getUserId(),
+                roleId,
+                rolePermissionBean.getPermissions(roleId),
+                token,
+                null,
+                claims.get("username", String.class));
+        authUserDto.setParsedToken(parsedToken);
+        return authUserDto;
+    }
+
+    /**
+     * Validates a parsed authentication token against its session and caches the result.
+     *
+     * @param parsedToken the verified token.
+     * @return the authenticated user details.
+     * @throws InvalidCredentialsException if the session is missing, inactive or expired, or the user cannot be loaded.
+     */
+    private AuthUserDto validateAuthTokenSession(ParsedToken parsedToken) throws InvalidCredentialsException {
+        long loadStamp = authUserCache.loadStamp();
+        SessionEntity session = sessionDao.findSessionByAuthToken(parsedToken.getToken());
+        validateSession(session);
+        AuthUserDto authUserDto = buildAuthUserDto(parsedToken, session);
+        authUserCache.put(parsedToken.getToken(), authUserDto, session.getTokenExpiration(), loadStamp);
+        return authUserDto;
     }
 
 
@@ -381,9 +380,8 @@ public class SessionBean implements Serializable {
      * <br>
      * This method performs the following steps:
      * <ul>
-     *     <li>Checks if the secret key is configured.</li>
+     *     <li>Verifies and parses the JWT once with the shared parser.</li>
      *     <li>Finds the session associated with the provided token and validates its status.</li>
-     *     <li>Parses the JWT and extracts the claims.</li>
      *     <li>Retrieves the user's details from the database and constructs an {@link AuthUserDto} object.</li>
      * </ul>
      * <br>
@@ -393,15 +391,43 @@ public class SessionBean implements Serializable {
      * @throws InvalidCredentialsException if the token is invalid, expired, or if any error occurs during processing.
      */
     public AuthUserDto validateSessionTokenAndGetUserDetails(String token) throws InvalidCredentialsException {
-        // Retrieve secret key for JWT verification
-        Key secretKey = JwtKeyProvider.getKey();
-        // Ensure secret key is configured
-        if (secretKey == null) {
-            throw new InvalidCredentialsException("Secret key not configured");
-        }
+        // Parse and verify JWT claims using the shared parser
+        ParsedToken parsedToken = parseToken(token);
         // Find session information from token in the database
         SessionEntity session = sessionDao.findSessionBySessionToken(token);
         // Validate session existence and status
+        validateSession(session);
+        // Create AuthUserDto containing user details and token information
+        return buildAuthUserDto(parsedToken, session);
+    }
+
+    /**
+     * Verifies the signature and expiration of a JWT and parses its claims.
+     *
+     * @param token the JWT to be parsed.
+     * @return the parsed token.
+     * @throws InvalidCredentialsException if the secret key is missing or the token is expired or invalid.
+     */
+    private ParsedToken parseToken(String token) throws InvalidCredentialsException {
+        if (JwtKeyProvider.getKey() == null) {
+            throw new InvalidCredentialsException("Secret key not configured");
+        }
+        try {
+            return ParsedToken.parse(token);
+        } catch (ExpiredJwtException e) {
+            throw new InvalidCredentialsException("Token expired: " + e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Invalid token: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks that a session exists, is active and has not expired.
+     *
+     * @param session the session found for the token, may be null.
+     * @throws InvalidCredentialsException if the session is missing, inactive or expired.
+     */
+    private void validateSession(SessionEntity session) throws InvalidCredentialsException {
         if (session == null) {
             throw new InvalidCredentialsException("Invalid token");
         }
@@ -411,30 +437,29 @@ public class SessionBean implements Serializable {
         if (session.getTokenExpiration().isBefore(Instant.now())) {
             throw new InvalidCredentialsException("Token expired");
         }
+    }
+
+    /**
+     * Loads the user identified by the token and builds the authenticated user details.
+     *
+     * @param parsedToken the verified token.
+     * @param session     the active session of the token.
+     * @return the authenticated user details, carrying the parsed token.
+     * @throws InvalidCredentialsException if the user cannot be loaded.
+     */
+    private AuthUserDto buildAuthUserDto(ParsedToken parsedToken, SessionEntity session) throws InvalidCredentialsException {
         try {
-            // Parse and verify JWT claims using the secret key
-            Jws<Claims> jwsClaims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
-            // Extract user ID from JWT claims
-            Claims claims = jwsClaims.getBody();
-            Long userId = Long.parseLong(claims.getSubject());
             // Retrieve user details from database using user ID
-            UserEntity user = userDao.findUserById(userId);
-            // Create AuthUserDto containing user details and token information
+            UserEntity user = userDao.findUserById(parsedToken.getUserId());
             AuthUserDto authUserDto = new AuthUserDto(
                     user.getId(),
                     user.getRole().getId(),
-                    roleDao.findPermissionsByRoleId(user.getRole().getId()),
-                    token,
+                    rolePermissionBean.getPermissions(user.getRole().getId()),
+                    parsedToken.getToken(),
                     session.getId(),
                     user.getUsername());
+            authUserDto.setParsedToken(parsedToken);
             return authUserDto;
-        } catch (ExpiredJwtException e) {
-            throw new InvalidCredentialsException("Token expired: " + e.getMessage());
-        } catch (JwtException | IllegalArgumentException e) {
-            throw new InvalidCredentialsException("Invalid token: " + e.getMessage());
         } catch (Exception e) {
             throw new InvalidCredentialsException("Error processing token: " + e.getMessage());
         }
@@ -478,12 +503,19 @@ public class SessionBean implements Serializable {
         Instant expirationInstant = now.plus(Duration.ofMillis(definedTimeout));
         try{
             // Persist new session entity with generated tokens and expiration time
-            sessionDao.persist(new SessionEntity(newAuthToken, newSessionToken, expirationInstant, user));
+            String newAuthTokenHash = TokenHasher.hash(newAuthToken);
+            String newSessionTokenHash = TokenHasher.hash(newSessionToken);
+            sessionDao.persist(new SessionEntity(newAuthTokenHash, newSessionTokenHash, expirationInstant, user));
+            sessionExpiryBean.schedule(newAuthTokenHash, newSessionTokenHash, user.getId(), expirationInstant);
             // Update request context properties with new tokens
             requestContext.setProperty("newAuthToken", newAuthToken);
             requestContext.setProperty("newSessionToken", newSessionToken);
             // Invalidate old session identified by oldToken
             sessionDao.inativateSessionbyAuthToken(oldToken);
+            invalidateCachedAuthentication(oldToken);
+            String oldTokenHash = TokenHasher.hash(oldToken);
+            sessionExpiryBean.cancel(oldTokenHash);
+            tokenRevocationBean.revoke(oldTokenHash);
             // Log successful session restoration
             LOGGER.info("Session restored for user: " + user.getUsername());
         } catch (PersistenceException e) {
@@ -513,6 +545,10 @@ public class SessionBean implements Serializable {
     public void createInvalidSession(AuthUserDto authUserDto, ContainerRequestContext requestContext) throws UnknownHostException {
        try {
            sessionDao.inativateSessionbyAuthToken(authUserDto.getToken());
+           invalidateCachedAuthentication(authUserDto.getToken());
+           String authTokenHash = TokenHasher.hash(authUserDto.getToken());
+           sessionExpiryBean.cancel(authTokenHash);
+           tokenRevocationBean.revoke(authTokenHash);
            String invalidToken = "null";
            requestContext.setProperty("newAuthToken", invalidToken);
            requestContext.setProperty("newSessionToken", invalidToken);
@@ -525,6 +561,28 @@ public class SessionBean implements Serializable {
        }
     }
 
+    /**
+     * Drops the cached authentication of a token once the transaction that deactivates its session commits.
+     * Dropping it earlier would let a concurrent request, still reading the active session, cache it again.
+     *
+     * @param token the raw authentication token.
+     */
+    private void invalidateCachedAuthentication(String token) {
+        AfterCommit.run(transactionRegistry, () -> authUserCache.invalidate(token));
+    }
+
+    /**
+     * Drops every cached authentication of the given user, so that the next request reloads
+     * the user's role and permissions from the database. In the stateless mode, the claims of the
+     * tokens already issued to the user stop being trusted.
+     *
+     * @param userId the ID of the user.
+     */
+    public void evictCachedAuthentications(long userId) {
+        authUserCache.invalidateUser(userId);
+        tokenRevocationBean.revokeClaimsOfUser(userId);
+    }
+
     public void setSessionDao(SessionDao sessionDao) {
         this.sessionDao = sessionDao;
     }
@@ -533,8 +591,8 @@ public class SessionBean implements Serializable {
         this.userDao = userDao;
     }
 
-    public void setRoleDao(RoleDao roleDao) {
-        this.roleDao = roleDao;
+    public void setRolePermissionBean(RolePermissionBean rolePermissionBean) {
+        this.rolePermissionBean = rolePermissionBean;
     }
 
     public void setConfigurationBean(ConfigurationBean configurationBean) {
@@ -544,4 +602,20 @@ public class SessionBean implements Serializable {
         this.passEncoder = passEncoder;
     }
 
+    public void setAuthUserCache(AuthUserCacheBean authUserCache) {
+        this.authUserCache = authUserCache;
+    }
+
+    public void setSessionExpiryBean(SessionExpiryBean sessionExpiryBean) {
+        this.sessionExpiryBean = sessionExpiryBean;
+    }
+
+    public void setTokenRevocationBean(TokenRevocationBean tokenRevocationBean) {
+        this.tokenRevocationBean = tokenRevocationBean;
+    }
+
+    public void setTokenVerificationMode(TokenVerificationModeEnum tokenVerificationMode) {
+        this.tokenVerificationMode = tokenVerificationMode;
+    }
+
 }
@@ -0,0 +1,120 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.SessionDao;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.HashedTimingWheel;
+import aor.fpbackend.websocket.GlobalWebSocket;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * SessionExpiryBean is a singleton EJB that drives the expiration of user sessions.
+ * <br>
+ * The forced logout deadline of every active session is kept in an in-memory {@link HashedTimingWheel},
+ * keyed by the hash of the authentication token. Deadlines are added on login and session renewal, removed on
+ * logout and invalidation, and reloaded from the database at startup. A one second timer advances the wheel and
+ * pushes a forced logout request, through the global WebSocket, to the sessions whose deadline was reached, so
+ * the database is not polled to find them.
+ * <br>
+ * Independently, expired sessions are deactivated once per minute by a single bulk update.
+ * <br>
+ * Concurrency is bean managed; the wheel synchronizes internally.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class SessionExpiryBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(SessionExpiryBean.class);
+
+    @EJB
+    SessionDao sessionDao;
+
+    private final HashedTimingWheel<String, SessionDeadline> deadlines = new HashedTimingWheel<>(
+            Duration.ofMillis(GlobalSettings.SESSION_DEADLINE_TICK_MILLIS), GlobalSettings.SESSION_DEADLINE_WHEEL_SIZE, Instant.now());
+
+    /**
+     * Schedules the forced logout of a session shortly before its token expires.
+     *
+     * @param authTokenHash    the hash of the authentication token of the session.
+     * @param sessionTokenHash the hash of the session token, used to find the WebSocket session of the client.
+     * @param userId           the ID of the user owning the session.
+     * @param tokenExpiration  the expiration of the session tokens.
+     */
+    public void schedule(String authTokenHash, String sessionTokenHash, long userId, Instant tokenExpiration) {
+        if (authTokenHash == null || sessionTokenHash == null || tokenExpiration == null) {
+            return;
+        }
+        Instant deadline = tokenExpiration.minusMillis(GlobalSettings.SESSION_FORCED_LOGOUT_LEAD_MILLIS);
+        deadlines.schedule(authTokenHash, new SessionDeadline(userId, sessionTokenHash), deadline);
+    }
+
+    /**
+     * Removes the forced logout deadline of a session that was closed or replaced.
+     *
+     * @param authTokenHash the hash of the authentication token of the session.
+     */
+    public void cancel(String authTokenHash) {
+        if (authTokenHash != null) {
+            deadlines.cancel(authTokenHash);
+        }
+    }
+
+    /**
+     * Schedules the deadlines of every active session stored in the database. Called once at startup.
+     */
+    public void loadActiveSessions() {
+        List<Object[]> rows = sessionDao.findActiveSessionDeadlines(Instant.now());
+        for (Object[] row : rows) {
+            schedule((String) row[0], (String) row[1], (Long) row[2], (Instant) row[3]);
+        }
+        LOGGER.info("Session deadlines loaded for {} active sessions", rows.size());
+    }
+
+    /**
+     * Advances the deadline wheel and sends the forced logout requests that are due.
+     */
+    @Schedule(hour = "*", minute = "*", second = "*", persistent = false)
+    public void fireDueDeadlines() {
+        List<SessionDeadline> due = deadlines.advance(Instant.now());
+        for (SessionDeadline deadline : due) {
+            if (GlobalWebSocket.sendForcedLogoutRequest(deadline.userId, deadline.sessionTokenHash)) {
+                LOGGER.info("Forced logout sent for user: " + deadline.userId);
+            }
+        }
+    }
+
+    /**
+     * Deactivates every session whose token has expired with a single update.
+     */
+    @Schedule(hour = "*", minute = "*/1", persistent = false)
+    public void deactivateExpiredSessions() {
+        int deactivated = sessionDao.deactivateExpiredSessions(Instant.now());
+        if (deactivated > 0) {
+            LOGGER.info("Expired sessions inactivated: " + deactivated);
+        }
+    }
+
+    public int pendingDeadlines() {
+        return deadlines.size();
+    }
+
+    private static final class SessionDeadline {
+        private final long userId;
+        private final String sessionTokenHash;
+
+        private SessionDeadline(long userId, String sessionTokenHash) {
+            this.userId = userId;
+            this.sessionTokenHash = sessionTokenHash;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.SessionDao;
+import aor.fpbackend.utils.GlobalSettings;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SessionRetentionBean is a singleton EJB that keeps the session table bounded.
+ * <br>
+ * Every login and every renewal inserts a session row, and ended sessions are only flagged inactive. Once per hour
+ * this bean deletes the inactive sessions that expired more than "sessionRetentionDays" (configuration entry)
+ * ago, so they remain available for auditing during that window.
+ * <br>
+ * Rows are deleted in chunks of {@link GlobalSettings#SESSION_PURGE_BATCH_SIZE}, each in its own transaction,
+ * with a pause between chunks so the purge never holds long locks or competes with logins. A run stops after
+ * {@link GlobalSettings#SESSION_PURGE_MAX_DURATION_MILLIS}; the rest is left to the next run. The rows purged and
+ * the time spent are logged and kept for the last run.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class SessionRetentionBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(SessionRetentionBean.class);
+
+    @EJB
+    SessionDao sessionDao;
+    @EJB
+    ConfigurationBean configurationBean;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile long lastPurgedRows = 0;
+    private volatile long lastRunMillis = 0;
+
+    /**
+     * Deletes the ended sessions older than the retention window.
+     *
+     * @return the number of sessions deleted, or 0 if a purge was already running.
+     */
+    @Schedule(hour = "*", minute = "30", persistent = false)
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public long purgeEndedSessions() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long purged = 0;
+        int batches = 0;
+        try {
+            Instant cutoff = Instant.now().minus(Duration.ofDays(getRetentionDays()));
+            long deadline = start + Duration.ofMillis(GlobalSettings.SESSION_PURGE_MAX_DURATION_MILLIS).toNanos();
+            int deleted;
+            do {
+                deleted = sessionDao.deleteEndedSessions(cutoff, GlobalSettings.SESSION_PURGE_BATCH_SIZE);
+                purged += deleted;
+                batches++;
+                if (deleted == GlobalSettings.SESSION_PURGE_BATCH_SIZE) {
+                    Thread.sleep(GlobalSettings.SESSION_PURGE_BATCH_PAUSE_MILLIS);
+                }
+            } while (deleted == GlobalSettings.SESSION_PURGE_BATCH_SIZE && System.nanoTime() < deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lastPurgedRows = purged;
+            lastRunMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            running.set(false);
+        }
+        LOGGER.info("Session retention: {} sessions purged in {} batches, {} ms", purged, batches, lastRunMillis);
+        return purged;
+    }
+
+    /**
+     * Moves sessions stored before tokens were hashed to the hash columns. Called once at startup.
+     */
+    public void migrateLegacyTokenColumns() {
+        if (sessionDao.migrateLegacyTokenColumns()) {
+            LOGGER.info("Session tokens migrated to hash columns");
+        }
+    }
+
+    public long getLastPurgedRows() {
+        return lastPurgedRows;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+
+    private int getRetentionDays() {
+        int retentionDays = configurationBean.getSessionRetentionDays();
+        return retentionDays > 0 ? retentionDays : GlobalSettings.DEFAULT_SESSION_RETENTION_DAYS;
+    }
+}
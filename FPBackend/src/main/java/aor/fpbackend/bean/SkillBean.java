@@ -5,6 +5,7 @@ import aor.fpbackend.dao.SkillDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.Skill.SkillAddUserDto;
+import aor.fpbackend.dto.Skill.SkillCreateNewProjectDto;
 import aor.fpbackend.dto.Skill.SkillGetDto;
 import aor.fpbackend.dto.Skill.SkillRemoveProjectDto;
 import aor.fpbackend.dto.Skill.SkillRemoveUserDto;
@@ -14,6 +15,7 @@ import aor.fpbackend.entity.UserEntity;
 import aor.fpbackend.enums.ProjectStateEnum;
 import aor.fpbackend.enums.SkillTypeEnum;
 import aor.fpbackend.exception.*;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.EJB;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.PersistenceException;
@@ -52,6 +54,8 @@ public class SkillBean implements Serializable {
     @EJB
     ProjectDao projectDao;
     @EJB
+    ProjectSearchIndexBean projectSearchIndex;
+    @EJB
     UserDao userDao;
     private static final long serialVersionUID = 1L;
 
@@ -204,6 +208,7 @@ public class SkillBean implements Serializable {
             addSkillToProject(skillEntity, projectEntity);
             // Add the project to the skill's projects
             addProjectToSkill(skillEntity, projectEntity);
+            projectSearchIndex.update(projectEntity);
             LOGGER.info("Successfully added skill '{}' to project '{}'.", skillName, projectId);
         } catch (PersistenceException e) {
             LOGGER.error("Error while adding skill to project: {}", e.getMessage());
@@ -213,6 +218,38 @@ public class SkillBean implements Serializable {
         }
     }
 
+    /**
+     * Finds the skills of a new project, creating the missing ones.
+     * <br>
+     * Names are matched ignoring case, as by {@link #addSkillProject(String, SkillTypeEnum, long)}. The existing
+     * skills are read with one query and the missing ones are inserted with one statement and read with a
+     * second query, whatever the number of skills.
+     *
+     * @param skills the skills of the project, not empty.
+     * @return the skill entities, one per distinct name.
+     * @throws EntityNotFoundException if a skill could not be created.
+     */
+    public Set<SkillEntity> findOrCreateSkills(Collection<SkillCreateNewProjectDto> skills) throws EntityNotFoundException {
+        Map<String, SkillCreateNewProjectDto> requested = new LinkedHashMap<>();
+        for (SkillCreateNewProjectDto skill : skills) {
+            requested.putIfAbsent(LookupKey.of(skill.getName()), skill);
+        }
+        Set<SkillEntity> skillEntities = new HashSet<>(skillDao.findSkillsByNames(requested.keySet()));
+        Map<String, SkillCreateNewProjectDto> missing = new LinkedHashMap<>(requested);
+        skillEntities.forEach(skill -> missing.remove(skill.getNameKey()));
+        if (!missing.isEmpty()) {
+            Map<String, SkillTypeEnum> newSkills = new LinkedHashMap<>();
+            missing.values().forEach(skill -> newSkills.put(skill.getName(), skill.getType()));
+            skillDao.insertSkillsIfAbsent(newSkills);
+            skillEntities.addAll(skillDao.findSkillsByNames(missing.keySet()));
+            LOGGER.info("Created {} skills for a new project", missing.size());
+        }
+        if (skillEntities.size() < requested.size()) {
+            throw new EntityNotFoundException("Skill not found.");
+        }
+        return skillEntities;
+    }
+
     /**
      * Finds a project by its ID.
      *
@@ -594,6 +631,7 @@ public class SkillBean implements Serializable {
             SkillEntity skillEntity = getSkillEntity(skillRemoveProjectDto);
             removeSkillFromProject(projectEntity, skillEntity);
             removeProjectFromSkill(skillEntity, projectEntity);
+            projectSearchIndex.update(projectEntity);
             LOGGER.info("Successfully removed skill ID: {} from project ID: {}", skillRemoveProjectDto.getId(), skillRemoveProjectDto.getProjectId());
         } catch (PersistenceException e) {
             LOGGER.error("Error while removing skill ID: {} from project ID: {}: {}", skillRemoveProjectDto.getId(), skillRemoveProjectDto.getProjectId(), e.getMessage());
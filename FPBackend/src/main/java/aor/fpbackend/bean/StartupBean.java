@@ -47,6 +47,26 @@ public class StartupBean implements Serializable {
     ConfigurationBean configBean;
     @EJB
     MethodBean methodBean;
+    @EJB
+    RolePermissionBean rolePermissionBean;
+    @EJB
+    NotificationBean notificationBean;
+    @EJB
+    SessionExpiryBean sessionExpiryBean;
+    @EJB
+    SessionRetentionBean sessionRetentionBean;
+    @EJB
+    ProjectSearchIndexBean projectSearchIndex;
+    @EJB
+    ProjectMemberCountBean projectMemberCount;
+    @EJB
+    ProjectLogWriterBean projectLogWriter;
+    @EJB
+    MembershipBean membershipBean;
+    @EJB
+    AssetBean assetBean;
+    @EJB
+    LookupKeyMigrationBean lookupKeyMigration;
     private static final Logger LOGGER = LogManager.getLogger(StartupBean.class);
 
 
@@ -68,7 +88,8 @@ public class StartupBean implements Serializable {
 
     /**
      * Creates the initial data for the application.
-     * This includes roles, laboratories, users, configurations, methods, and permissions.
+     * This includes roles, laboratories, users, configurations, methods, and permissions,
+     * aligns the notification, project log, project membership and project asset id generators with the existing rows, fills the missing lookup keys and repairs the project member counts.
      *
      * @throws DatabaseOperationException if there is an error during the creation of data.
      */
@@ -77,8 +98,18 @@ public class StartupBean implements Serializable {
         createLaboratories();
         createUsers();
         createDefaultConfigs();
+        configBean.loadConfigurationSnapshot();
         createMethods();
         addPermissions();
+        notificationBean.alignNotificationIdGenerator();
+        projectLogWriter.alignIdGenerator();
+        membershipBean.alignMembershipIdGenerator();
+        assetBean.alignProjectAssetIdGenerator();
+        sessionRetentionBean.migrateLegacyTokenColumns();
+        lookupKeyMigration.backfillLookupKeys();
+        sessionExpiryBean.loadActiveSessions();
+        projectSearchIndex.rebuild();
+        projectMemberCount.reconcileMemberCounts();
     }
 
     /**
@@ -135,6 +166,7 @@ public class StartupBean implements Serializable {
     private void createDefaultConfigs() throws DatabaseOperationException {
         configBean.createDefaultConfigIfNotExistent("sessionTimeout", GlobalSettings.DEFAULT_SESSION_TIMEOUT_MILLIS);
         configBean.createDefaultConfigIfNotExistent("maxProjectMembers", GlobalSettings.DEFAULT_NUMBER_MEMBERS_PER_PROJECT);
+        configBean.createDefaultConfigIfNotExistent("sessionRetentionDays", GlobalSettings.DEFAULT_SESSION_RETENTION_DAYS);
     }
 
     /**
@@ -190,11 +222,13 @@ public class StartupBean implements Serializable {
         methodBean.createMethodIfNotExistent(MethodEnum.ASSETS_REPORT, "retrieves a summary of assets info in pdf", MethodEnum.ASSETS_REPORT.getValue());
         methodBean.createMethodIfNotExistent(MethodEnum.REMOVE_USER_PROJECT, "remove user from project", MethodEnum.REMOVE_USER_PROJECT.getValue());
         methodBean.createMethodIfNotExistent(MethodEnum.GET_ALL_CONFIG, "get all configurations", MethodEnum.GET_ALL_CONFIG.getValue());
+        methodBean.createMethodIfNotExistent(MethodEnum.WEBSOCKET_METRICS, "get the outbound websocket counters", MethodEnum.WEBSOCKET_METRICS.getValue());
     }
 
     /**
      * Adds permissions to roles for the application.
      * If a permission already exists, it will not be added again.
+     * The precomputed role permissions used for authorization are rebuilt at the end.
      *
      * @throws DatabaseOperationException if there is an error during permission addition.
      */
@@ -284,5 +318,7 @@ public class StartupBean implements Serializable {
         roleBean.addPermission(UserRoleEnum.STANDARD_USER, MethodEnum.REMOVE_USER_PROJECT);
         roleBean.addPermission(UserRoleEnum.ADMIN, MethodEnum.GET_ALL_CONFIG);
         roleBean.addPermission(UserRoleEnum.STANDARD_USER, MethodEnum.GET_ALL_CONFIG);
+        roleBean.addPermission(UserRoleEnum.ADMIN, MethodEnum.WEBSOCKET_METRICS);
+        rolePermissionBean.rebuild();
     }
 }
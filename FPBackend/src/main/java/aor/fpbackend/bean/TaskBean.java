@@ -1,13 +1,13 @@
 package aor.fpbackend.bean;
 
 import aor.fpbackend.dao.ProjectDao;
-import aor.fpbackend.dao.ProjectMembershipDao;
 import aor.fpbackend.dao.TaskDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.Task.TaskDependencyDto;
 import aor.fpbackend.dto.Task.TaskDetailedUpdateDto;
 import aor.fpbackend.dto.Task.TaskGetDto;
+import aor.fpbackend.dto.Task.TaskScheduleDto;
 import aor.fpbackend.dto.Task.TaskUpdateDto;
 import aor.fpbackend.dto.User.UserBasicInfoDto;
 import aor.fpbackend.entity.ProjectEntity;
@@ -65,9 +65,11 @@ public class TaskBean implements Serializable {
     @EJB
     ProjectBean projectBean;
     @EJB
-    ProjectMembershipDao projectMemberDao;
+    ProjectMembershipCacheBean projectMembershipCache;
     @EJB
     NotificationBean notificationBean;
+    @EJB
+    TaskGraphBean taskGraph;
     private static final long serialVersionUID = 1L;
 
     private static final Logger LOGGER = LogManager.getLogger(TaskBean.class);
@@ -148,6 +150,36 @@ public class TaskBean implements Serializable {
         }
     }
 
+    /**
+     * Computes the schedule of the tasks of a project.
+     * <br>
+     * The schedule comes from the cached task graph of the project, see {@link TaskGraphBean}: for every task its
+     * earliest and latest start and finish and its slack, in days from the start of the project, assuming each
+     * task lasts as planned and starts as soon as its prerequisites are finished, and the critical path.
+     * <br>
+     *
+     * @param projectId the ID of the project.
+     * @return the schedule of the project, with its tasks in topological order.
+     * @throws EntityNotFoundException  if the project ID is invalid or the project does not exist.
+     * @throws InputValidationException if the task dependencies of the project form a cycle.
+     */
+    public TaskScheduleDto getProjectSchedule(long projectId) throws EntityNotFoundException, InputValidationException {
+        if (projectId < 1) {
+            throw new EntityNotFoundException("Project ID cannot be negative");
+        }
+        ProjectEntity projectEntity = projectDao.findProjectById(projectId);
+        if (projectEntity == null) {
+            throw new EntityNotFoundException("Project not found");
+        }
+        try {
+            TaskScheduleDto schedule = taskGraph.getSchedule(projectId);
+            LOGGER.info("Computed the schedule of {} tasks for project ID: {}", schedule.getTasks().size(), projectId);
+            return schedule;
+        } finally {
+            ThreadContext.clearMap();
+        }
+    }
+
     /**
      * Adds a new task to the specified project with the provided details.
      * <br>
@@ -191,7 +223,7 @@ public class TaskBean implements Serializable {
             throw new EntityNotFoundException("User not found");
         }
         // Validate that user is project member
-        if (!projectMemberDao.isUserProjectMember(projectEntity.getId(), taskResponsible.getId())) {
+        if (!projectMembershipCache.isMember(projectEntity.getId(), taskResponsible.getId())) {
             throw new InputValidationException("Responsible user is not a member of the project");
         }
         // Validate planned dates
@@ -216,6 +248,7 @@ public class TaskBean implements Serializable {
         try {
             // Persist the task entity in the database
             taskDao.persist(taskEntity);
+            taskGraph.taskChanged(taskEntity);
             // Add the task to the responsible user's list of responsible tasks
             taskResponsible.getResponsibleTasks().add(taskEntity);
             // Create notifications for the responsible user about the new task
@@ -233,12 +266,13 @@ public class TaskBean implements Serializable {
     /**
      * Adds a dependency between two tasks.
      * <br>
-     * This method validates the existence of the main and dependent tasks,
-     * and then defines a dependency relationship between them.
+     * This method validates the existence of the main and dependent tasks, checks in the task graph of the
+     * project that the new dependency does not close a cycle, and then defines a dependency relationship between them.
      * <br>
      *
      * @param dependencyDto the DTO containing the IDs of the main and dependent tasks.
      * @throws EntityNotFoundException if either the main task or the dependent task is not found.
+     * @throws InputValidationException if the dependency is invalid or would create a cycle.
      */
     @Transactional
     public void addDependencyTask(long projectId, TaskDependencyDto dependencyDto) throws EntityNotFoundException, InputValidationException, DatabaseOperationException {
@@ -268,12 +302,22 @@ public class TaskBean implements Serializable {
         if (mainTaskEntity.getDependentTasks().contains(dependentTaskEntity)) {
             throw new InputValidationException("Dependency already exists");
         }
+        // Lock the project so that concurrent dependencies are checked one after the other, each against the
+        // dependencies the others committed
+        if (projectDao.lockProjectById(projectId) == null) {
+            throw new EntityNotFoundException("Project not found");
+        }
+        // Check that the main task does not already depend, directly or not, on the dependent task
+        if (taskGraph.wouldCreateCycle(projectId, mainTaskEntity.getId(), dependentTaskEntity.getId())) {
+            throw new InputValidationException("Dependency would create a cycle");
+        }
         try {
             // Establish the dependency relationship
             Set<TaskEntity> dependentTasks = mainTaskEntity.getDependentTasks();
             dependentTasks.add(dependentTaskEntity);
             Set<TaskEntity> prerequisites = dependentTaskEntity.getPrerequisites();
             prerequisites.add(mainTaskEntity);
+            taskGraph.dependencyAdded(projectId, mainTaskEntity.getId(), dependentTaskEntity.getId());
             // Log successful addition of dependency
             LOGGER.info("Dependency added successfully: Main Task ID: {}, Dependent Task ID: {}", dependencyDto.getMainTaskId(), dependencyDto.getDependentTaskId());
         } catch (PersistenceException e) {
@@ -325,6 +369,7 @@ public class TaskBean implements Serializable {
             dependentTasks.remove(dependentTaskEntity);
             Set<TaskEntity> prerequisites = dependentTaskEntity.getPrerequisites();
             prerequisites.remove(mainTaskEntity);
+            taskGraph.dependencyRemoved(projectId, mainTaskEntity.getId(), dependentTaskEntity.getId());
             // Log removal addition of dependency
             LOGGER.info("Dependency removed successfully: Main Task ID: {}, Dependent Task ID:" +
                     " {}", dependencyDto.getMainTaskId(), dependencyDto.getDependentTaskId());
@@ -379,6 +424,7 @@ public class TaskBean implements Serializable {
             // Validate state and handle state transitions
             validateAndHandleStateTransition(taskEntity, taskUpdateDto.getState(), authUserEntity);
             taskDao.persist(taskEntity);
+            taskGraph.taskChanged(taskEntity);
             LOGGER.info("Task updated successfully: Task ID: {}", taskUpdateDto.getTaskId());
         } catch (PersistenceException e) {
             LOGGER.error("Error while updating task: {}", e.getMessage());
@@ -496,6 +542,7 @@ public class TaskBean implements Serializable {
         try {
             // Update task entity fields based on DTO and validated entities
             updateTaskEntityFields(taskEntity, taskDetailedUpdateDto, newResponsibleUser, newRegisteredExecutors);
+            taskGraph.taskChanged(taskEntity);
             // Validate and handle state transition of the task
             validateAndHandleStateTransition(taskEntity, taskDetailedUpdateDto.getState(), authUserEntity);
             // Notify relevant parties about the task updates
@@ -599,7 +646,7 @@ public class TaskBean implements Serializable {
         if (newResponsibleUser == null) {
             throw new EntityNotFoundException("Responsible user not found");
         }
-        if (!projectMemberDao.isUserProjectMember(taskEntity.getProject().getId(), newResponsibleUser.getId())) {
+        if (!projectMembershipCache.isMember(taskEntity.getProject().getId(), newResponsibleUser.getId())) {
             throw new InputValidationException("Responsible user is not a member of the project");
         }
         return newResponsibleUser;
@@ -629,7 +676,7 @@ public class TaskBean implements Serializable {
             if (executor == null) {
                 throw new EntityNotFoundException("Registered executor not found");
             }
-            if (!projectMemberDao.isUserProjectMember(taskEntity.getProject().getId(), executorId)) {
+            if (!projectMembershipCache.isMember(taskEntity.getProject().getId(), executorId)) {
                 throw new InputValidationException("Executor with ID " + executorId + " is not a member of the project");
             }
             newRegisteredExecutors.add(executor);
@@ -722,7 +769,7 @@ public class TaskBean implements Serializable {
             throw new EntityNotFoundException("Task not found with this Id");
         }
         ProjectEntity projectEntity = taskEntity.getProject();
-        boolean isProjectMember = projectMemberDao.isUserProjectMember(projectEntity.getId(), authUserEntity.getId());
+        boolean isProjectMember = projectMembershipCache.isMember(projectEntity.getId(), authUserEntity.getId());
         if (!isProjectMember) {
             throw new EntityNotFoundException("User is not a member of the project");
         }
@@ -738,6 +785,7 @@ public class TaskBean implements Serializable {
             taskEntity.getPrerequisites().clear();
             // Mark the task as deleted
             taskEntity.setDeleted(true);
+            taskGraph.taskRemoved(taskEntity);
             String content = "Task deleted by " + authUserEntity.getUsername();
             projectBean.createProjectLog(taskEntity.getProject(), authUserEntity, LogTypeEnum.PROJECT_TASKS, content);
             LOGGER.info("Task deleted successfully: Task ID: {}", taskId);
@@ -0,0 +1,268 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.TaskDao;
+import aor.fpbackend.dto.Task.TaskScheduleDto;
+import aor.fpbackend.dto.Task.TaskScheduleEntryDto;
+import aor.fpbackend.entity.TaskEntity;
+import aor.fpbackend.exception.InputValidationException;
+import aor.fpbackend.utils.AfterCommit;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.TaskGraph;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * TaskGraphBean is a singleton EJB that caches the task dependency graph of each project, see {@link TaskGraph}.
+ * <br>
+ * The graph of a project is loaded the first time its schedule is needed, in a transaction of its own so that it
+ * reflects every committed change rather than the snapshot of the calling transaction. A new dependency is
+ * checked for cycles against a graph loaded afresh, see {@link #wouldCreateCycle(long, long, long)}. Every code path that creates or deletes a task, changes its
+ * planned dates or edits its dependencies must report it with {@link #taskChanged(TaskEntity)},
+ * {@link #taskRemoved(TaskEntity)}, {@link #dependencyAdded(long, long, long)} or
+ * {@link #dependencyRemoved(long, long, long)}. The changes are applied to the cached graph when the transaction
+ * commits, and only recompute the nodes they touch. A graph a change cannot be applied to is dropped and loaded
+ * again on next use, and graphs are reloaded after {@link GlobalSettings#TASK_GRAPH_MAX_AGE_MILLIS} in any case.
+ * <br>
+ * Concurrency is bean managed: the graphs synchronize internally, and the backing map is a
+ * {@link ConcurrentHashMap}.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class TaskGraphBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(TaskGraphBean.class);
+    private static final String PENDING_CHANGES = TaskGraphBean.class.getName() + ".pendingChanges";
+
+    @EJB
+    TaskDao taskDao;
+    @Resource
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    private final Map<Long, CachedGraph> graphs = new ConcurrentHashMap<>();
+    // Incremented by every commit applied to a project, so that a graph of it read meanwhile is not cached.
+    // Never reset, since a counter going back to null during a load would hide the commits it counted.
+    private final Map<Long, Long> appliedCommits = new ConcurrentHashMap<>();
+
+    /**
+     * Tells whether a new dependency would close a cycle in the dependencies of the project.
+     * <br>
+     * The check runs on the graph as committed in the database, not on the cached one, which may still miss a
+     * dependency whose transaction has committed but not yet been applied. The caller must hold the lock of the
+     * project row (see {@link aor.fpbackend.dao.ProjectDao#lockProjectById(long)}), so that no other dependency of
+     * the project commits between the check and its own commit.
+     *
+     * @param projectId      the ID of the project of both tasks.
+     * @param prerequisiteId the ID of the task that must finish first.
+     * @param dependentId    the ID of the task that depends on it.
+     * @return true if the prerequisite already depends, directly or not, on the dependent task.
+     * @throws InputValidationException if the existing dependencies of the project already form a cycle.
+     */
+    public boolean wouldCreateCycle(long projectId, long prerequisiteId, long dependentId) throws InputValidationException {
+        return loadAndCache(projectId, System.currentTimeMillis()).wouldCreateCycle(prerequisiteId, dependentId);
+    }
+
+    /**
+     * Computes the schedule of the tasks of a project from their planned durations and dependencies.
+     *
+     * @param projectId the ID of the project.
+     * @return the schedule, with the tasks in topological order, in days from the start of the project.
+     * @throws InputValidationException if the dependencies of the project form a cycle.
+     */
+    public TaskScheduleDto getSchedule(long projectId) throws InputValidationException {
+        TaskGraph.Snapshot snapshot = getGraph(projectId).snapshot();
+        List<TaskScheduleEntryDto> tasks = new ArrayList<>();
+        for (TaskGraph.ScheduledTask task : snapshot.schedule()) {
+            tasks.add(new TaskScheduleEntryDto(task.taskId(), task.duration(), task.earliestStart(), task.latestStart(), task.slack()));
+        }
+        return new TaskScheduleDto(projectId, snapshot.projectDuration(), snapshot.criticalPath(), tasks);
+    }
+
+    /**
+     * Adds a new task, or updates the planned duration of an existing one, once the current transaction commits.
+     *
+     * @param taskEntity the task, as it will be committed.
+     */
+    public void taskChanged(TaskEntity taskEntity) {
+        long taskId = taskEntity.getId();
+        long duration = plannedDuration(taskEntity.getPlannedStartDate(), taskEntity.getPlannedEndDate());
+        enqueue(taskEntity.getProject().getId(), graph -> graph.putTask(taskId, duration));
+    }
+
+    /**
+     * Removes a deleted task and its dependencies once the current transaction commits.
+     *
+     * @param taskEntity the deleted task.
+     */
+    public void taskRemoved(TaskEntity taskEntity) {
+        long taskId = taskEntity.getId();
+        enqueue(taskEntity.getProject().getId(), graph -> graph.removeTask(taskId));
+    }
+
+    /**
+     * Adds a dependency once the current transaction commits.
+     *
+     * @param projectId      the ID of the project of both tasks.
+     * @param prerequisiteId the ID of the task that must finish first.
+     * @param dependentId    the ID of the task that depends on it.
+     */
+    public void dependencyAdded(long projectId, long prerequisiteId, long dependentId) {
+        enqueue(projectId, graph -> graph.addDependency(prerequisiteId, dependentId));
+    }
+
+    /**
+     * Removes a dependency once the current transaction commits.
+     *
+     * @param projectId      the ID of the project of both tasks.
+     * @param prerequisiteId the ID of the task that had to finish first.
+     * @param dependentId    the ID of the task that depended on it.
+     */
+    public void dependencyRemoved(long projectId, long prerequisiteId, long dependentId) {
+        enqueue(projectId, graph -> graph.removeDependency(prerequisiteId, dependentId));
+    }
+
+    /**
+     * Drops the cached graph of a project, which is loaded again on next use.
+     *
+     * @param projectId the ID of the project.
+     */
+    public void invalidate(long projectId) {
+        graphs.remove(projectId);
+    }
+
+    public int size() {
+        return graphs.size();
+    }
+
+    /**
+     * Periodically drops the graphs that are past their maximum age.
+     */
+    @Schedule(hour = "*", minute = "*/5", persistent = false)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = graphs.size();
+        graphs.values().removeIf(cached -> cached.isExpired(now));
+        int evicted = before - graphs.size();
+        if (evicted > 0) {
+            LOGGER.debug("Evicted {} expired task graphs", evicted);
+        }
+    }
+
+    private TaskGraph getGraph(long projectId) throws InputValidationException {
+        long now = System.currentTimeMillis();
+        CachedGraph cached = graphs.get(projectId);
+        if (cached != null && !cached.isExpired(now)) {
+            return cached.graph;
+        }
+        return loadAndCache(projectId, now);
+    }
+
+    private TaskGraph loadAndCache(long projectId, long now) throws InputValidationException {
+        Long commitsBeforeLoad = appliedCommits.get(projectId);
+        TaskGraph graph = load(projectId);
+        if (Objects.equals(appliedCommits.get(projectId), commitsBeforeLoad)) {
+            if (graphs.size() >= GlobalSettings.TASK_GRAPH_CACHE_MAX_PROJECTS) {
+                makeRoom(now);
+            }
+            graphs.put(projectId, new CachedGraph(graph, now + GlobalSettings.TASK_GRAPH_MAX_AGE_MILLIS));
+        }
+        return graph;
+    }
+
+    private TaskGraph load(long projectId) throws InputValidationException {
+        long start = System.nanoTime();
+        TaskDao.TaskGraphRows rows = taskDao.findTaskGraphRowsByProjectId(projectId);
+        Map<Long, Long> durations = new HashMap<>();
+        for (Object[] row : rows.tasks()) {
+            durations.put((Long) row[0], plannedDuration((Instant) row[1], (Instant) row[2]));
+        }
+        List<long[]> dependencies = new ArrayList<>();
+        for (Object[] row : rows.dependencies()) {
+            dependencies.add(new long[]{(Long) row[0], (Long) row[1]});
+        }
+        try {
+            TaskGraph graph = TaskGraph.build(durations, dependencies);
+            LOGGER.debug("Task graph of project {} loaded with {} tasks in {} ms", projectId, graph.size(), (System.nanoTime() - start) / 1_000_000);
+            return graph;
+        } catch (IllegalStateException e) {
+            LOGGER.error("Task graph of project {} cannot be built: {}", projectId, e.getMessage());
+            throw new InputValidationException("Task dependencies of the project form a cycle");
+        }
+    }
+
+    private void enqueue(long projectId, Consumer<TaskGraph> change) {
+        if (!AfterCommit.inTransaction(transactionRegistry)) {
+            apply(Map.of(projectId, List.of(change)));
+            return;
+        }
+        Map<Long, List<Consumer<TaskGraph>>> pending =
+                AfterCommit.buffer(transactionRegistry, PENDING_CHANGES, LinkedHashMap::new, this::apply);
+        pending.computeIfAbsent(projectId, id -> new ArrayList<>()).add(change);
+    }
+
+    private void apply(Map<Long, List<Consumer<TaskGraph>>> changes) {
+        changes.forEach((projectId, projectChanges) -> {
+            appliedCommits.merge(projectId, 1L, Long::sum);
+            CachedGraph cached = graphs.get(projectId);
+            if (cached == null) {
+                return;
+            }
+            try {
+                projectChanges.forEach(change -> change.accept(cached.graph));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Task graph of project {} dropped, a committed change could not be applied: {}", projectId, e.getMessage());
+                graphs.remove(projectId);
+            }
+        });
+    }
+
+    private void makeRoom(long now) {
+        graphs.values().removeIf(cached -> cached.isExpired(now));
+        if (graphs.size() >= GlobalSettings.TASK_GRAPH_CACHE_MAX_PROJECTS) {
+            LOGGER.warn("Task graph cache is full, clearing {} graphs", graphs.size());
+            graphs.clear();
+        }
+    }
+
+    /**
+     * The planned duration of a task in whole days, or 0 if either planned date is missing.
+     */
+    private static long plannedDuration(Instant plannedStartDate, Instant plannedEndDate) {
+        if (plannedStartDate == null || plannedEndDate == null) {
+            return 0;
+        }
+        return Math.max(0, ChronoUnit.DAYS.between(plannedStartDate, plannedEndDate));
+    }
+
+    private static final class CachedGraph {
+        private final TaskGraph graph;
+        private final long expiresAt;
+
+        private CachedGraph(TaskGraph graph, long expiresAt) {
+            this.graph = graph;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.SessionDao;
+import aor.fpbackend.utils.BloomFilter;
+import aor.fpbackend.utils.GlobalSettings;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Schedule;
+import jakarta.ejb.Singleton;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TokenRevocationBean is a singleton EJB that tells which authentication tokens may have been revoked, for the
+ * stateless token verification mode of {@link SessionBean}.
+ * <br>
+ * The hashes of revoked tokens (logout, session renewal, invalidation) are kept in a {@link BloomFilter}. A miss
+ * means the token was certainly not revoked and its signed claims can be trusted; a hit only means it may have
+ * been, and the caller confirms it against the session table. Tokens of a user whose role changed are also sent
+ * to the session table until they are renewed, so a stale role claim is never trusted.
+ * <br>
+ * A Bloom filter cannot forget keys, so every ten minutes it is rebuilt from the sessions that were ended while
+ * their token was still valid, which drops the tokens that expired in the meantime. Revocations of the last
+ * {@link GlobalSettings#TOKEN_REVOCATION_RECENT_WINDOW_MILLIS} are also kept aside and copied into every rebuilt
+ * filter, so a revocation whose transaction had not committed when the rebuild ran is not lost.
+ * <br>
+ * The JWT signing key is generated at startup, so no token issued before a restart is accepted and the filter
+ * starts empty. Concurrency is bean managed; the filter and the maps are safe for concurrent use.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class TokenRevocationBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(TokenRevocationBean.class);
+
+    @EJB
+    SessionDao sessionDao;
+    @EJB
+    ConfigurationBean configurationBean;
+
+    private volatile BloomFilter revokedTokens = newFilter(0);
+    private final Map<String, Long> recentRevocations = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> claimsChangedAt = new ConcurrentHashMap<>();
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Records the revocation of an authentication token.
+     *
+     * @param authTokenHash the hash of the revoked authentication token.
+     */
+    public void revoke(String authTokenHash) {
+        if (authTokenHash == null) {
+            return;
+        }
+        // Recorded aside first: a rebuild that swaps the filter after this point copies it into the new filter
+        recentRevocations.put(authTokenHash, System.currentTimeMillis());
+        revokedTokens.put(authTokenHash);
+    }
+
+    /**
+     * Records that the claims of the tokens already issued to a user are stale, e.g. after a role change.
+     *
+     * @param userId the ID of the user.
+     */
+    public void revokeClaimsOfUser(long userId) {
+        claimsChangedAt.put(userId, Instant.now());
+    }
+
+    /**
+     * Tells whether a token has to be checked against the session table before its claims are trusted.
+     *
+     * @param authTokenHash the hash of the authentication token.
+     * @param userId        the ID of the user the token was issued to.
+     * @param issuedAt      the issue instant of the token, may be null.
+     * @return false if the token was certainly not revoked and its claims are current.
+     */
+    public boolean mightBeRevoked(String authTokenHash, long userId, Instant issuedAt) {
+        Instant changedAt = claimsChangedAt.get(userId);
+        // The issue instant of a JWT is truncated to the second, so a token issued in the same second is also checked
+        if (changedAt != null && (issuedAt == null || !issuedAt.isAfter(changedAt))) {
+            return true;
+        }
+        return revokedTokens.mightContain(authTokenHash);
+    }
+
+    /**
+     * Rebuilds the filter from the sessions ended before their token expired, forgetting the expired tokens.
+     */
+    @Schedule(hour = "*", minute = "*/10", persistent = false)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long now = System.currentTimeMillis();
+            recentRevocations.values().removeIf(revokedAt -> revokedAt < now - GlobalSettings.TOKEN_REVOCATION_RECENT_WINDOW_MILLIS);
+            long tokenLifetime = getSessionTimeout();
+            claimsChangedAt.values().removeIf(changedAt -> changedAt.toEpochMilli() < now - tokenLifetime);
+
+            List<String> revokedHashes = sessionDao.findRevokedTokenHashes(Instant.ofEpochMilli(now));
+            BloomFilter filter = newFilter(revokedHashes.size() + recentRevocations.size());
+            revokedHashes.forEach(filter::put);
+            recentRevocations.keySet().forEach(filter::put);
+            revokedTokens = filter;
+            // Revocations that reached the previous filter while this one was being filled
+            recentRevocations.keySet().forEach(filter::put);
+            LOGGER.debug("Token revocation filter rebuilt with {} revoked tokens", revokedHashes.size());
+        }
+    }
+
+    private long getSessionTimeout() {
+        int sessionTimeout = configurationBean.getSessionTimeout();
+        return sessionTimeout > 0 ? sessionTimeout : GlobalSettings.DEFAULT_SESSION_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Sizes a filter for twice the current revocations, leaving room for those until the next rebuild.
+     * An overfilled filter stays correct; it only sends more tokens to the session table.
+     */
+    private static BloomFilter newFilter(int revokedTokens) {
+        int capacity = Math.max(GlobalSettings.TOKEN_REVOCATION_FILTER_MIN_CAPACITY, revokedTokens * 2);
+        return new BloomFilter(capacity, GlobalSettings.TOKEN_REVOCATION_FILTER_FALSE_POSITIVE_RATE);
+    }
+}
@@ -74,6 +74,8 @@ public class UserBean implements Serializable {
     ProjectMembershipDao projectMemberDao;
     @EJB
     SessionBean sessionBean;
+    @EJB
+    ProjectCatalogueBean projectCatalogue;
 
     /**
      * Registers a new user in the system.
@@ -321,6 +323,8 @@ public class UserBean implements Serializable {
             if (updatedUser.getBiography() != null) userEntity.setBiography(updatedUser.getBiography());
             userEntity.setPrivate(updatedUser.isPrivate());
             userDao.merge(userEntity);
+            // The photo of a member is shown in the project catalogue
+            projectCatalogue.invalidate();
             LOGGER.info("User profile updated");
         } catch (PersistenceException e) {
             throw new DatabaseOperationException("Persistence error while updating user profile, " +  e);
@@ -623,6 +627,8 @@ public class UserBean implements Serializable {
         try{
             userEntity.setRole(newRole);
             userDao.merge(userEntity);
+            sessionBean.evictCachedAuthentications(userEntity.getId());
+            projectCatalogue.invalidate();
             LOGGER.info("User Role updated successfully");
         } catch (PersistenceException e) {
             LOGGER.error("Error while updating user role at: " + e.getMessage());
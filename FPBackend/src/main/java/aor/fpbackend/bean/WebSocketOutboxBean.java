@@ -0,0 +1,61 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.websocket.WebSocketMetrics;
+import aor.fpbackend.websocket.WebSocketOutbox;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * WebSocketOutboxBean is a singleton EJB that owns the threads of the outbound WebSocket pipeline,
+ * see {@link WebSocketOutbox}.
+ * <br>
+ * The threads come from the container's {@link ManagedThreadFactory}, so they carry the application context and
+ * are accounted for by the server. They only start sends, which complete through a callback, so a small fixed
+ * pool serves any number of sessions, slow ones included. They are stopped with the application.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class WebSocketOutboxBean implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(WebSocketOutboxBean.class);
+
+    @Resource
+    ManagedThreadFactory threadFactory;
+
+    private transient ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(GlobalSettings.WS_OUTBOUND_THREADS, threadFactory);
+        WebSocketOutbox.start(executor, GlobalSettings.WS_OUTBOUND_QUEUE_CAPACITY, GlobalSettings.WS_SEND_TIMEOUT_MILLIS,
+                GlobalSettings.WS_SLOW_CONSUMER_POLICY);
+    }
+
+    @PreDestroy
+    public void stop() {
+        WebSocketOutbox.stop();
+        executor.shutdownNow();
+        LOGGER.info("WebSocket outbox stopped: {}", WebSocketOutbox.getMetrics());
+    }
+
+    /**
+     * @return the counters of the outbound WebSocket pipeline since it started.
+     */
+    public WebSocketMetrics getMetrics() {
+        return WebSocketOutbox.getMetrics();
+    }
+}
@@ -76,4 +76,25 @@ public abstract class AbstractDao<T extends Serializable> implements Serializabl
     public void flush() {
         em.flush();
     }
+
+    /**
+     * Moves a table id generator past the ids already present in its table.
+     * <p>
+     * The entities inserted in bulk (logs, notifications, memberships and assets) use a table generator instead of
+     * IDENTITY, since Hibernate cannot JDBC batch inserts whose id is only known after each insert. Databases created
+     * before that switch hold ids generated by auto increment, which the generator must not hand out again.
+     * </p>
+     *
+     * @param table          the table of the entity.
+     * @param generatorKey   the row of the generator in the id_generator table.
+     * @param allocationSize the allocation size of the generator.
+     */
+    protected void alignIdGenerator(String table, String generatorKey, int allocationSize) {
+        em.createNativeQuery("INSERT INTO id_generator (entity_name, next_id) " +
+                        "SELECT :generatorKey, COALESCE(MAX(id), 0) + :gap FROM " + table + " " +
+                        "ON DUPLICATE KEY UPDATE next_id = GREATEST(next_id, VALUES(next_id))")
+                .setParameter("generatorKey", generatorKey)
+                .setParameter("gap", allocationSize + 1)
+                .executeUpdate();
+    }
 }
@@ -3,6 +3,7 @@ package aor.fpbackend.dao;
 import aor.fpbackend.entity.*;
 import aor.fpbackend.enums.AssetTypeEnum;
 import aor.fpbackend.enums.QueryParams;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
@@ -13,6 +14,7 @@ import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.core.UriInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -38,7 +40,7 @@ public class AssetDao extends AbstractDao<AssetEntity> {
     public boolean checkAssetExistByName(String name) {
         try {
             Long count = (Long) em.createNamedQuery("Asset.countAssetByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
             return count > 0;
         } catch (NoResultException e) {
@@ -49,7 +51,7 @@ public class AssetDao extends AbstractDao<AssetEntity> {
     public boolean checkAssetExistByPartNumber(String partNumber) {
         try {
             Long count = (Long) em.createNamedQuery("Asset.countAssetByPartNumber")
-                    .setParameter("partNumber", partNumber)
+                    .setParameter("partNumberKey", LookupKey.of(partNumber))
                     .getSingleResult();
             return count > 0;
         } catch (NoResultException e) {
@@ -60,13 +62,25 @@ public class AssetDao extends AbstractDao<AssetEntity> {
     public AssetEntity findAssetByName(String name) {
         try {
             return (AssetEntity) em.createNamedQuery("Asset.findAssetByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
         }
     }
 
+    /**
+     * Finds the assets with any of the given names in one query, ignoring case.
+     *
+     * @param names the lookup keys of the names, not empty.
+     * @return the assets found.
+     */
+    public List<AssetEntity> findAssetsByNames(Collection<String> names) {
+        return em.createNamedQuery("Asset.findAssetsByNames", AssetEntity.class)
+                .setParameter("nameKeys", names)
+                .getResultList();
+    }
+
     public AssetEntity findAssetById(long assetId) {
         try {
             return (AssetEntity) em.createNamedQuery("Asset.findAssetById")
@@ -91,8 +105,8 @@ public class AssetDao extends AbstractDao<AssetEntity> {
 
     public List<AssetEntity> getAssetsByFirstLetter(String firstLetter) {
         TypedQuery<AssetEntity> query = em.createQuery(
-                "SELECT a FROM AssetEntity a WHERE LOWER(a.name) LIKE :pattern", AssetEntity.class);
-        query.setParameter("pattern", firstLetter + "%");
+                "SELECT a FROM AssetEntity a WHERE a.nameKey LIKE :pattern", AssetEntity.class);
+        query.setParameter("pattern", LookupKey.of(firstLetter) + "%");
         return query.getResultList();
     }
 
@@ -172,4 +186,14 @@ public class AssetDao extends AbstractDao<AssetEntity> {
         return predicates;
     }
 
+    /**
+     * Fills the lookup keys of the assets written before the name_key and part_number_key columns existed.
+     *
+     * @return the number of assets updated.
+     */
+    public int backfillLookupKeys() {
+        return em.createQuery("UPDATE AssetEntity a SET a.nameKey = LOWER(a.name), a.partNumberKey = LOWER(a.partNumber) " +
+                        "WHERE a.nameKey IS NULL OR a.partNumberKey IS NULL")
+                .executeUpdate();
+    }
 }
@@ -7,7 +7,6 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import aor.fpbackend.entity.ConfigurationEntity;
-import jakarta.persistence.TypedQuery;
 
 import java.util.List;
 
@@ -66,11 +65,4 @@ public class ConfigurationDao extends AbstractDao<ConfigurationEntity> {
                 .getResultList();
     }
 
-    public int getMaxProjectMembers() {
-        String configKey = "maxProjectMembers";
-        TypedQuery<Integer> query = em.createNamedQuery("Configuration.findConfigValueByConfigKey", Integer.class);
-        query.setParameter("configKey", configKey);
-        return query.getSingleResult();
-    }
-
 }
@@ -12,7 +12,12 @@ import jakarta.persistence.TypedQuery;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 /**
  * GroupMessageDao class provides data access operations for {@link GroupMessageEntity}.
  * <p>
@@ -35,7 +40,7 @@ public class GroupMessageDao extends AbstractDao<GroupMessageEntity> {
 
     public List<GroupMessageEntity> getGroupMessagesByProjectId(long projectId) {
         TypedQuery<GroupMessageEntity> query = em.createQuery(
-                "SELECT gm FROM GroupMessageEntity gm WHERE gm.group.id = :projectId ORDER BY gm.sentTime",
+                "SELECT gm FROM GroupMessageEntity gm JOIN FETCH gm.sender WHERE gm.group.id = :projectId ORDER BY gm.sentTime, gm.id",
                 GroupMessageEntity.class
         );
         query.setParameter("projectId", projectId);
@@ -52,16 +57,157 @@ public class GroupMessageDao extends AbstractDao<GroupMessageEntity> {
         }
     }
 
-    public List<GroupMessageEntity> findPreviousGroupMessages(long projectId, Instant sentTime) {
-        try {
-            TypedQuery<GroupMessageEntity> query = em.createNamedQuery("GroupMessage.findPreviousGroupMessages", GroupMessageEntity.class)
-                    .setParameter("projectId", projectId)
-                    .setParameter("sentTime", sentTime);
+    /**
+     * Retrieves the most recent messages of a project, newest first.
+     *
+     * @param projectId the ID of the project.
+     * @param limit     the maximum number of messages to return.
+     * @return the messages ordered by (sentTime, id) descending.
+     */
+    public List<GroupMessageEntity> findLatestGroupMessages(long projectId, int limit) {
+        return em.createNamedQuery("GroupMessage.findLatestGroupMessages", GroupMessageEntity.class)
+                .setParameter("projectId", projectId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
 
-            return query.getResultList();
-        } catch (NoResultException e) {
-            return List.of(); // Using List.of() to return an immutable empty list
+    /**
+     * Retrieves the messages of a project sent strictly before the given (sentTime, id) position, newest first.
+     * Ties on sentTime are broken by id, so no message is skipped or repeated between pages.
+     *
+     * @param projectId the ID of the project.
+     * @param sentTime  the sent time of the cursor message.
+     * @param messageId the ID of the cursor message.
+     * @param limit     the maximum number of messages to return.
+     * @return the messages ordered by (sentTime, id) descending.
+     */
+    public List<GroupMessageEntity> findPreviousGroupMessages(long projectId, Instant sentTime, long messageId, int limit) {
+        return em.createNamedQuery("GroupMessage.findPreviousGroupMessages", GroupMessageEntity.class)
+                .setParameter("projectId", projectId)
+                .setParameter("sentTime", sentTime)
+                .setParameter("messageId", messageId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Retrieves the messages of a project sent strictly after the given (sentTime, id) position, oldest first.
+     *
+     * @param projectId the ID of the project.
+     * @param sentTime  the sent time of the cursor message.
+     * @param messageId the ID of the cursor message.
+     * @param limit     the maximum number of messages to return.
+     * @return the messages ordered by (sentTime, id) ascending.
+     */
+    public List<GroupMessageEntity> findGroupMessagesSince(long projectId, Instant sentTime, long messageId, int limit) {
+        return em.createNamedQuery("GroupMessage.findGroupMessagesSince", GroupMessageEntity.class)
+                .setParameter("projectId", projectId)
+                .setParameter("sentTime", sentTime)
+                .setParameter("messageId", messageId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Retrieves the read receipts of several messages in a single query.
+     *
+     * @param messageIds the IDs of the messages.
+     * @return a map from message ID to the IDs of the users that read it; messages without receipts are absent.
+     */
+    public Map<Long, Set<Long>> findReadReceiptsByMessageIds(Collection<Long> messageIds) {
+        Map<Long, Set<Long>> receipts = new HashMap<>();
+        if (messageIds == null || messageIds.isEmpty()) {
+            return receipts;
+        }
+        List<Object[]> rows = em.createNamedQuery("GroupMessage.findReadReceiptsByMessageIds", Object[].class)
+                .setParameter("messageIds", messageIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            receipts.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((Long) row[1]);
+        }
+        return receipts;
+    }
+
+    /**
+     * Adds read receipts for several users on several messages of a project with a single INSERT ... SELECT.
+     * Only accepted members of the project get a receipt, and existing receipts are left untouched.
+     *
+     * @param projectId  the ID of the project the messages belong to.
+     * @param messageIds the IDs of the messages.
+     * @param userIds    the IDs of the readers.
+     * @return the number of receipts added.
+     */
+    public int insertReadReceipts(long projectId, Collection<Long> messageIds, Collection<Long> userIds) {
+        if (messageIds == null || messageIds.isEmpty() || userIds == null || userIds.isEmpty()) {
+            return 0;
         }
+        return em.createNativeQuery("INSERT INTO group_message_read_receipts (message_id, user_id) " +
+                        "SELECT gm.id, pm.user_id FROM group_message gm " +
+                        "JOIN project_membership pm ON pm.project_id = gm.group_id AND pm.is_accepted = true " +
+                        "WHERE gm.group_id = :projectId AND gm.id IN (:messageIds) AND pm.user_id IN (:userIds) " +
+                        "AND NOT EXISTS (SELECT 1 FROM group_message_read_receipts r WHERE r.message_id = gm.id AND r.user_id = pm.user_id)")
+                .setParameter("projectId", projectId)
+                .setParameter("messageIds", messageIds)
+                .setParameter("userIds", userIds)
+                .executeUpdate();
+    }
+
+    /**
+     * Adds a read receipt for a user on every message of a project up to, and including, the given message,
+     * following the (sentTime, id) order, with a single INSERT ... SELECT.
+     *
+     * @param projectId     the ID of the project.
+     * @param userId        the ID of the reader.
+     * @param upToMessageId the ID of the newest message read.
+     * @return the number of receipts added.
+     */
+    public int insertReadReceiptsUpTo(long projectId, long userId, long upToMessageId) {
+        return em.createNativeQuery("INSERT INTO group_message_read_receipts (message_id, user_id) " +
+                        "SELECT gm.id, :userId FROM group_message gm " +
+                        "JOIN group_message c ON c.id = :upToMessageId AND c.group_id = gm.group_id " +
+                        "WHERE gm.group_id = :projectId " +
+                        "AND (gm.sent_time < c.sent_time OR (gm.sent_time = c.sent_time AND gm.id <= c.id)) " +
+                        "AND NOT EXISTS (SELECT 1 FROM group_message_read_receipts r WHERE r.message_id = gm.id AND r.user_id = :userId)")
+                .setParameter("projectId", projectId)
+                .setParameter("userId", userId)
+                .setParameter("upToMessageId", upToMessageId)
+                .executeUpdate();
+    }
+
+    /**
+     * Returns, among the given messages, those read by every accepted member of their project.
+     *
+     * @param messageIds the IDs of the messages.
+     * @return the IDs of the fully read messages.
+     */
+    public List<Long> findFullyReadMessageIds(Collection<Long> messageIds) {
+        if (messageIds == null || messageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.createNamedQuery("GroupMessage.findFullyReadMessageIds", Long.class)
+                .setParameter("messageIds", messageIds)
+                .getResultList();
+    }
+
+    /**
+     * Returns the messages of a project not yet marked as viewed that have been read by every accepted member.
+     *
+     * @param projectId the ID of the project.
+     * @return the IDs of the fully read messages.
+     */
+    public List<Long> findFullyReadUnviewedMessageIds(long projectId) {
+        return em.createNamedQuery("GroupMessage.findFullyReadUnviewedMessageIds", Long.class)
+                .setParameter("projectId", projectId)
+                .getResultList();
+    }
+
+    public int markMessagesAsViewed(Collection<Long> messageIds) {
+        if (messageIds == null || messageIds.isEmpty()) {
+            return 0;
+        }
+        return em.createNamedQuery("GroupMessage.markMessagesAsViewed")
+                .setParameter("messageIds", messageIds)
+                .executeUpdate();
     }
 
     public List<GroupMessageEntity> getMessagesByIds(List<Long> messageIds) {
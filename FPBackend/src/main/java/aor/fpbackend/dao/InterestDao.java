@@ -3,6 +3,7 @@ package aor.fpbackend.dao;
 
 import aor.fpbackend.entity.InterestEntity;
 import aor.fpbackend.entity.KeywordEntity;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
@@ -32,7 +33,7 @@ public class InterestDao extends AbstractDao<InterestEntity> {
     public boolean checkInterestExist(String name) {
         try {
             Long count = (Long) em.createNamedQuery("Interest.countInterestByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
             return count > 0;
         } catch (NoResultException e) {
@@ -43,7 +44,7 @@ public class InterestDao extends AbstractDao<InterestEntity> {
     public InterestEntity findInterestByName(String name) {
         try {
             return (InterestEntity) em.createNamedQuery("Interest.findInterestByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
@@ -79,8 +80,18 @@ public class InterestDao extends AbstractDao<InterestEntity> {
 
     public List<InterestEntity> getInterestsByFirstLetter(String firstLetter) {
         TypedQuery<InterestEntity> query = em.createQuery(
-                "SELECT i FROM InterestEntity i WHERE LOWER(i.name) LIKE :pattern", InterestEntity.class);
-        query.setParameter("pattern", firstLetter + "%");
+                "SELECT i FROM InterestEntity i WHERE i.nameKey LIKE :pattern", InterestEntity.class);
+        query.setParameter("pattern", LookupKey.of(firstLetter) + "%");
         return query.getResultList();
     }
+
+    /**
+     * Fills the lookup keys of the interests written before the name_key column existed.
+     *
+     * @return the number of interests updated.
+     */
+    public int backfillLookupKeys() {
+        return em.createQuery("UPDATE InterestEntity i SET i.nameKey = LOWER(i.name) WHERE i.nameKey IS NULL")
+                .executeUpdate();
+    }
 }
@@ -1,13 +1,17 @@
 package aor.fpbackend.dao;
 
 import aor.fpbackend.entity.KeywordEntity;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.StringJoiner;
 /**
  * KeywordDao class provides data access operations for {@link KeywordEntity}.
  * <p>
@@ -30,7 +34,7 @@ public class KeywordDao extends AbstractDao<KeywordEntity> {
     public boolean checkKeywordExist(String name) {
         try {
             Long count = (Long) em.createNamedQuery("Keyword.countKeywordByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
             return count > 0;
         } catch (NoResultException e) {
@@ -41,13 +45,45 @@ public class KeywordDao extends AbstractDao<KeywordEntity> {
     public KeywordEntity findKeywordByName(String name) {
         try {
             return (KeywordEntity) em.createNamedQuery("Keyword.findKeywordByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
         }
     }
 
+    /**
+     * Finds the keywords with any of the given names in one query, ignoring case.
+     *
+     * @param names the lookup keys of the names, not empty.
+     * @return the keywords found.
+     */
+    public List<KeywordEntity> findKeywordsByNames(Collection<String> names) {
+        return em.createNamedQuery("Keyword.findKeywordsByNames", KeywordEntity.class)
+                .setParameter("nameKeys", names)
+                .getResultList();
+    }
+
+    /**
+     * Inserts several keywords with a single multi-row statement. Keywords whose name already exists, for instance
+     * created meanwhile by another request, are skipped by the unique indexes on the name and its lookup key.
+     *
+     * @param names the names of the keywords to insert, not empty.
+     */
+    public void insertKeywordsIfAbsent(Collection<String> names) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < names.size(); i++) {
+            values.add("(?" + (2 * i + 1) + ", ?" + (2 * i + 2) + ")");
+        }
+        Query query = em.createNativeQuery("INSERT IGNORE INTO keyword (name, name_key) VALUES " + values);
+        int position = 1;
+        for (String name : names) {
+            query.setParameter(position++, name);
+            query.setParameter(position++, LookupKey.of(name));
+        }
+        query.executeUpdate();
+    }
+
     public KeywordEntity findKeywordById(long keyId) {
         try {
             return (KeywordEntity) em.createNamedQuery("Keyword.findKeywordById")
@@ -72,9 +108,18 @@ public class KeywordDao extends AbstractDao<KeywordEntity> {
 
     public List<KeywordEntity> getKeywordsByFirstLetter(String firstLetter) {
         TypedQuery<KeywordEntity> query = em.createQuery(
-                "SELECT k FROM KeywordEntity k WHERE LOWER(k.name) LIKE :pattern", KeywordEntity.class);
-        query.setParameter("pattern", firstLetter + "%");
+                "SELECT k FROM KeywordEntity k WHERE k.nameKey LIKE :pattern", KeywordEntity.class);
+        query.setParameter("pattern", LookupKey.of(firstLetter) + "%");
         return query.getResultList();
     }
-}
 
+    /**
+     * Fills the lookup keys of the keywords written before the name_key column existed.
+     *
+     * @return the number of keywords updated.
+     */
+    public int backfillLookupKeys() {
+        return em.createQuery("UPDATE KeywordEntity k SET k.nameKey = LOWER(k.name) WHERE k.nameKey IS NULL")
+                .executeUpdate();
+    }
+}
@@ -26,6 +26,22 @@ public class NotificationDao extends AbstractDao<NotificationEntity>{
         super(NotificationEntity.class);
     }
 
+    /**
+     * Persists all the given notifications. The inserts are written as JDBC batches when the
+     * persistence context is flushed (see {@code hibernate.jdbc.batch_size} in persistence.xml).
+     *
+     * @param notifications the notifications to persist.
+     */
+    public void persistAll(List<NotificationEntity> notifications) {
+        for (NotificationEntity notification : notifications) {
+            em.persist(notification);
+        }
+    }
+
+    public void alignIdGenerator(int allocationSize) {
+        alignIdGenerator("notification", "notification", allocationSize);
+    }
+
     public List<NotificationEntity> getUnreadbByUserNotifications(Long userId) {
         List<NotificationEntity> notifications = em.createQuery("SELECT n FROM NotificationEntity n WHERE n.user.id = :userId AND n.isRead = false", NotificationEntity.class)
                 .setParameter("userId", userId)
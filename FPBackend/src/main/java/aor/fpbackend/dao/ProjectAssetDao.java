@@ -66,4 +66,7 @@ public class ProjectAssetDao extends AbstractDao<ProjectAssetEntity> {
                 .getResultList();
     }
 
+    public void alignIdGenerator(int allocationSize) {
+        alignIdGenerator("project_asset", "project_asset", allocationSize);
+    }
 }
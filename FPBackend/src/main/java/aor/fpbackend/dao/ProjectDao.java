@@ -1,9 +1,10 @@
 package aor.fpbackend.dao;
 
+import aor.fpbackend.dto.Project.ProjectGetDto;
 import aor.fpbackend.entity.*;
 import aor.fpbackend.enums.ProjectStateEnum;
 import aor.fpbackend.enums.QueryParams;
-import jakarta.ejb.EJB;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.*;
@@ -11,6 +12,7 @@ import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.core.UriInfo;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -34,14 +36,11 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
     @PersistenceContext
     private EntityManager em;
 
-    @EJB
-    ConfigurationDao configDao;
-
 
     public boolean checkProjectNameExist(String name) {
         try {
             Long count = (Long) em.createNamedQuery("Project.countProjectByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
             return count > 0;
         } catch (NoResultException e) {
@@ -75,10 +74,21 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
         }
     }
 
+    /**
+     * Finds a project and locks its row until the current transaction ends, to serialize the changes to the
+     * project that must be validated against its committed state, such as new task dependencies.
+     *
+     * @param projectId the ID of the project.
+     * @return the project, or null if it does not exist.
+     */
+    public ProjectEntity lockProjectById(long projectId) {
+        return em.find(ProjectEntity.class, projectId, LockModeType.PESSIMISTIC_WRITE);
+    }
+
     public ProjectEntity findProjectByName(String name) {
         try {
             return (ProjectEntity) em.createNamedQuery("Project.findProjectByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
@@ -94,13 +104,143 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
         }
     }
 
-    public List<ProjectEntity> findFilteredProjects(int page, int pageSize, UriInfo uriInfo) {
+    /**
+     * Finds every project as a {@link ProjectGetDto} projection, with its laboratory and creator read in the same
+     * row. The members are left empty.
+     *
+     * @return the projects.
+     */
+    public List<ProjectGetDto> findAllProjectDtos() {
+        return em.createNamedQuery("Project.findAllProjectDtos", ProjectGetDto.class).getResultList();
+    }
+
+    /**
+     * Finds projects by ID as {@link ProjectGetDto} projections, in no particular order. The members are left empty.
+     *
+     * @param projectIds the IDs of the projects.
+     * @return the projects found.
+     */
+    public List<ProjectGetDto> findProjectDtosByIds(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.createNamedQuery("Project.findProjectDtosByIds", ProjectGetDto.class)
+                .setParameter("projectIds", projectIds)
+                .getResultList();
+    }
+
+    /**
+     * Finds the ID, name, description and motivation of every project, to build the search index.
+     *
+     * @return one row per project.
+     */
+    public List<Object[]> findSearchDocuments() {
+        return em.createNamedQuery("Project.findSearchDocuments", Object[].class).getResultList();
+    }
+
+    /**
+     * Finds the keyword names of every project, to build the search index.
+     *
+     * @return one (project ID, keyword name) row per keyword of a project.
+     */
+    public List<Object[]> findKeywordNamesByProject() {
+        return em.createNamedQuery("Project.findKeywordNamesByProject", Object[].class).getResultList();
+    }
+
+    /**
+     * Finds the skill names of every project, to build the search index.
+     *
+     * @return one (project ID, skill name) row per skill of a project.
+     */
+    public List<Object[]> findSkillNamesByProject() {
+        return em.createNamedQuery("Project.findSkillNamesByProject", Object[].class).getResultList();
+    }
+
+    /**
+     * Takes a member slot of a project, if the project is below the member limit.
+     * <p>
+     * The check and the increment are a single conditional UPDATE, so concurrent requests for the last slot
+     * cannot both succeed. The persistence context is not refreshed: read the count again with a query.
+     * </p>
+     *
+     * @param projectId  the ID of the project.
+     * @param maxMembers the member limit of a project.
+     * @return true if a slot was taken, false if the project is full or does not exist.
+     */
+    public boolean reserveMemberSlot(long projectId, int maxMembers) {
+        return em.createNamedQuery("Project.reserveMemberSlot")
+                .setParameter("projectId", projectId)
+                .setParameter("maxMembers", maxMembers)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Takes several member slots of a project at once, all or none, as {@link #reserveMemberSlot(long, int)} does
+     * for one.
+     *
+     * @param projectId  the ID of the project.
+     * @param count      the number of slots to take.
+     * @param maxMembers the member limit of a project.
+     * @return true if the slots were taken, false if they do not fit or the project does not exist.
+     */
+    public boolean reserveMemberSlots(long projectId, int count, int maxMembers) {
+        return em.createNamedQuery("Project.reserveMemberSlots")
+                .setParameter("projectId", projectId)
+                .setParameter("count", count)
+                .setParameter("maxMembers", maxMembers)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Gives back a member slot of a project, after one of its memberships is removed.
+     *
+     * @param projectId the ID of the project.
+     */
+    public void releaseMemberSlot(long projectId) {
+        em.createNamedQuery("Project.releaseMemberSlot")
+                .setParameter("projectId", projectId)
+                .executeUpdate();
+    }
+
+    /**
+     * Sets the member count of every project whose count differs from its number of memberships.
+     *
+     * @return the number of projects corrected.
+     */
+    public int reconcileMemberCounts() {
+        return em.createNamedQuery("Project.reconcileMemberCounts").executeUpdate();
+    }
+
+    /**
+     * Finds a page of projects matching the filter criteria of the request.
+     * <p>
+     * The page is read as {@link ProjectGetDto} projections with a single statement: the laboratory and the creator
+     * are joined and selected as columns, so no entity of the page is loaded. The members are left empty.
+     * </p>
+     *
+     * @param page              the page number, starting at 1.
+     * @param pageSize          the number of projects per page.
+     * @param uriInfo           the filter and sorting criteria.
+     * @param matchingIds       the projects matching the text criteria, resolved by the search index, or null if
+     *                          the request has no text criteria.
+     * @return the projects of the page.
+     */
+    public List<ProjectGetDto> findFilteredProjects(int page, int pageSize, UriInfo uriInfo, Collection<Long> matchingIds) {
         System.out.println("findFilteredProjects");
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<ProjectEntity> query = cb.createQuery(ProjectEntity.class);
+        CriteriaQuery<ProjectGetDto> query = cb.createQuery(ProjectGetDto.class);
         Root<ProjectEntity> projectRoot = query.from(ProjectEntity.class);
+        Join<ProjectEntity, LaboratoryEntity> laboratory = projectRoot.join("laboratory", JoinType.LEFT);
+        Join<ProjectEntity, UserEntity> createdBy = projectRoot.join("createdBy");
+        Join<UserEntity, RoleEntity> createdByRole = createdBy.join("role");
+
+        query.select(cb.construct(ProjectGetDto.class,
+                projectRoot.get("id"), projectRoot.get("name"), projectRoot.get("description"), projectRoot.get("motivation"),
+                projectRoot.get("state"), projectRoot.get("creationDate"), projectRoot.get("initialDate"), projectRoot.get("finalDate"),
+                projectRoot.get("conclusionDate"), projectRoot.get("isApproved"), laboratory.get("id"), laboratory.get("location"),
+                createdBy.get("id"), createdBy.get("username"), createdBy.get("photo"), createdByRole.get("id")));
 
-        List<Predicate> predicates = createPredicates(uriInfo, cb, projectRoot);
+        List<Predicate> predicates = createPredicates(uriInfo, cb, projectRoot, matchingIds);
 
         query.where(cb.and(predicates.toArray(new Predicate[0])));
 
@@ -118,13 +258,8 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
                     orderList.add(QueryParams.DESC.equalsIgnoreCase(orderBy) ? cb.desc(projectRoot.get(QueryParams.CREATION_DATE)) : cb.asc(projectRoot.get(QueryParams.CREATION_DATE)));
                     break;
                 case QueryParams.OPEN_POSITIONS:
-                    Subquery<Long> subquery = query.subquery(Long.class);
-                    Root<ProjectMembershipEntity> subRoot = subquery.from(ProjectMembershipEntity.class);
-                    subquery.select(cb.count(subRoot.get("id"))).where(cb.equal(subRoot.get("project"), projectRoot));
-                    Expression<Integer> maxMembersExpr = cb.literal(configDao.getMaxProjectMembers());
-                    Expression<Long> currentMembersExpr = cb.coalesce(subquery.getSelection(), 0L);
-                    Expression<Integer> openPositionsExpr = cb.diff(maxMembersExpr, currentMembersExpr.as(Integer.class));
-                    orderList.add(QueryParams.DESC.equalsIgnoreCase(orderBy) ? cb.desc(openPositionsExpr) : cb.asc(openPositionsExpr));
+                    // Open positions are the member limit minus the member count, so they sort in reverse of the indexed count
+                    orderList.add(QueryParams.DESC.equalsIgnoreCase(orderBy) ? cb.asc(projectRoot.get("memberCount")) : cb.desc(projectRoot.get("memberCount")));
                     break;
                 case QueryParams.STATE:
                     orderList.add(QueryParams.DESC.equalsIgnoreCase(orderBy) ? cb.desc(projectRoot.get(QueryParams.STATE)) : cb.asc(projectRoot.get(QueryParams.STATE)));
@@ -143,7 +278,7 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
 
         query.orderBy(orderList);
 
-        TypedQuery<ProjectEntity> typedQuery = em.createQuery(query)
+        TypedQuery<ProjectGetDto> typedQuery = em.createQuery(query)
                 .setFirstResult((page - 1) * pageSize)
                 .setMaxResults(pageSize);
 
@@ -151,22 +286,51 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
     }
 
 
-    public long countFilteredProjects(UriInfo uriInfo) {
+    public long countFilteredProjects(UriInfo uriInfo, Collection<Long> matchingIds) {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<Long> query = cb.createQuery(Long.class);
         Root<ProjectEntity> projectRoot = query.from(ProjectEntity.class);
 
         query.select(cb.count(projectRoot));
 
-        List<Predicate> predicates = createPredicates(uriInfo, cb, projectRoot);
+        List<Predicate> predicates = createPredicates(uriInfo, cb, projectRoot, matchingIds);
 
         query.where(cb.and(predicates.toArray(new Predicate[0])));
 
         return em.createQuery(query).getSingleResult();
     }
 
-    private List<Predicate> createPredicates(UriInfo uriInfo, CriteriaBuilder cb, Root<ProjectEntity> projectRoot) {
+    /**
+     * Finds the IDs of every project matching the filter criteria of the request, without paging or sorting.
+     * Used to rank the matches of a text search by relevance before paging them in memory.
+     *
+     * @param uriInfo     the filter criteria.
+     * @param matchingIds the projects matching the text criteria, resolved by the search index.
+     * @return the IDs of the projects matching all criteria.
+     */
+    public List<Long> findFilteredProjectIds(UriInfo uriInfo, Collection<Long> matchingIds) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ProjectEntity> projectRoot = query.from(ProjectEntity.class);
+
+        query.select(projectRoot.get("id"));
+
+        List<Predicate> predicates = createPredicates(uriInfo, cb, projectRoot, matchingIds);
+
+        query.where(cb.and(predicates.toArray(new Predicate[0])));
+
+        return em.createQuery(query).getResultList();
+    }
+
+    /**
+     * Builds the predicates of the structured filter criteria. The text criteria (name, keywords, skills and search)
+     * are resolved beforehand by the search index and arrive as the set of matching project IDs.
+     */
+    private List<Predicate> createPredicates(UriInfo uriInfo, CriteriaBuilder cb, Root<ProjectEntity> projectRoot, Collection<Long> matchingIds) {
         List<Predicate> predicates = new ArrayList<>();
+        if (matchingIds != null) {
+            predicates.add(projectRoot.get("id").in(matchingIds));
+        }
         Map<String, List<String>> filters = uriInfo.getQueryParameters()
                 .entrySet()
                 .stream()
@@ -180,9 +344,6 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
                 return;
             }
             switch (key) {
-                case QueryParams.NAME:
-                    predicates.add(cb.like(cb.lower(projectRoot.get(QueryParams.NAME)), "%" + values.get(0).toLowerCase() + "%"));
-                    break;
                 case QueryParams.STATE:
                     try {
                         ProjectStateEnum state = ProjectStateEnum.valueOf(values.get(0).toUpperCase());
@@ -191,14 +352,6 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
                         throw new BadRequestException("Invalid value for project state: " + values.get(0));
                     }
                     break;
-                case QueryParams.KEYWORDS:
-                    Join<ProjectEntity, KeywordEntity> keywordJoin = projectRoot.join("projectKeywords");
-                    predicates.add(cb.like(cb.lower(keywordJoin.get("name")), "%" + values.get(0).toLowerCase() + "%"));
-                    break;
-                case QueryParams.SKILLS:
-                    Join<ProjectEntity, SkillEntity> skillJoin = projectRoot.join("projectSkills");
-                    predicates.add(cb.like(cb.lower(skillJoin.get("name")), "%" + values.get(0).toLowerCase() + "%"));
-                    break;
                 case QueryParams.LABORATORY:
                     Join<ProjectEntity, LaboratoryEntity> labJoin = projectRoot.join("laboratory");
                     predicates.add(cb.equal(labJoin.get("id"), Long.parseLong(values.get(0))));
@@ -246,6 +399,13 @@ public class ProjectDao extends AbstractDao<ProjectEntity> {
         return (Double) query.getSingleResult();
     }
 
-
-
+    /**
+     * Fills the lookup keys of the projects written before the name_key column existed.
+     *
+     * @return the number of projects updated.
+     */
+    public int backfillLookupKeys() {
+        return em.createQuery("UPDATE ProjectEntity p SET p.nameKey = LOWER(p.name) WHERE p.nameKey IS NULL")
+                .executeUpdate();
+    }
 }
@@ -1,11 +1,18 @@
 package aor.fpbackend.dao;
 
+import aor.fpbackend.dto.Project.ProjectLogGetDto;
+import aor.fpbackend.entity.ProjectEntity;
 import aor.fpbackend.entity.ProjectLogEntity;
+import aor.fpbackend.entity.UserEntity;
+import aor.fpbackend.enums.LogTypeEnum;
+import aor.fpbackend.utils.ProjectLogEvent;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -36,13 +43,102 @@ public class ProjectLogDao extends AbstractDao<ProjectLogEntity> {
         }
     }
 
-    public List<ProjectLogEntity> findProjectLogsByProjectId(long projectId) {
+    /**
+     * Persists a project log for each event. The project and user are referenced by ID without being loaded,
+     * and the inserts are written as JDBC batches when the persistence context is flushed
+     * (see {@code hibernate.jdbc.batch_size} in persistence.xml).
+     *
+     * @param events the logs to insert.
+     */
+    public void insertLogs(List<ProjectLogEvent> events) {
+        for (ProjectLogEvent event : events) {
+            em.persist(new ProjectLogEntity(event.getCreationDate(), event.getType(), event.getContent(),
+                    em.getReference(UserEntity.class, event.getUserId()), em.getReference(ProjectEntity.class, event.getProjectId())));
+        }
+    }
+
+    public void alignIdGenerator(int allocationSize) {
+        alignIdGenerator("project_log", "project_log", allocationSize);
+    }
+
+    /**
+     * Finds every log of a project as {@link ProjectLogGetDto} projections, oldest first.
+     *
+     * @param projectId the ID of the project.
+     * @return the logs of the project.
+     */
+    public List<ProjectLogGetDto> findProjectLogDtosByProjectId(long projectId) {
+        return em.createNamedQuery("ProjectLog.findProjectLogDtosByProjectId", ProjectLogGetDto.class)
+                .setParameter("projectId", projectId)
+                .getResultList();
+    }
+
+    /**
+     * Finds the creation date of a log of a project, the position of a page cursor.
+     *
+     * @param projectId the ID of the project.
+     * @param logId     the ID of the log.
+     * @return the creation date, or null if the log does not exist in the project.
+     */
+    public Instant findProjectLogCreationDate(long projectId, long logId) {
         try {
-            return em.createNamedQuery("ProjectLog.findProjectLogsByProjectId", ProjectLogEntity.class)
+            return em.createNamedQuery("ProjectLog.findProjectLogCreationDate", Instant.class)
                     .setParameter("projectId", projectId)
-                    .getResultList();
+                    .setParameter("logId", logId)
+                    .getSingleResult();
         } catch (NoResultException e) {
             return null;
         }
     }
+
+    /**
+     * Finds a page of the logs of a project, newest first, as {@link ProjectLogGetDto} projections.
+     * <p>
+     * The page starts strictly after the (creationDate, id) position of the cursor, so no log is skipped or
+     * repeated between pages, and is read with a single statement on the (project_id, creation_date) index.
+     * </p>
+     *
+     * @param projectId  the ID of the project.
+     * @param type       the log type to keep, or null for every type.
+     * @param from       the earliest creation date to keep (inclusive), or null.
+     * @param to         the latest creation date to keep (exclusive), or null.
+     * @param cursorDate the creation date of the cursor log, or null for the first page.
+     * @param cursorId   the ID of the cursor log; ignored without a cursor date.
+     * @param limit      the maximum number of logs to return.
+     * @return the logs ordered by (creationDate, id) descending.
+     */
+    public List<ProjectLogGetDto> findProjectLogPage(long projectId, LogTypeEnum type, Instant from, Instant to,
+                                                     Instant cursorDate, long cursorId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ProjectLogGetDto> query = cb.createQuery(ProjectLogGetDto.class);
+        Root<ProjectLogEntity> logRoot = query.from(ProjectLogEntity.class);
+        Join<ProjectLogEntity, UserEntity> user = logRoot.join("user");
+        Join<ProjectLogEntity, ProjectEntity> project = logRoot.join("project");
+        Path<Instant> creationDate = logRoot.get("creationDate");
+
+        query.select(cb.construct(ProjectLogGetDto.class, logRoot.get("id"), creationDate, logRoot.get("type"),
+                logRoot.get("content"), user.get("username"), project.get("name")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(logRoot.get("project").get("id"), projectId));
+        if (type != null) {
+            predicates.add(cb.equal(logRoot.get("type"), type));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(creationDate, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(creationDate, to));
+        }
+        if (cursorDate != null) {
+            predicates.add(cb.or(cb.lessThan(creationDate, cursorDate),
+                    cb.and(cb.equal(creationDate, cursorDate), cb.lessThan(logRoot.get("id"), cursorId))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(creationDate), cb.desc(logRoot.get("id")));
+
+        return em.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
 }
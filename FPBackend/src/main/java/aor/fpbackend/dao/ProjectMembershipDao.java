@@ -10,6 +10,8 @@ import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 /**
  * ProjectMembershipDao class provides data access operations for {@link ProjectMembershipEntity}.
@@ -107,10 +109,29 @@ public class ProjectMembershipDao extends AbstractDao<ProjectMembershipEntity> {
         query.setParameter("projectId", projectId);
         return query.getResultList();
     }
+
+    /**
+     * Finds the memberships of several projects with a single query.
+     *
+     * @param projectIds the IDs of the projects.
+     * @return the memberships of those projects, with the basic info of each member.
+     */
+    public List<ProjectMembershipDto> getUsersByProjects(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return em.createNamedQuery("ProjectMembership.findProjectMembershipsByProjects", ProjectMembershipDto.class)
+                .setParameter("projectIds", projectIds)
+                .getResultList();
+    }
+
     public List<UserEntity> findProjectActiveMembersByProjectId(long projectId) {
         return em.createNamedQuery("ProjectMembership.findProjectActiveMembersByProjectId", UserEntity.class)
                 .setParameter("projectId", projectId)
                 .getResultList();
     }
 
+    public void alignIdGenerator(int allocationSize) {
+        alignIdGenerator("project_membership", "project_membership", allocationSize);
+    }
 }
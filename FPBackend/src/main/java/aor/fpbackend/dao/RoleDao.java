@@ -11,6 +11,7 @@ import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 /**
  * RoleDao class provides data access operations for {@link RoleEntity}.
@@ -41,6 +42,11 @@ public class RoleDao extends AbstractDao<RoleEntity> {
         }
     }
 
+    public List<RoleEntity> findAllRolesWithPermissions() {
+        return em.createQuery("SELECT DISTINCT r FROM RoleEntity r LEFT JOIN FETCH r.methods", RoleEntity.class)
+                .getResultList();
+    }
+
     public boolean checkRoleExist(UserRoleEnum name) {
         try {
             Long count = (Long) em.createNamedQuery("Role.countRoleByName")
@@ -2,15 +2,14 @@ package aor.fpbackend.dao;
 
 
 import aor.fpbackend.entity.SessionEntity;
+import aor.fpbackend.utils.TokenHasher;
 
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -37,7 +36,7 @@ public class SessionDao extends AbstractDao<SessionEntity> {
     public SessionEntity findSessionByAuthToken(String tokenValue) {
         try {
             return (SessionEntity) em.createNamedQuery("Session.findSessionByAuthToken")
-                    .setParameter("tokenValue", tokenValue)
+                    .setParameter("tokenHash", TokenHasher.hash(tokenValue))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
@@ -47,24 +46,89 @@ public class SessionDao extends AbstractDao<SessionEntity> {
     public SessionEntity findSessionBySessionToken(String tokenValue) {
         try {
             return (SessionEntity) em.createNamedQuery("Session.findSessionBySessionToken")
-                    .setParameter("tokenValue", tokenValue)
+                    .setParameter("tokenHash", TokenHasher.hash(tokenValue))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
         }
     }
 
-    public List<SessionEntity> findSessionsExpiringInThreeMinutes() {
-        Instant threeMinutesFromNow = Instant.now().plusSeconds(180);
-        TypedQuery<SessionEntity> query = em.createNamedQuery("Session.findSessionsExpiringInACertainAmountOfSeconds", SessionEntity.class);
-        query.setParameter("expirationTime", threeMinutesFromNow);
-        return query.getResultList();
+    /**
+     * Retrieves the deadline data of every active session that has not expired yet.
+     *
+     * @param now the current instant.
+     * @return rows of (authTokenHash, sessionTokenHash, userId, tokenExpiration).
+     */
+    public List<Object[]> findActiveSessionDeadlines(Instant now) {
+        return em.createNamedQuery("Session.findActiveSessionDeadlines", Object[].class)
+                .setParameter("now", now)
+                .getResultList();
+    }
+
+    /**
+     * Finds the authentication token hashes of the sessions that were ended before their token expired,
+     * i.e. the tokens that still carry a valid signature but must be refused.
+     *
+     * @param now the current instant.
+     * @return the hashes of the revoked, unexpired authentication tokens.
+     */
+    public List<String> findRevokedTokenHashes(Instant now) {
+        return em.createNamedQuery("Session.findRevokedTokenHashes", String.class)
+                .setParameter("now", now)
+                .getResultList();
+    }
+
+    /**
+     * Deactivates every active session whose token has expired, with a single bulk update.
+     *
+     * @param now the current instant.
+     * @return the number of sessions deactivated.
+     */
+    public int deactivateExpiredSessions(Instant now) {
+        return em.createNamedQuery("Session.deactivateExpiredSessions")
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+
+    /**
+     * Deletes at most {@code limit} inactive sessions that expired before the cutoff.
+     * Expired sessions are deactivated every minute, so this covers every ended session.
+     *
+     * @param cutoff the sessions that expired before this instant are deleted.
+     * @param limit  the maximum number of rows deleted by this statement.
+     * @return the number of sessions deleted.
+     */
+    public int deleteEndedSessions(Instant cutoff, int limit) {
+        return em.createNativeQuery("DELETE FROM session WHERE is_active = false AND session_token_expiration < :cutoff LIMIT :limit")
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    /**
+     * Replaces the raw token columns of databases created before the tokens were hashed: the hash columns are
+     * filled from the raw tokens, and the raw columns are dropped.
+     *
+     * @return true if legacy columns were found and migrated.
+     */
+    public boolean migrateLegacyTokenColumns() {
+        Number legacyColumns = (Number) em.createNativeQuery("SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'session' AND column_name IN ('auth_token', 'session_token')")
+                .getSingleResult();
+        if (legacyColumns.intValue() == 0) {
+            return false;
+        }
+        em.createNativeQuery("UPDATE session SET auth_token_hash = SHA2(auth_token, 256), session_token_hash = SHA2(session_token, 256)")
+                .executeUpdate();
+        em.createNativeQuery("ALTER TABLE session DROP COLUMN auth_token, DROP COLUMN session_token")
+                .executeUpdate();
+        return true;
     }
 
     public boolean inativateSessionbyAuthToken(String tokenValue) {
         try {
             SessionEntity session = (SessionEntity) em.createNamedQuery("Session.findSessionByAuthToken")
-                    .setParameter("tokenValue", tokenValue)
+                    .setParameter("tokenHash", TokenHasher.hash(tokenValue))
                     .getSingleResult();
             session.setActive(false);
             em.merge(session);
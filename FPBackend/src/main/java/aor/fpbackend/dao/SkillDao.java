@@ -2,13 +2,19 @@ package aor.fpbackend.dao;
 
 
 import aor.fpbackend.entity.SkillEntity;
+import aor.fpbackend.enums.SkillTypeEnum;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 /**
  * SkillDao class provides data access operations for {@link SkillEntity}.
  * <br>
@@ -31,7 +37,7 @@ public class SkillDao extends AbstractDao<SkillEntity> {
     public boolean checkSkillExist(String name) {
         try {
             Long count = (Long) em.createNamedQuery("Skill.countSkillByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
             return count > 0;
         } catch (NoResultException e) {
@@ -42,13 +48,46 @@ public class SkillDao extends AbstractDao<SkillEntity> {
     public SkillEntity findSkillByName(String name) {
         try {
             return (SkillEntity) em.createNamedQuery("Skill.findSkillByName")
-                    .setParameter("name", name)
+                    .setParameter("nameKey", LookupKey.of(name))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
         }
     }
 
+    /**
+     * Finds the skills with any of the given names in one query, ignoring case.
+     *
+     * @param names the lookup keys of the names, not empty.
+     * @return the skills found.
+     */
+    public List<SkillEntity> findSkillsByNames(Collection<String> names) {
+        return em.createNamedQuery("Skill.findSkillsByNames", SkillEntity.class)
+                .setParameter("nameKeys", names)
+                .getResultList();
+    }
+
+    /**
+     * Inserts several skills with a single multi-row statement. Skills whose name already exists, for instance
+     * created meanwhile by another request, are skipped by the unique indexes on the name and its lookup key.
+     *
+     * @param skills the name and type of each skill to insert, not empty.
+     */
+    public void insertSkillsIfAbsent(Map<String, SkillTypeEnum> skills) {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < skills.size(); i++) {
+            values.add("(?" + (3 * i + 1) + ", ?" + (3 * i + 2) + ", ?" + (3 * i + 3) + ")");
+        }
+        Query query = em.createNativeQuery("INSERT IGNORE INTO skill (name, name_key, type) VALUES " + values);
+        int position = 1;
+        for (Map.Entry<String, SkillTypeEnum> skill : skills.entrySet()) {
+            query.setParameter(position++, skill.getKey());
+            query.setParameter(position++, LookupKey.of(skill.getKey()));
+            query.setParameter(position++, skill.getValue().name());
+        }
+        query.executeUpdate();
+    }
+
     public SkillEntity findSkillById(long skillId) {
         try {
             return (SkillEntity) em.createNamedQuery("Skill.findSkillById")
@@ -85,8 +124,18 @@ public class SkillDao extends AbstractDao<SkillEntity> {
 
     public List<SkillEntity> getSkillsByFirstLetter(String firstLetter) {
         TypedQuery<SkillEntity> query = em.createQuery(
-                "SELECT s FROM SkillEntity s WHERE LOWER(s.name) LIKE :pattern", SkillEntity.class);
-        query.setParameter("pattern", firstLetter + "%");
+                "SELECT s FROM SkillEntity s WHERE s.nameKey LIKE :pattern", SkillEntity.class);
+        query.setParameter("pattern", LookupKey.of(firstLetter) + "%");
         return query.getResultList();
     }
+
+    /**
+     * Fills the lookup keys of the skills written before the name_key column existed.
+     *
+     * @return the number of skills updated.
+     */
+    public int backfillLookupKeys() {
+        return em.createQuery("UPDATE SkillEntity s SET s.nameKey = LOWER(s.name) WHERE s.nameKey IS NULL")
+                .executeUpdate();
+    }
 }
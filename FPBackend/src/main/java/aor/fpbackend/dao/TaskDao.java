@@ -1,7 +1,10 @@
 package aor.fpbackend.dao;
 
 import aor.fpbackend.entity.TaskEntity;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
@@ -31,7 +34,7 @@ public class TaskDao extends AbstractDao<TaskEntity> {
     public TaskEntity findTaskByTitle(String title) {
         try {
             return (TaskEntity) em.createNamedQuery("Task.findTaskByTitle")
-                    .setParameter("title", title)
+                    .setParameter("titleKey", LookupKey.of(title))
                     .getSingleResult();
         } catch (NoResultException e) {
             return null;
@@ -66,11 +69,46 @@ public class TaskDao extends AbstractDao<TaskEntity> {
     public boolean checkTitleExist(String title) {
         try {
             Long count = (Long) em.createNamedQuery("Task.countTaskByTitle")
-                    .setParameter("title", title)
+                    .setParameter("titleKey", LookupKey.of(title))
                     .getSingleResult();
             return count > 0;
         } catch (NoResultException e) {
             return false;
         }
     }
+
+    /**
+     * Reads the tasks that are not deleted and their dependencies, to build the task graph of a project.
+     * <br>
+     * Both queries run in a new transaction, so that they read the latest committed state from one snapshot
+     * rather than the snapshot of the calling transaction, which may be older than the changes already applied
+     * to the cached graphs.
+     *
+     * @param projectId the ID of the project.
+     * @return the (task ID, planned start date, planned end date) row of each task and the
+     * (prerequisite ID, dependent task ID) row of each dependency.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public TaskGraphRows findTaskGraphRowsByProjectId(long projectId) {
+        List<Object[]> tasks = em.createNamedQuery("Task.findScheduleRowsByProject", Object[].class)
+                .setParameter("projectId", projectId)
+                .getResultList();
+        List<Object[]> dependencies = em.createNamedQuery("Task.findDependencyRowsByProject", Object[].class)
+                .setParameter("projectId", projectId)
+                .getResultList();
+        return new TaskGraphRows(tasks, dependencies);
+    }
+
+    public record TaskGraphRows(List<Object[]> tasks, List<Object[]> dependencies) {
+    }
+
+    /**
+     * Fills the lookup keys of the tasks written before the title_key column existed.
+     *
+     * @return the number of tasks updated.
+     */
+    public int backfillLookupKeys() {
+        return em.createQuery("UPDATE TaskEntity t SET t.titleKey = LOWER(t.title) WHERE t.titleKey IS NULL")
+                .executeUpdate();
+    }
 }
@@ -2,10 +2,12 @@ package aor.fpbackend.dao;
 
 import aor.fpbackend.entity.RoleEntity;
 import aor.fpbackend.entity.UserEntity;
+import aor.fpbackend.enums.UserRoleEnum;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 /**
  * UserDao class provides data access operations for {@link UserEntity}.
@@ -117,6 +119,18 @@ public class UserDao extends AbstractDao<UserEntity> {
         }
     }
 
+    /**
+     * Finds the validated users with any of the given usernames in one query.
+     *
+     * @param usernames the usernames, not empty.
+     * @return the users found; usernames without a validated user are left out.
+     */
+    public List<UserEntity> findValidatedUsersByUsernames(Collection<String> usernames) {
+        return em.createNamedQuery("User.findValidatedUsersByUsernames", UserEntity.class)
+                .setParameter("usernames", usernames)
+                .getResultList();
+    }
+
     public ArrayList<UserEntity> findUsersSettingsPage(Long loggedId) {
         try {
             return (ArrayList<UserEntity>) em.createNamedQuery("User.findUsersSettingsPage")
@@ -141,6 +155,12 @@ public class UserDao extends AbstractDao<UserEntity> {
         return query.getResultList();
     }
 
+    public List<UserEntity> findUsersByRoleName(UserRoleEnum roleName) {
+        return em.createQuery("SELECT u FROM UserEntity u WHERE u.role.name = :roleName", UserEntity.class)
+                .setParameter("roleName", roleName)
+                .getResultList();
+    }
+
     public List<UserEntity> getUsersByRole(RoleEntity role) {
         TypedQuery<UserEntity> query = em.createQuery(
                 "SELECT u FROM UserEntity u JOIN u.role r WHERE r = :role", UserEntity.class);
@@ -1,16 +1,19 @@
 package aor.fpbackend.dto.Authentication;
-import aor.fpbackend.entity.MethodEntity;
+import aor.fpbackend.utils.ParsedToken;
+import aor.fpbackend.utils.PermissionSet;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.enterprise.context.control.RequestContextController;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 
 import javax.security.auth.Subject;
 import java.io.Serializable;
 import java.security.Principal;
-import java.util.Set;
+import java.time.Instant;
 
 
 @XmlRootElement
@@ -28,7 +31,7 @@ public class AuthUserDto implements Serializable, Principal {
     private String username;
     @XmlElement
     @NotNull
-    private Set<MethodEntity> permissions;
+    private PermissionSet permissions;
     @XmlElement
     @NotNull
     private String token;
@@ -36,10 +39,12 @@ public class AuthUserDto implements Serializable, Principal {
     @NotNull
     private Long sessionId;
 
+    private transient ParsedToken parsedToken;
+
     // Constructors
     public AuthUserDto() {}
 
-    public AuthUserDto(Long userId, Long roleId, Set<MethodEntity> permissions, String token, Long sessionId, String username) {
+    public AuthUserDto(Long userId, Long roleId, PermissionSet permissions, String token, Long sessionId, String username) {
         this.userId = userId;
         this.roleId = roleId;
         this.permissions = permissions;
@@ -79,11 +84,11 @@ public class AuthUserDto implements Serializable, Principal {
         this.userId = userId;
     }
 
-    public Set<MethodEntity> getPermissions() {
+    public PermissionSet getPermissions() {
         return permissions;
     }
 
-    public void setPermissions(Set<MethodEntity> permissions) {
+    public void setPermissions(PermissionSet permissions) {
         this.permissions = permissions;
     }
 
@@ -112,4 +117,20 @@ public class AuthUserDto implements Serializable, Principal {
     public void setUsername(String username) {
         this.username = username;
     }
+
+    @XmlTransient
+    @JsonIgnore
+    public ParsedToken getParsedToken() {
+        return parsedToken;
+    }
+
+    public void setParsedToken(ParsedToken parsedToken) {
+        this.parsedToken = parsedToken;
+    }
+
+    @XmlTransient
+    @JsonIgnore
+    public Instant getTokenExpiration() {
+        return parsedToken != null ? parsedToken.getExpiration() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package aor.fpbackend.dto.GroupMessage;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.util.List;
+
+@XmlRootElement
+public class GroupMessagePageDto implements Serializable {
+
+    @XmlElement
+    private List<GroupMessageGetDto> messages;
+
+    @XmlElement
+    private boolean hasMore;
+
+
+    public GroupMessagePageDto() {
+    }
+
+    public GroupMessagePageDto(List<GroupMessageGetDto> messages, boolean hasMore) {
+        this.messages = messages;
+        this.hasMore = hasMore;
+    }
+
+    public List<GroupMessageGetDto> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<GroupMessageGetDto> messages) {
+        this.messages = messages;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
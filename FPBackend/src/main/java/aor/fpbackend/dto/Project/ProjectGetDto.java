@@ -5,10 +5,12 @@ import aor.fpbackend.dto.User.UserBasicInfoDto;
 import jakarta.persistence.Enumerated;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import aor.fpbackend.enums.LocationEnum;
 import aor.fpbackend.enums.ProjectStateEnum;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 @XmlRootElement
@@ -74,6 +76,18 @@ public class ProjectGetDto implements Serializable {
         this.isApproved = isApproved;
     }
 
+    /**
+     * Projection constructor used by the project list queries: the laboratory and the creator are read as columns
+     * of the same row, and the members are added afterwards for the whole page at once.
+     */
+    public ProjectGetDto(long id, String name, String description, String motivation, ProjectStateEnum state, Instant creationDate, Instant initialDate,
+                         Instant finalDate, Instant conclusionDate, boolean isApproved, Long laboratoryId, LocationEnum laboratoryLocation,
+                         long createdById, String createdByUsername, String createdByPhoto, long createdByRole) {
+        this(id, name, description, motivation, state, creationDate, initialDate, finalDate, conclusionDate,
+                laboratoryId != null ? new LaboratoryDto(laboratoryId, laboratoryLocation, laboratoryLocation.toString()) : null,
+                new ArrayList<>(), new UserBasicInfoDto(createdById, createdByUsername, createdByPhoto, createdByRole), isApproved);
+    }
+
     // Getters and setters
 
     public long getId() {
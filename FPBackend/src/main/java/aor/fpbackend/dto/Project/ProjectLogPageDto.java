@@ -0,0 +1,42 @@
+package aor.fpbackend.dto.Project;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.util.List;
+
+@XmlRootElement
+public class ProjectLogPageDto implements Serializable {
+
+    @XmlElement
+    private List<ProjectLogGetDto> logs;
+
+    @XmlElement
+    private boolean hasMore;
+
+
+    public ProjectLogPageDto() {
+    }
+
+    public ProjectLogPageDto(List<ProjectLogGetDto> logs, boolean hasMore) {
+        this.logs = logs;
+        this.hasMore = hasMore;
+    }
+
+    public List<ProjectLogGetDto> getLogs() {
+        return logs;
+    }
+
+    public void setLogs(List<ProjectLogGetDto> logs) {
+        this.logs = logs;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
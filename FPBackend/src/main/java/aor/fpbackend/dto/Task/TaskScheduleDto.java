@@ -0,0 +1,66 @@
+package aor.fpbackend.dto.Task;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+import java.util.List;
+
+@XmlRootElement
+public class TaskScheduleDto implements Serializable {
+
+    @XmlElement
+    private long projectId;
+
+    @XmlElement
+    private long projectDuration;
+
+    @XmlElement
+    private List<Long> criticalPath;
+
+    @XmlElement
+    private List<TaskScheduleEntryDto> tasks;
+
+
+    public TaskScheduleDto() {
+    }
+
+    public TaskScheduleDto(long projectId, long projectDuration, List<Long> criticalPath, List<TaskScheduleEntryDto> tasks) {
+        this.projectId = projectId;
+        this.projectDuration = projectDuration;
+        this.criticalPath = criticalPath;
+        this.tasks = tasks;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(long projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getProjectDuration() {
+        return projectDuration;
+    }
+
+    public void setProjectDuration(long projectDuration) {
+        this.projectDuration = projectDuration;
+    }
+
+    public List<Long> getCriticalPath() {
+        return criticalPath;
+    }
+
+    public void setCriticalPath(List<Long> criticalPath) {
+        this.criticalPath = criticalPath;
+    }
+
+    public List<TaskScheduleEntryDto> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskScheduleEntryDto> tasks) {
+        this.tasks = tasks;
+    }
+}
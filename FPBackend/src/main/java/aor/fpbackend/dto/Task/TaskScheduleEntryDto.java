@@ -0,0 +1,115 @@
+package aor.fpbackend.dto.Task;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.io.Serializable;
+
+@XmlRootElement
+public class TaskScheduleEntryDto implements Serializable {
+
+    @XmlElement
+    private long taskId;
+
+    @XmlElement
+    private long duration;
+
+    @XmlElement
+    private long earliestStart;
+
+    @XmlElement
+    private long earliestFinish;
+
+    @XmlElement
+    private long latestStart;
+
+    @XmlElement
+    private long latestFinish;
+
+    @XmlElement
+    private long slack;
+
+    @XmlElement
+    @JsonProperty("isCritical")
+    private boolean isCritical;
+
+
+    public TaskScheduleEntryDto() {
+    }
+
+    public TaskScheduleEntryDto(long taskId, long duration, long earliestStart, long latestStart, long slack) {
+        this.taskId = taskId;
+        this.duration = duration;
+        this.earliestStart = earliestStart;
+        this.earliestFinish = earliestStart + duration;
+        this.latestStart = latestStart;
+        this.latestFinish = latestStart + duration;
+        this.slack = slack;
+        this.isCritical = slack == 0;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(long taskId) {
+        this.taskId = taskId;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public long getEarliestStart() {
+        return earliestStart;
+    }
+
+    public void setEarliestStart(long earliestStart) {
+        this.earliestStart = earliestStart;
+    }
+
+    public long getEarliestFinish() {
+        return earliestFinish;
+    }
+
+    public void setEarliestFinish(long earliestFinish) {
+        this.earliestFinish = earliestFinish;
+    }
+
+    public long getLatestStart() {
+        return latestStart;
+    }
+
+    public void setLatestStart(long latestStart) {
+        this.latestStart = latestStart;
+    }
+
+    public long getLatestFinish() {
+        return latestFinish;
+    }
+
+    public void setLatestFinish(long latestFinish) {
+        this.latestFinish = latestFinish;
+    }
+
+    public long getSlack() {
+        return slack;
+    }
+
+    public void setSlack(long slack) {
+        this.slack = slack;
+    }
+
+    public boolean isCritical() {
+        return isCritical;
+    }
+
+    public void setCritical(boolean critical) {
+        isCritical = critical;
+    }
+}
@@ -1,17 +1,22 @@
 package aor.fpbackend.entity;
 
 import aor.fpbackend.enums.AssetTypeEnum;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "asset")
-
-@NamedQuery(name = "Asset.countAssetByName", query = "SELECT COUNT(a) FROM AssetEntity a WHERE LOWER(a.name) = LOWER(:name)")
-@NamedQuery(name = "Asset.countAssetByPartNumber", query = "SELECT COUNT(a) FROM AssetEntity a WHERE LOWER(a.partNumber) = LOWER(:partNumber)")
-@NamedQuery(name = "Asset.findAssetByName", query = "SELECT a FROM AssetEntity a WHERE LOWER(a.name) = LOWER(:name)")
+@Table(name = "asset", indexes = {
+        @Index(name = "idx_asset_name_key", columnList = "name_key"),
+        @Index(name = "idx_asset_part_number_key", columnList = "part_number_key")
+})
+
+@NamedQuery(name = "Asset.countAssetByName", query = "SELECT COUNT(a) FROM AssetEntity a WHERE a.nameKey = :nameKey")
+@NamedQuery(name = "Asset.countAssetByPartNumber", query = "SELECT COUNT(a) FROM AssetEntity a WHERE a.partNumberKey = :partNumberKey")
+@NamedQuery(name = "Asset.findAssetByName", query = "SELECT a FROM AssetEntity a WHERE a.nameKey = :nameKey")
+@NamedQuery(name = "Asset.findAssetsByNames", query = "SELECT a FROM AssetEntity a WHERE a.nameKey IN :nameKeys")
 @NamedQuery(name = "Asset.findAssetById", query = "SELECT a FROM AssetEntity a WHERE a.id = :assetId")
 
 public class AssetEntity implements Serializable {
@@ -25,6 +30,10 @@ public class AssetEntity implements Serializable {
     @Column(name = "name", nullable = false)
     private String name;
 
+    // Lookup key of the name, set with it (see LookupKey)
+    @Column(name = "name_key")
+    private String nameKey;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false)
     private AssetTypeEnum type;
@@ -38,6 +47,10 @@ public class AssetEntity implements Serializable {
     @Column(name = "part_number", nullable = false)
     private String partNumber;
 
+    // Lookup key of the part number, set with it (see LookupKey)
+    @Column(name = "part_number_key")
+    private String partNumberKey;
+
     @Column(name = "manufacturer", nullable = false)
     private String manufacturer;
 
@@ -54,10 +67,12 @@ public class AssetEntity implements Serializable {
 
     public AssetEntity(String name, AssetTypeEnum type, String description, int stockQuantity, String partNumber, String manufacturer, String manufacturerPhone, String observations) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
         this.type = type;
         this.description = description;
         this.stockQuantity = stockQuantity;
         this.partNumber = partNumber;
+        this.partNumberKey = LookupKey.of(partNumber);
         this.manufacturer = manufacturer;
         this.manufacturerPhone = manufacturerPhone;
         this.observations = observations;
@@ -77,8 +92,13 @@ public class AssetEntity implements Serializable {
         return name;
     }
 
+    public String getNameKey() {
+        return nameKey;
+    }
+
     public void setName(String name) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
     }
 
     public AssetTypeEnum getType() {
@@ -109,8 +129,13 @@ public class AssetEntity implements Serializable {
         return partNumber;
     }
 
+    public String getPartNumberKey() {
+        return partNumberKey;
+    }
+
     public void setPartNumber(String partNumber) {
         this.partNumber = partNumber;
+        this.partNumberKey = LookupKey.of(partNumber);
     }
 
     public String getManufacturer() {
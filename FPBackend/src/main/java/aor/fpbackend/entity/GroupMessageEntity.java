@@ -8,11 +8,31 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "group_message")
+@Table(name = "group_message", indexes = {
+        @Index(name = "idx_group_message_group_sent_time", columnList = "group_id, sent_time")
+})
 
 @NamedQuery(name = "GroupMessage.findGroupMessageById", query = "SELECT gm FROM GroupMessageEntity gm WHERE gm.id = :messageId")
-@NamedQuery(name = "GroupMessage.findPreviousGroupMessages", query = "SELECT gm FROM GroupMessageEntity gm WHERE gm.group.id = :projectId AND gm.sentTime <= :sentTime ORDER BY gm.sentTime DESC"
-)
+@NamedQuery(name = "GroupMessage.findLatestGroupMessages", query = "SELECT gm FROM GroupMessageEntity gm JOIN FETCH gm.sender " +
+        "WHERE gm.group.id = :projectId ORDER BY gm.sentTime DESC, gm.id DESC")
+@NamedQuery(name = "GroupMessage.findPreviousGroupMessages", query = "SELECT gm FROM GroupMessageEntity gm JOIN FETCH gm.sender " +
+        "WHERE gm.group.id = :projectId AND (gm.sentTime < :sentTime OR (gm.sentTime = :sentTime AND gm.id < :messageId)) " +
+        "ORDER BY gm.sentTime DESC, gm.id DESC")
+@NamedQuery(name = "GroupMessage.findGroupMessagesSince", query = "SELECT gm FROM GroupMessageEntity gm JOIN FETCH gm.sender " +
+        "WHERE gm.group.id = :projectId AND (gm.sentTime > :sentTime OR (gm.sentTime = :sentTime AND gm.id > :messageId)) " +
+        "ORDER BY gm.sentTime ASC, gm.id ASC")
+@NamedQuery(name = "GroupMessage.findReadReceiptsByMessageIds", query = "SELECT gm.id, u.id FROM GroupMessageEntity gm " +
+        "JOIN gm.readByUsers u WHERE gm.id IN :messageIds")
+@NamedQuery(name = "GroupMessage.findFullyReadMessageIds", query = "SELECT gm.id FROM GroupMessageEntity gm JOIN gm.readByUsers u, " +
+        "ProjectMembershipEntity pm WHERE gm.id IN :messageIds AND pm.project.id = gm.group.id AND pm.user.id = u.id AND pm.isAccepted = true " +
+        "GROUP BY gm.id, gm.group.id " +
+        "HAVING COUNT(pm) >= (SELECT COUNT(pm2) FROM ProjectMembershipEntity pm2 WHERE pm2.project.id = gm.group.id AND pm2.isAccepted = true)")
+@NamedQuery(name = "GroupMessage.findFullyReadUnviewedMessageIds", query = "SELECT gm.id FROM GroupMessageEntity gm JOIN gm.readByUsers u, " +
+        "ProjectMembershipEntity pm WHERE gm.group.id = :projectId AND gm.isViewed = false AND pm.project.id = :projectId " +
+        "AND pm.user.id = u.id AND pm.isAccepted = true GROUP BY gm.id " +
+        "HAVING COUNT(pm) >= (SELECT COUNT(pm2) FROM ProjectMembershipEntity pm2 WHERE pm2.project.id = :projectId AND pm2.isAccepted = true)")
+@NamedQuery(name = "GroupMessage.markMessagesAsViewed", query = "UPDATE GroupMessageEntity gm SET gm.isViewed = true " +
+        "WHERE gm.id IN :messageIds AND gm.isViewed = false")
 
 
 public class GroupMessageEntity extends MessageEntity implements Serializable {
@@ -1,6 +1,7 @@
 package aor.fpbackend.entity;
 
 import aor.fpbackend.enums.InterestTypeEnum;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
@@ -8,10 +9,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "interest")
+@Table(name = "interest", indexes = {
+        @Index(name = "idx_interest_name_key", columnList = "name_key", unique = true)
+})
 
-@NamedQuery(name = "Interest.countInterestByName", query = "SELECT COUNT(i) FROM InterestEntity i WHERE LOWER(i.name) = LOWER(:name)")
-@NamedQuery(name = "Interest.findInterestByName", query = "SELECT i FROM InterestEntity i WHERE LOWER(i.name) = LOWER(:name)")
+@NamedQuery(name = "Interest.countInterestByName", query = "SELECT COUNT(i) FROM InterestEntity i WHERE i.nameKey = :nameKey")
+@NamedQuery(name = "Interest.findInterestByName", query = "SELECT i FROM InterestEntity i WHERE i.nameKey = :nameKey")
 @NamedQuery(name = "Interest.findInterestById", query = "SELECT i FROM InterestEntity i WHERE i.id = :interestId")
 
 public class InterestEntity implements Serializable {
@@ -25,6 +28,10 @@ public class InterestEntity implements Serializable {
     @Column(name = "name", unique = true, nullable = false, length = 30)
     private String name;
 
+    // Lookup key of the name, set with it (see LookupKey)
+    @Column(name = "name_key", length = 30)
+    private String nameKey;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false)
     private InterestTypeEnum type;
@@ -38,6 +45,7 @@ public class InterestEntity implements Serializable {
 
     public InterestEntity(String name, InterestTypeEnum type) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
         this.type = type;
     }
 
@@ -54,8 +62,13 @@ public class InterestEntity implements Serializable {
         return name;
     }
 
+    public String getNameKey() {
+        return nameKey;
+    }
+
     public void setName(String name) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
     }
 
     public InterestTypeEnum getType() {
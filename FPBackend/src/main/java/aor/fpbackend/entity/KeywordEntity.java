@@ -1,5 +1,6 @@
 package aor.fpbackend.entity;
 
+import aor.fpbackend.utils.LookupKey;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
@@ -8,10 +9,13 @@ import java.util.Set;
 
 
 @Entity
-@Table(name = "keyword")
+@Table(name = "keyword", indexes = {
+        @Index(name = "idx_keyword_name_key", columnList = "name_key", unique = true)
+})
 
-@NamedQuery(name = "Keyword.countKeywordByName", query = "SELECT COUNT(k) FROM KeywordEntity k WHERE LOWER(k.name) = LOWER(:name)")
-@NamedQuery(name = "Keyword.findKeywordByName", query = "SELECT k FROM KeywordEntity k WHERE LOWER(k.name) = LOWER(:name)")
+@NamedQuery(name = "Keyword.countKeywordByName", query = "SELECT COUNT(k) FROM KeywordEntity k WHERE k.nameKey = :nameKey")
+@NamedQuery(name = "Keyword.findKeywordByName", query = "SELECT k FROM KeywordEntity k WHERE k.nameKey = :nameKey")
+@NamedQuery(name = "Keyword.findKeywordsByNames", query = "SELECT k FROM KeywordEntity k WHERE k.nameKey IN :nameKeys")
 @NamedQuery(name = "Keyword.findKeywordById", query = "SELECT k FROM KeywordEntity k WHERE k.id = :keyId")
 
 public class KeywordEntity implements Serializable {
@@ -25,6 +29,10 @@ public class KeywordEntity implements Serializable {
     @Column(name = "name", unique = true, nullable = false, length = 30)
     private String name;
 
+    // Lookup key of the name, set with it (see LookupKey)
+    @Column(name = "name_key", length = 30)
+    private String nameKey;
+
     @ManyToMany(mappedBy = "projectKeywords")
     private Set<ProjectEntity> projects = new HashSet<>();
 
@@ -34,6 +42,7 @@ public class KeywordEntity implements Serializable {
 
     public KeywordEntity(String name) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
     }
 
     // Getters and setters
@@ -49,8 +58,13 @@ public class KeywordEntity implements Serializable {
         return name;
     }
 
+    public String getNameKey() {
+        return nameKey;
+    }
+
     public void setName(String name) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
     }
 
 
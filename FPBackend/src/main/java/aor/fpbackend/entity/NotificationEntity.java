@@ -2,6 +2,7 @@ package aor.fpbackend.entity;
 
 import aor.fpbackend.enums.NotificationTypeENUM;
 import aor.fpbackend.enums.convertors.NotificationTypeENUMConverter;
+import aor.fpbackend.utils.GlobalSettings;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.time.Instant;
@@ -12,7 +13,9 @@ public class NotificationEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_id_generator")
+    @TableGenerator(name = "notification_id_generator", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_id", pkColumnValue = "notification", allocationSize = GlobalSettings.NOTIFICATION_ID_ALLOCATION_SIZE)
     @Column(name = "id", updatable = false)
     private long id;
 
@@ -1,5 +1,6 @@
 package aor.fpbackend.entity;
 
+import aor.fpbackend.utils.GlobalSettings;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
@@ -24,7 +25,9 @@ public class ProjectAssetEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "project_asset_id_generator")
+    @TableGenerator(name = "project_asset_id_generator", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_id", pkColumnValue = "project_asset", allocationSize = GlobalSettings.PROJECT_ASSET_ID_ALLOCATION_SIZE)
     @Column(name = "id", updatable = false)
     private long id;
 
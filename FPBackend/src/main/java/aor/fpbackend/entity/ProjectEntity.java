@@ -1,5 +1,6 @@
 package aor.fpbackend.entity;
 
+import aor.fpbackend.utils.LookupKey;
 import jakarta.persistence.*;
 import aor.fpbackend.enums.ProjectStateEnum;
 
@@ -9,13 +10,36 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "project")
+@Table(name = "project", indexes = {
+        @Index(name = "idx_project_name_key", columnList = "name_key"),
+        @Index(name = "idx_project_member_count", columnList = "member_count")
+})
 
-@NamedQuery(name = "Project.countProjectByName", query = "SELECT COUNT(p) FROM ProjectEntity p WHERE LOWER(p.name) = LOWER(:name)")
+@NamedQuery(name = "Project.countProjectByName", query = "SELECT COUNT(p) FROM ProjectEntity p WHERE p.nameKey = :nameKey")
 @NamedQuery(name = "Project.findProjectById", query = "SELECT p FROM ProjectEntity p WHERE p.id = :projectId")
-@NamedQuery(name = "Project.findProjectByName", query = "SELECT p FROM ProjectEntity p WHERE LOWER(p.name) = LOWER(:name)")
+@NamedQuery(name = "Project.findProjectByName", query = "SELECT p FROM ProjectEntity p WHERE p.nameKey = :nameKey")
 @NamedQuery(name = "Project.findAllProjects", query = "SELECT p FROM ProjectEntity p")
 @NamedQuery(name = "Project.getAllProjectsIds", query = "SELECT p.id FROM ProjectEntity p")
+@NamedQuery(name = "Project.findAllProjectDtos", query = "SELECT new aor.fpbackend.dto.Project.ProjectGetDto(" +
+        "p.id, p.name, p.description, p.motivation, p.state, p.creationDate, p.initialDate, p.finalDate, p.conclusionDate, p.isApproved, " +
+        "l.id, l.location, c.id, c.username, c.photo, c.role.id) " +
+        "FROM ProjectEntity p LEFT JOIN p.laboratory l JOIN p.createdBy c ORDER BY p.id")
+@NamedQuery(name = "Project.findProjectDtosByIds", query = "SELECT new aor.fpbackend.dto.Project.ProjectGetDto(" +
+        "p.id, p.name, p.description, p.motivation, p.state, p.creationDate, p.initialDate, p.finalDate, p.conclusionDate, p.isApproved, " +
+        "l.id, l.location, c.id, c.username, c.photo, c.role.id) " +
+        "FROM ProjectEntity p LEFT JOIN p.laboratory l JOIN p.createdBy c WHERE p.id IN :projectIds")
+@NamedQuery(name = "Project.findSearchDocuments", query = "SELECT p.id, p.name, p.description, p.motivation FROM ProjectEntity p")
+@NamedQuery(name = "Project.findKeywordNamesByProject", query = "SELECT p.id, k.name FROM ProjectEntity p JOIN p.projectKeywords k")
+@NamedQuery(name = "Project.findSkillNamesByProject", query = "SELECT p.id, s.name FROM ProjectEntity p JOIN p.projectSkills s")
+@NamedQuery(name = "Project.reserveMemberSlot",
+        query = "UPDATE ProjectEntity p SET p.memberCount = p.memberCount + 1 WHERE p.id = :projectId AND p.memberCount < :maxMembers")
+@NamedQuery(name = "Project.reserveMemberSlots",
+        query = "UPDATE ProjectEntity p SET p.memberCount = p.memberCount + :count WHERE p.id = :projectId AND p.memberCount + :count <= :maxMembers")
+@NamedQuery(name = "Project.releaseMemberSlot",
+        query = "UPDATE ProjectEntity p SET p.memberCount = p.memberCount - 1 WHERE p.id = :projectId AND p.memberCount > 0")
+@NamedQuery(name = "Project.reconcileMemberCounts",
+        query = "UPDATE ProjectEntity p SET p.memberCount = (SELECT COUNT(m) FROM ProjectMembershipEntity m WHERE m.project.id = p.id) " +
+                "WHERE p.memberCount <> (SELECT COUNT(m2) FROM ProjectMembershipEntity m2 WHERE m2.project.id = p.id)")
 @NamedQuery(name = "Project.averageMembersPerProject",
         query = "SELECT FUNCTION('ROUND', AVG((SELECT COUNT(m) FROM ProjectMembershipEntity m WHERE m.project.id = p.id)), 2) FROM ProjectEntity p")
 @NamedQuery(name = "Project.averageProjectDuration",
@@ -42,6 +66,10 @@ public class ProjectEntity implements Serializable {
     @Column(name = "name", nullable = false)
     private String name;
 
+    // Lookup key of the name, set with it (see LookupKey)
+    @Column(name = "name_key")
+    private String nameKey;
+
     @Column(name = "description", nullable = true, length = 2048)
     private String description;
 
@@ -67,6 +95,10 @@ public class ProjectEntity implements Serializable {
     @Column(name = "approved", nullable = true)
     private boolean isApproved;
 
+    // Number of memberships, pending ones included. Only changed by the bulk updates of ProjectDao, never by a flush
+    @Column(name = "member_count", nullable = false, updatable = false)
+    private int memberCount;
+
     @ManyToOne
     @JoinColumn(name = "laboratory_id")
     private LaboratoryEntity laboratory;
@@ -113,6 +145,7 @@ public class ProjectEntity implements Serializable {
     public ProjectEntity(String name, String description, String motivation, ProjectStateEnum state, Instant creationDate, Instant initialDate,
                          Instant finalDate, Instant conclusionDate, UserEntity createdBy, LaboratoryEntity laboratory, boolean isApproved) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
         this.description = description;
         this.motivation = motivation;
         this.state = state;
@@ -140,8 +173,13 @@ public class ProjectEntity implements Serializable {
         return name;
     }
 
+    public String getNameKey() {
+        return nameKey;
+    }
+
     public void setName(String name) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
     }
 
     public String getDescription() {
@@ -216,6 +254,10 @@ public class ProjectEntity implements Serializable {
         isApproved = approved;
     }
 
+    public int getMemberCount() {
+        return memberCount;
+    }
+
     public Set<TaskEntity> getTasks() {
         return tasks;
     }
@@ -1,23 +1,32 @@
 package aor.fpbackend.entity;
 
 import aor.fpbackend.enums.LogTypeEnum;
+import aor.fpbackend.utils.GlobalSettings;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
 import java.time.Instant;
 
 @Entity
-@Table(name = "project_log")
+@Table(name = "project_log", indexes = {
+        @Index(name = "idx_project_log_project_creation", columnList = "project_id, creation_date")
+})
 
 @NamedQuery(name = "ProjectLog.findAllProjectLogs", query = "SELECT p FROM ProjectLogEntity p")
-@NamedQuery(name = "ProjectLog.findProjectLogsByProjectId", query = "SELECT pl FROM ProjectLogEntity pl WHERE pl.project.id = :projectId")
+@NamedQuery(name = "ProjectLog.findProjectLogDtosByProjectId", query = "SELECT new aor.fpbackend.dto.Project.ProjectLogGetDto(" +
+        "pl.id, pl.creationDate, pl.type, pl.content, u.username, p.name) " +
+        "FROM ProjectLogEntity pl JOIN pl.user u JOIN pl.project p WHERE pl.project.id = :projectId ORDER BY pl.creationDate, pl.id")
+@NamedQuery(name = "ProjectLog.findProjectLogCreationDate", query = "SELECT pl.creationDate FROM ProjectLogEntity pl " +
+        "WHERE pl.id = :logId AND pl.project.id = :projectId")
 
 
 public class ProjectLogEntity implements Serializable {
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "project_log_id_generator")
+    @TableGenerator(name = "project_log_id_generator", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_id", pkColumnValue = "project_log", allocationSize = GlobalSettings.PROJECT_LOG_ID_ALLOCATION_SIZE)
     @Column(name = "id", updatable = false)
     private long id;
 
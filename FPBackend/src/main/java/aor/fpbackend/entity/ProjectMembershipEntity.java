@@ -2,6 +2,7 @@ package aor.fpbackend.entity;
 
 import jakarta.persistence.*;
 import aor.fpbackend.enums.ProjectRoleEnum;
+import aor.fpbackend.utils.GlobalSettings;
 
 import java.io.Serializable;
 
@@ -15,6 +16,9 @@ import java.io.Serializable;
 @NamedQuery(name = "ProjectMembership.findProjectMembershipsByProject", query = "SELECT new aor.fpbackend.dto.Project.ProjectMembershipDto(" +
         "p.id, u.id, pr.id, p.role, p.isAccepted, new aor.fpbackend.dto.User.UserBasicInfoDto(u.id, u.username, u.photo, u.role.id)) " +
         "FROM ProjectMembershipEntity p JOIN p.user u JOIN p.project pr WHERE pr.id = :projectId")
+@NamedQuery(name = "ProjectMembership.findProjectMembershipsByProjects", query = "SELECT new aor.fpbackend.dto.Project.ProjectMembershipDto(" +
+        "p.id, u.id, pr.id, p.role, p.isAccepted, new aor.fpbackend.dto.User.UserBasicInfoDto(u.id, u.username, u.photo, u.role.id)) " +
+        "FROM ProjectMembershipEntity p JOIN p.user u JOIN p.project pr WHERE pr.id IN :projectIds")
 @NamedQuery(name = "ProjectMembership.findProjectMembershipByAcceptanceToken", query = "SELECT p FROM ProjectMembershipEntity p WHERE p.acceptanceToken = :acceptanceToken")
 @NamedQuery(name = "ProjectMembership.findProjectMembershipByProjectIdAndUserId", query = "SELECT p FROM ProjectMembershipEntity p WHERE p.project.id = :projectId AND p.user.id = :userId AND p.isAccepted = true")
 @NamedQuery(name = "ProjectMembership.isUserProjectMember", query = "SELECT p FROM ProjectMembershipEntity p WHERE p.project.id = :projectId AND p.user.id = :userId AND p.isAccepted = true")
@@ -28,7 +32,9 @@ public class ProjectMembershipEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "project_membership_id_generator")
+    @TableGenerator(name = "project_membership_id_generator", table = "id_generator", pkColumnName = "entity_name",
+            valueColumnName = "next_id", pkColumnValue = "project_membership", allocationSize = GlobalSettings.PROJECT_MEMBERSHIP_ID_ALLOCATION_SIZE)
     @Column(name = "id", updatable = false)
     private long id;
 
@@ -5,13 +5,20 @@ import java.io.Serializable;
 import java.time.Instant;
 
 @Entity
-@Table(name = "session")
+@Table(name = "session", indexes = {
+        @Index(name = "idx_session_active_expiration", columnList = "is_active, session_token_expiration")
+})
 
-@NamedQuery(name = "Session.findSessionByAuthToken", query = "SELECT s FROM SessionEntity s WHERE s.authToken = :tokenValue")
-@NamedQuery(name = "Session.findSessionBySessionToken", query = "SELECT s FROM SessionEntity s WHERE s.sessionToken = :tokenValue")
+@NamedQuery(name = "Session.findSessionByAuthToken", query = "SELECT s FROM SessionEntity s WHERE s.authTokenHash = :tokenHash")
+@NamedQuery(name = "Session.findSessionBySessionToken", query = "SELECT s FROM SessionEntity s WHERE s.sessionTokenHash = :tokenHash")
 @NamedQuery(name = "Session.findActiveSessionsByProjectId",
         query = "SELECT s FROM SessionEntity s JOIN s.user u JOIN u.projects p WHERE p.id = :projectId AND s.isActive = true")
-@NamedQuery(name = "Session.findSessionsExpiringInACertainAmountOfSeconds", query = "SELECT s FROM SessionEntity s WHERE s.tokenExpiration <= :expirationTime AND s.isActive = true")
+@NamedQuery(name = "Session.findActiveSessionDeadlines",
+        query = "SELECT s.authTokenHash, s.sessionTokenHash, s.user.id, s.tokenExpiration FROM SessionEntity s WHERE s.isActive = true AND s.tokenExpiration > :now")
+@NamedQuery(name = "Session.findRevokedTokenHashes",
+        query = "SELECT s.authTokenHash FROM SessionEntity s WHERE s.isActive = false AND s.tokenExpiration > :now")
+@NamedQuery(name = "Session.deactivateExpiredSessions",
+        query = "UPDATE SessionEntity s SET s.isActive = false WHERE s.isActive = true AND s.tokenExpiration < :now")
 
 
 public class SessionEntity implements Serializable {
@@ -22,10 +29,11 @@ public class SessionEntity implements Serializable {
     @Column(name = "id", updatable = false)
     private long id;
 
-    @Column(name = "auth_token", nullable = false, unique = true, length = 1000)
-    private String authToken;
-    @Column(name = "session_token", nullable = false, unique = true, length = 1000)
-    private String sessionToken;
+    // SHA-256 hex digests of the JWTs, the raw tokens are never stored
+    @Column(name = "auth_token_hash", nullable = false, unique = true, length = 64)
+    private String authTokenHash;
+    @Column(name = "session_token_hash", nullable = false, unique = true, length = 64)
+    private String sessionTokenHash;
 
     @Column(name = "session_token_expiration", nullable = false)
     private Instant tokenExpiration;
@@ -39,11 +47,11 @@ public class SessionEntity implements Serializable {
     // Constructors
     public SessionEntity() {}
 
-    public SessionEntity(String authToken, String sessionToken, Instant tokenExpiration, UserEntity user) {
-        this.sessionToken = sessionToken;
+    public SessionEntity(String authTokenHash, String sessionTokenHash, Instant tokenExpiration, UserEntity user) {
+        this.sessionTokenHash = sessionTokenHash;
         this.tokenExpiration = tokenExpiration;
         this.user = user;
-        this.authToken = authToken;
+        this.authTokenHash = authTokenHash;
     }
 
     // Getters and setters
@@ -55,12 +63,12 @@ public class SessionEntity implements Serializable {
         this.id = id;
     }
 
-    public String getSessionToken() {
-        return sessionToken;
+    public String getSessionTokenHash() {
+        return sessionTokenHash;
     }
 
-    public void setSessionToken(String sessionToken) {
-        this.sessionToken = sessionToken;
+    public void setSessionTokenHash(String sessionTokenHash) {
+        this.sessionTokenHash = sessionTokenHash;
     }
 
     public Instant getTokenExpiration() {
@@ -87,19 +95,19 @@ public class SessionEntity implements Serializable {
         isActive = active;
     }
 
-    public String getAuthToken() {
-        return authToken;
+    public String getAuthTokenHash() {
+        return authTokenHash;
     }
 
-    public void setAuthToken(String authToken) {
-        this.authToken = authToken;
+    public void setAuthTokenHash(String authTokenHash) {
+        this.authTokenHash = authTokenHash;
     }
 
     @Override
     public String toString() {
         return "Session{" +
                 "id=" + id +
-                ", sessionToken='" + sessionToken + '\'' +
+                ", sessionTokenHash='" + sessionTokenHash + '\'' +
                 ", tokenExpiration=" + tokenExpiration +
                 ", user=" + user +
                 '}';
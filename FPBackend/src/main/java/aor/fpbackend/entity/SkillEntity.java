@@ -1,6 +1,7 @@
 package aor.fpbackend.entity;
 
 import aor.fpbackend.enums.SkillTypeEnum;
+import aor.fpbackend.utils.LookupKey;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
@@ -8,10 +9,13 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "skill")
+@Table(name = "skill", indexes = {
+        @Index(name = "idx_skill_name_key", columnList = "name_key", unique = true)
+})
 
-@NamedQuery(name = "Skill.countSkillByName", query = "SELECT COUNT(s) FROM SkillEntity s WHERE LOWER(s.name) = LOWER(:name)")
-@NamedQuery(name = "Skill.findSkillByName", query = "SELECT s FROM SkillEntity s WHERE LOWER(s.name) = LOWER(:name)")
+@NamedQuery(name = "Skill.countSkillByName", query = "SELECT COUNT(s) FROM SkillEntity s WHERE s.nameKey = :nameKey")
+@NamedQuery(name = "Skill.findSkillByName", query = "SELECT s FROM SkillEntity s WHERE s.nameKey = :nameKey")
+@NamedQuery(name = "Skill.findSkillsByNames", query = "SELECT s FROM SkillEntity s WHERE s.nameKey IN :nameKeys")
 @NamedQuery(name = "Skill.findSkillById", query = "SELECT s FROM SkillEntity s WHERE s.id = :skillId")
 
 public class SkillEntity implements Serializable {
@@ -25,6 +29,10 @@ public class SkillEntity implements Serializable {
     @Column(name = "name", unique = true, nullable = false, length = 30)
     private String name;
 
+    // Lookup key of the name, set with it (see LookupKey)
+    @Column(name = "name_key", length = 30)
+    private String nameKey;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false)
     private SkillTypeEnum type;
@@ -41,6 +49,7 @@ public class SkillEntity implements Serializable {
 
     public SkillEntity(String name, SkillTypeEnum type) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
         this.type = type;
     }
 
@@ -57,8 +66,13 @@ public class SkillEntity implements Serializable {
         return name;
     }
 
+    public String getNameKey() {
+        return nameKey;
+    }
+
     public void setName(String name) {
         this.name = name;
+        this.nameKey = LookupKey.of(name);
     }
 
     public SkillTypeEnum getType() {
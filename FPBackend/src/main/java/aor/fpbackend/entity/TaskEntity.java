@@ -1,5 +1,6 @@
 package aor.fpbackend.entity;
 
+import aor.fpbackend.utils.LookupKey;
 import jakarta.persistence.*;
 import aor.fpbackend.enums.TaskStateEnum;
 import jakarta.validation.constraints.Size;
@@ -10,12 +11,18 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = {
+        @Index(name = "idx_task_title_key", columnList = "title_key")
+})
 
 @NamedQuery(name = "Task.findAll", query = "SELECT t FROM TaskEntity t")
-@NamedQuery(name = "Task.findTaskByTitle", query = "SELECT t FROM TaskEntity t WHERE LOWER(t.title) = LOWER(:title)")
+@NamedQuery(name = "Task.findTaskByTitle", query = "SELECT t FROM TaskEntity t WHERE t.titleKey = :titleKey")
 @NamedQuery(name = "Task.findTaskById", query = "SELECT t FROM TaskEntity t WHERE t.id = :taskId")
-@NamedQuery(name = "Task.countTaskByTitle", query = "SELECT COUNT(t) FROM TaskEntity t WHERE LOWER(t.title) = LOWER(:title)")
+@NamedQuery(name = "Task.countTaskByTitle", query = "SELECT COUNT(t) FROM TaskEntity t WHERE t.titleKey = :titleKey")
+@NamedQuery(name = "Task.findScheduleRowsByProject", query = "SELECT t.id, t.plannedStartDate, t.plannedEndDate FROM TaskEntity t " +
+        "WHERE t.project.id = :projectId AND t.isDeleted = false")
+@NamedQuery(name = "Task.findDependencyRowsByProject", query = "SELECT p.id, t.id FROM TaskEntity t JOIN t.prerequisites p " +
+        "WHERE t.project.id = :projectId AND t.isDeleted = false AND p.isDeleted = false")
 
 public class TaskEntity implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -29,6 +36,10 @@ public class TaskEntity implements Serializable {
     @Size(min = 1, max = 25)
     private String title;
 
+    // Lookup key of the title, set with it (see LookupKey)
+    @Column(name = "title_key")
+    private String titleKey;
+
     @Column(name = "description", nullable = true, length = 2048)
     @Size(max = 2048)
     private String description;
@@ -98,6 +109,7 @@ public class TaskEntity implements Serializable {
 
     public TaskEntity(String title, String description, Instant creationDate, long duration, TaskStateEnum state, ProjectEntity project, UserEntity responsibleUser) {
         this.title = title;
+        this.titleKey = LookupKey.of(title);
         this.description = description;
         this.creationDate = creationDate;
         this.duration = duration;
@@ -118,8 +130,13 @@ public class TaskEntity implements Serializable {
         return title;
     }
 
+    public String getTitleKey() {
+        return titleKey;
+    }
+
     public void setTitle(String title) {
         this.title = title;
+        this.titleKey = LookupKey.of(title);
     }
 
     public String getDescription() {
@@ -9,12 +9,13 @@ import java.util.Set;
 @Entity
 @Table(name = "user")
 
-@NamedQuery(name = "User.findUserByToken", query = "SELECT u FROM UserEntity u JOIN u.sessions s WHERE s.authToken = :token AND u.isDeleted = false")
+@NamedQuery(name = "User.findUserByToken", query = "SELECT u FROM UserEntity u JOIN u.sessions s WHERE s.authTokenHash = :tokenHash AND u.isDeleted = false")
 @NamedQuery(name = "User.findUserByConfirmationToken", query = "SELECT u FROM UserEntity u WHERE u.confirmationToken = :confirmationToken")
 @NamedQuery(name = "User.findUserByResetPasswordToken", query = "SELECT u FROM UserEntity u WHERE u.resetPasswordToken = :resetPasswordToken")
 @NamedQuery(name = "User.findUserById", query = "SELECT u FROM UserEntity u WHERE u.id = :userId")
 @NamedQuery(name = "User.findUserByUsername", query = "SELECT u FROM UserEntity u WHERE u.username = :username")
 @NamedQuery(name = "User.findValidatedUserByUsername", query = "SELECT u FROM UserEntity u WHERE u.username = :username AND u.isConfirmed = true")
+@NamedQuery(name = "User.findValidatedUsersByUsernames", query = "SELECT u FROM UserEntity u WHERE u.username IN :usernames AND u.isConfirmed = true")
 @NamedQuery(name = "User.findUserByEmail", query = "SELECT u FROM UserEntity u WHERE u.email = :email")
 @NamedQuery(name = "User.findUsersSettingsPage", query = "SELECT u FROM UserEntity u WHERE u.id != 1 AND u.id != :loggedId")
 @NamedQuery(name = "User.countUserByEmail", query = "SELECT COUNT(u) FROM UserEntity u WHERE LOWER(u.email) = LOWER(:email)")
@@ -45,7 +45,8 @@ public enum MethodEnum {
     PROJECTS_REPORT(42L),
     ASSETS_REPORT(43L),
     REMOVE_USER_PROJECT(44L),
-    GET_ALL_CONFIG(45L);
+    GET_ALL_CONFIG(45L),
+    WEBSOCKET_METRICS(46L);
 
 
     private final long value;
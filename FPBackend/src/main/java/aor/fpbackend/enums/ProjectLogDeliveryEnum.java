@@ -0,0 +1,11 @@
+package aor.fpbackend.enums;
+
+/**
+ * When a project log written during a transaction reaches the database.
+ */
+public enum ProjectLogDeliveryEnum {
+    /** Inserted with the transaction that wrote it: the log and the change it describes commit or roll back together. */
+    SAME_TRANSACTION,
+    /** Queued and inserted in batches after the transaction commits; a crash before the next flush loses it. */
+    AFTER_COMMIT
+}
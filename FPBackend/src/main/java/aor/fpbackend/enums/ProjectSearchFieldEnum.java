@@ -0,0 +1,22 @@
+package aor.fpbackend.enums;
+
+/**
+ * Fields of a project indexed for full-text search, with the weight of a match in each field.
+ */
+public enum ProjectSearchFieldEnum {
+    NAME(3.0),
+    KEYWORDS(2.0),
+    SKILLS(2.0),
+    DESCRIPTION(1.0),
+    MOTIVATION(0.5);
+
+    private final double weight;
+
+    ProjectSearchFieldEnum(double weight) {
+        this.weight = weight;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+}
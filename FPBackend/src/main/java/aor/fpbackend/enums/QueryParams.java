@@ -14,6 +14,7 @@ public class QueryParams {
     public static final String STATE = "state";
     public static final String KEYWORDS = "keywords";
     public static final String SKILLS = "skills";
+    public static final String SEARCH = "search";
     public static final String LABORATORY = "laboratory";
     public static final String CREATION_DATE = "creationDate";
     public static final String OPEN_POSITIONS = "openPositions";
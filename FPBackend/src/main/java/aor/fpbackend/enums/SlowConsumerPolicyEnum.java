@@ -0,0 +1,11 @@
+package aor.fpbackend.enums;
+
+/**
+ * What the outbound WebSocket pipeline does when a session's send queue is full.
+ */
+public enum SlowConsumerPolicyEnum {
+    /** Discard the oldest queued message to make room for the new one. */
+    DROP_OLDEST,
+    /** Close the session; the client reconnects and reloads its state. */
+    DISCONNECT
+}
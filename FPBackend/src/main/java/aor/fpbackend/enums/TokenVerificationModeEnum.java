@@ -0,0 +1,11 @@
+package aor.fpbackend.enums;
+
+/**
+ * How {@code SessionBean} verifies the authentication token of a request.
+ */
+public enum TokenVerificationModeEnum {
+    /** Every token is checked against its session row (behind the short-lived authentication cache). */
+    DATABASE,
+    /** The signed claims are trusted; only tokens flagged by the revocation filter are checked against the database. */
+    STATELESS
+}
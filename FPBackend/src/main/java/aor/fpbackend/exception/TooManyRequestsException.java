@@ -0,0 +1,21 @@
+package aor.fpbackend.exception;
+
+import jakarta.ejb.ApplicationException;
+
+/**
+ * Thrown when a request is refused because the server or the client exceeded an admission limit.
+ * Unchecked, so it can leave the password encoder without changing every caller; mapped to HTTP 429.
+ */
+@ApplicationException(rollback = true)
+public class TooManyRequestsException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public TooManyRequestsException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,28 @@
+package aor.fpbackend.exception.mapper;
+
+import aor.fpbackend.dto.Error.Error;
+import aor.fpbackend.exception.TooManyRequestsException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+@Provider
+public class TooManyRequestsExceptionMapper implements ExceptionMapper<TooManyRequestsException> {
+    private static final Logger LOGGER = LogManager.getLogger(TooManyRequestsExceptionMapper.class);
+
+    @Override
+    public Response toResponse(TooManyRequestsException e) {
+        Error error = new Error(e.getMessage());
+        LOGGER.warn("Request refused: " + error.getMessage());
+        return Response
+                .status(Response.Status.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
+                .entity(error)
+                .type(MediaType.APPLICATION_JSON)
+                .build();
+    }
+}
@@ -2,18 +2,17 @@ package aor.fpbackend.filters;
 
 
 import aor.fpbackend.bean.ConfigurationBean;
+import aor.fpbackend.bean.ProjectMembershipCacheBean;
 import aor.fpbackend.bean.SessionBean;
-import aor.fpbackend.dao.ProjectMembershipDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
-import aor.fpbackend.entity.ProjectMembershipEntity;
+import aor.fpbackend.enums.MethodEnum;
 import aor.fpbackend.enums.ProjectRoleEnum;
 import aor.fpbackend.exception.DatabaseOperationException;
 import aor.fpbackend.exception.InputValidationException;
 import aor.fpbackend.exception.InvalidCredentialsException;
 import aor.fpbackend.exception.UserNotFoundException;
 import aor.fpbackend.utils.GlobalSettings;
-import aor.fpbackend.utils.JwtKeyProvider;
-import io.jsonwebtoken.Jwts;
+import aor.fpbackend.utils.PermissionSet;
 import jakarta.annotation.Priority;
 import jakarta.ejb.EJB;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,10 +31,8 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.ThreadContext;
 
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.security.Principal;
 import java.time.Instant;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -46,15 +43,15 @@ import java.util.List;
  * <p>This class utilizes several Jakarta EE and Java technologies:</p>
  * <ul>
  *   <li>Jakarta EE annotations such as {@code @Provider} and {@code @Priority} to integrate with the Jakarta REST framework.</li>
- *   <li>EJBs for business logic and session management, including {@code UserBean}, {@code ConfigurationBean}, {@code SessionBean}, and {@code ProjectMembershipDao}.</li>
+ *   <li>EJBs for business logic and session management, including {@code UserBean}, {@code ConfigurationBean}, {@code SessionBean}, and {@code ProjectMembershipCacheBean}.</li>
  *   <li>Contextual dependencies injection using {@code @Context} for accessing HTTP request information and resource metadata.</li>
- *   <li>JSON Web Tokens (JWT) for secure token validation and renewal using the {@code Jwts} class and a custom {@code JwtKeyProvider}.</li>
+ *   <li>JSON Web Tokens (JWT) for secure token validation and renewal; the token is parsed once per request into a {@code ParsedToken}.</li>
  *   <li>ThreadContext from Apache Log4j for logging and tracking user sessions across requests.</li>
  * </ul>
  *
  * <p>The main responsibilities of this filter include:</p>
  * <ul>
- *   <li>Identifying public endpoints that do not require authentication using the {@code isPublicEndpoint} method.</li>
+ *   <li>Identifying public endpoints that do not require authentication, marked with {@code @PublicEndpoint}.</li>
  *   <li>Extracting and validating the authentication token from the request headers.</li>
  *   <li>Setting up the security context with user-specific details for authenticated requests.</li>
  *   <li>Renewing authentication tokens if they are about to expire, enhancing session security and continuity.</li>
@@ -72,6 +69,9 @@ import java.util.List;
  *
  * <p>Exception handling is implemented to ensure that unauthorized or erroneous requests are appropriately managed, returning relevant HTTP responses.</p>
  *
+ * <p>The security annotations of every resource method are read once, at deployment, into a {@link RouteDescriptor}
+ * (see {@link RouteAuthorizationRegistry}); a request only looks up the descriptor of its method.</p>
+ *
  * <p>This filter also makes use of several custom security annotations to enforce method-level security:</p>
  * <ul>
  *   <li>{@code @RequiresMethodPermission}: This annotation is used to specify that a method requires a particular permission.
@@ -102,7 +102,7 @@ public class AuthorizationFilter implements ContainerRequestFilter {
     @EJB
     private ConfigurationBean configBean;
     @EJB
-    private ProjectMembershipDao projectMembershipDao;
+    private ProjectMembershipCacheBean projectMembershipCache;
     @EJB
     private SessionBean sessionBean;
 
@@ -120,8 +120,9 @@ public class AuthorizationFilter implements ContainerRequestFilter {
     public void filter(ContainerRequestContext requestContext) {
         String path = requestContext.getUriInfo().getPath();
         String ip = request.getRemoteAddr();
+        RouteDescriptor route = RouteAuthorizationRegistry.lookup(resourceInfo.getResourceMethod());
         try {
-            if (isPublicEndpoint(path)) {
+            if (route.isPublicEndpoint()) {
                 // Update ThreadContext with public user details
                 setupThreadContext("unknown", ip, "public", "unknown", "unknown");
                 return;
@@ -137,13 +138,13 @@ public class AuthorizationFilter implements ContainerRequestFilter {
                 return;
             }
             // Update ThreadContext with authenticated user details
-            setupThreadContext(String.valueOf(authUserDto.getUserId()), ip, "authenticated", authUserDto.getSessionId().toString(), authUserDto.getUsername());
+            setupThreadContext(String.valueOf(authUserDto.getUserId()), ip, "authenticated", String.valueOf(authUserDto.getSessionId()), authUserDto.getUsername());
 
             //Adding new token to cookie if the token is about to expire
-            handleTokenRenewal(token, authUserDto, path, requestContext);
+            handleTokenRenewal(authUserDto, path, requestContext);
 
             setSecurityContext(requestContext, authUserDto);
-            checkAuthorization(requestContext, authUserDto);
+            checkAuthorization(requestContext, authUserDto, route);
             if(path.contains("/logout")){
                 sessionBean.createInvalidSession(authUserDto, requestContext);
             }
@@ -163,30 +164,25 @@ public class AuthorizationFilter implements ContainerRequestFilter {
      * Handles token renewal if the token is about to expire.
      *
      * <p>This method checks the expiration time of the current token and, if it is about to expire,
-     * generates a new token and invalidates the old one to maintain session continuity and security.</p>
+     * generates a new token and invalidates the old one to maintain session continuity and security.
+     * The expiration is read from the token parsed during validation, so the token is not parsed again.</p>
      *
-     * @param token the authentication token
-     * @param authUserDto the authenticated user details
+     * @param authUserDto the authenticated user details, carrying the parsed token
      * @param path the request path
      * @param requestContext the context of the incoming request
      * @throws UserNotFoundException if the user is not found
      * @throws DatabaseOperationException if a database operation fails
      * @throws InputValidationException if there is a validation error
      */
-    private  void handleTokenRenewal(String token, AuthUserDto authUserDto, String path, ContainerRequestContext requestContext) throws UserNotFoundException, DatabaseOperationException, InputValidationException {
+    private  void handleTokenRenewal(AuthUserDto authUserDto, String path, ContainerRequestContext requestContext) throws UserNotFoundException, DatabaseOperationException, InputValidationException {
         Instant now = Instant.now();
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(JwtKeyProvider.getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+        Instant expiration = authUserDto.getTokenExpiration();
 
-        long timeRemaining = expiration.getTime() - now.toEpochMilli();
-        long definedTimeOut = configBean.getConfigValueByKey("sessionTimeout");
+        long timeRemaining = expiration.toEpochMilli() - now.toEpochMilli();
+        long definedTimeOut = configBean.getSessionTimeout();
         long renovateSessionTime = definedTimeOut / GlobalSettings.TIME_OUT_RATIO;
         if (timeRemaining < renovateSessionTime && !path.contains("/logout")) {
-            sessionBean.createNewSessionAndInvalidateOld(authUserDto, requestContext, definedTimeOut, token);
+            sessionBean.createNewSessionAndInvalidateOld(authUserDto, requestContext, definedTimeOut, authUserDto.getToken());
         }
     }
 
@@ -211,36 +207,6 @@ public class AuthorizationFilter implements ContainerRequestFilter {
         ThreadContext.put("sessionId", sessionId);
     }
 
-    /**
-     * Checks if the endpoint is public and does not require authorization.
-     *
-     * <p>This method evaluates the request path to determine if it corresponds to a public endpoint.
-     * Public endpoints are those that do not require user authentication and are accessible to everyone.
-     * Examples include login, registration, password reset, and informational endpoints.</p>
-     *
-     * note: All endpoints using the therm "confirm" are related to email confirmation and have token validation or
-     * other security measures
-     *
-     * @param path the request path
-     * @return true if the endpoint is public, false otherwise
-     */
-    private boolean isPublicEndpoint(String path) {
-        return path.endsWith("/login")
-                || path.endsWith("/register")
-                || path.contains("/confirm")
-                || path.contains("/request/password/reset")
-                || path.contains("/request/confirmation/email")
-                || path.contains("/accept/project")
-                || path.contains("/password/reset")
-                || path.contains("/labs")
-                || path.contains("/projects/all")
-                || path.contains("/info/project/states")
-                || path.contains("/info/project/roles")
-                || path.contains("/enum/roles")
-                || path.contains("/enum/states")
-                || path.contains("/configurations/all");
-    }
-
     /**
      * Extracts the authentication token from the cookie header.
      *
@@ -305,7 +271,7 @@ public class AuthorizationFilter implements ContainerRequestFilter {
     /**
      * Verifies if the user has the necessary permissions to access the requested resource.
      *
-     * <p>This method checks the annotations on the requested method to determine the required permissions and roles.
+     * <p>This method checks the rule of the requested method, read from its annotations at deployment, to determine the required permissions and roles.
      * It verifies if the authenticated user has the necessary permissions to proceed with the request. If the user
      * does not have the required permissions, the request is aborted with a FORBIDDEN status.</p>
      *
@@ -320,41 +286,37 @@ public class AuthorizationFilter implements ContainerRequestFilter {
      *
      * @param requestContext the context of the incoming request
      * @param authUserDto the authenticated user details
+     * @param route the authorization rule of the requested method
      * @throws InvalidCredentialsException if the user's credentials are invalid
      * @throws IOException if an I/O error occurs
      */
-    private void checkAuthorization(ContainerRequestContext requestContext, AuthUserDto authUserDto) throws InvalidCredentialsException, IOException {
-        Method method = resourceInfo.getResourceMethod();
-
-        if (method.isAnnotationPresent(RequiresMethodPermission.class)) {
-            checkMethodPermission(method, authUserDto, requestContext);
+    private void checkAuthorization(ContainerRequestContext requestContext, AuthUserDto authUserDto, RouteDescriptor route) throws InvalidCredentialsException, IOException {
+        if (route.getRequiredMethod() != null) {
+            checkMethodPermission(route.getRequiredMethod(), authUserDto, requestContext);
         }
-        if (method.isAnnotationPresent(RequiresProjectRolePermission.class)) {
-            checkProjectRolePermission(method, authUserDto, requestContext);
+        if (route.getRequiredProjectRole() != null) {
+            checkProjectRolePermission(route.getRequiredProjectRole(), authUserDto, requestContext);
         }
-        if (method.isAnnotationPresent(RequiresProjectMemberPermission.class)) {
+        if (route.isProjectMemberRequired()) {
             checkProjectMemberPermission(authUserDto, requestContext);
         }
-        if (method.isAnnotationPresent(RequiresPermissionByUserOnIndividualMessage.class)) {
+        if (route.isIndividualMessageParticipantRequired()) {
             checkIndividualMessagePermission(requestContext, authUserDto);
         }
-        if (method.isAnnotationPresent(RequiresPermissionByUserOnIndividualMessageAllMessages.class)) {
+        if (route.isMessagesOwnerRequired()) {
             checkAllMessagesPermission(requestContext, authUserDto);
         }
     }
 
-    private void checkMethodPermission(Method method, AuthUserDto authUserDto, ContainerRequestContext requestContext) {
-        long permissionId = method.getAnnotation(RequiresMethodPermission.class).value().getValue();
-        boolean hasPermission = authUserDto.getPermissions().stream()
-                .anyMatch(methodEntity -> methodEntity.getId() == permissionId);
-        if (!hasPermission) {
+    private void checkMethodPermission(MethodEnum requiredMethod, AuthUserDto authUserDto, ContainerRequestContext requestContext) {
+        PermissionSet permissions = authUserDto.getPermissions();
+        if (permissions == null || !permissions.contains(requiredMethod)) {
             logger.error("User does not have permission to access the resource");
             requestContext.abortWith(Response.status(Response.Status.FORBIDDEN).build());
         }
     }
 
-    private void checkProjectRolePermission(Method method, AuthUserDto authUserDto, ContainerRequestContext requestContext) {
-        ProjectRoleEnum requiredRole = method.getAnnotation(RequiresProjectRolePermission.class).value();
+    private void checkProjectRolePermission(ProjectRoleEnum requiredRole, AuthUserDto authUserDto, ContainerRequestContext requestContext) {
         MultivaluedMap<String, String> pathParams = requestContext.getUriInfo().getPathParameters();
         List<String> projectIdList = pathParams.get("projectId");
         if (projectIdList == null || projectIdList.isEmpty()) {
@@ -362,8 +324,7 @@ public class AuthorizationFilter implements ContainerRequestFilter {
             return;
         }
         long projectId = Long.parseLong(projectIdList.get(0));
-        ProjectMembershipEntity membership = projectMembershipDao.findProjectMembershipByUserIdAndProjectId(projectId, authUserDto.getUserId());
-        if (membership == null || !membership.getRole().equals(requiredRole)) {
+        if (!projectMembershipCache.hasRole(projectId, authUserDto.getUserId(), requiredRole)) {
             logger.error("User does not have permission to access the project");
             requestContext.abortWith(Response.status(Response.Status.FORBIDDEN).build());
         }
@@ -377,8 +338,7 @@ public class AuthorizationFilter implements ContainerRequestFilter {
             return;
         }
         long projectId = Long.parseLong(projectIdList.get(0));
-        ProjectMembershipEntity membership = projectMembershipDao.findProjectMembershipByUserIdAndProjectId(projectId, authUserDto.getUserId());
-        if (membership == null) {
+        if (!projectMembershipCache.isMember(projectId, authUserDto.getUserId())) {
             logger.error("User does not have permission to access the project");
             requestContext.abortWith(Response.status(Response.Status.FORBIDDEN).build());
         }
@@ -0,0 +1,16 @@
+package aor.fpbackend.filters;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a resource method that is served without authentication (login, registration, email confirmation,
+ * public listings). Every other resource method requires a valid authentication token.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PublicEndpoint {
+
+}
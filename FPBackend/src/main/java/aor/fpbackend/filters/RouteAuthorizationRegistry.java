@@ -0,0 +1,51 @@
+package aor.fpbackend.filters;
+
+import jakarta.ws.rs.container.DynamicFeature;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.FeatureContext;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RouteAuthorizationRegistry holds the {@link RouteDescriptor} of every resource method of the REST services.
+ * <p>
+ * As a {@link DynamicFeature}, it is called by the JAX-RS runtime once for each resource method when the
+ * application is deployed, and records the descriptors of the methods of the {@code aor.fpbackend.service}
+ * package. {@link AuthorizationFilter} then resolves the rule of a request with a single map lookup. A method
+ * not seen at deployment is described on its first request.
+ * </p>
+ */
+@Provider
+public class RouteAuthorizationRegistry implements DynamicFeature {
+
+    private static final String SERVICE_PACKAGE = "aor.fpbackend.service";
+    private static final Map<Method, RouteDescriptor> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method != null && method.getDeclaringClass().getPackageName().equals(SERVICE_PACKAGE)) {
+            routes.put(method, RouteDescriptor.of(method));
+        }
+    }
+
+    /**
+     * Returns the authorization rule of a resource method.
+     *
+     * @param method the resource method matched for the request, may be null.
+     * @return the rule of the method, or {@link RouteDescriptor#AUTHENTICATED} if there is no method.
+     */
+    public static RouteDescriptor lookup(Method method) {
+        if (method == null) {
+            return RouteDescriptor.AUTHENTICATED;
+        }
+        return routes.computeIfAbsent(method, RouteDescriptor::of);
+    }
+
+    public static int size() {
+        return routes.size();
+    }
+}
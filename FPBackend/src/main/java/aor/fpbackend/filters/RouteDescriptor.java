@@ -0,0 +1,84 @@
+package aor.fpbackend.filters;
+
+import aor.fpbackend.enums.MethodEnum;
+import aor.fpbackend.enums.ProjectRoleEnum;
+
+import java.lang.reflect.Method;
+
+/**
+ * RouteDescriptor is the immutable authorization rule of one resource method, read once from its security
+ * annotations so that {@link AuthorizationFilter} does not use reflection per request.
+ */
+public final class RouteDescriptor {
+
+    /**
+     * The rule of a request without a known resource method: authentication required, no further check.
+     */
+    public static final RouteDescriptor AUTHENTICATED = new RouteDescriptor(false, null, null, false, false, false);
+
+    private final boolean publicEndpoint;
+    private final MethodEnum requiredMethod;
+    private final ProjectRoleEnum requiredProjectRole;
+    private final boolean projectMemberRequired;
+    private final boolean individualMessageParticipantRequired;
+    private final boolean messagesOwnerRequired;
+
+    private RouteDescriptor(boolean publicEndpoint, MethodEnum requiredMethod, ProjectRoleEnum requiredProjectRole,
+                            boolean projectMemberRequired, boolean individualMessageParticipantRequired,
+                            boolean messagesOwnerRequired) {
+        this.publicEndpoint = publicEndpoint;
+        this.requiredMethod = requiredMethod;
+        this.requiredProjectRole = requiredProjectRole;
+        this.projectMemberRequired = projectMemberRequired;
+        this.individualMessageParticipantRequired = individualMessageParticipantRequired;
+        this.messagesOwnerRequired = messagesOwnerRequired;
+    }
+
+    /**
+     * Reads the security annotations of a resource method.
+     *
+     * @param method the resource method.
+     * @return the authorization rule of the method.
+     */
+    public static RouteDescriptor of(Method method) {
+        RequiresMethodPermission methodPermission = method.getAnnotation(RequiresMethodPermission.class);
+        RequiresProjectRolePermission projectRolePermission = method.getAnnotation(RequiresProjectRolePermission.class);
+        return new RouteDescriptor(
+                method.isAnnotationPresent(PublicEndpoint.class),
+                methodPermission != null ? methodPermission.value() : null,
+                projectRolePermission != null ? projectRolePermission.value() : null,
+                method.isAnnotationPresent(RequiresProjectMemberPermission.class),
+                method.isAnnotationPresent(RequiresPermissionByUserOnIndividualMessage.class),
+                method.isAnnotationPresent(RequiresPermissionByUserOnIndividualMessageAllMessages.class));
+    }
+
+    public boolean isPublicEndpoint() {
+        return publicEndpoint;
+    }
+
+    /**
+     * @return the permission required by the method, or null if none.
+     */
+    public MethodEnum getRequiredMethod() {
+        return requiredMethod;
+    }
+
+    /**
+     * @return the project role required by the method, or null if none.
+     */
+    public ProjectRoleEnum getRequiredProjectRole() {
+        return requiredProjectRole;
+    }
+
+    public boolean isProjectMemberRequired() {
+        return projectMemberRequired;
+    }
+
+    public boolean isIndividualMessageParticipantRequired() {
+        return individualMessageParticipantRequired;
+    }
+
+    public boolean isMessagesOwnerRequired() {
+        return messagesOwnerRequired;
+    }
+}
@@ -1,12 +1,15 @@
 package aor.fpbackend.service;
 
 import aor.fpbackend.bean.ConfigurationBean;
+import aor.fpbackend.bean.WebSocketOutboxBean;
 import aor.fpbackend.dto.Configuration.ConfigurationGetDto;
 import aor.fpbackend.dto.Configuration.ConfigurationUpdateDto;
 import aor.fpbackend.enums.MethodEnum;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.InputValidationException;
 import aor.fpbackend.filters.RequiresMethodPermission;
+import aor.fpbackend.filters.PublicEndpoint;
+import aor.fpbackend.websocket.WebSocketMetrics;
 import jakarta.ejb.EJB;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
@@ -20,6 +23,8 @@ import java.util.List;
 public class ConfigurationService {
     @EJB
     ConfigurationBean configurationBean;
+    @EJB
+    WebSocketOutboxBean webSocketOutboxBean;
     /**
      * Retrieves all configurations.
      *
@@ -28,6 +33,7 @@ public class ConfigurationService {
     @GET
     @Path("/all")
     @Produces(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public List<ConfigurationGetDto> getAllConfiguration() {
         return configurationBean.getAllConfiguration();
     }
@@ -47,4 +53,18 @@ public class ConfigurationService {
         configurationBean.updateConfigValue(configUpdateDto);
     }
 
+    /**
+     * Retrieves the counters of the outbound WebSocket pipeline: queued, sent, dropped and failed messages,
+     * disconnected slow consumers, queue depth and send latency.
+     *
+     * @return the WebSocketMetrics since the application started.
+     */
+    @GET
+    @Path("/websocket-metrics")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequiresMethodPermission(MethodEnum.WEBSOCKET_METRICS)
+    public WebSocketMetrics getWebSocketMetrics() {
+        return webSocketOutboxBean.getMetrics();
+    }
+
 }
@@ -1,7 +1,10 @@
 package aor.fpbackend.service;
 
 import aor.fpbackend.bean.GroupMessageBean;
+import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.GroupMessage.GroupMessageGetDto;
+import aor.fpbackend.dto.GroupMessage.GroupMessagePageDto;
+import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.UserNotFoundException;
 import aor.fpbackend.filters.RequiresProjectMemberPermission;
 import jakarta.ejb.EJB;
@@ -36,4 +39,59 @@ public class GroupMessageService {
         return groupMessageBean.getGroupMessagesByProjectId(projectId, securityContext);
     }
 
+    /**
+     * Retrieves one page of the message history of a project, newest page first.
+     *
+     * @param projectId the ID of the project.
+     * @param before the ID of the oldest message already loaded; omit it to get the latest messages.
+     * @param limit the maximum number of messages to return.
+     * @return a GroupMessagePageDto with the messages in chronological order and whether older messages exist.
+     * @throws EntityNotFoundException if the cursor message does not exist in the project.
+     */
+    @GET
+    @Path("/{projectId}/history")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequiresProjectMemberPermission()
+    public GroupMessagePageDto getGroupMessageHistory(@PathParam("projectId") long projectId,
+                                                      @QueryParam("before") Long before,
+                                                      @QueryParam("limit") @DefaultValue("0") int limit) throws EntityNotFoundException {
+        return groupMessageBean.getGroupMessageHistory(projectId, before, limit);
+    }
+
+    /**
+     * Retrieves the messages of a project sent after a given message.
+     *
+     * @param projectId the ID of the project.
+     * @param after the ID of the newest message already loaded.
+     * @param limit the maximum number of messages to return.
+     * @return a GroupMessagePageDto with the messages in chronological order and whether newer messages exist.
+     * @throws EntityNotFoundException if the cursor message does not exist in the project.
+     */
+    @GET
+    @Path("/{projectId}/since/{after}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequiresProjectMemberPermission()
+    public GroupMessagePageDto getGroupMessagesSince(@PathParam("projectId") long projectId,
+                                                     @PathParam("after") long after,
+                                                     @QueryParam("limit") @DefaultValue("0") int limit) throws EntityNotFoundException {
+        return groupMessageBean.getGroupMessagesSince(projectId, after, limit);
+    }
+
+    /**
+     * Marks every message of a project up to, and including, the given message as read by the authenticated user.
+     *
+     * @param projectId the ID of the project.
+     * @param messageId the ID of the newest message read.
+     * @param securityContext the security context of the authenticated user.
+     * @throws EntityNotFoundException if the message does not exist in the project.
+     */
+    @PUT
+    @Path("/{projectId}/read/{messageId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequiresProjectMemberPermission()
+    public void markMessagesAsReadUpTo(@PathParam("projectId") long projectId, @PathParam("messageId") long messageId,
+                                       @Context SecurityContext securityContext) throws EntityNotFoundException {
+        AuthUserDto authUserDto = (AuthUserDto) securityContext.getUserPrincipal();
+        groupMessageBean.markMessagesAsReadUpTo(projectId, authUserDto.getUserId(), messageId);
+    }
 }
@@ -2,6 +2,7 @@ package aor.fpbackend.service;
 
 import aor.fpbackend.bean.LaboratoryBean;
 import aor.fpbackend.dto.Laboratory.LaboratoryDto;
+import aor.fpbackend.filters.PublicEndpoint;
 import jakarta.ejb.EJB;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -23,6 +24,7 @@ public class LaboratoryService {
     @GET
     @Path("")
     @Produces(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public ArrayList<LaboratoryDto> getAllLabs() {
         return labBean.getLaboratories();
     }
@@ -12,6 +12,7 @@ import aor.fpbackend.enums.ProjectRoleEnum;
 import aor.fpbackend.exception.*;
 import aor.fpbackend.filters.RequiresMethodPermission;
 import aor.fpbackend.filters.RequiresProjectRolePermission;
+import aor.fpbackend.filters.PublicEndpoint;
 import jakarta.ejb.EJB;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
@@ -64,6 +65,7 @@ public class MembershipService {
     @PUT
     @Path("/confirm/project")
     @Consumes(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public void confirmAskToJoinProjectInvite(@QueryParam("token") String token, @QueryParam("approve") boolean approve, @QueryParam("approver") String approverUsername) throws EntityNotFoundException, UserNotFoundException, UnauthorizedAccessException, UnknownHostException {
         memberBean.confirmAskToJoinProjectInvite(token, approve, approverUsername);
     }
@@ -99,6 +101,7 @@ public class MembershipService {
     @PUT
     @Path("/accept/project")
     @Consumes(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public void acceptProjectInvite(@QueryParam("token") String token, @QueryParam("approve") boolean approve) throws EntityNotFoundException, UnknownHostException {
         memberBean.acceptProjectInvite(token, approve);
     }
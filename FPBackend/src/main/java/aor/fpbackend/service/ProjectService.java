@@ -1,6 +1,7 @@
 package aor.fpbackend.service;
 
 import aor.fpbackend.bean.ProjectBean;
+import aor.fpbackend.bean.ProjectCatalogueBean;
 import aor.fpbackend.dto.Project.*;
 import aor.fpbackend.enums.MethodEnum;
 import aor.fpbackend.enums.ProjectRoleEnum;
@@ -9,13 +10,16 @@ import aor.fpbackend.exception.*;
 import aor.fpbackend.filters.RequiresMethodPermission;
 import aor.fpbackend.filters.RequiresProjectRolePermission;
 import aor.fpbackend.filters.RequiresProjectMemberPermission;
+import aor.fpbackend.filters.PublicEndpoint;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.ObjectMapperConfigurator;
+import aor.fpbackend.utils.ProjectCatalogue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ejb.EJB;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
-import jakarta.ws.rs.core.Context;
-import jakarta.ws.rs.core.MediaType;
-import jakarta.ws.rs.core.SecurityContext;
-import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.core.*;
 
 import java.net.UnknownHostException;
 import java.util.List;
@@ -26,8 +30,13 @@ import java.util.List;
  */
 @Path("/projects")
 public class ProjectService {
+    private static final ObjectMapper LOG_EXPORT_MAPPER = ObjectMapperConfigurator.configureJackson();
+
     @EJB
     ProjectBean projectBean;
+    @EJB
+    ProjectCatalogueBean projectCatalogueBean;
+
     /**
      * Creates a new project.
      *
@@ -50,16 +59,43 @@ public class ProjectService {
     }
 
     /**
-     * Retrieves all projects.
+     * Retrieves all projects from the in-memory catalogue.
+     * The response carries the ETag of the catalogue version; a request whose If-None-Match matches it gets 304.
      *
-     * @return a list of ProjectGetDto.
+     * @param request the request, used to evaluate If-None-Match.
+     * @return a list of ProjectGetDto, or 304 Not Modified.
      */
     @GET
     @Path("/all")
     @Produces(MediaType.APPLICATION_JSON)
     @RequiresMethodPermission(MethodEnum.ALL_PROJECTS)
-    public List<ProjectGetDto> getAllProjects() {
-        return projectBean.getAllProjects();
+    @PublicEndpoint
+    public Response getAllProjects(@Context Request request) {
+        ProjectCatalogue catalogue = projectCatalogueBean.getCatalogue();
+        return conditionalResponse(request, new EntityTag(catalogue.getEntityTag()), catalogue.getProjects());
+    }
+
+    /**
+     * Retrieves a page of the in-memory project catalogue, with the same conditional request handling as
+     * {@link #getAllProjects(Request)}.
+     *
+     * @param page     the page number.
+     * @param pageSize the size of the page.
+     * @param request  the request, used to evaluate If-None-Match.
+     * @return a paginated DTO of projects, or 304 Not Modified.
+     * @throws InputValidationException if the page or the page size is not positive.
+     */
+    @GET
+    @Path("/all/page")
+    @Produces(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
+    public Response getAllProjectsPage(
+            @QueryParam("page") @DefaultValue("1") int page,
+            @QueryParam("pageSize") @DefaultValue("8") int pageSize,
+            @Context Request request) throws InputValidationException {
+        ProjectCatalogue catalogue = projectCatalogueBean.getCatalogue();
+        EntityTag entityTag = new EntityTag(catalogue.getPageEntityTag(page, pageSize));
+        return conditionalResponse(request, entityTag, catalogue.getPage(page, pageSize));
     }
 
     /**
@@ -70,6 +106,7 @@ public class ProjectService {
     @GET
     @Path("/all/ids")
     @Produces(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public List<Long> getAllProjectsIds() {
         return projectBean.getAllProjectsIds();
     }
@@ -86,6 +123,7 @@ public class ProjectService {
     @GET
     @Path("/all/filter")
     @Produces(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public ProjectPaginatedDto getFilteredProjects(
             @QueryParam("page") @DefaultValue("1") int page,
             @QueryParam("pageSize") @DefaultValue("8") int pageSize,
@@ -118,6 +156,7 @@ public class ProjectService {
     @Path("/enum/states")
     @Produces(MediaType.APPLICATION_JSON)
     @RequiresMethodPermission(MethodEnum.PROJECT_ENUMS)
+    @PublicEndpoint
     public List<ProjectStateEnum> getProjectStates() {
         return projectBean.getEnumListProjectStates();
     }
@@ -131,6 +170,7 @@ public class ProjectService {
     @Path("/enum/roles")
     @Produces(MediaType.APPLICATION_JSON)
     @RequiresMethodPermission(MethodEnum.PROJECT_ENUMS)
+    @PublicEndpoint
     public List<ProjectRoleEnum> getProjectRoles() {
         return projectBean.getEnumListProjectRoles();
     }
@@ -149,6 +189,79 @@ public class ProjectService {
         return projectBean.getListProjectLogs(projectId);
     }
 
+    /**
+     * Retrieves one page of the logs of a project, newest first.
+     *
+     * @param projectId the project ID.
+     * @param before    the ID of the oldest log already loaded; omit it to get the latest logs.
+     * @param limit     the maximum number of logs to return.
+     * @param type      the log type to keep; omit it for every type.
+     * @param from      the earliest creation date to keep, as an ISO-8601 instant.
+     * @param to        the creation date to stop at (exclusive), as an ISO-8601 instant.
+     * @return a ProjectLogPageDto with the logs and whether older logs exist.
+     * @throws InputValidationException if the type or a date is invalid.
+     * @throws EntityNotFoundException  if the cursor log does not exist in the project.
+     */
+    @GET
+    @Path("/logs/{projectId}/page")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequiresProjectMemberPermission()
+    public ProjectLogPageDto getProjectLogPage(@PathParam("projectId") long projectId,
+                                               @QueryParam("before") Long before,
+                                               @QueryParam("limit") @DefaultValue("0") int limit,
+                                               @QueryParam("type") String type,
+                                               @QueryParam("from") String from,
+                                               @QueryParam("to") String to) throws InputValidationException, EntityNotFoundException {
+        return projectBean.getProjectLogPage(projectId, before, limit, type, from, to);
+    }
+
+    /**
+     * Exports the logs of a project, newest first, as a JSON array streamed to the client.
+     * The logs are read page by page, so neither the server nor a transaction holds the whole log at once.
+     *
+     * @param projectId the project ID.
+     * @param type      the log type to keep; omit it for every type.
+     * @param from      the earliest creation date to keep, as an ISO-8601 instant.
+     * @param to        the creation date to stop at (exclusive), as an ISO-8601 instant.
+     * @return a Response streaming the logs as an attachment.
+     * @throws InputValidationException if the type or a date is invalid.
+     * @throws EntityNotFoundException  declared by the page reader, not thrown without a cursor.
+     */
+    @GET
+    @Path("/logs/{projectId}/export")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequiresProjectMemberPermission()
+    public Response exportProjectLogs(@PathParam("projectId") long projectId,
+                                      @QueryParam("type") String type,
+                                      @QueryParam("from") String from,
+                                      @QueryParam("to") String to) throws InputValidationException, EntityNotFoundException {
+        // The first page is read before streaming starts, so invalid filters still get a 400
+        ProjectLogPageDto firstPage = projectBean.getProjectLogPage(projectId, null, GlobalSettings.PROJECT_LOG_MAX_PAGE_SIZE, type, from, to);
+        StreamingOutput stream = output -> {
+            try (JsonGenerator generator = LOG_EXPORT_MAPPER.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                ProjectLogPageDto page = firstPage;
+                while (true) {
+                    for (ProjectLogGetDto log : page.getLogs()) {
+                        LOG_EXPORT_MAPPER.writeValue(generator, log);
+                    }
+                    generator.flush();
+                    if (!page.isHasMore() || page.getLogs().isEmpty()) {
+                        break;
+                    }
+                    long cursor = page.getLogs().get(page.getLogs().size() - 1).getId();
+                    page = projectBean.getProjectLogPage(projectId, cursor, GlobalSettings.PROJECT_LOG_MAX_PAGE_SIZE, type, from, to);
+                }
+                generator.writeEndArray();
+            } catch (InputValidationException | EntityNotFoundException e) {
+                throw new WebApplicationException(e);
+            }
+        };
+        return Response.ok(stream)
+                .header("Content-Disposition", "attachment; filename=project_" + projectId + "_logs.json")
+                .build();
+    }
+
     /**
      * Creates a new project log.
      *
@@ -218,4 +331,18 @@ public class ProjectService {
     public void updateProject(@PathParam("projectId") long projectId, @Valid ProjectUpdateDto projectUpdateDto, @Context SecurityContext securityContext) throws EntityNotFoundException, InputValidationException, UnknownHostException {
         projectBean.updateProject(projectId, projectUpdateDto, securityContext);
     }
+
+    /**
+     * Builds a 304 response if the entity tag matches the If-None-Match header of the request, or a 200 response
+     * with the entity otherwise. Clients must revalidate before reusing their copy.
+     */
+    private Response conditionalResponse(Request request, EntityTag entityTag, Object entity) {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
+        if (builder == null) {
+            builder = Response.ok(entity);
+        }
+        return builder.tag(entityTag).cacheControl(cacheControl).build();
+    }
 }
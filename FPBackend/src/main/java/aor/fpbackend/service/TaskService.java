@@ -57,6 +57,22 @@ public class TaskService {
         return taskBean.getTasksById(taskId);
     }
 
+    /**
+     * Retrieves the schedule of the tasks of a project: earliest and latest starts, slack and critical path.
+     *
+     * @param projectId the project ID.
+     * @return the schedule of the project.
+     * @throws EntityNotFoundException if the project is not found.
+     * @throws InputValidationException if the task dependencies of the project form a cycle.
+     */
+    @GET
+    @Path("/schedule/{projectId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @RequiresProjectMemberPermission()
+    public TaskScheduleDto getProjectSchedule(@PathParam("projectId") long projectId) throws EntityNotFoundException, InputValidationException {
+        return taskBean.getProjectSchedule(projectId);
+    }
+
     /**
      * Adds a task to a project.
      *
@@ -1,5 +1,6 @@
 package aor.fpbackend.service;
 
+import aor.fpbackend.bean.AuthenticationThrottleBean;
 import aor.fpbackend.bean.MembershipBean;
 import aor.fpbackend.bean.SessionBean;
 import aor.fpbackend.bean.UserBean;
@@ -12,7 +13,9 @@ import aor.fpbackend.dto.User.*;
 import aor.fpbackend.enums.MethodEnum;
 import aor.fpbackend.exception.*;
 import aor.fpbackend.filters.RequiresMethodPermission;
+import aor.fpbackend.filters.PublicEndpoint;
 import jakarta.ejb.EJB;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
@@ -35,6 +38,10 @@ public class UserService {
     SessionBean sessionBean;
     @EJB
     MembershipBean memberBean;
+    @EJB
+    AuthenticationThrottleBean authenticationThrottle;
+    @Context
+    private HttpServletRequest request;
 
     /**
      * Registers a new user.
@@ -42,12 +49,15 @@ public class UserService {
      * @param user the user registration data.
      * @throws InvalidCredentialsException if the provided credentials are invalid.
      * @throws EntityNotFoundException if required entities are not found.
+     * @throws TooManyRequestsException if the client made too many attempts.
      */
     @POST
     @Path("/register")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public void registerUser(@Valid UserRegisterDto user) throws InvalidCredentialsException, EntityNotFoundException {
+        authenticationThrottle.checkAnonymousAttempt(request.getRemoteAddr());
         userBean.register(user);
     }
 
@@ -61,6 +71,7 @@ public class UserService {
     @PUT
     @Path("/confirm")
     @Consumes(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public void confirmRegistration(@QueryParam("token") String token) throws InputValidationException, UserNotFoundException {
         userBean.confirmUser(token);
     }
@@ -74,6 +85,7 @@ public class UserService {
     @POST
     @Path("/request/confirmation/email")
     @Consumes(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public void requestConfirmationEmail(EmailDto email) throws InvalidRequestOnRegistConfirmationException {
         userBean.requestNewConfirmationEmail(email);
     }
@@ -88,6 +100,7 @@ public class UserService {
     @PUT
     @Path("/request/password/reset")
     @Consumes(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public void requestPasswordReset(@Valid PasswordRequestResetDto passwordRequestResetDto) throws UserNotFoundException, ForbiddenAccessException {
         userBean.requestPasswordReset(passwordRequestResetDto);
     }
@@ -102,7 +115,9 @@ public class UserService {
     @PUT
     @Path("/password/reset")
     @Consumes(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public void resetPassword(@Valid PasswordResetDto passwordResetDto) throws UserNotFoundException, ForbiddenAccessException {
+        authenticationThrottle.checkAnonymousAttempt(request.getRemoteAddr());
         userBean.resetPassword(passwordResetDto);
     }
 
@@ -112,13 +127,21 @@ public class UserService {
      * @param userLogin the user login data transfer object.
      * @return a response indicating the outcome of the login attempt.
      * @throws InvalidCredentialsException if the provided credentials are invalid.
+     * @throws TooManyRequestsException if the client or the account made too many attempts.
      */
     @POST
     @Path("/login")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
+    @PublicEndpoint
     public Response login(@Valid UserLoginDto userLogin) throws InvalidCredentialsException {
-        return sessionBean.login(userLogin);
+        authenticationThrottle.checkLoginAttempt(request.getRemoteAddr(), userLogin.getEmail());
+        try {
+            return sessionBean.login(userLogin);
+        } catch (InvalidCredentialsException e) {
+            authenticationThrottle.recordFailedLogin(userLogin.getEmail());
+            throw e;
+        }
     }
 
     /**
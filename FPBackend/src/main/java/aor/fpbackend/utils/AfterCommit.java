@@ -0,0 +1,80 @@
+package aor.fpbackend.utils;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * AfterCommit defers work that must only happen once the current transaction has committed, such as updating an
+ * in-memory cache or pushing a WebSocket message. Running that work before the commit would publish changes that
+ * can still be rolled back, or let a concurrent reader load the old rows back into the cache.
+ * <p>
+ * The beans pass their injected {@link TransactionSynchronizationRegistry}, which is null in unit tests; without a
+ * registry or outside a transaction the work runs immediately.
+ * </p>
+ */
+public class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * @param registry the transaction synchronization registry, may be null.
+     * @return true if the calling thread runs inside a transaction.
+     */
+    public static boolean inTransaction(TransactionSynchronizationRegistry registry) {
+        return registry != null && registry.getTransactionKey() != null;
+    }
+
+    /**
+     * Runs an action once the current transaction commits, or immediately when there is no transaction.
+     * The action is dropped if the transaction rolls back.
+     *
+     * @param registry the transaction synchronization registry, may be null.
+     * @param action   the action to run.
+     */
+    public static void run(TransactionSynchronizationRegistry registry, Runnable action) {
+        if (!inTransaction(registry)) {
+            action.run();
+            return;
+        }
+        registry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the buffer of the current transaction stored under a key, creating it on first use and handing it
+     * to {@code onCommit} once the transaction commits. Several calls in one transaction share one buffer, so the
+     * work they collect is done in one step. Must be called inside a transaction, see {@link #inTransaction}.
+     *
+     * @param registry the transaction synchronization registry.
+     * @param key      the key of the buffer, unique to the caller.
+     * @param factory  creates an empty buffer.
+     * @param onCommit consumes the filled buffer after the commit.
+     * @return the buffer of the current transaction.
+     */
+    public static <T> T buffer(TransactionSynchronizationRegistry registry, Object key, Supplier<T> factory, Consumer<T> onCommit) {
+        @SuppressWarnings("unchecked")
+        T buffer = (T) registry.getResource(key);
+        if (buffer == null) {
+            T created = factory.get();
+            registry.putResource(key, created);
+            run(registry, () -> onCommit.accept(created));
+            buffer = created;
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,99 @@
+package aor.fpbackend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter is a fixed-size probabilistic set of strings.
+ * <p>
+ * {@link #mightContain(String)} never returns false for a key that was added, and returns true for a key that
+ * was not added with roughly the false positive rate the filter was sized for, as long as no more than the
+ * expected number of keys is added. Keys cannot be removed; a filter is rebuilt to forget keys.
+ * </p>
+ * <p>
+ * Bits are stored in an {@link AtomicLongArray}, so keys can be added and looked up concurrently without locking.
+ * </p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    /**
+     * @param expectedKeys      the number of keys the filter is sized for.
+     * @param falsePositiveRate the target false positive rate at that number of keys, between 0 and 1.
+     */
+    public BloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected keys must be positive and the false positive rate between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.numBits = (long) words * 64;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedKeys * Math.log(2)));
+    }
+
+    /**
+     * Adds a key to the filter.
+     *
+     * @param key the key.
+     */
+    public void put(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            bits.getAndUpdate(word, value -> value | mask);
+        }
+    }
+
+    /**
+     * Tells whether a key may have been added to the filter.
+     *
+     * @param key the key.
+     * @return false if the key was certainly never added, true if it probably was.
+     */
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    private long index(int combinedHash) {
+        return Integer.toUnsignedLong(combinedHash) % numBits;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes of the key, followed by the SplitMix64 finalizer so both halves are well mixed.
+     */
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
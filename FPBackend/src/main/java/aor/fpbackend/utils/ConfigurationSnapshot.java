@@ -0,0 +1,62 @@
+package aor.fpbackend.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ConfigurationSnapshot is an immutable copy of the configuration table.
+ * <p>
+ * A snapshot is never modified: a change produces a new snapshot through {@link #with(String, int)}, so a
+ * reader always sees a consistent set of values and reading a value is a plain map lookup. Instances are safe
+ * to share between threads.
+ * </p>
+ */
+public final class ConfigurationSnapshot {
+
+    public static final String SESSION_TIMEOUT = "sessionTimeout";
+    public static final String MAX_PROJECT_MEMBERS = "maxProjectMembers";
+    public static final String SESSION_RETENTION_DAYS = "sessionRetentionDays";
+
+    private final Map<String, Integer> values;
+
+    public ConfigurationSnapshot(Map<String, Integer> values) {
+        this.values = Map.copyOf(values);
+    }
+
+    /**
+     * Returns a copy of this snapshot with one value added or replaced.
+     *
+     * @param configKey the key of the configuration entry.
+     * @param value     the new value.
+     * @return the new snapshot.
+     */
+    public ConfigurationSnapshot with(String configKey, int value) {
+        Map<String, Integer> newValues = new HashMap<>(values);
+        newValues.put(configKey, value);
+        return new ConfigurationSnapshot(newValues);
+    }
+
+    /**
+     * @param configKey the key of the configuration entry.
+     * @return the value of the entry, or 0 if there is no entry with that key.
+     */
+    public int getValue(String configKey) {
+        return values.getOrDefault(configKey, 0);
+    }
+
+    public boolean contains(String configKey) {
+        return values.containsKey(configKey);
+    }
+
+    public int getSessionTimeout() {
+        return getValue(SESSION_TIMEOUT);
+    }
+
+    public int getMaxProjectMembers() {
+        return getValue(MAX_PROJECT_MEMBERS);
+    }
+
+    public int getSessionRetentionDays() {
+        return getValue(SESSION_RETENTION_DAYS);
+    }
+}
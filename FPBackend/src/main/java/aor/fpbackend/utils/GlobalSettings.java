@@ -1,4 +1,9 @@
 package aor.fpbackend.utils;
+
+import aor.fpbackend.enums.ProjectLogDeliveryEnum;
+import aor.fpbackend.enums.SlowConsumerPolicyEnum;
+import aor.fpbackend.enums.TokenVerificationModeEnum;
+
 /**
  * GlobalSettings holds the application-wide constants used for configuration and default values.
  * <br>
@@ -14,4 +19,44 @@ public class GlobalSettings {
     public static final int DEFAULT_SESSION_TIMEOUT_MILLIS = 36000000;
     public static final int DEFAULT_NUMBER_MEMBERS_PER_PROJECT = 4;
     public static final int TIME_OUT_RATIO = 2; // denominator of the ratio for renovating the session timeout
+    public static final int SESSION_FORCED_LOGOUT_LEAD_MILLIS = 120000; // forced logout is pushed this long before the token expires
+    public static final int SESSION_DEADLINE_TICK_MILLIS = 1000;
+    public static final int SESSION_DEADLINE_WHEEL_SIZE = 3600; // one turn of the wheel covers an hour
+    public static final int DEFAULT_SESSION_RETENTION_DAYS = 30; // ended sessions are kept this long for auditing
+    public static final int SESSION_PURGE_BATCH_SIZE = 1000; // rows deleted per statement by the retention job
+    public static final int SESSION_PURGE_BATCH_PAUSE_MILLIS = 100; // pause between batches, leaves room for other writes
+    public static final int SESSION_PURGE_MAX_DURATION_MILLIS = 60000; // a run stops after this long, the next one resumes
+    public static final int AUTH_CACHE_TTL_MILLIS = 60000; // max time a validated token is trusted without a db lookup
+    public static final int AUTH_CACHE_MAX_ENTRIES = 10000;
+    public static final TokenVerificationModeEnum TOKEN_VERIFICATION_MODE = TokenVerificationModeEnum.DATABASE;
+    public static final int TOKEN_REVOCATION_FILTER_MIN_CAPACITY = 10000;
+    public static final double TOKEN_REVOCATION_FILTER_FALSE_POSITIVE_RATE = 0.001; // share of valid tokens still checked in the db
+    public static final int TOKEN_REVOCATION_RECENT_WINDOW_MILLIS = 1200000; // two rebuild periods of the revocation filter
+    public static final int PASSWORD_HASH_WORKERS = 0; // 0 means one hashing thread per available core
+    public static final int PASSWORD_HASH_QUEUE_CAPACITY = 64; // hash operations waiting beyond this are refused with 429
+    public static final int LOGIN_ATTEMPTS_PER_IP = 30; // per throttle window
+    public static final int LOGIN_ATTEMPTS_PER_EMAIL = 10; // per throttle window
+    public static final int ANONYMOUS_ATTEMPTS_PER_IP = 10; // registrations and password resets, per throttle window
+    public static final int ATTEMPT_THROTTLE_WINDOW_MILLIS = 60000;
+    public static final int MEMBERSHIP_CACHE_TTL_MILLIS = 300000; // upper bound on staleness if an invalidation is missed
+    public static final int MEMBERSHIP_CACHE_MAX_ENTRIES = 50000;
+    public static final int PROJECT_CATALOGUE_MAX_AGE_MILLIS = 300000; // upper bound on staleness for changes that do not invalidate it
+    public static final int PROJECT_SEARCH_MIN_PREFIX_LENGTH = 2; // shorter query words only match whole terms
+    public static final int NOTIFICATION_ID_ALLOCATION_SIZE = 50; // keep equal to hibernate.jdbc.batch_size
+    public static final int WS_OUTBOUND_QUEUE_CAPACITY = 256; // max messages waiting to be sent per WebSocket session
+    public static final int WS_SEND_TIMEOUT_MILLIS = 10000; // a client slower than this is treated as a slow consumer
+    public static final int WS_OUTBOUND_THREADS = 2; // threads that start the sends; they never wait for a client
+    public static final SlowConsumerPolicyEnum WS_SLOW_CONSUMER_POLICY = SlowConsumerPolicyEnum.DISCONNECT;
+    public static final int GROUP_MESSAGE_PAGE_SIZE = 50; // messages per history page when no limit is requested
+    public static final int GROUP_MESSAGE_MAX_PAGE_SIZE = 200;
+    public static final int PROJECT_LOG_PAGE_SIZE = 50; // logs per page when no limit is requested
+    public static final int PROJECT_LOG_MAX_PAGE_SIZE = 200; // also the chunk size of a log export
+    public static final ProjectLogDeliveryEnum PROJECT_LOG_DELIVERY = ProjectLogDeliveryEnum.AFTER_COMMIT; // default for automatic logs
+    public static final int PROJECT_LOG_ID_ALLOCATION_SIZE = 50; // keep equal to hibernate.jdbc.batch_size
+    public static final int PROJECT_LOG_QUEUE_CAPACITY = 10000; // logs committed but not yet inserted; beyond it logs are dropped
+    public static final int PROJECT_LOG_MAX_FAILED_ATTEMPTS = 60; // flush runs every second, so about a minute of database outage
+    public static final int PROJECT_MEMBERSHIP_ID_ALLOCATION_SIZE = 50; // keep equal to hibernate.jdbc.batch_size
+    public static final int PROJECT_ASSET_ID_ALLOCATION_SIZE = 50; // keep equal to hibernate.jdbc.batch_size
+    public static final int TASK_GRAPH_MAX_AGE_MILLIS = 600000; // upper bound on staleness if a committed change is missed
+    public static final int TASK_GRAPH_CACHE_MAX_PROJECTS = 1000;
 }
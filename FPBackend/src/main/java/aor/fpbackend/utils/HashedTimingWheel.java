@@ -0,0 +1,147 @@
+package aor.fpbackend.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HashedTimingWheel is an in-memory deadline queue keyed by an identifier.
+ * <p>
+ * Deadlines are hashed into a fixed ring of buckets, one bucket per tick. Scheduling and cancelling are O(1),
+ * and {@link #advance(Instant)} only visits the buckets of the ticks that elapsed since the previous call, so the
+ * cost of a tick does not depend on the number of pending deadlines. A bucket may hold deadlines of later turns of
+ * the wheel; those are skipped until their turn comes. The wheel does not own a thread: the caller drives it by
+ * calling {@link #advance(Instant)} at least once per tick.
+ * </p>
+ * <p>
+ * All methods are synchronized on the wheel.
+ * </p>
+ *
+ * @param <K> the type of the identifier of a deadline.
+ * @param <V> the type of the value returned when the deadline is reached.
+ */
+public class HashedTimingWheel<K, V> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final List<Set<Timeout<K, V>>> buckets;
+    private final Map<K, Timeout<K, V>> timeouts = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tick      the duration of one tick, i.e. the precision of the deadlines.
+     * @param wheelSize the number of buckets; deadlines further away than {@code tick * wheelSize} share buckets.
+     * @param start     the instant of tick zero.
+     */
+    public HashedTimingWheel(Duration tick, int wheelSize, Instant start) {
+        if (tick.toMillis() <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        this.tickMillis = tick.toMillis();
+        this.startMillis = start.toEpochMilli();
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.currentTick = 0;
+    }
+
+    /**
+     * Schedules a deadline, replacing any deadline already scheduled with the same key.
+     * A deadline in the past is returned by the next call to {@link #advance(Instant)}.
+     *
+     * @param key      the identifier of the deadline.
+     * @param value    the value returned when the deadline is reached.
+     * @param deadline the deadline.
+     */
+    public synchronized void schedule(K key, V value, Instant deadline) {
+        cancel(key);
+        long deadlineMillis = deadline.toEpochMilli();
+        long tick = Math.max(currentTick, Math.ceilDiv(deadlineMillis - startMillis, tickMillis));
+        Timeout<K, V> timeout = new Timeout<>(key, value, deadlineMillis, bucketOf(tick));
+        buckets.get(timeout.bucket).add(timeout);
+        timeouts.put(key, timeout);
+    }
+
+    /**
+     * Cancels the deadline of the given key.
+     *
+     * @param key the identifier of the deadline.
+     * @return true if a pending deadline was cancelled.
+     */
+    public synchronized boolean cancel(K key) {
+        Timeout<K, V> timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        buckets.get(timeout.bucket).remove(timeout);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given instant and removes every deadline reached.
+     *
+     * @param now the current instant.
+     * @return the values of the deadlines reached, in no particular order.
+     */
+    public synchronized List<V> advance(Instant now) {
+        List<V> expired = new ArrayList<>();
+        long targetTick = Math.floorDiv(now.toEpochMilli() - startMillis, tickMillis);
+        if (targetTick < currentTick) {
+            return expired;
+        }
+        if (targetTick - currentTick >= buckets.size()) {
+            // More than one turn elapsed, every bucket has to be visited once anyway
+            long limitMillis = startMillis + targetTick * tickMillis;
+            for (Set<Timeout<K, V>> bucket : buckets) {
+                expire(bucket, limitMillis, expired);
+            }
+        } else {
+            for (long tick = currentTick; tick <= targetTick; tick++) {
+                expire(buckets.get(bucketOf(tick)), startMillis + tick * tickMillis, expired);
+            }
+        }
+        currentTick = targetTick + 1;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    private void expire(Set<Timeout<K, V>> bucket, long limitMillis, List<V> expired) {
+        Iterator<Timeout<K, V>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout<K, V> timeout = iterator.next();
+            if (timeout.deadlineMillis <= limitMillis) {
+                iterator.remove();
+                timeouts.remove(timeout.key);
+                expired.add(timeout.value);
+            }
+        }
+    }
+
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.size());
+    }
+
+    private static final class Timeout<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadlineMillis;
+        private final int bucket;
+
+        private Timeout(K key, V value, long deadlineMillis, int bucket) {
+            this.key = key;
+            this.value = value;
+            this.deadlineMillis = deadlineMillis;
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package aor.fpbackend.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * InvertedIndex is an in-memory full-text index of documents identified by a long ID and made of enum fields.
+ * <p>
+ * Text is tokenized into lower case words without diacritics. Each term maps to the documents containing it,
+ * with the number of occurrences per field, and the terms are kept sorted so that a query word also matches
+ * every term it is a prefix of. A document matches a query when every query word matches one of its terms in
+ * the searched fields. Documents are ranked by the sum, over the query words, of the best matching term score:
+ * the weight of the fields it appears in, damped by the number of occurrences, times the inverse document
+ * frequency of the term. Prefix matches count for half an exact match.
+ * </p>
+ * <p>
+ * Putting a document only touches the terms of that document and of its previous version. Searches run
+ * concurrently; updates take an exclusive lock.
+ * </p>
+ *
+ * @param <F> the type of the fields of a document.
+ */
+public class InvertedIndex<F extends Enum<F>> {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final F[] fields;
+    private final ToDoubleFunction<F> fieldWeight;
+    private final int minPrefixLength;
+    // term -> document ID -> occurrences of the term in each field, indexed by field ordinal
+    private final NavigableMap<String, Map<Long, int[]>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param fieldType       the enum of the fields of a document.
+     * @param fieldWeight     the weight of a match in each field.
+     * @param minPrefixLength the minimum length of a query word for it to match longer terms.
+     */
+    public InvertedIndex(Class<F> fieldType, ToDoubleFunction<F> fieldWeight, int minPrefixLength) {
+        this.fields = fieldType.getEnumConstants();
+        this.fieldWeight = fieldWeight;
+        this.minPrefixLength = minPrefixLength;
+    }
+
+    /**
+     * Indexes a document, replacing the previous version of the document with the same ID.
+     *
+     * @param id       the ID of the document.
+     * @param contents the text of each field; missing or null fields are not indexed.
+     */
+    public void put(long id, Map<F, String> contents) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (Map.Entry<F, String> entry : contents.entrySet()) {
+            for (String term : tokenize(entry.getValue())) {
+                frequencies.computeIfAbsent(term, t -> new int[fields.length])[entry.getKey().ordinal()]++;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeTerms(id);
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(id, entry.getValue());
+            }
+            documentTerms.put(id, new HashSet<>(frequencies.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching every word of the query in the given fields.
+     *
+     * @param query          the query text.
+     * @param searchedFields the fields to search.
+     * @return the IDs of the matching documents, best match first; empty if the query has no words.
+     */
+    public List<Long> search(String query, Collection<F> searchedFields) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || searchedFields.isEmpty()) {
+            return new ArrayList<>();
+        }
+        double[] weights = new double[fields.length];
+        for (F field : searchedFields) {
+            weights[field.ordinal()] = fieldWeight.applyAsDouble(field);
+        }
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String word : new HashSet<>(words)) {
+                Map<Long, Double> wordScores = scoreWord(word, weights, scores);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + wordScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits a text into lower case words without diacritics.
+     *
+     * @param text the text, may be null.
+     * @return the words, in order, with repetitions.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String word : SEPARATORS.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Scores the documents matching one query word, keeping for each document its best matching term.
+     * When candidates is not null, only those documents are scored.
+     */
+    private Map<Long, Double> scoreWord(String word, double[] weights, Map<Long, Double> candidates) {
+        Map<Long, Double> wordScores = new HashMap<>();
+        Map<Long, int[]> exact = postings.get(word);
+        if (exact != null) {
+            scoreTerm(exact, 1.0, weights, candidates, wordScores);
+        }
+        if (word.length() >= minPrefixLength) {
+            // Every term starting with the word sorts between the word (excluded) and the word followed by the last char
+            for (Map<Long, int[]> documents : postings.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                scoreTerm(documents, PREFIX_MATCH_FACTOR, weights, candidates, wordScores);
+            }
+        }
+        return wordScores;
+    }
+
+    private void scoreTerm(Map<Long, int[]> documents, double matchFactor, double[] weights, Map<Long, Double> candidates,
+                           Map<Long, Double> wordScores) {
+        double idf = Math.log(1.0 + (double) documentTerms.size() / documents.size());
+        for (Map.Entry<Long, int[]> entry : documents.entrySet()) {
+            if (candidates != null && !candidates.containsKey(entry.getKey())) {
+                continue;
+            }
+            int[] frequencies = entry.getValue();
+            double fieldScore = 0;
+            for (int field = 0; field < frequencies.length; field++) {
+                if (frequencies[field] > 0 && weights[field] > 0) {
+                    fieldScore += weights[field] * (1.0 + Math.log(frequencies[field]));
+                }
+            }
+            if (fieldScore > 0) {
+                wordScores.merge(entry.getKey(), matchFactor * idf * fieldScore, Math::max);
+            }
+        }
+    }
+
+    private void removeTerms(long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, int[]> documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(id);
+                if (documents.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
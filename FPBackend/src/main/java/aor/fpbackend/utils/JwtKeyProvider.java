@@ -1,5 +1,7 @@
 package aor.fpbackend.utils;
 
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
@@ -7,13 +9,19 @@ import java.security.Key;
  * JwtKeyProvider provides a singleton {@link Key} instance for JWT signing and verification.
  * <p>
  * This class generates a secret key using the HS512 signature algorithm and provides
- * a method to retrieve this key.
+ * a method to retrieve this key, together with a parser bound to it. The parser is immutable
+ * and thread-safe, so it is built once and shared instead of being rebuilt for every token.
  * </p>
  */
 public class JwtKeyProvider {
     private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+    private static final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
     public static Key getKey() {
         return key;
     }
-}
\ No newline at end of file
+
+    public static JwtParser getParser() {
+        return parser;
+    }
+}
@@ -0,0 +1,22 @@
+package aor.fpbackend.utils;
+
+import java.util.Locale;
+/**
+ * LookupKey normalizes the values that are looked up ignoring case, such as the names of skills or projects.
+ * <p>
+ * Each of those values is stored twice: as entered, for display, and as its lookup key in an indexed
+ * "_key" column. Lookups compare the key of the searched value with that column, so the database uses the
+ * index instead of applying LOWER() to every row. The entities set the key in the setter of the value, and the
+ * keys of rows written before the column existed are filled at startup by LookupKeyMigrationBean.
+ * </p>
+ */
+public class LookupKey {
+
+    /**
+     * @param value the value, may be null.
+     * @return the lookup key of the value, or null if the value is null.
+     */
+    public static String of(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,59 @@
+package aor.fpbackend.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+import java.io.Serializable;
+import java.time.Instant;
+/**
+ * ParsedToken is the immutable result of verifying and parsing a JWT once.
+ * <p>
+ * The signature is verified with the shared parser from {@link JwtKeyProvider#getParser()}; the
+ * claims and the expiration are kept so that later steps of the same request (token renewal,
+ * security context) never need to parse the token again. Instances are safe to share between threads.
+ * </p>
+ */
+public final class ParsedToken implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String token;
+    private final transient Claims claims;
+    private final Long userId;
+    private final Instant expiration;
+
+    private ParsedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+        this.userId = Long.parseLong(claims.getSubject());
+        this.expiration = claims.getExpiration().toInstant();
+    }
+
+    /**
+     * Verifies the signature and expiration of the token and extracts its claims.
+     *
+     * @param token the compact JWT.
+     * @return the parsed token.
+     * @throws JwtException if the token is malformed, expired or has an invalid signature.
+     * @throws IllegalArgumentException if the token is null or empty.
+     */
+    public static ParsedToken parse(String token) {
+        Claims claims = JwtKeyProvider.getParser().parseClaimsJws(token).getBody();
+        return new ParsedToken(token, claims);
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+}
@@ -1,24 +1,141 @@
 package aor.fpbackend.utils;
 
-import jakarta.ejb.Stateless;
+import aor.fpbackend.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.ejb.ConcurrencyManagement;
+import jakarta.ejb.ConcurrencyManagementType;
+import jakarta.ejb.Singleton;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.mindrot.jbcrypt.BCrypt;
 
 import java.io.Serializable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
- * PassEncoder is a stateless EJB that provides methods for encoding passwords
+ * PassEncoder is a singleton EJB that provides methods for encoding passwords
  * and verifying password matches using the BCrypt hashing algorithm.
+ * <p>
+ * BCrypt is deliberately CPU bound, so the hashing runs on a dedicated pool of
+ * {@link GlobalSettings#PASSWORD_HASH_WORKERS} threads (one per core by default), created by the container's
+ * {@link ManagedThreadFactory}, in front of a queue of
+ * {@link GlobalSettings#PASSWORD_HASH_QUEUE_CAPACITY} operations. When the queue is full the call fails at
+ * once with a {@link TooManyRequestsException} (HTTP 429) instead of piling more hashing onto the cores, so a
+ * login burst cannot take every container thread. Queue wait and hashing time are recorded in
+ * {@link #getMetrics()}.
+ * </p>
  */
-@Stateless
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class PassEncoder implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger(PassEncoder.class);
 
     private static final int LOG_ROUNDS = 12;
 
+    @Resource
+    transient ManagedThreadFactory threadFactory;
+
+    private transient ThreadPoolExecutor executor;
+    private final transient PasswordHashingMetrics metrics = new PasswordHashingMetrics();
+
+    /**
+     * Used by the container, which starts the pool in {@link #start()}.
+     */
+    public PassEncoder() {
+    }
+
+    /**
+     * @param workers       the number of hashing threads.
+     * @param queueCapacity the number of operations that may wait for a thread before new ones are rejected.
+     * @param threadFactory creates the hashing threads.
+     */
+    public PassEncoder(int workers, int queueCapacity, ThreadFactory threadFactory) {
+        this.executor = createPool(workers, queueCapacity, threadFactory);
+    }
+
+    @PostConstruct
+    public void start() {
+        int workers = GlobalSettings.PASSWORD_HASH_WORKERS > 0 ? GlobalSettings.PASSWORD_HASH_WORKERS : Runtime.getRuntime().availableProcessors();
+        executor = createPool(workers, GlobalSettings.PASSWORD_HASH_QUEUE_CAPACITY, threadFactory);
+    }
+
+    /**
+     * Hashes a password with a new salt.
+     *
+     * @param password the raw password.
+     * @return the BCrypt hash.
+     * @throws TooManyRequestsException if the hashing pool is saturated.
+     */
     public String encode(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt(LOG_ROUNDS));
+        return runOnPool(() -> BCrypt.hashpw(password, BCrypt.gensalt(LOG_ROUNDS)));
     }
 
+    /**
+     * Checks a password against a BCrypt hash.
+     *
+     * @param rawPassword     the raw password.
+     * @param encodedPassword the stored hash.
+     * @return true if the password matches.
+     * @throws TooManyRequestsException if the hashing pool is saturated.
+     */
     public boolean matches(String rawPassword, String encodedPassword) {
-        return BCrypt.checkpw(rawPassword, encodedPassword);
+        return runOnPool(() -> BCrypt.checkpw(rawPassword, encodedPassword));
+    }
+
+    public PasswordHashingMetrics getMetrics() {
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        LOGGER.info("Password hashing pool stopped: {}", metrics);
+    }
+
+    private static ThreadPoolExecutor createPool(int workers, int queueCapacity, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private <T> T runOnPool(Callable<T> operation) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return operation.call();
+                } finally {
+                    metrics.recordCompleted(startedAt - submittedAt, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejected();
+            throw new TooManyRequestsException("Server busy, please retry later", 1);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Error hashing password", cause);
+        }
     }
 }
@@ -0,0 +1,68 @@
+package aor.fpbackend.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordHashingMetrics collects the counters of the password hashing pool of {@link PassEncoder}.
+ * <p>
+ * It tracks the number of completed and rejected operations, the time an operation waited in the queue before a
+ * worker picked it up, and the time spent hashing. All counters are lock free.
+ * </p>
+ */
+public class PasswordHashingMetrics {
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    void recordCompleted(long waitNanos, long durationNanos) {
+        completed.increment();
+        queueWaitNanos.add(waitNanos);
+        maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        hashNanos.add(durationNanos);
+        maxHashNanos.accumulateAndGet(durationNanos, Math::max);
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getAverageQueueWaitMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : (double) queueWaitNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxQueueWaitMillis() {
+        return (double) maxQueueWaitNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getAverageHashMillis() {
+        long count = completed.sum();
+        return count == 0 ? 0 : (double) hashNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxHashMillis() {
+        return (double) maxHashNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("completed=%d, rejected=%d, avgQueueWaitMs=%.2f, maxQueueWaitMs=%.2f, " +
+                        "avgHashMs=%.2f, maxHashMs=%.2f",
+                getCompleted(), getRejected(), getAverageQueueWaitMillis(), getMaxQueueWaitMillis(),
+                getAverageHashMillis(), getMaxHashMillis());
+    }
+}
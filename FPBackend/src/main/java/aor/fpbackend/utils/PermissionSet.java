@@ -0,0 +1,119 @@
+package aor.fpbackend.utils;
+
+import aor.fpbackend.entity.MethodEntity;
+import aor.fpbackend.enums.MethodEnum;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+/**
+ * PermissionSet is an immutable bitset of the {@link MethodEnum} permissions granted to a role.
+ * <p>
+ * Bit {@code n} is set when the method with {@link MethodEnum#getValue()} {@code n} is granted, so a permission
+ * check is a single array read and mask instead of a scan over the role's {@link MethodEntity} collection.
+ * Instances are never modified after construction and are safe to share between threads and requests;
+ * {@link #with(MethodEnum)} returns a new set.
+ * </p>
+ */
+public final class PermissionSet implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Builds the set from the methods associated with a role.
+     *
+     * @param methods the role methods, may be null.
+     * @return the corresponding permission set.
+     */
+    public static PermissionSet fromMethods(Collection<MethodEntity> methods) {
+        if (methods == null || methods.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = new long[0];
+        for (MethodEntity method : methods) {
+            words = set(words, method.getName().getValue());
+        }
+        return new PermissionSet(words);
+    }
+
+    public static PermissionSet of(MethodEnum... methods) {
+        long[] words = new long[0];
+        for (MethodEnum method : methods) {
+            words = set(words, method.getValue());
+        }
+        return new PermissionSet(words);
+    }
+
+    public boolean contains(MethodEnum method) {
+        return method != null && contains(method.getValue());
+    }
+
+    public boolean contains(long value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = (int) (value >>> 6);
+        return index < words.length && (words[index] & (1L << value)) != 0;
+    }
+
+    /**
+     * Returns a copy of this set with the given permission added.
+     *
+     * @param method the permission to add.
+     * @return this set if the permission is already present, otherwise a new set.
+     */
+    public PermissionSet with(MethodEnum method) {
+        if (contains(method)) {
+            return this;
+        }
+        return new PermissionSet(set(words.clone(), method.getValue()));
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private static long[] set(long[] words, long value) {
+        int index = (int) (value >>> 6);
+        if (index >= words.length) {
+            words = Arrays.copyOf(words, index + 1);
+        }
+        words[index] |= 1L << value;
+        return words;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PermissionSet)) return false;
+        return Arrays.equals(trimmed(words), trimmed(((PermissionSet) o).words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(trimmed(words));
+    }
+
+    private static long[] trimmed(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return length == words.length ? words : Arrays.copyOf(words, length);
+    }
+}
@@ -0,0 +1,81 @@
+package aor.fpbackend.utils;
+
+import aor.fpbackend.dto.Project.ProjectGetDto;
+import aor.fpbackend.dto.Project.ProjectPaginatedDto;
+import aor.fpbackend.exception.InputValidationException;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ProjectCatalogue is one immutable version of the public project catalogue.
+ * <p>
+ * The catalogue is identified by its entity tag, which changes with every version, so a client holding the tag
+ * of a version can be answered with 304 Not Modified while that version is current. A page of the catalogue has
+ * its own tag, derived from the catalogue tag and the page bounds.
+ * </p>
+ * <p>
+ * The project DTOs are shared by every request served from this version and must not be modified.
+ * </p>
+ */
+public class ProjectCatalogue {
+
+    private final long version;
+    private final String entityTag;
+    private final List<ProjectGetDto> projects;
+
+    public ProjectCatalogue(long version, String entityTag, List<ProjectGetDto> projects) {
+        this.version = version;
+        this.entityTag = entityTag;
+        this.projects = Collections.unmodifiableList(projects);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEntityTag() {
+        return entityTag;
+    }
+
+    public List<ProjectGetDto> getProjects() {
+        return projects;
+    }
+
+    /**
+     * Returns a page of the catalogue.
+     *
+     * @param page     the page number, starting at 1.
+     * @param pageSize the number of projects per page.
+     * @return the projects of the page and the total number of projects.
+     * @throws InputValidationException if the page or the page size is not positive.
+     */
+    public ProjectPaginatedDto getPage(int page, int pageSize) throws InputValidationException {
+        validatePage(page, pageSize);
+        long from = Math.min((long) (page - 1) * pageSize, projects.size());
+        long to = Math.min(from + pageSize, projects.size());
+        return new ProjectPaginatedDto(projects.subList((int) from, (int) to), projects.size());
+    }
+
+    /**
+     * Returns the entity tag of a page of the catalogue.
+     *
+     * @param page     the page number, starting at 1.
+     * @param pageSize the number of projects per page.
+     * @return the tag, without quotes.
+     * @throws InputValidationException if the page or the page size is not positive.
+     */
+    public String getPageEntityTag(int page, int pageSize) throws InputValidationException {
+        validatePage(page, pageSize);
+        return entityTag + "-" + page + "-" + pageSize;
+    }
+
+    private static void validatePage(int page, int pageSize) throws InputValidationException {
+        if (page <= 0) {
+            throw new InputValidationException("Page must be greater than 0.");
+        }
+        if (pageSize <= 0) {
+            throw new InputValidationException("Page size must be greater than 0.");
+        }
+    }
+}
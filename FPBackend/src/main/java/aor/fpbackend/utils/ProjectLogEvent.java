@@ -0,0 +1,65 @@
+package aor.fpbackend.utils;
+
+import aor.fpbackend.enums.LogTypeEnum;
+
+import java.time.Instant;
+
+/**
+ * ProjectLogEvent is a project log waiting to be inserted by the ProjectLogWriterBean.
+ * <p>
+ * It only keeps the IDs of the project and the user, so a queued event does not retain the entities of the
+ * transaction that wrote it. The creation date is taken when the event is written, not when it is inserted.
+ * </p>
+ */
+public class ProjectLogEvent {
+
+    private final long projectId;
+    private final long userId;
+    private final LogTypeEnum type;
+    private final String content;
+    private final Instant creationDate;
+    private int failedAttempts;
+
+    public ProjectLogEvent(long projectId, long userId, LogTypeEnum type, String content, Instant creationDate) {
+        this.projectId = projectId;
+        this.userId = userId;
+        this.type = type;
+        this.content = content;
+        this.creationDate = creationDate;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public LogTypeEnum getType() {
+        return type;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Instant getCreationDate() {
+        return creationDate;
+    }
+
+    /**
+     * Counts a failed insert of the event.
+     *
+     * @return the number of failed inserts so far.
+     */
+    public int recordFailedAttempt() {
+        return ++failedAttempts;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectLogEvent{projectId=" + projectId + ", userId=" + userId + ", type=" + type +
+                ", creationDate=" + creationDate + ", content='" + content + "'}";
+    }
+}
@@ -0,0 +1,529 @@
+package aor.fpbackend.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * TaskGraph is the in-memory dependency graph of the tasks of one project, with their critical path schedule.
+ * <p>
+ * Each task is a node weighted by its duration in days, and each dependency an edge from the prerequisite to the
+ * task that depends on it. The graph is kept acyclic: a dependency that would close a cycle is rejected. Every
+ * node has a rank, and each edge goes from a lower to a higher rank, so sorting by rank gives a topological order.
+ * When a new edge goes against the ranks, only the nodes ranked between its two ends are visited, to look for a
+ * cycle and to reorder them (Pearce and Kelly's dynamic topological sort).
+ * </p>
+ * <p>
+ * The schedule is in days from the start of the project, each task starting as soon as all its prerequisites
+ * are finished. Every node keeps its earliest start, the longest chain of durations before it, and its tail, the
+ * longest chain from its start to the end of the project, its own duration included. The project lasts as long
+ * as the largest earliest finish; the latest start of a task is that duration minus its tail, its slack is the
+ * difference between its latest and earliest starts, and the tasks without slack form the critical path. A
+ * change recomputes the earliest starts downstream and the tails upstream of the nodes it touches, in rank
+ * order, and stops wherever a value does not change.
+ * </p>
+ * <p>
+ * Reads run concurrently; updates take an exclusive lock.
+ * </p>
+ */
+public class TaskGraph {
+
+    private static final Comparator<Node> BY_RANK = Comparator.comparingLong(node -> node.rank);
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    // Earliest finish -> number of tasks finishing then; the last key is the duration of the project
+    private final TreeMap<Long, Integer> finishes = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nextRank;
+
+    /**
+     * Builds the graph of a project in one pass.
+     *
+     * @param durations    the duration in days of each task, by task ID.
+     * @param dependencies the dependencies, as (prerequisite ID, dependent task ID) pairs. Pairs with a task
+     *                     missing from the durations are ignored.
+     * @return the graph.
+     * @throws IllegalStateException if the dependencies form a cycle.
+     */
+    public static TaskGraph build(Map<Long, Long> durations, Collection<long[]> dependencies) {
+        TaskGraph graph = new TaskGraph();
+        for (Map.Entry<Long, Long> task : durations.entrySet()) {
+            graph.nodes.put(task.getKey(), new Node(task.getKey(), task.getValue()));
+        }
+        for (long[] dependency : dependencies) {
+            Node prerequisite = graph.nodes.get(dependency[0]);
+            Node dependent = graph.nodes.get(dependency[1]);
+            if (prerequisite != null && dependent != null && prerequisite != dependent) {
+                prerequisite.dependents.add(dependent);
+                dependent.prerequisites.add(prerequisite);
+            }
+        }
+        // Kahn's algorithm, smallest ID first so that the order does not depend on hashing
+        Map<Node, Integer> pendingPrerequisites = new HashMap<>();
+        PriorityQueue<Node> ready = new PriorityQueue<>(Comparator.comparingLong(node -> node.id));
+        for (Node node : graph.nodes.values()) {
+            pendingPrerequisites.put(node, node.prerequisites.size());
+            if (node.prerequisites.isEmpty()) {
+                ready.add(node);
+            }
+        }
+        List<Node> order = new ArrayList<>(graph.nodes.size());
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            node.rank = graph.nextRank++;
+            order.add(node);
+            for (Node dependent : node.dependents) {
+                if (pendingPrerequisites.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() < graph.nodes.size()) {
+            List<Long> cyclic = new ArrayList<>();
+            pendingPrerequisites.forEach((node, pending) -> {
+                if (pending > 0) {
+                    cyclic.add(node.id);
+                }
+            });
+            cyclic.sort(null);
+            throw new IllegalStateException("Task dependencies form a cycle through tasks " + cyclic);
+        }
+        for (Node node : order) {
+            node.earliestStart = graph.computeEarliestStart(node);
+            graph.addFinish(node);
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Node node = order.get(i);
+            node.tail = computeTail(node);
+        }
+        return graph;
+    }
+
+    /**
+     * Adds a task without dependencies, or changes the duration of an existing one.
+     *
+     * @param taskId   the ID of the task.
+     * @param duration the duration of the task, in days.
+     */
+    public void putTask(long taskId, long duration) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.get(taskId);
+            if (node == null) {
+                node = new Node(taskId, duration);
+                node.rank = nextRank++;
+                nodes.put(taskId, node);
+                addFinish(node);
+                return;
+            }
+            if (node.duration == duration) {
+                return;
+            }
+            removeFinish(node);
+            node.duration = duration;
+            addFinish(node);
+            propagateEarliestStarts(node.dependents);
+            propagateTails(List.of(node));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a task and its dependencies.
+     *
+     * @param taskId the ID of the task.
+     */
+    public void removeTask(long taskId) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.remove(taskId);
+            if (node == null) {
+                return;
+            }
+            removeFinish(node);
+            for (Node prerequisite : node.prerequisites) {
+                prerequisite.dependents.remove(node);
+            }
+            for (Node dependent : node.dependents) {
+                dependent.prerequisites.remove(node);
+            }
+            propagateEarliestStarts(node.dependents);
+            propagateTails(node.prerequisites);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether adding a dependency would close a cycle, that is whether the prerequisite already depends,
+     * directly or not, on the dependent task.
+     *
+     * @param prerequisiteId the ID of the task that must finish first.
+     * @param dependentId    the ID of the task that depends on it.
+     * @return true if the dependency would close a cycle; false if it would not or if either task is unknown.
+     */
+    public boolean wouldCreateCycle(long prerequisiteId, long dependentId) {
+        lock.readLock().lock();
+        try {
+            Node prerequisite = nodes.get(prerequisiteId);
+            Node dependent = nodes.get(dependentId);
+            if (prerequisite == null || dependent == null) {
+                return false;
+            }
+            return prerequisite == dependent || reachableWithinRanks(dependent, prerequisite) == null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a dependency between two tasks.
+     *
+     * @param prerequisiteId the ID of the task that must finish first.
+     * @param dependentId    the ID of the task that depends on it.
+     * @return false if the dependency already existed.
+     * @throws IllegalArgumentException if either task is unknown or if the dependency would close a cycle.
+     */
+    public boolean addDependency(long prerequisiteId, long dependentId) {
+        lock.writeLock().lock();
+        try {
+            Node prerequisite = requireNode(prerequisiteId);
+            Node dependent = requireNode(dependentId);
+            if (prerequisite.dependents.contains(dependent)) {
+                return false;
+            }
+            if (prerequisite == dependent) {
+                throw new IllegalArgumentException("Task " + prerequisiteId + " cannot depend on itself");
+            }
+            if (prerequisite.rank > dependent.rank) {
+                List<Node> forward = reachableWithinRanks(dependent, prerequisite);
+                if (forward == null) {
+                    throw new IllegalArgumentException("Dependency " + prerequisiteId + " -> " + dependentId + " would close a cycle");
+                }
+                reorder(prerequisite, dependent, forward);
+            }
+            prerequisite.dependents.add(dependent);
+            dependent.prerequisites.add(prerequisite);
+            propagateEarliestStarts(List.of(dependent));
+            propagateTails(List.of(prerequisite));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a dependency between two tasks.
+     *
+     * @param prerequisiteId the ID of the task that had to finish first.
+     * @param dependentId    the ID of the task that depended on it.
+     * @return false if there was no such dependency.
+     */
+    public boolean removeDependency(long prerequisiteId, long dependentId) {
+        lock.writeLock().lock();
+        try {
+            Node prerequisite = nodes.get(prerequisiteId);
+            Node dependent = nodes.get(dependentId);
+            if (prerequisite == null || dependent == null || !prerequisite.dependents.remove(dependent)) {
+                return false;
+            }
+            dependent.prerequisites.remove(prerequisite);
+            propagateEarliestStarts(List.of(dependent));
+            propagateTails(List.of(prerequisite));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the duration of the project in days: the latest earliest finish of its tasks.
+     */
+    public long getProjectDuration() {
+        lock.readLock().lock();
+        try {
+            return projectDuration();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the duration, the schedule and a critical path of the project under one lock, so that all three
+     * describe the same state of the graph. The critical path is a chain of dependent tasks without slack that runs
+     * from the start to the end of the project; when there are several, the one through the lowest ranked tasks
+     * is returned.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return new Snapshot(projectDuration(), schedule(), criticalPath());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long taskId) {
+        lock.readLock().lock();
+        try {
+            return nodes.containsKey(taskId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node requireNode(long taskId) {
+        Node node = nodes.get(taskId);
+        if (node == null) {
+            throw new IllegalArgumentException("Task " + taskId + " is not in the graph");
+        }
+        return node;
+    }
+
+    private long projectDuration() {
+        return finishes.isEmpty() ? 0 : finishes.lastKey();
+    }
+
+    private List<ScheduledTask> schedule() {
+        long projectDuration = projectDuration();
+        List<Node> order = new ArrayList<>(nodes.values());
+        order.sort(BY_RANK);
+        List<ScheduledTask> schedule = new ArrayList<>(order.size());
+        for (Node node : order) {
+            long latestStart = projectDuration - node.tail;
+            schedule.add(new ScheduledTask(node.id, node.duration, node.earliestStart, latestStart, latestStart - node.earliestStart));
+        }
+        return schedule;
+    }
+
+    private List<Long> criticalPath() {
+        long projectDuration = projectDuration();
+        Node current = null;
+        for (Node node : nodes.values()) {
+            if (node.earliestStart == 0 && node.tail == projectDuration && (current == null || node.rank < current.rank)) {
+                current = node;
+            }
+        }
+        List<Long> path = new ArrayList<>();
+        while (current != null) {
+            path.add(current.id);
+            Node next = null;
+            for (Node dependent : current.dependents) {
+                boolean continuesPath = dependent.earliestStart == current.earliestStart + current.duration
+                        && dependent.tail == current.tail - current.duration;
+                if (continuesPath && (next == null || dependent.rank < next.rank)) {
+                    next = dependent;
+                }
+            }
+            current = next;
+        }
+        return path;
+    }
+
+    /**
+     * Collects the nodes reachable from the start without going past the rank of the target.
+     *
+     * @return the nodes found, start included, or null if the target is reachable.
+     */
+    private static List<Node> reachableWithinRanks(Node start, Node target) {
+        if (start.rank > target.rank) {
+            return List.of();
+        }
+        List<Node> found = new ArrayList<>();
+        Set<Node> visited = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        visited.add(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            found.add(node);
+            for (Node dependent : node.dependents) {
+                if (dependent == target) {
+                    return null;
+                }
+                if (dependent.rank < target.rank && visited.add(dependent)) {
+                    stack.push(dependent);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gives the nodes between the ends of a new edge that goes against the ranks a valid order: the prerequisite
+     * and what it depends on first, then the dependent task and what depends on it, reusing their ranks.
+     */
+    private static void reorder(Node prerequisite, Node dependent, List<Node> forward) {
+        List<Node> backward = new ArrayList<>();
+        Set<Node> visited = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(prerequisite);
+        visited.add(prerequisite);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            backward.add(node);
+            for (Node upstream : node.prerequisites) {
+                if (upstream.rank > dependent.rank && visited.add(upstream)) {
+                    stack.push(upstream);
+                }
+            }
+        }
+        backward.sort(BY_RANK);
+        List<Node> sortedForward = new ArrayList<>(forward);
+        sortedForward.sort(BY_RANK);
+        long[] ranks = new long[backward.size() + sortedForward.size()];
+        int i = 0;
+        for (Node node : backward) {
+            ranks[i++] = node.rank;
+        }
+        for (Node node : sortedForward) {
+            ranks[i++] = node.rank;
+        }
+        Arrays.sort(ranks);
+        i = 0;
+        for (Node node : backward) {
+            node.rank = ranks[i++];
+        }
+        for (Node node : sortedForward) {
+            node.rank = ranks[i++];
+        }
+    }
+
+    private void propagateEarliestStarts(Collection<Node> changed) {
+        PriorityQueue<Node> queue = new PriorityQueue<>(BY_RANK);
+        Set<Node> queued = new HashSet<>();
+        for (Node node : changed) {
+            if (queued.add(node)) {
+                queue.add(node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            long earliestStart = computeEarliestStart(node);
+            if (earliestStart == node.earliestStart) {
+                continue;
+            }
+            removeFinish(node);
+            node.earliestStart = earliestStart;
+            addFinish(node);
+            for (Node dependent : node.dependents) {
+                if (queued.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+    }
+
+    private void propagateTails(Collection<Node> changed) {
+        PriorityQueue<Node> queue = new PriorityQueue<>(BY_RANK.reversed());
+        Set<Node> queued = new HashSet<>();
+        for (Node node : changed) {
+            if (queued.add(node)) {
+                queue.add(node);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            long tail = computeTail(node);
+            if (tail == node.tail) {
+                continue;
+            }
+            node.tail = tail;
+            for (Node prerequisite : node.prerequisites) {
+                if (queued.add(prerequisite)) {
+                    queue.add(prerequisite);
+                }
+            }
+        }
+    }
+
+    private long computeEarliestStart(Node node) {
+        long earliestStart = 0;
+        for (Node prerequisite : node.prerequisites) {
+            earliestStart = Math.max(earliestStart, prerequisite.earliestStart + prerequisite.duration);
+        }
+        return earliestStart;
+    }
+
+    private static long computeTail(Node node) {
+        long longestAfter = 0;
+        for (Node dependent : node.dependents) {
+            longestAfter = Math.max(longestAfter, dependent.tail);
+        }
+        return node.duration + longestAfter;
+    }
+
+    private void addFinish(Node node) {
+        finishes.merge(node.earliestStart + node.duration, 1, Integer::sum);
+    }
+
+    private void removeFinish(Node node) {
+        finishes.computeIfPresent(node.earliestStart + node.duration, (finish, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * The schedule of a task, in days from the start of the project.
+     *
+     * @param taskId        the ID of the task.
+     * @param duration      the duration of the task.
+     * @param earliestStart the earliest start, once every prerequisite is finished.
+     * @param latestStart   the latest start that does not delay the project.
+     * @param slack         how many days the task can be delayed without delaying the project.
+     */
+    public record ScheduledTask(long taskId, long duration, long earliestStart, long latestStart, long slack) {
+
+        public boolean isCritical() {
+            return slack == 0;
+        }
+    }
+
+    /**
+     * The duration, schedule and critical path of the project at one point in time.
+     *
+     * @param projectDuration the duration of the project in days.
+     * @param schedule        the schedule of every task, in topological order.
+     * @param criticalPath    the IDs of the tasks of a critical path, in order, or an empty list if there are no
+     *                        tasks.
+     */
+    public record Snapshot(long projectDuration, List<ScheduledTask> schedule, List<Long> criticalPath) {
+    }
+
+    private static final class Node {
+        private final long id;
+        private final Set<Node> prerequisites = new HashSet<>();
+        private final Set<Node> dependents = new HashSet<>();
+        private long duration;
+        private long rank;
+        private long earliestStart;
+        private long tail;
+
+        private Node(long id, long duration) {
+            this.id = id;
+            this.duration = duration;
+            this.tail = duration;
+        }
+    }
+}
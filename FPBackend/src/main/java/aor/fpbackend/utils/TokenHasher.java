@@ -0,0 +1,30 @@
+package aor.fpbackend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+/**
+ * TokenHasher reduces authentication tokens to a fixed-length SHA-256 digest.
+ * <p>
+ * JWTs are long strings; the hex digest is a compact, constant-size key that can be used
+ * for in-memory lookups without keeping the raw token around as the key.
+ * </p>
+ */
+public class TokenHasher {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[bytes.length * 2];
+            for (int i = 0; i < bytes.length; i++) {
+                hex[i * 2] = HEX[(bytes[i] >> 4) & 0x0F];
+                hex[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -6,12 +6,11 @@ import aor.fpbackend.bean.UserBean;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.Notification.NotificationGetDto;
 import aor.fpbackend.dto.Websocket.WebSocketMessageDto;
-import aor.fpbackend.entity.SessionEntity;
-import aor.fpbackend.dao.SessionDao;
 import aor.fpbackend.enums.QueryParams;
 import aor.fpbackend.enums.WebSocketMessageType;
 import aor.fpbackend.exception.InvalidCredentialsException;
 import aor.fpbackend.utils.GsonSetup;
+import aor.fpbackend.utils.TokenHasher;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -36,10 +35,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * send forced logout requests and notifications to user sessions.
  *
  * @see SessionBean
- * @see SessionDao
  * @see AuthUserDto
  * @see WebSocketMessageDto
- * @see SessionEntity
  */
 @ApplicationScoped
 @ServerEndpoint("/ws/{sessionToken}")
@@ -48,8 +45,7 @@ public class GlobalWebSocket {
 
     private static final ConcurrentHashMap<Long, List<Session>> sessions = new ConcurrentHashMap<>();
     static Gson gson = GsonSetup.createGson();
-    @EJB
-    private static SessionDao sessionDao;
+    private static final String FORCED_LOGOUT_MESSAGE = WebSocketOutbox.encode(new WebSocketMessageDto(WebSocketMessageType.FORCED_LOGOUT.toString(), null));
     @EJB
     private SessionBean sessionBean;
     /**
@@ -65,6 +61,7 @@ public class GlobalWebSocket {
             if (user != null) {
                 session.getUserProperties().put("userId", user.getUserId());
                 session.getUserProperties().put("token", sessionToken);
+                session.getUserProperties().put("tokenHash", TokenHasher.hash(sessionToken));
                 sessions.computeIfAbsent(user.getUserId(), k -> new CopyOnWriteArrayList<>()).add(session);
                 LOGGER.info("WS Global session opened for user: " + user.getUserId());
             } else {
@@ -95,6 +92,7 @@ public class GlobalWebSocket {
      */
     @OnClose
     public void onClose(Session session, CloseReason reason) {
+        WebSocketOutbox.release(session);
         Long userId = (Long) session.getUserProperties().get("userId");
         if (userId != null) {
             List<Session> userSessions = sessions.get(userId);
@@ -130,41 +128,27 @@ public class GlobalWebSocket {
         }
     }
     /**
-     * Sends a forced logout request to a specific session.
+     * Sends a forced logout request to the WebSocket session opened with the given session token, if any.
+     * Sessions without an open WebSocket are deactivated when their token expires.
      *
-     * @param sessionEntity The session entity representing the session to be logged out.
+     * @param userId           The ID of the user owning the session.
+     * @param sessionTokenHash The hash of the session token of the session to be logged out.
+     * @return true if the request was queued for an open WebSocket session.
      */
-    public static void sendForcedLogoutRequest(SessionEntity sessionEntity) {
-        Long userId = sessionEntity.getUser().getId();
-        String sessionToken = sessionEntity.getSessionToken();
+    public static boolean sendForcedLogoutRequest(long userId, String sessionTokenHash) {
         List<Session> userSessions = sessions.get(userId);
-        System.out.println("User sessions: " + userSessions);
-        if (userSessions != null) {
-            System.out.println("User sessions size: " + userSessions.size());
-            Session session = userSessions.stream()
-                    .filter(s -> sessionToken.equals(s.getUserProperties().get("token")))
-                    .findFirst()
-                    .orElse(null);
-
-            if (session != null && session.isOpen()) {
-                try {
-                    System.out.println("Sending forced logout request to session: " + session.getId());
-                    String jsonResponse = gson.toJson(new WebSocketMessageDto(WebSocketMessageType.FORCED_LOGOUT.toString(), null));
-                    session.getBasicRemote().sendText(jsonResponse);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            } else {
-                // If the session is not open or cannot be found, deactivate the session
-                sessionEntity.setActive(false);
-                sessionDao.merge(sessionEntity);
-            }
-        } else {
-            // If there are no sessions for the user, deactivate session
-            System.out.println("Session not found or not open");
-            sessionEntity.setActive(false);
-            sessionDao.merge(sessionEntity);
+        if (userSessions == null) {
+            return false;
+        }
+        Session session = userSessions.stream()
+                .filter(s -> sessionTokenHash.equals(s.getUserProperties().get("tokenHash")))
+                .findFirst()
+                .orElse(null);
+        if (session == null || !session.isOpen()) {
+            return false;
         }
+        WebSocketOutbox.send(session, FORCED_LOGOUT_MESSAGE);
+        return true;
     }
     /**
      * Tries to send a notification to all sessions of a user.
@@ -175,15 +159,7 @@ public class GlobalWebSocket {
         Long userId = notification.getUser().getId();
         List<Session> userSessions = sessions.get(userId);
         if (userSessions != null) {
-            for (Session session : userSessions) {
-                if (session.isOpen()) {
-                    try {
-                        session.getBasicRemote().sendText(gson.toJson(new WebSocketMessageDto(WebSocketMessageType.RECEIVED_NOTIFICATION.toString(), notification)));
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
+            WebSocketOutbox.broadcast(userSessions, new WebSocketMessageDto(WebSocketMessageType.RECEIVED_NOTIFICATION.toString(), notification));
         } else {
             System.out.println("No sessions found for user id: " + userId);
         }
@@ -12,7 +12,6 @@ import aor.fpbackend.entity.UserEntity;
 import aor.fpbackend.enums.QueryParams;
 import aor.fpbackend.enums.WebSocketMessageType;
 import aor.fpbackend.exception.EntityNotFoundException;
-import aor.fpbackend.exception.InvalidCredentialsException;
 import aor.fpbackend.exception.UnauthorizedAccessException;
 import aor.fpbackend.exception.UserNotFoundException;
 import aor.fpbackend.utils.GsonSetup;
@@ -31,11 +30,9 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
 
 /**
  * GroupMessageWebSocket manages WebSocket connections and messages for group chat functionality.
@@ -54,11 +51,13 @@ public class GroupMessageWebSocket {
 
     private static final Logger LOGGER = LogManager.getLogger(GroupMessageWebSocket.class);
 
-    private static final Map<Long, List<Session>> userSessions = new ConcurrentHashMap<>();
+    private static final ProjectSessionRegistry sessionRegistry = new ProjectSessionRegistry();
     Gson gson = GsonSetup.createGson();
     @EJB
     private ProjectMembershipDao projectMembershipDao;
     @EJB
+    private ProjectMembershipCacheBean projectMembershipCache;
+    @EJB
     private GroupMessageBean groupMessageBean;
     @EJB
     private SessionBean sessionBean;
@@ -75,41 +74,26 @@ public class GroupMessageWebSocket {
     public void onOpen(Session session, @PathParam("sessionToken") String sessionToken, @PathParam("projectId") Long projectId) {
         try {
             AuthUserDto user = sessionBean.validateSessionTokenAndGetUserDetails(sessionToken);
-            if (!projectMembershipDao.isUserProjectMember(projectId, user.getUserId())) {
+            if (!projectMembershipCache.isMember(projectId, user.getUserId())) {
                 throw new UnauthorizedAccessException("User is not a project member");
             }
-            if (user != null) {
-                session.getUserProperties().put("projectId", projectId);
-                session.getUserProperties().put("userId", user.getUserId());
-                session.getUserProperties().put("token", sessionToken);
-                userSessions.computeIfAbsent(projectId, k -> new CopyOnWriteArrayList<>()).add(session);
-                System.out.println("Session opened: " + session.getId() + " for user: " + user.getUserId() + " in project: " + projectId);
-            } else {
-                session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "Unauthorized"));
-            }
+            session.getUserProperties().put("token", sessionToken);
+            sessionRegistry.register(session, projectId, user.getUserId());
+            LOGGER.debug("Group chat session {} opened for user {} in project {}", session.getId(), user.getUserId(), projectId);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOGGER.warn("Group chat session {} not opened for project {}: {}", session.getId(), projectId, e.getMessage());
         }
     }
     /**
      * Called when a WebSocket connection is closed.
+     * The session is removed from the registry using the project and user recorded when it was opened.
      *
      * @param session The WebSocket session.
-     * @param sessionToken The session token used for authentication.
-     * @throws InvalidCredentialsException If the session token is invalid.
      */
     @OnClose
-    public void onClose(Session session, @PathParam("sessionToken") String sessionToken) throws InvalidCredentialsException {
-        AuthUserDto user = sessionBean.validateSessionTokenAndGetUserDetails(sessionToken);
-        if (user != null) {
-            List<Session> sessions = userSessions.get(user.getUserId());
-            if (sessions != null) {
-                sessions.remove(session);
-                if (sessions.isEmpty()) {
-                    userSessions.remove(user.getUserId());
-                }
-            }
-        }
+    public void onClose(Session session) {
+        WebSocketOutbox.release(session);
+        sessionRegistry.unregister(session);
     }
     /**
      * Called when an error occurs in the WebSocket connection.
@@ -119,7 +103,7 @@ public class GroupMessageWebSocket {
      */
     @OnError
     public void onError(Session session, Throwable throwable) {
-        System.out.println("WebSocket error: " + throwable.getMessage());
+        LOGGER.warn("Group chat WebSocket error on session {}: {}", session.getId(), throwable.getMessage());
     }
     /**
      * Called when a message is received through the WebSocket.
@@ -154,30 +138,24 @@ public class GroupMessageWebSocket {
         GroupMessageSendDto msg = gson.fromJson(data, GroupMessageSendDto.class);
         if (data != null) {
             GroupMessageEntity savedGroupMessage = groupMessageBean.sendGroupMessage(msg);
-            groupMessageBean.markMessageAsReadByUser(savedGroupMessage.getId(), savedGroupMessage.getSender().getId());
+            Set<Long> fullyRead = groupMessageBean.markMessagesAsRead(savedGroupMessage.getGroup().getId(),
+                    List.of(savedGroupMessage.getId()), List.of(savedGroupMessage.getSender().getId()));
+            savedGroupMessage.setViewed(fullyRead.contains(savedGroupMessage.getId()));
             GroupMessageGetDto savedGroupMessageGetDto = groupMessageBean.convertGroupMessageEntityToGroupMessageGetDto(savedGroupMessage);
             if (savedGroupMessage != null) {
-                String jsonResponse = gson.toJson(new WebSocketMessageDto(WebSocketMessageType.NEW_GROUP_MESSAGE.toString(), savedGroupMessageGetDto));
-                List<Session> groupSessions = userSessions.get(savedGroupMessage.getGroup().getId());
-                List<UserEntity> projectMembers = projectMembershipDao.findProjectActiveMembersByProjectId(savedGroupMessage.getGroup().getId());
-                if (groupSessions != null && !groupSessions.isEmpty()) {
-                    for (Session groupSession : groupSessions) {
-                        if (groupSession.isOpen() && groupSession.getUserProperties().get("projectId").equals(savedGroupMessageGetDto.getGroupId())) {
-                            groupSession.getBasicRemote().sendText(jsonResponse);
-                            Iterator<UserEntity> iterator = projectMembers.iterator();
-                            while (iterator.hasNext()) {
-                                UserEntity projectMember = iterator.next();
-                                if (projectMember.getId() == (long) groupSession.getUserProperties().get("userId")) {
-                                    iterator.remove();
-                                }
-                            }
-                        }
+                String jsonResponse = WebSocketOutbox.encode(new WebSocketMessageDto(WebSocketMessageType.NEW_GROUP_MESSAGE.toString(), savedGroupMessageGetDto));
+                long projectId = savedGroupMessage.getGroup().getId();
+                WebSocketOutbox.broadcast(sessionRegistry.getProjectSessions(projectId), jsonResponse);
+                // Members without an open session in the group chat get a notification instead
+                Set<Long> connectedUserIds = sessionRegistry.getConnectedUserIds(projectId);
+                List<UserEntity> offlineMembers = new ArrayList<>();
+                for (UserEntity projectMember : projectMembershipDao.findProjectActiveMembersByProjectId(projectId)) {
+                    if (!connectedUserIds.contains(projectMember.getId())) {
+                        offlineMembers.add(projectMember);
                     }
-                } else {
-                    System.out.println("Group session is null or closed");
                 }
-                if (projectMembers != null || !projectMembers.isEmpty()) {
-                    notificationBean.createNotificationForGroupMessage(savedGroupMessage, projectMembers);
+                if (!offlineMembers.isEmpty()) {
+                    notificationBean.createNotificationForGroupMessage(savedGroupMessage, offlineMembers);
                 }
             }
         }
@@ -195,27 +173,16 @@ public class GroupMessageWebSocket {
         }.getType();
         List<Long> messageIds = gson.fromJson(dataElement, listType);
 
-        boolean allMarkedAsRead = false;
-        List<Session> projectSessions = userSessions.get((Long) session.getUserProperties().get("projectId"));
-        if (projectSessions != null) {
-            for (Session pSession : projectSessions) {
-                if (pSession.isOpen()) {
-                    allMarkedAsRead = groupMessageBean.verifyMessagesAsReadForGroup(messageIds, (Long) pSession.getUserProperties().get("userId"));
-                }
-            }
+        Long projectId = sessionRegistry.getProjectId(session);
+        if (projectId == null || messageIds == null || messageIds.isEmpty()) {
+            return;
         }
-        if (allMarkedAsRead) {
+        // Every member with the group chat open has seen the messages
+        Set<Long> fullyRead = groupMessageBean.markMessagesAsRead(projectId, messageIds, sessionRegistry.getConnectedUserIds(projectId));
+        if (fullyRead.containsAll(messageIds)) {
             List<GroupMessageGetDto> messages = groupMessageBean.getGroupMessagesByMessageIds(messageIds);
             WebSocketMessageDto response = new WebSocketMessageDto(WebSocketMessageType.MARK_AS_READ.toString(), messages);
-            String jsonResponse = gson.toJson(response);
-            List<Session> groupSessions = userSessions.get(messages.get(0).getGroupId());
-            if (groupSessions != null) {
-                for (Session groupSession : groupSessions) {
-                    if (groupSession.isOpen()) {
-                        groupSession.getBasicRemote().sendText(jsonResponse);
-                    }
-                }
-            }
+            WebSocketOutbox.broadcast(sessionRegistry.getProjectSessions(projectId), response);
         }
     }
 }
@@ -91,6 +91,7 @@ public class IndividualMessageWebSocket {
      */
     @OnClose
     public void onClose(Session session, @PathParam("sessionToken") String sessionToken) throws InvalidCredentialsException {
+        WebSocketOutbox.release(session);
         AuthUserDto user = sessionBean.validateSessionTokenAndGetUserDetails(sessionToken);
         if (user != null) {
             List<Session> sessions = userSessions.get(user.getUserId());
@@ -147,23 +148,9 @@ public class IndividualMessageWebSocket {
         if (success) {
             List<IndividualMessageGetDto> messages = individualMessageBean.getMessagesByIds(messageIds);
             WebSocketMessageDto response = new WebSocketMessageDto(WebSocketMessageType.MARK_AS_READ.toString(), messages);
-            String jsonResponse = gson.toJson(response);
-            List<Session> receiverSessions = userSessions.get(messages.get(0).getRecipient().getId());
-            if (receiverSessions != null) {
-                for (Session receiverSession : receiverSessions) {
-                    if (receiverSession.isOpen()) {
-                        receiverSession.getBasicRemote().sendText(jsonResponse);
-                    }
-                }
-            }
-            List<Session> senderSessions = userSessions.get(messages.get(0).getSender().getId());
-            if (senderSessions != null) {
-                for (Session senderSession : senderSessions) {
-                    if (senderSession.isOpen()) {
-                        senderSession.getBasicRemote().sendText(jsonResponse);
-                    }
-                }
-            }
+            String jsonResponse = WebSocketOutbox.encode(response);
+            WebSocketOutbox.broadcast(userSessions.get(messages.get(0).getRecipient().getId()), jsonResponse);
+            WebSocketOutbox.broadcast(userSessions.get(messages.get(0).getSender().getId()), jsonResponse);
         }
     }
     /**
@@ -181,25 +168,19 @@ public class IndividualMessageWebSocket {
             IndividualMessageEntity savedMessage = individualMessageBean.sendIndividualMessage(msg);
             IndividualMessageGetDto savedMessageDto = individualMessageBean.convertToDto(savedMessage);
             if (savedMessage != null) {
-                String jsonResponse = gson.toJson(new WebSocketMessageDto(WebSocketMessageType.NEW_INDIVIDUAL_MESSAGE.toString(), savedMessageDto));
+                String jsonResponse = WebSocketOutbox.encode(new WebSocketMessageDto(WebSocketMessageType.NEW_INDIVIDUAL_MESSAGE.toString(), savedMessageDto));
                 List<Session> receiverSessions = userSessions.get(savedMessage.getRecipient().getId());
                 List<Session> senderSessions = userSessions.get(savedMessage.getSender().getId());
                 if (receiverSessions != null && !receiverSessions.isEmpty()) {
                     for (Session receiverSession : receiverSessions) {
                         if (receiverSession.isOpen() && receiverSession.getUserProperties().get("receiverId").equals(savedMessageDto.getSender().getId())) {
-                            receiverSession.getBasicRemote().sendText(jsonResponse);
+                            WebSocketOutbox.send(receiverSession, jsonResponse);
                         }
                     }
                 } else {
                     notificationBean.createIndividualMessageNotification(savedMessage);
                 }
-                if (senderSessions != null && !senderSessions.isEmpty()) {
-                    for (Session senderSession : senderSessions) {
-                        if (senderSession.isOpen()) {
-                            senderSession.getBasicRemote().sendText(jsonResponse);
-                        }
-                    }
-                }
+                WebSocketOutbox.broadcast(senderSessions, jsonResponse);
             }
         }
     }
@@ -0,0 +1,91 @@
+package aor.fpbackend.websocket;
+
+import jakarta.websocket.Session;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProjectSessionRegistry keeps the open group chat sessions indexed by project.
+ * <p>
+ * The project and user of a session are stored in its user properties at registration, so removal never depends
+ * on anything but the session itself. Registration and removal are O(1) and atomic per project; empty entries
+ * are dropped so closed sessions cannot accumulate. Returned sets are live, concurrent views and may be iterated
+ * while sessions come and go.
+ * </p>
+ */
+public class ProjectSessionRegistry {
+
+    private static final String PROJECT_ID_PROPERTY = "projectId";
+    private static final String USER_ID_PROPERTY = "userId";
+
+    private final Map<Long, Set<Session>> sessionsByProject = new ConcurrentHashMap<>();
+
+    /**
+     * Registers an open session for a user in a project.
+     *
+     * @param session   the WebSocket session.
+     * @param projectId the ID of the project.
+     * @param userId    the ID of the user.
+     */
+    public void register(Session session, long projectId, long userId) {
+        session.getUserProperties().put(PROJECT_ID_PROPERTY, projectId);
+        session.getUserProperties().put(USER_ID_PROPERTY, userId);
+        sessionsByProject.compute(projectId, (k, sessions) -> {
+            Set<Session> target = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            target.add(session);
+            return target;
+        });
+    }
+
+    /**
+     * Removes a session from the registry. Does nothing if the session was never registered.
+     *
+     * @param session the WebSocket session.
+     */
+    public void unregister(Session session) {
+        Long projectId = getProjectId(session);
+        if (projectId != null) {
+            sessionsByProject.computeIfPresent(projectId, (k, sessions) -> {
+                sessions.remove(session);
+                return sessions.isEmpty() ? null : sessions;
+            });
+        }
+    }
+
+    public Set<Session> getProjectSessions(long projectId) {
+        return sessionsByProject.getOrDefault(projectId, Collections.emptySet());
+    }
+
+    /**
+     * Returns the project a session was registered for.
+     *
+     * @param session the WebSocket session.
+     * @return the ID of the project, or null if the session is not registered.
+     */
+    public Long getProjectId(Session session) {
+        Object projectId = session.getUserProperties().get(PROJECT_ID_PROPERTY);
+        return projectId instanceof Long ? (Long) projectId : null;
+    }
+
+    /**
+     * Returns the IDs of the users that have at least one open session in the project.
+     * The cost is proportional to the number of sessions connected to that project.
+     *
+     * @param projectId the ID of the project.
+     * @return the connected user IDs.
+     */
+    public Set<Long> getConnectedUserIds(long projectId) {
+        Set<Session> sessions = getProjectSessions(projectId);
+        Set<Long> userIds = new HashSet<>();
+        for (Session session : sessions) {
+            if (session.isOpen()) {
+                userIds.add((Long) session.getUserProperties().get(USER_ID_PROPERTY));
+            }
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,99 @@
+package aor.fpbackend.websocket;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WebSocketMetrics collects the counters of the outbound WebSocket pipeline ({@link WebSocketOutbox}).
+ * <p>
+ * It tracks the number of queued, sent, dropped and failed messages, the number of slow consumers that were
+ * disconnected, the current and peak queue depth across all sessions, and the send latency (from the moment a
+ * message is handed to the container until the container reports it written). All counters are lock free.
+ * </p>
+ */
+public class WebSocketMetrics {
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final LongAdder sendLatencyNanos = new LongAdder();
+    private final AtomicLong maxSendLatencyNanos = new AtomicLong();
+
+    void recordEnqueued() {
+        enqueued.increment();
+        long depth = queueDepth.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+
+    void recordDequeued(int count) {
+        queueDepth.addAndGet(-count);
+    }
+
+    void recordSent(long latencyNanos) {
+        sent.increment();
+        sendLatencyNanos.add(latencyNanos);
+        maxSendLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void recordFailed() {
+        failed.increment();
+    }
+
+    void recordDisconnected() {
+        disconnected.increment();
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getDisconnected() {
+        return disconnected.sum();
+    }
+
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public double getAverageSendLatencyMillis() {
+        long count = sent.sum();
+        return count == 0 ? 0 : (double) sendLatencyNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxSendLatencyMillis() {
+        return (double) maxSendLatencyNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("enqueued=%d, sent=%d, dropped=%d, failed=%d, disconnected=%d, queueDepth=%d, " +
+                        "maxQueueDepth=%d, avgSendLatencyMs=%.2f, maxSendLatencyMs=%.2f",
+                getEnqueued(), getSent(), getDropped(), getFailed(), getDisconnected(), getQueueDepth(),
+                getMaxQueueDepth(), getAverageSendLatencyMillis(), getMaxSendLatencyMillis());
+    }
+}
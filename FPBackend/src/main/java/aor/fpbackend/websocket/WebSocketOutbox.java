@@ -0,0 +1,293 @@
+package aor.fpbackend.websocket;
+
+import aor.fpbackend.dto.Websocket.WebSocketMessageDto;
+import aor.fpbackend.enums.SlowConsumerPolicyEnum;
+import aor.fpbackend.utils.GsonSetup;
+import com.google.gson.Gson;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WebSocketOutbox is the outbound delivery pipeline shared by all WebSocket endpoints.
+ * <p>
+ * Instead of writing with {@code getBasicRemote().sendText} on the calling thread, endpoints and beans call
+ * {@link #send(Session, String)}, which only appends the message to a bounded per-session queue and returns.
+ * Each queue sends one message at a time through {@code getAsyncRemote()}, so the messages of one session keep
+ * their order. A send is started by a short task of the executor given to {@link #start}, and its completion
+ * handler schedules the next one: no thread waits for a client, so a slow client never blocks an EJB transaction,
+ * a broadcast loop or a thread of the outbox. The executor and the limits are owned by
+ * {@link aor.fpbackend.bean.WebSocketOutboxBean}, which starts the outbox at deployment and stops it on undeploy;
+ * messages sent while the outbox is stopped are dropped.
+ * </p>
+ * <p>
+ * A session whose queue is full, or whose client does not accept a message within the send timeout, is handled
+ * according to the slow consumer policy. Queue depth and send latency are exposed through {@link #getMetrics()}.
+ * </p>
+ * <p>
+ * Messages going to several sessions should go through {@link #broadcast(Collection, WebSocketMessageDto)}:
+ * the DTO is serialized once and the same immutable string is queued for every session, instead of
+ * one Gson serialization per recipient.
+ * </p>
+ */
+public final class WebSocketOutbox {
+    private static final Logger LOGGER = LogManager.getLogger(WebSocketOutbox.class);
+
+    private static final ConcurrentHashMap<String, SessionQueue> queues = new ConcurrentHashMap<>();
+    private static volatile Settings settings;
+    private static volatile WebSocketMetrics metrics = new WebSocketMetrics();
+    private static final Gson gson = GsonSetup.createGson();
+
+    private WebSocketOutbox() {
+    }
+
+    /**
+     * Starts delivering messages, with new metrics.
+     *
+     * @param executor           runs the tasks that start the sends; they never wait for a client.
+     * @param queueCapacity      the number of messages that may wait per session.
+     * @param sendTimeoutMillis  how long a client may take to accept a message before it is a slow consumer.
+     * @param slowConsumerPolicy what to do with a session whose queue is full.
+     */
+    public static void start(Executor executor, int queueCapacity, long sendTimeoutMillis, SlowConsumerPolicyEnum slowConsumerPolicy) {
+        metrics = new WebSocketMetrics();
+        settings = new Settings(executor, queueCapacity, sendTimeoutMillis, slowConsumerPolicy);
+    }
+
+    /**
+     * Stops delivering messages and discards the pending ones. The caller shuts the executor down.
+     */
+    public static void stop() {
+        settings = null;
+        queues.values().forEach(SessionQueue::discard);
+    }
+
+    /**
+     * Queues a text message for the given session. Never blocks and never throws on delivery errors.
+     *
+     * @param session the target WebSocket session.
+     * @param text    the message to send.
+     */
+    public static void send(Session session, String text) {
+        Settings current = settings;
+        if (current == null || session == null || text == null || !session.isOpen()) {
+            return;
+        }
+        queues.computeIfAbsent(session.getId(), k -> new SessionQueue(session, current)).enqueue(text);
+    }
+
+    /**
+     * Serializes a message once, for sending to one or more sessions.
+     *
+     * @param message the message to serialize.
+     * @return the JSON text frame payload.
+     */
+    public static String encode(WebSocketMessageDto message) {
+        return gson.toJson(message);
+    }
+
+    /**
+     * Serializes the message once and queues it for every open session of the collection.
+     *
+     * @param sessions the target sessions, may be null.
+     * @param message  the message to send.
+     * @return the number of sessions the message was queued for.
+     */
+    public static int broadcast(Collection<Session> sessions, WebSocketMessageDto message) {
+        if (sessions == null || sessions.isEmpty()) {
+            return 0;
+        }
+        return broadcast(sessions, encode(message));
+    }
+
+    /**
+     * Queues an already encoded message for every open session of the collection.
+     *
+     * @param sessions the target sessions, may be null.
+     * @param text     the encoded message, see {@link #encode(WebSocketMessageDto)}.
+     * @return the number of sessions the message was queued for.
+     */
+    public static int broadcast(Collection<Session> sessions, String text) {
+        if (sessions == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Session session : sessions) {
+            if (session.isOpen()) {
+                send(session, text);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Discards the pending messages of a session. Called when the session is closed.
+     *
+     * @param session the closed session.
+     */
+    public static void release(Session session) {
+        if (session == null) {
+            return;
+        }
+        SessionQueue queue = queues.remove(session.getId());
+        if (queue != null) {
+            queue.discard();
+        }
+    }
+
+    public static WebSocketMetrics getMetrics() {
+        return metrics;
+    }
+
+    private record Settings(Executor executor, int queueCapacity, long sendTimeoutMillis, SlowConsumerPolicyEnum slowConsumerPolicy) {
+    }
+
+    private static final class SessionQueue {
+        private final Session session;
+        private final Settings settings;
+        private final BlockingQueue<String> messages;
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+        // System.nanoTime() at the start of the send in progress, 0 when no send is in progress
+        private volatile long sendStartedAt = 0;
+        private volatile boolean closed = false;
+
+        private SessionQueue(Session session, Settings settings) {
+            this.session = session;
+            this.settings = settings;
+            this.messages = new ArrayBlockingQueue<>(settings.queueCapacity());
+            session.getAsyncRemote().setSendTimeout(settings.sendTimeoutMillis());
+        }
+
+        private void enqueue(String text) {
+            if (closed) {
+                return;
+            }
+            // Checked here as well, since not every container enforces the send timeout
+            if (isOverdue(sendStartedAt)) {
+                metrics.recordFailed();
+                disconnect("Send timed out");
+                return;
+            }
+            while (!messages.offer(text)) {
+                if (settings.slowConsumerPolicy() == SlowConsumerPolicyEnum.DISCONNECT) {
+                    metrics.recordDropped();
+                    disconnect("Outbound queue full");
+                    return;
+                }
+                if (messages.poll() != null) {
+                    metrics.recordDequeued(1);
+                    metrics.recordDropped();
+                }
+            }
+            metrics.recordEnqueued();
+            scheduleNext();
+        }
+
+        private void scheduleNext() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    settings.executor().execute(this::sendNext);
+                } catch (RejectedExecutionException e) {
+                    // The outbox was stopped
+                    sending.set(false);
+                    discard();
+                }
+            }
+        }
+
+        /**
+         * Starts sending the next message. The send completes in {@link #onSent}, so no thread waits for the client.
+         */
+        private void sendNext() {
+            String text = closed ? null : messages.poll();
+            if (text == null) {
+                sending.set(false);
+                // A message may have been queued after the poll but before the flag was cleared
+                if (!closed && !messages.isEmpty()) {
+                    scheduleNext();
+                }
+                return;
+            }
+            metrics.recordDequeued(1);
+            if (!session.isOpen()) {
+                discard();
+                sending.set(false);
+                return;
+            }
+            long start = System.nanoTime();
+            sendStartedAt = start;
+            try {
+                session.getAsyncRemote().sendText(text, result -> onSent(result, start));
+            } catch (RuntimeException e) {
+                // The session was closed meanwhile
+                onSent(new SendResult(e), start);
+            }
+        }
+
+        private void onSent(SendResult result, long start) {
+            sendStartedAt = 0;
+            if (closed) {
+                // The session was released or disconnected meanwhile
+                return;
+            }
+            if (result.isOK()) {
+                metrics.recordSent(System.nanoTime() - start);
+            } else {
+                metrics.recordFailed();
+                if (isOverdue(start)) {
+                    disconnect("Send timed out");
+                } else {
+                    Throwable cause = result.getException();
+                    LOGGER.warn("Error sending WebSocket message to session {}: {}", session.getId(), cause != null ? cause.getMessage() : null);
+                }
+            }
+            sending.set(false);
+            if (!closed && !messages.isEmpty()) {
+                scheduleNext();
+            }
+        }
+
+        private boolean isOverdue(long start) {
+            return start != 0 && System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(settings.sendTimeoutMillis());
+        }
+
+        private void discard() {
+            closed = true;
+            queues.remove(session.getId(), this);
+            int pending = 0;
+            while (messages.poll() != null) {
+                pending++;
+            }
+            if (pending > 0) {
+                metrics.recordDequeued(pending);
+            }
+        }
+
+        private void disconnect(String reason) {
+            if (closed) {
+                return;
+            }
+            discard();
+            metrics.recordDisconnected();
+            LOGGER.warn("Disconnecting slow WebSocket consumer {}: {} ({})", session.getId(), reason, metrics);
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, reason));
+            } catch (IOException e) {
+                LOGGER.error("Error closing slow WebSocket session {}", session.getId(), e);
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ import aor.fpbackend.enums.AssetTypeEnum;
 import aor.fpbackend.enums.ProjectStateEnum;
 import aor.fpbackend.exception.*;
 import jakarta.ws.rs.core.SecurityContext;
+import aor.fpbackend.dto.Project.ProjectAssetCreateNewProjectDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -19,6 +20,7 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -332,4 +334,28 @@ class AssetBeanTest {
 
         assertThrows(InputValidationException.class, () -> assetBean.updateAsset(assetUpdateDto));
     }
+
+    @Test
+    void testAddAssetsToNewProject_OneQuery() throws EntityNotFoundException {
+        ProjectEntity projectEntity = new ProjectEntity();
+        AssetEntity screws = new AssetEntity();
+        screws.setName("Screws");
+        when(assetDao.findAssetsByNames(Set.of("screws"))).thenReturn(List.of(screws));
+
+        assetBean.addAssetsToNewProject(projectEntity, List.of(new ProjectAssetCreateNewProjectDto("screws", 40)));
+
+        assertEquals(1, projectEntity.getProjectAssetsForProject().size());
+        assertEquals(40, projectEntity.getProjectAssetsForProject().iterator().next().getUsedQuantity());
+        verify(projectAssetDao, times(1)).persist(any(ProjectAssetEntity.class));
+        verify(projectDao, never()).findProjectById(anyLong());
+    }
+
+    @Test
+    void testAddAssetsToNewProject_UnknownAsset() {
+        when(assetDao.findAssetsByNames(Set.of("screws"))).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> assetBean.addAssetsToNewProject(new ProjectEntity(), List.of(new ProjectAssetCreateNewProjectDto("Screws", 4))));
+        verify(projectAssetDao, never()).persist(any());
+    }
 }
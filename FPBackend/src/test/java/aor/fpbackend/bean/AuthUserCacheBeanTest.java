@@ -0,0 +1,113 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dto.Authentication.AuthUserDto;
+import aor.fpbackend.utils.PermissionSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthUserCacheBeanTest {
+
+    private AuthUserCacheBean authUserCache;
+
+    @BeforeEach
+    void setUp() {
+        authUserCache = new AuthUserCacheBean();
+    }
+
+    @Test
+    void testPutAndGet() {
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
+
+        authUserCache.put("token", authUserDto, Instant.now().plusSeconds(600), authUserCache.loadStamp());
+
+        assertSame(authUserDto, authUserCache.get("token"));
+        assertNull(authUserCache.get("otherToken"));
+    }
+
+    @Test
+    void testPut_ExpiredSessionIsNotCached() {
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
+
+        authUserCache.put("token", authUserDto, Instant.now().minusSeconds(1), authUserCache.loadStamp());
+
+        assertNull(authUserCache.get("token"));
+        assertEquals(0, authUserCache.size());
+    }
+
+    @Test
+    void testInvalidate() {
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
+        authUserCache.put("token", authUserDto, Instant.now().plusSeconds(600), authUserCache.loadStamp());
+
+        authUserCache.invalidate("token");
+
+        assertNull(authUserCache.get("token"));
+    }
+
+    @Test
+    void testInvalidateUser() {
+        authUserCache.put("token1", new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token1", 1L, "user1"), Instant.now().plusSeconds(600), authUserCache.loadStamp());
+        authUserCache.put("token2", new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token2", 2L, "user1"), Instant.now().plusSeconds(600), authUserCache.loadStamp());
+        authUserCache.put("token3", new AuthUserDto(2L, 1L, PermissionSet.EMPTY, "token3", 3L, "user2"), Instant.now().plusSeconds(600), authUserCache.loadStamp());
+
+        authUserCache.invalidateUser(1L);
+
+        assertNull(authUserCache.get("token1"));
+        assertNull(authUserCache.get("token2"));
+        assertNotNull(authUserCache.get("token3"));
+    }
+
+    @Test
+    void testPut_RefusedWhenTokenInvalidatedDuringLoad() {
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
+        long loadStamp = authUserCache.loadStamp();
+
+        authUserCache.invalidate("token");
+        authUserCache.put("token", authUserDto, Instant.now().plusSeconds(600), loadStamp);
+
+        assertNull(authUserCache.get("token"));
+        authUserCache.put("token", authUserDto, Instant.now().plusSeconds(600), authUserCache.loadStamp());
+        assertSame(authUserDto, authUserCache.get("token"));
+    }
+
+    @Test
+    void testPut_RefusedWhenUserInvalidatedDuringLoad() {
+        long loadStamp = authUserCache.loadStamp();
+
+        authUserCache.invalidateUser(1L);
+        authUserCache.put("token1", new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token1", 1L, "user1"), Instant.now().plusSeconds(600), loadStamp);
+        authUserCache.put("token2", new AuthUserDto(2L, 1L, PermissionSet.EMPTY, "token2", 2L, "user2"), Instant.now().plusSeconds(600), loadStamp);
+
+        assertNull(authUserCache.get("token1"));
+        assertNotNull(authUserCache.get("token2"));
+    }
+
+    @Test
+    void testPut_RefusedWhenClearedDuringLoad() {
+        long loadStamp = authUserCache.loadStamp();
+
+        authUserCache.clear();
+        authUserCache.put("token", new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username"), Instant.now().plusSeconds(600), loadStamp);
+
+        assertEquals(0, authUserCache.size());
+    }
+
+    @Test
+    void testEvictExpired_LoadOlderThanDroppedTombstonesRefused() {
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
+        long loadStamp = authUserCache.loadStamp();
+        authUserCache.invalidate("token");
+
+        authUserCache.evictExpired();
+        authUserCache.evictExpired();
+        authUserCache.put("token", authUserDto, Instant.now().plusSeconds(600), loadStamp);
+
+        assertNull(authUserCache.get("token"));
+        authUserCache.put("token", authUserDto, Instant.now().plusSeconds(600), authUserCache.loadStamp());
+        assertSame(authUserDto, authUserCache.get("token"));
+    }
+}
@@ -0,0 +1,70 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.exception.TooManyRequestsException;
+import aor.fpbackend.utils.GlobalSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationThrottleBeanTest {
+
+    private AuthenticationThrottleBean authenticationThrottle;
+
+    @BeforeEach
+    void setUp() {
+        authenticationThrottle = new AuthenticationThrottleBean();
+    }
+
+    @Test
+    void testCheckLoginAttempt_FailedLoginsPerEmailLimit() {
+        for (int i = 0; i < GlobalSettings.LOGIN_ATTEMPTS_PER_EMAIL; i++) {
+            authenticationThrottle.checkLoginAttempt("10.0.0." + i, "user@example.com");
+            authenticationThrottle.recordFailedLogin("user@example.com");
+        }
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> authenticationThrottle.checkLoginAttempt("10.0.1.1", "USER@example.com"));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertDoesNotThrow(() -> authenticationThrottle.checkLoginAttempt("10.0.1.1", "other@example.com"));
+    }
+
+    @Test
+    void testCheckLoginAttempt_SuccessfulLoginsDoNotCountPerEmail() {
+        for (int i = 0; i < GlobalSettings.LOGIN_ATTEMPTS_PER_EMAIL * 2; i++) {
+            authenticationThrottle.checkLoginAttempt("10.0.0." + i, "user@example.com");
+        }
+
+        assertDoesNotThrow(() -> authenticationThrottle.checkLoginAttempt("10.0.1.1", "user@example.com"));
+    }
+
+    @Test
+    void testCheckLoginAttempt_IpLimit() {
+        for (int i = 0; i < GlobalSettings.LOGIN_ATTEMPTS_PER_IP; i++) {
+            authenticationThrottle.checkLoginAttempt("10.0.0.1", "user" + i + "@example.com");
+        }
+
+        assertThrows(TooManyRequestsException.class,
+                () -> authenticationThrottle.checkLoginAttempt("10.0.0.1", "new@example.com"));
+        assertDoesNotThrow(() -> authenticationThrottle.checkLoginAttempt("10.0.0.2", "new@example.com"));
+    }
+
+    @Test
+    void testCheckAnonymousAttempt_IpLimit() {
+        for (int i = 0; i < GlobalSettings.ANONYMOUS_ATTEMPTS_PER_IP; i++) {
+            authenticationThrottle.checkAnonymousAttempt("10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> authenticationThrottle.checkAnonymousAttempt("10.0.0.1"));
+        assertDoesNotThrow(() -> authenticationThrottle.checkLoginAttempt("10.0.0.1", "user@example.com"));
+    }
+
+    @Test
+    void testEvictExpired_KeepsCurrentWindows() {
+        authenticationThrottle.checkAnonymousAttempt("10.0.0.1");
+
+        authenticationThrottle.evictExpired();
+
+        assertEquals(1, authenticationThrottle.size());
+    }
+}
@@ -6,14 +6,18 @@ import aor.fpbackend.dto.Configuration.ConfigurationUpdateDto;
 import aor.fpbackend.entity.ConfigurationEntity;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.InputValidationException;
+import aor.fpbackend.utils.ConfigurationSnapshot;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class ConfigurationBeanTest {
@@ -24,6 +28,9 @@ class ConfigurationBeanTest {
     @Mock
     private ConfigurationDao configurationDao;
 
+    @Mock
+    private ConfigurationCacheBean configurationCache;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -39,6 +46,7 @@ class ConfigurationBeanTest {
         configurationBean.createDefaultConfigIfNotExistent(configKey, value);
 
         verify(configurationDao, times(1)).persist(any(ConfigurationEntity.class));
+        verify(configurationCache, times(1)).put(configKey, value);
     }
 
     @Test
@@ -58,11 +66,20 @@ class ConfigurationBeanTest {
         String configKey = "testKey";
         int expectedValue = 10;
 
-        when(configurationDao.findConfigValueByKey(configKey)).thenReturn(expectedValue);
+        when(configurationCache.getSnapshot()).thenReturn(new ConfigurationSnapshot(Map.of(configKey, expectedValue)));
 
         int actualValue = configurationBean.getConfigValueByKey(configKey);
 
         assertEquals(expectedValue, actualValue);
+        verifyNoInteractions(configurationDao);
+    }
+
+    @Test
+    void testGetSessionTimeout() {
+        when(configurationCache.getSnapshot()).thenReturn(new ConfigurationSnapshot(Map.of("sessionTimeout", 60000)));
+
+        assertEquals(60000, configurationBean.getSessionTimeout());
+        assertEquals(0, configurationBean.getMaxProjectMembers());
     }
 
     @Test
@@ -77,6 +94,7 @@ class ConfigurationBeanTest {
         configurationBean.updateConfigValue(updateDto);
 
         assertEquals(newValue, configEntity.getValue());
+        verify(configurationCache, times(1)).put(configKey, newValue);
     }
 
     @Test
@@ -102,6 +120,19 @@ class ConfigurationBeanTest {
         assertThrows(InputValidationException.class, () -> configurationBean.updateConfigValue(updateDto));
     }
 
+    @Test
+    void testUpdateConfigValue_InvalidSessionRetention() {
+        String configKey = "sessionRetentionDays";
+        ConfigurationUpdateDto updateDto = new ConfigurationUpdateDto(configKey, 0);
+        ConfigurationEntity configEntity = new ConfigurationEntity(configKey, 30);
+
+        when(configurationDao.findConfigEntityByKey(configKey)).thenReturn(configEntity);
+
+        assertThrows(InputValidationException.class, () -> configurationBean.updateConfigValue(updateDto));
+        assertEquals(30, configEntity.getValue());
+        verify(configurationCache, never()).put(anyString(), anyInt());
+    }
+
     @Test
     void testGetAllConfiguration() {
         List<ConfigurationGetDto> expectedConfigurations = List.of(new ConfigurationGetDto("key1", 10), new ConfigurationGetDto("key2", 20));
@@ -0,0 +1,55 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ConfigurationDao;
+import aor.fpbackend.dto.Configuration.ConfigurationGetDto;
+import aor.fpbackend.utils.ConfigurationSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConfigurationCacheBeanTest {
+
+    @InjectMocks
+    private ConfigurationCacheBean configurationCache;
+
+    @Mock
+    private ConfigurationDao configurationDao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(configurationDao.getAllConfiguration()).thenReturn(List.of(
+                new ConfigurationGetDto("sessionTimeout", 60000),
+                new ConfigurationGetDto("maxProjectMembers", 4)));
+    }
+
+    @Test
+    void testGetSnapshot_LoadsOnce() {
+        ConfigurationSnapshot first = configurationCache.getSnapshot();
+        ConfigurationSnapshot second = configurationCache.getSnapshot();
+
+        assertSame(first, second);
+        assertEquals(60000, first.getSessionTimeout());
+        assertEquals(4, first.getMaxProjectMembers());
+        verify(configurationDao, times(1)).getAllConfiguration();
+    }
+
+    @Test
+    void testPut_SwapsSnapshotWithoutChangingPreviousOne() {
+        ConfigurationSnapshot before = configurationCache.getSnapshot();
+
+        configurationCache.put("maxProjectMembers", 8);
+
+        assertEquals(4, before.getMaxProjectMembers());
+        assertEquals(8, configurationCache.getSnapshot().getMaxProjectMembers());
+        assertEquals(60000, configurationCache.getSnapshot().getSessionTimeout());
+        verify(configurationDao, times(1)).getAllConfiguration();
+    }
+}
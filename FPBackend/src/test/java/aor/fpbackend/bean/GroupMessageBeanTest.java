@@ -2,16 +2,17 @@ package aor.fpbackend.bean;
 
 import aor.fpbackend.dao.GroupMessageDao;
 import aor.fpbackend.dao.ProjectDao;
-import aor.fpbackend.dao.ProjectMembershipDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.GroupMessage.GroupMessageGetDto;
+import aor.fpbackend.dto.GroupMessage.GroupMessagePageDto;
 import aor.fpbackend.dto.GroupMessage.GroupMessageSendDto;
 import aor.fpbackend.entity.GroupMessageEntity;
 import aor.fpbackend.entity.ProjectEntity;
 import aor.fpbackend.entity.UserEntity;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.UserNotFoundException;
+import aor.fpbackend.utils.GlobalSettings;
 import jakarta.ws.rs.core.SecurityContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,8 +37,6 @@ class GroupMessageBeanTest {
     @Mock
     private ProjectDao projectDao;
     @Mock
-    private ProjectMembershipDao projectMemberDao;
-    @Mock
     private SecurityContext securityContext;
 
     @BeforeEach
@@ -148,41 +147,123 @@ class GroupMessageBeanTest {
 
 
     @Test
-    void testMarkMessageAsReadByUser_Success() {
-        Long messageId = 1L;
-        Long userId = 1L;
-        GroupMessageEntity message = new GroupMessageEntity();
-        UserEntity user = new UserEntity();
+    void testMarkMessagesAsRead_MarksFullyReadAsViewed() {
+        long projectId = 1L;
+        List<Long> messageIds = List.of(1L, 2L);
+        List<Long> userIds = List.of(5L, 6L);
 
-        when(groupMessageDao.findGroupMessageById(messageId)).thenReturn(message);
-        when(userDao.findUserById(userId)).thenReturn(user);
+        when(groupMessageDao.findFullyReadMessageIds(messageIds)).thenReturn(List.of(2L));
 
-        groupMessageBean.markMessageAsReadByUser(messageId, userId);
+        Set<Long> result = groupMessageBean.markMessagesAsRead(projectId, messageIds, userIds);
 
-        assertTrue(message.getReadByUsers().contains(user));
-        verify(groupMessageDao, times(1)).findGroupMessageById(messageId);
+        assertEquals(Set.of(2L), result);
+        verify(groupMessageDao, times(1)).insertReadReceipts(projectId, messageIds, userIds);
+        verify(groupMessageDao, times(1)).markMessagesAsViewed(Set.of(2L));
+        verify(groupMessageDao, never()).findGroupMessageById(anyLong());
+        verify(userDao, never()).findUserById(anyLong());
     }
 
     @Test
-    void testVerifyMessagesAsReadForGroup_Success() {
-        List<Long> messageIds = Collections.singletonList(1L);
-        Long userId = 1L;
+    void testMarkMessagesAsRead_NoMessages() {
+        Set<Long> result = groupMessageBean.markMessagesAsRead(1L, Collections.emptyList(), List.of(5L));
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(groupMessageDao);
+    }
+
+    @Test
+    void testMarkMessagesAsReadUpTo_Success() throws EntityNotFoundException {
+        long projectId = 1L;
+        when(groupMessageDao.findGroupMessageById(10L)).thenReturn(createMessage(10L, projectId, Instant.now()));
+        when(groupMessageDao.findFullyReadUnviewedMessageIds(projectId)).thenReturn(List.of(8L, 9L));
+
+        Set<Long> result = groupMessageBean.markMessagesAsReadUpTo(projectId, 5L, 10L);
+
+        assertEquals(Set.of(8L, 9L), result);
+        verify(groupMessageDao, times(1)).insertReadReceiptsUpTo(projectId, 5L, 10L);
+        verify(groupMessageDao, times(1)).markMessagesAsViewed(Set.of(8L, 9L));
+    }
+
+    @Test
+    void testMarkMessagesAsReadUpTo_MessageNotInProject() {
+        when(groupMessageDao.findGroupMessageById(10L)).thenReturn(createMessage(10L, 2L, Instant.now()));
+
+        assertThrows(EntityNotFoundException.class, () -> groupMessageBean.markMessagesAsReadUpTo(1L, 5L, 10L));
+        verify(groupMessageDao, never()).insertReadReceiptsUpTo(anyLong(), anyLong(), anyLong());
+    }
+
+    private GroupMessageEntity createMessage(long id, long projectId, Instant sentTime) {
         GroupMessageEntity message = new GroupMessageEntity();
-        UserEntity user = new UserEntity();
-        user.setId(userId);
-        message.setId(1L);
+        message.setId(id);
+        message.setSentTime(sentTime);
         ProjectEntity project = new ProjectEntity();
-        project.setId(1L);
+        project.setId(projectId);
         message.setGroup(project);
-        message.setReadByUsers(new HashSet<>(Set.of(user))); // Use um conjunto mutável
+        return message;
+    }
+
+    @Test
+    void testGetGroupMessageHistory_LatestPage() throws EntityNotFoundException {
+        long projectId = 1L;
+        Instant now = Instant.now();
+        GroupMessageEntity newest = createMessage(3L, projectId, now);
+        GroupMessageEntity middle = createMessage(2L, projectId, now.minusSeconds(1));
+        GroupMessageEntity oldest = createMessage(1L, projectId, now.minusSeconds(2));
+
+        when(groupMessageDao.findLatestGroupMessages(projectId, 3)).thenReturn(List.of(newest, middle, oldest));
+        when(groupMessageDao.findReadReceiptsByMessageIds(anyCollection())).thenReturn(Map.of(3L, Set.of(5L)));
+
+        GroupMessagePageDto result = groupMessageBean.getGroupMessageHistory(projectId, null, 2);
+
+        assertTrue(result.isHasMore());
+        assertEquals(2, result.getMessages().size());
+        assertEquals(2L, result.getMessages().get(0).getMessageId());
+        assertEquals(3L, result.getMessages().get(1).getMessageId());
+        assertEquals(Set.of(5L), result.getMessages().get(1).getReadByUserIds());
+        assertTrue(result.getMessages().get(0).getReadByUserIds().isEmpty());
+        verify(groupMessageDao, times(1)).findReadReceiptsByMessageIds(anyCollection());
+    }
+
+    @Test
+    void testGetGroupMessageHistory_BeforeCursor() throws EntityNotFoundException {
+        long projectId = 1L;
+        Instant now = Instant.now();
+        GroupMessageEntity cursor = createMessage(10L, projectId, now);
+        GroupMessageEntity previous = createMessage(9L, projectId, now.minusSeconds(1));
 
-        when(groupMessageDao.findGroupMessageById(anyLong())).thenReturn(message);
-        when(userDao.findUserById(userId)).thenReturn(user);
+        when(groupMessageDao.findGroupMessageById(10L)).thenReturn(cursor);
+        when(groupMessageDao.findPreviousGroupMessages(projectId, now, 10L, GlobalSettings.GROUP_MESSAGE_PAGE_SIZE + 1))
+                .thenReturn(List.of(previous));
 
-        boolean result = groupMessageBean.verifyMessagesAsReadForGroup(messageIds, userId);
+        GroupMessagePageDto result = groupMessageBean.getGroupMessageHistory(projectId, 10L, 0);
 
-        assertTrue(result);
+        assertFalse(result.isHasMore());
+        assertEquals(1, result.getMessages().size());
+        assertEquals(9L, result.getMessages().get(0).getMessageId());
     }
 
+    @Test
+    void testGetGroupMessageHistory_CursorFromOtherProject() {
+        when(groupMessageDao.findGroupMessageById(10L)).thenReturn(createMessage(10L, 2L, Instant.now()));
+
+        assertThrows(EntityNotFoundException.class, () -> groupMessageBean.getGroupMessageHistory(1L, 10L, 20));
+        verify(groupMessageDao, never()).findPreviousGroupMessages(anyLong(), any(), anyLong(), anyInt());
+    }
 
+    @Test
+    void testGetGroupMessagesSince_ClampsLimit() throws EntityNotFoundException {
+        long projectId = 1L;
+        Instant now = Instant.now();
+        GroupMessageEntity cursor = createMessage(10L, projectId, now);
+        GroupMessageEntity next = createMessage(11L, projectId, now.plusSeconds(1));
+
+        when(groupMessageDao.findGroupMessageById(10L)).thenReturn(cursor);
+        when(groupMessageDao.findGroupMessagesSince(projectId, now, 10L, GlobalSettings.GROUP_MESSAGE_MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of(next));
+
+        GroupMessagePageDto result = groupMessageBean.getGroupMessagesSince(projectId, 10L, 10000);
+
+        assertFalse(result.isHasMore());
+        assertEquals(11L, result.getMessages().get(0).getMessageId());
+    }
 }
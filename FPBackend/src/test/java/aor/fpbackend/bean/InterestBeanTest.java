@@ -12,6 +12,7 @@ import aor.fpbackend.enums.InterestTypeEnum;
 import aor.fpbackend.exception.DuplicatedAttributeException;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.UserNotFoundException;
+import aor.fpbackend.utils.PermissionSet;
 import jakarta.ws.rs.core.SecurityContext;
 import org.apache.logging.log4j.ThreadContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,7 +47,7 @@ class InterestBeanTest {
     @Test
     void testAddInterest_Success() throws Exception {
         InterestAddDto interestAddDto = new InterestAddDto("Reading", InterestTypeEnum.KNOWLEDGE_AREAS);
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
         InterestEntity interestEntity = new InterestEntity("Reading", InterestTypeEnum.KNOWLEDGE_AREAS);
         UserEntity userEntity = new UserEntity();
 
@@ -64,7 +65,7 @@ class InterestBeanTest {
     @Test
     void testAddInterest_ThrowsDuplicatedAttributeException() {
         InterestAddDto interestAddDto = new InterestAddDto("Reading", InterestTypeEnum.KNOWLEDGE_AREAS);
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
         InterestEntity interestEntity = new InterestEntity("Reading", InterestTypeEnum.KNOWLEDGE_AREAS);
         UserEntity userEntity = new UserEntity();
         userEntity.setUserInterests(new HashSet<>(Collections.singletonList(interestEntity)));
@@ -116,7 +117,7 @@ class InterestBeanTest {
     @Test
     void testRemoveInterest_Success() throws Exception {
         InterestRemoveDto interestRemoveDto = new InterestRemoveDto(1L);
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
         InterestEntity interestEntity = new InterestEntity("Reading", InterestTypeEnum.KNOWLEDGE_AREAS);
         UserEntity userEntity = new UserEntity();
         userEntity.setUserInterests(new HashSet<>(Collections.singletonList(interestEntity)));
@@ -10,6 +10,7 @@ import aor.fpbackend.exception.DuplicatedAttributeException;
 import aor.fpbackend.exception.ElementAssociationException;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.exception.InputValidationException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -31,6 +32,9 @@ class KeywordBeanTest {
     @Mock
     private ProjectDao projectDao;
 
+    @Mock
+    private ProjectSearchIndexBean projectSearchIndex;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -183,4 +187,18 @@ class KeywordBeanTest {
 
         assertEquals("Cannot remove the last keyword from the project", thrown.getMessage());
     }
+
+    @Test
+    void testFindOrCreateKeywords_InsertsOnlyMissing() throws EntityNotFoundException {
+        KeywordEntity energy = new KeywordEntity("Energy");
+        KeywordEntity solar = new KeywordEntity("solar");
+        when(keywordDao.findKeywordsByNames(Set.of("energy", "solar"))).thenReturn(List.of(energy));
+        when(keywordDao.findKeywordsByNames(Set.of("solar"))).thenReturn(List.of(solar));
+
+        Set<KeywordEntity> keywords = keywordBean.findOrCreateKeywords(List.of("energy", "Solar", "SOLAR"));
+
+        assertEquals(Set.of(energy, solar), keywords);
+        verify(keywordDao, times(1)).insertKeywordsIfAbsent(argThat(names -> names.size() == 1 && names.contains("Solar")));
+        verify(keywordDao, never()).checkKeywordExist(anyString());
+    }
 }
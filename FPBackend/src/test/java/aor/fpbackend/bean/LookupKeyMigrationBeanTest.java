@@ -0,0 +1,74 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.AssetDao;
+import aor.fpbackend.dao.InterestDao;
+import aor.fpbackend.dao.KeywordDao;
+import aor.fpbackend.dao.ProjectDao;
+import aor.fpbackend.dao.SkillDao;
+import aor.fpbackend.dao.TaskDao;
+import jakarta.ejb.EJBException;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class LookupKeyMigrationBeanTest {
+
+    @InjectMocks
+    private LookupKeyMigrationBean lookupKeyMigrationBean;
+
+    @Mock
+    private ProjectDao projectDao;
+    @Mock
+    private SkillDao skillDao;
+    @Mock
+    private KeywordDao keywordDao;
+    @Mock
+    private InterestDao interestDao;
+    @Mock
+    private AssetDao assetDao;
+    @Mock
+    private TaskDao taskDao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testBackfillLookupKeys_UpdatesEveryTable() {
+        when(projectDao.backfillLookupKeys()).thenReturn(2);
+        when(skillDao.backfillLookupKeys()).thenReturn(3);
+        when(keywordDao.backfillLookupKeys()).thenReturn(0);
+        when(interestDao.backfillLookupKeys()).thenReturn(1);
+        when(assetDao.backfillLookupKeys()).thenReturn(4);
+        when(taskDao.backfillLookupKeys()).thenReturn(5);
+
+        assertEquals(15, lookupKeyMigrationBean.backfillLookupKeys());
+        verify(projectDao, times(1)).backfillLookupKeys();
+        verify(skillDao, times(1)).backfillLookupKeys();
+        verify(keywordDao, times(1)).backfillLookupKeys();
+        verify(interestDao, times(1)).backfillLookupKeys();
+        verify(assetDao, times(1)).backfillLookupKeys();
+        verify(taskDao, times(1)).backfillLookupKeys();
+    }
+
+    @Test
+    void testBackfillLookupKeys_FailedTableDoesNotStopTheOthers() {
+        when(projectDao.backfillLookupKeys()).thenReturn(2);
+        when(skillDao.backfillLookupKeys()).thenThrow(new EJBException(new PersistenceException("lock wait timeout")));
+        when(assetDao.backfillLookupKeys()).thenThrow(new IllegalStateException("transaction rolled back"));
+        when(taskDao.backfillLookupKeys()).thenReturn(1);
+
+        assertEquals(3, lookupKeyMigrationBean.backfillLookupKeys());
+        verify(keywordDao, times(1)).backfillLookupKeys();
+        verify(interestDao, times(1)).backfillLookupKeys();
+        verify(assetDao, times(1)).backfillLookupKeys();
+        verify(taskDao, times(1)).backfillLookupKeys();
+    }
+}
@@ -6,6 +6,8 @@ import aor.fpbackend.entity.*;
 import aor.fpbackend.enums.ProjectStateEnum;
 import aor.fpbackend.exception.*;
 import jakarta.ws.rs.core.SecurityContext;
+import aor.fpbackend.enums.LogTypeEnum;
+import aor.fpbackend.enums.ProjectRoleEnum;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -13,6 +15,8 @@ import org.mockito.*;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class MembershipBeanTest {
@@ -26,10 +30,16 @@ class MembershipBeanTest {
     @Mock
     private ProjectMembershipDao projectMemberDao;
     @Mock
+    private ProjectMembershipCacheBean projectMembershipCache;
+    @Mock
+    private ProjectCatalogueBean projectCatalogue;
+    @Mock
     private ConfigurationBean configurationBean;
     @Mock
     private NotificationBean notificationBean;
     @Mock
+    private ProjectBean projectBean;
+    @Mock
     private SecurityContext securityContext;
 
     @BeforeEach
@@ -50,12 +60,14 @@ class MembershipBeanTest {
         when(userDao.findUserById(userId)).thenReturn(userEntity);
         when(projectDao.findProjectById(projectId)).thenReturn(projectEntity);
         when(projectEntity.getState()).thenReturn(ProjectStateEnum.PLANNING);
-        when(configurationBean.getConfigValueByKey("maxProjectMembers")).thenReturn(10);
-        when(projectEntity.getMembers()).thenReturn(new HashSet<>());
+        when(configurationBean.getMaxProjectMembers()).thenReturn(10);
+        when(projectDao.reserveMemberSlot(projectId, 10)).thenReturn(true);
 
         membershipBean.askToJoinProject(projectId, securityContext);
 
+        verify(projectDao, times(1)).reserveMemberSlot(projectId, 10);
         verify(projectMemberDao, times(1)).persist(any(ProjectMembershipEntity.class));
+        verify(projectEntity, never()).getMembers();
         verify(notificationBean, times(1)).createProjectJoinRequestNotificationsForProjectAdmins(any(ProjectMembershipEntity.class));
     }
 
@@ -126,16 +138,15 @@ class MembershipBeanTest {
         AuthUserDto authUserDto = mock(AuthUserDto.class);
         UserEntity userEntity = mock(UserEntity.class);
         ProjectEntity projectEntity = mock(ProjectEntity.class);
-        ProjectMembershipEntity membershipEntity = mock(ProjectMembershipEntity.class);
 
         when(securityContext.getUserPrincipal()).thenReturn(authUserDto);
         when(authUserDto.getUserId()).thenReturn(userId);
         when(userDao.findUserById(userId)).thenReturn(userEntity);
+        when(userEntity.getId()).thenReturn(userId);
         when(projectDao.findProjectById(projectId)).thenReturn(projectEntity);
         when(projectEntity.getState()).thenReturn(ProjectStateEnum.PLANNING);
-        when(configurationBean.getConfigValueByKey("maxProjectMembers")).thenReturn(10); // Ensure member limit is not reached
-        when(projectEntity.getMembers()).thenReturn(new HashSet<>(Collections.singletonList(membershipEntity)));
-        when(membershipEntity.getUser()).thenReturn(userEntity);
+        when(configurationBean.getMaxProjectMembers()).thenReturn(10); // Ensure member limit is not reached
+        when(projectDao.isProjectMember(projectId, userId)).thenReturn(true);
 
         // Execute and verify
         DuplicatedAttributeException thrown = assertThrows(DuplicatedAttributeException.class, () -> {
@@ -143,6 +154,8 @@ class MembershipBeanTest {
         });
 
         assertEquals("User is already member of the project", thrown.getMessage());
+        // No slot is taken for a request that is refused
+        verify(projectDao, never()).reserveMemberSlot(anyLong(), anyInt());
     }
 
 
@@ -160,13 +173,124 @@ class MembershipBeanTest {
         when(userDao.findUserById(userId)).thenReturn(userEntity);
         when(projectDao.findProjectById(projectId)).thenReturn(projectEntity);
         when(projectEntity.getState()).thenReturn(ProjectStateEnum.PLANNING);
-        when(configurationBean.getConfigValueByKey("maxProjectMembers")).thenReturn(1);
-        when(projectEntity.getMembers()).thenReturn(new HashSet<>(Collections.singletonList(new ProjectMembershipEntity())));
+        when(configurationBean.getMaxProjectMembers()).thenReturn(1);
+        when(projectDao.reserveMemberSlot(projectId, 1)).thenReturn(false);
 
         IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
             membershipBean.askToJoinProject(projectId, securityContext);
         });
 
         assertEquals("Project member's limit is reached", thrown.getMessage());
+        verify(projectMemberDao, never()).persist(any(ProjectMembershipEntity.class));
+    }
+
+    @Test
+    void testAddUserToProject_ProjectMembersLimitReached() {
+        long projectId = 1L;
+        ProjectEntity projectEntity = mock(ProjectEntity.class);
+        UserEntity userEntity = mock(UserEntity.class);
+
+        when(projectDao.findProjectById(projectId)).thenReturn(projectEntity);
+        when(projectEntity.getState()).thenReturn(ProjectStateEnum.IN_PROGRESS);
+        when(userDao.findValidatedUserByUsername("john")).thenReturn(userEntity);
+        when(configurationBean.getMaxProjectMembers()).thenReturn(4);
+        when(projectDao.reserveMemberSlot(projectId, 4)).thenReturn(false);
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
+            membershipBean.addUserToProject("john", projectId, true, false, userEntity);
+        });
+
+        assertEquals("Project member's limit is reached", thrown.getMessage());
+        verify(projectMemberDao, never()).persist(any(ProjectMembershipEntity.class));
+        verify(projectEntity, never()).getMembers();
+    }
+
+    @Test
+    void testAcceptProjectInvite_RejectedReleasesMemberSlot() throws EntityNotFoundException {
+        ProjectMembershipEntity membershipEntity = mock(ProjectMembershipEntity.class);
+        ProjectEntity projectEntity = mock(ProjectEntity.class);
+        UserEntity userEntity = mock(UserEntity.class);
+
+        when(projectMemberDao.findProjectMembershipByAcceptanceToken("token")).thenReturn(membershipEntity);
+        when(membershipEntity.getProject()).thenReturn(projectEntity);
+        when(membershipEntity.getUser()).thenReturn(userEntity);
+        when(projectEntity.getId()).thenReturn(7L);
+
+        membershipBean.acceptProjectInvite("token", false);
+
+        verify(projectMemberDao, times(1)).remove(membershipEntity);
+        verify(projectDao, times(1)).releaseMemberSlot(7L);
+    }
+
+    @Test
+    void testAddMembersToNewProject_OneQueryAndOneSlotReservation() throws Exception {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(1L);
+        UserEntity creator = createUser(1L, "creator");
+        UserEntity ana = createUser(2L, "ana");
+        UserEntity rui = createUser(3L, "rui");
+        when(configurationBean.getMaxProjectMembers()).thenReturn(4);
+        when(userDao.findValidatedUsersByUsernames(Set.of("ana", "rui"))).thenReturn(List.of(ana, rui));
+        when(projectDao.reserveMemberSlots(1L, 3, 4)).thenReturn(true);
+
+        membershipBean.addMembersToNewProject(projectEntity, creator, Set.of("ana", "rui"));
+
+        ArgumentCaptor<ProjectMembershipEntity> memberships = ArgumentCaptor.forClass(ProjectMembershipEntity.class);
+        verify(projectMemberDao, times(3)).persist(memberships.capture());
+        assertEquals(ProjectRoleEnum.PROJECT_MANAGER, memberships.getAllValues().get(0).getRole());
+        assertTrue(memberships.getAllValues().stream().allMatch(ProjectMembershipEntity::isAccepted));
+        assertEquals(3, projectEntity.getMembers().size());
+        verify(notificationBean, times(3)).createNotificationForUserAutomaticallyAddedToProject(any(ProjectMembershipEntity.class));
+        verify(projectBean, times(2)).createProjectLog(eq(projectEntity), eq(creator), eq(LogTypeEnum.PROJECT_MEMBERS), anyString());
+        verify(projectDao, never()).findProjectById(anyLong());
+        verify(userDao, never()).findValidatedUserByUsername(anyString());
+    }
+
+    @Test
+    void testAddMembersToNewProject_UnknownUser() {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(1L);
+        when(userDao.findValidatedUsersByUsernames(Set.of("ana", "ghost"))).thenReturn(List.of(createUser(2L, "ana")));
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> membershipBean.addMembersToNewProject(projectEntity, createUser(1L, "creator"), Set.of("ana", "ghost")));
+
+        assertEquals("User not found: ghost", exception.getMessage());
+        verify(projectDao, never()).reserveMemberSlots(anyLong(), anyInt(), anyInt());
+        verify(projectMemberDao, never()).persist(any());
+    }
+
+    @Test
+    void testAddMembersToNewProject_LimitReached() {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(1L);
+        when(configurationBean.getMaxProjectMembers()).thenReturn(1);
+        when(userDao.findValidatedUsersByUsernames(Set.of("ana"))).thenReturn(List.of(createUser(2L, "ana")));
+        when(projectDao.reserveMemberSlots(1L, 2, 1)).thenReturn(false);
+
+        assertThrows(IllegalStateException.class,
+                () -> membershipBean.addMembersToNewProject(projectEntity, createUser(1L, "creator"), Set.of("ana")));
+        verify(projectMemberDao, never()).persist(any());
+    }
+
+    @Test
+    void testAddMembersToNewProject_CreatorNotValidated() {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(1L);
+        UserEntity creator = createUser(1L, "creator");
+        creator.setConfirmed(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> membershipBean.addMembersToNewProject(projectEntity, creator, Set.of()));
+        verify(projectDao, never()).reserveMemberSlots(anyLong(), anyInt(), anyInt());
+        verify(projectMemberDao, never()).persist(any());
+    }
+
+    private UserEntity createUser(long id, String username) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(id);
+        userEntity.setUsername(username);
+        userEntity.setConfirmed(true);
+        return userEntity;
     }
 }
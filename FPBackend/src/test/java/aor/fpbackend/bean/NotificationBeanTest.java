@@ -1,6 +1,7 @@
 package aor.fpbackend.bean;
 
 import aor.fpbackend.dao.NotificationDao;
+import aor.fpbackend.dao.ProjectMembershipDao;
 import aor.fpbackend.dao.RoleDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
@@ -13,6 +14,9 @@ import aor.fpbackend.enums.ProjectRoleEnum;
 import aor.fpbackend.enums.UserRoleEnum;
 import aor.fpbackend.exception.EntityNotFoundException;
 import aor.fpbackend.websocket.GlobalWebSocket;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.ws.rs.core.SecurityContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,9 +43,21 @@ class NotificationBeanTest {
     @Mock
     private UserBean userBean;
 
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private ProjectMembershipDao projectMemberDao;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
     @Mock
     private SecurityContext securityContext;
 
+    @Captor
+    private ArgumentCaptor<List<NotificationEntity>> notificationsCaptor;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -192,4 +208,77 @@ class NotificationBeanTest {
 
         assertThrows(EntityNotFoundException.class, () -> notificationBean.markNotificationsAsRead(1L));
     }
+
+    private UserEntity createUser(long id, String username) {
+        RoleEntity role = new RoleEntity(UserRoleEnum.STANDARD_USER);
+        role.setId(2L);
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(id);
+        userEntity.setUsername(username);
+        userEntity.setRole(role);
+        return userEntity;
+    }
+
+    @Test
+    void testCreateNotificationForGroupMessage_PersistsInBulkAndSkipsSender() {
+        UserEntity sender = createUser(1L, "sender");
+        List<UserEntity> members = List.of(sender, createUser(2L, "member2"), createUser(3L, "member3"));
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setName("testProject");
+        GroupMessageEntity groupMessageEntity = new GroupMessageEntity();
+        groupMessageEntity.setSender(sender);
+        groupMessageEntity.setGroup(projectEntity);
+
+        when(userBean.convertUserEntitytoUserBasicInfoDto(any(UserEntity.class))).thenReturn(new UserBasicInfoDto(2L, "member2", null, 2L));
+
+        notificationBean.createNotificationForGroupMessage(groupMessageEntity, members);
+
+        verify(notificationDao, times(1)).persistAll(notificationsCaptor.capture());
+        verify(notificationDao, never()).persist(any(NotificationEntity.class));
+        assertEquals(2, notificationsCaptor.getValue().size());
+        assertTrue(notificationsCaptor.getValue().stream().noneMatch(n -> n.getUser().equals(sender)));
+    }
+
+    @Test
+    void testCreateNotificationProjectApprovalSendAllMembers_ResolvesRecipientsWithOneQuery() {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(5L);
+        projectEntity.setName("testProject");
+        UserEntity approver = createUser(1L, "admin");
+
+        when(projectMemberDao.findProjectMembersByProjectId(5L)).thenReturn(List.of(createUser(2L, "member2"), createUser(3L, "member3")));
+        when(userBean.convertUserEntitytoUserBasicInfoDto(any(UserEntity.class))).thenReturn(new UserBasicInfoDto(2L, "member2", null, 2L));
+
+        notificationBean.createNotificationProjectApprovalSendAllMembers(projectEntity, approver, true);
+
+        verify(projectMemberDao, times(1)).findProjectMembersByProjectId(5L);
+        verify(notificationDao, times(1)).persistAll(notificationsCaptor.capture());
+        assertEquals(2, notificationsCaptor.getValue().size());
+        assertEquals("Project testProject has been approved by admin", notificationsCaptor.getValue().get(0).getContent());
+    }
+
+    @Test
+    void testCreateNotificationForAllPlatformAdminsProjectApproval_SendsAfterCommit() {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setName("testProject");
+
+        when(userDao.findUsersByRoleName(UserRoleEnum.ADMIN)).thenReturn(List.of(createUser(1L, "admin")));
+        when(userBean.convertUserEntitytoUserBasicInfoDto(any(UserEntity.class))).thenReturn(new UserBasicInfoDto(1L, "admin", null, 1L));
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+
+        notificationBean.createNotificationForAllPlatformAdminsProjectApproval(projectEntity);
+
+        ArgumentCaptor<Synchronization> captor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(notificationDao, times(1)).persistAll(anyList());
+        verify(transactionRegistry, times(1)).registerInterposedSynchronization(captor.capture());
+        assertDoesNotThrow(() -> captor.getValue().afterCompletion(Status.STATUS_COMMITTED));
+    }
+
+    @Test
+    void testCreateNotifications_EmptyListDoesNothing() {
+        notificationBean.createNotifications(new ArrayList<>());
+
+        verify(notificationDao, never()).persistAll(anyList());
+        verifyNoInteractions(transactionRegistry);
+    }
 }
@@ -0,0 +1,99 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.exception.TooManyRequestsException;
+import aor.fpbackend.utils.PassEncoder;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PassEncoderTest {
+
+    private static final String PASSWORD = "password";
+    // Cost 4, the minimum, so that the checks are fast
+    private static final String HASH = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private PassEncoder passEncoder;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (passEncoder != null) {
+            passEncoder.shutdown();
+        }
+    }
+
+    @Test
+    void testMatches_RunsOnThreadsOfTheManagedFactory() {
+        ManagedThreadFactory threadFactory = mock(ManagedThreadFactory.class);
+        when(threadFactory.newThread(any(Runnable.class))).thenAnswer(invocation -> new Thread((Runnable) invocation.getArgument(0)));
+        passEncoder = new PassEncoder(1, 1, threadFactory);
+
+        assertTrue(passEncoder.matches(PASSWORD, HASH));
+        assertFalse(passEncoder.matches("wrong", HASH));
+
+        verify(threadFactory, times(1)).newThread(any(Runnable.class));
+        assertEquals(2, passEncoder.getMetrics().getCompleted());
+    }
+
+    @Test
+    void testMatches_FullPoolIsRefusedWithTooManyRequests() throws Exception {
+        // The only worker waits for the latch before its first hash, so the second check stays in the queue
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch workerStarted = new CountDownLatch(1);
+        passEncoder = new PassEncoder(1, 1, runnable -> new Thread(() -> {
+            workerStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            runnable.run();
+        }));
+        Future<Boolean> running = callers.submit(() -> passEncoder.matches(PASSWORD, HASH));
+        assertTrue(workerStarted.await(5, TimeUnit.SECONDS));
+        AtomicReference<Thread> queuedCaller = new AtomicReference<>();
+        Future<Boolean> queued = callers.submit(() -> {
+            queuedCaller.set(Thread.currentThread());
+            return passEncoder.matches(PASSWORD, HASH);
+        });
+        waitUntilWaiting(queuedCaller);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> passEncoder.matches(PASSWORD, HASH));
+
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1, passEncoder.getMetrics().getRejected());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, passEncoder.getMetrics().getCompleted());
+    }
+
+    /**
+     * Waits until a caller has queued its check and waits for the result.
+     */
+    private static void waitUntilWaiting(AtomicReference<Thread> caller) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread thread = caller.get();
+            if (thread != null && thread.getState() == Thread.State.WAITING) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("The caller did not queue its check");
+    }
+}
@@ -5,18 +5,34 @@ import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.Keyword.KeywordCreateNewProjectDto;
 import aor.fpbackend.dto.Project.ProjectCreateDto;
 import aor.fpbackend.dto.Project.ProjectGetDto;
+import aor.fpbackend.dto.Project.ProjectLogCreateDto;
+import aor.fpbackend.dto.Project.ProjectLogGetDto;
+import aor.fpbackend.dto.Project.ProjectLogPageDto;
+import aor.fpbackend.dto.Project.ProjectMembershipDto;
+import aor.fpbackend.dto.Project.ProjectPaginatedDto;
 import aor.fpbackend.dto.Project.ProjectUpdateDto;
+import aor.fpbackend.dto.User.UserBasicInfoDto;
+import aor.fpbackend.dto.User.UsernameDto;
 import aor.fpbackend.entity.*;
+import aor.fpbackend.enums.LocationEnum;
+import aor.fpbackend.enums.LogTypeEnum;
+import aor.fpbackend.enums.ProjectLogDeliveryEnum;
 import aor.fpbackend.enums.ProjectRoleEnum;
 import aor.fpbackend.enums.ProjectStateEnum;
+import aor.fpbackend.enums.QueryParams;
 import aor.fpbackend.exception.*;
+import aor.fpbackend.utils.GlobalSettings;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
 import org.apache.logging.log4j.ThreadContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -24,6 +40,9 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class ProjectBeanTest {
@@ -42,9 +61,21 @@ class ProjectBeanTest {
     @Mock
     private ProjectLogDao projectLogDao;
 
+    @Mock
+    private ProjectLogWriterBean projectLogWriter;
+
     @Mock
     private ProjectMembershipDao projectMemberDao;
 
+    @Mock
+    private ProjectMembershipCacheBean projectMembershipCache;
+
+    @Mock
+    private ProjectCatalogueBean projectCatalogue;
+
+    @Mock
+    private ProjectSearchIndexBean projectSearchIndex;
+
     @Mock
     private UserBean userBean;
 
@@ -72,9 +103,16 @@ class ProjectBeanTest {
     @Mock
     private SecurityContext securityContext;
 
+    @Mock
+    private UriInfo uriInfo;
+
+    private final MultivaluedMap<String, String> queryParameters = new MultivaluedHashMap<>();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
+        when(projectSearchIndex.resolveTextCriteria(queryParameters)).thenReturn(null);
     }
 
     @Test
@@ -103,12 +141,45 @@ class ProjectBeanTest {
             projectEntity.setId(1L);
             return null;
         }).when(projectDao).persist(any(ProjectEntity.class));
-        when(projectDao.findProjectByName("Test Project")).thenReturn(new ProjectEntity());
 
         assertDoesNotThrow(() -> projectBean.createProject(projectCreateDto, securityContext));
         verify(projectDao, times(1)).persist(any(ProjectEntity.class));
     }
 
+    @Test
+    void testCreateProject_RelationsResolvedInBulk() throws Exception {
+        ProjectCreateDto projectCreateDto = new ProjectCreateDto();
+        projectCreateDto.setName("Test Project");
+        projectCreateDto.setConclusionDate(Instant.now().plus(30, ChronoUnit.DAYS));
+        projectCreateDto.setKeywords(Set.of(new KeywordCreateNewProjectDto("energy"), new KeywordCreateNewProjectDto("solar")));
+        projectCreateDto.setUsers(Set.of(new UsernameDto(2L, "ana"), new UsernameDto(3L, "rui")));
+        projectCreateDto.setLaboratoryId(1L);
+        AuthUserDto authUserDto = new AuthUserDto();
+        authUserDto.setUserId(1L);
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(1L);
+        KeywordEntity energy = new KeywordEntity("energy");
+        when(securityContext.getUserPrincipal()).thenReturn(authUserDto);
+        when(userDao.findUserById(1L)).thenReturn(userEntity);
+        when(labDao.findLaboratoryById(1L)).thenReturn(new LaboratoryEntity());
+        when(keywordBean.findOrCreateKeywords(Set.of("energy", "solar"))).thenReturn(Set.of(energy));
+        doAnswer(invocation -> {
+            ProjectEntity projectEntity = invocation.getArgument(0);
+            projectEntity.setId(7L);
+            return null;
+        }).when(projectDao).persist(any(ProjectEntity.class));
+
+        projectBean.createProject(projectCreateDto, securityContext);
+
+        ArgumentCaptor<ProjectEntity> project = ArgumentCaptor.forClass(ProjectEntity.class);
+        verify(memberBean, times(1)).addMembersToNewProject(project.capture(), eq(userEntity), eq(Set.of("ana", "rui")));
+        assertEquals(Set.of(energy), project.getValue().getProjectKeywords());
+        verify(taskBean, times(1)).addTask(anyString(), anyString(), any(), any(), eq(1L), eq(7L));
+        verify(projectDao, never()).findProjectByName(anyString());
+        verify(memberBean, never()).addUserToProject(anyString(), anyLong(), anyBoolean(), anyBoolean(), any());
+        verify(keywordBean, never()).addKeyword(anyString(), anyLong());
+    }
+
 
     @Test
     void testCreateProject_DuplicatedName() {
@@ -137,12 +208,110 @@ class ProjectBeanTest {
 
 
     @Test
-    void testGetAllProjects_Success() {
-        List<ProjectEntity> projectEntities = List.of(new ProjectEntity());
-        when(projectDao.findAllProjects()).thenReturn(new ArrayList<>(projectEntities));
+    void testGetFilteredProjects_StatementsPerPageDoNotDependOnPageSize() throws InputValidationException {
+        int pageSize = 25;
+        List<ProjectGetDto> page = createProjectDtos(pageSize);
+        when(projectDao.findFilteredProjects(1, pageSize, uriInfo, null)).thenReturn(page);
+        when(projectDao.countFilteredProjects(uriInfo, null)).thenReturn(100L);
+        when(projectMemberDao.getUsersByProjects(anyCollection())).thenReturn(createMemberships(page, 6));
+
+        ProjectPaginatedDto result = projectBean.getFilteredProjects(1, pageSize, uriInfo);
+
+        assertEquals(pageSize, result.getProjectsForAPage().size());
+        assertEquals(100L, result.getTotalProjects());
+        for (ProjectGetDto project : result.getProjectsForAPage()) {
+            assertEquals(6, project.getMembers().size());
+            project.getMembers().forEach(m -> assertEquals(project.getId(), m.getProjectId()));
+        }
+        // One statement for the page, one for the count and one for the members of the whole page
+        verify(projectDao, times(1)).findFilteredProjects(1, pageSize, uriInfo, null);
+        verify(projectDao, times(1)).countFilteredProjects(uriInfo, null);
+        verify(projectMemberDao, times(1)).getUsersByProjects(anyCollection());
+        verifyNoMoreInteractions(projectDao, projectMemberDao);
+        verifyNoInteractions(userDao, labDao, userBean, laboratoryBean);
+    }
+
+    @Test
+    void testGetFilteredProjects_EmptyPageSkipsMembersQuery() throws InputValidationException {
+        when(projectDao.findFilteredProjects(anyInt(), anyInt(), any(UriInfo.class), any())).thenReturn(new ArrayList<>());
+
+        ProjectPaginatedDto result = projectBean.getFilteredProjects(3, 10, uriInfo);
 
-        List<ProjectGetDto> projectGetDtos = projectBean.getAllProjects();
-        assertEquals(1, projectGetDtos.size());
+        assertTrue(result.getProjectsForAPage().isEmpty());
+        verifyNoInteractions(projectMemberDao);
+    }
+
+    @Test
+    void testGetFilteredProjects_TextCriteriaResolvedBeforePaging() throws InputValidationException {
+        queryParameters.putSingle(QueryParams.KEYWORDS, "robot");
+        List<Long> matchingIds = List.of(4L, 2L);
+        when(projectSearchIndex.resolveTextCriteria(queryParameters)).thenReturn(new ArrayList<>(matchingIds));
+        when(projectDao.findFilteredProjects(1, 8, uriInfo, matchingIds)).thenReturn(createProjectDtos(2));
+        when(projectDao.countFilteredProjects(uriInfo, matchingIds)).thenReturn(2L);
+
+        ProjectPaginatedDto result = projectBean.getFilteredProjects(1, 8, uriInfo);
+
+        assertEquals(2, result.getProjectsForAPage().size());
+        assertEquals(2L, result.getTotalProjects());
+    }
+
+    @Test
+    void testGetFilteredProjects_NoTextMatchSkipsDatabase() throws InputValidationException {
+        queryParameters.putSingle(QueryParams.NAME, "nothing");
+        when(projectSearchIndex.resolveTextCriteria(queryParameters)).thenReturn(new ArrayList<>());
+
+        ProjectPaginatedDto result = projectBean.getFilteredProjects(1, 8, uriInfo);
+
+        assertTrue(result.getProjectsForAPage().isEmpty());
+        assertEquals(0L, result.getTotalProjects());
+        verifyNoInteractions(projectDao, projectMemberDao);
+    }
+
+    @Test
+    void testGetFilteredProjects_SearchOrderedByRelevance() throws InputValidationException {
+        queryParameters.putSingle(QueryParams.SEARCH, "solar panel");
+        List<Long> rankedIds = List.of(7L, 3L, 9L, 1L);
+        when(projectSearchIndex.resolveTextCriteria(queryParameters)).thenReturn(new ArrayList<>(rankedIds));
+        // Project 9 is excluded by the structured criteria
+        when(projectDao.findFilteredProjectIds(uriInfo, rankedIds)).thenReturn(List.of(1L, 3L, 7L));
+        List<ProjectGetDto> secondPage = createProjectDtos(1);
+        when(projectDao.findProjectDtosByIds(List.of(1L))).thenReturn(secondPage);
+        List<ProjectGetDto> firstPage = new ArrayList<>();
+        for (ProjectGetDto projectDto : createProjectDtos(7)) {
+            if (projectDto.getId() == 3L || projectDto.getId() == 7L) {
+                firstPage.add(projectDto);
+            }
+        }
+        when(projectDao.findProjectDtosByIds(List.of(7L, 3L))).thenReturn(firstPage);
+
+        ProjectPaginatedDto result = projectBean.getFilteredProjects(1, 2, uriInfo);
+        assertEquals(List.of(7L, 3L), result.getProjectsForAPage().stream().map(ProjectGetDto::getId).toList());
+        assertEquals(3L, result.getTotalProjects());
+
+        result = projectBean.getFilteredProjects(2, 2, uriInfo);
+        assertEquals(List.of(1L), result.getProjectsForAPage().stream().map(ProjectGetDto::getId).toList());
+        verify(projectDao, never()).findFilteredProjects(anyInt(), anyInt(), any(UriInfo.class), any());
+    }
+
+    private List<ProjectGetDto> createProjectDtos(int count) {
+        List<ProjectGetDto> projectDtos = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            projectDtos.add(new ProjectGetDto(id, "Project " + id, "Description", "Motivation", ProjectStateEnum.PLANNING,
+                    Instant.now(), null, null, null, false, 1L, LocationEnum.values()[0], 1L, "creator", null, 2L));
+        }
+        return projectDtos;
+    }
+
+    private List<ProjectMembershipDto> createMemberships(List<ProjectGetDto> projectDtos, int membersPerProject) {
+        List<ProjectMembershipDto> memberships = new ArrayList<>();
+        long membershipId = 1;
+        for (ProjectGetDto projectDto : projectDtos) {
+            for (long userId = 1; userId <= membersPerProject; userId++) {
+                memberships.add(new ProjectMembershipDto(membershipId++, userId, projectDto.getId(), ProjectRoleEnum.NORMAL_USER, true,
+                        new UserBasicInfoDto(userId, "user" + userId, null, 2L)));
+            }
+        }
+        return memberships;
     }
 
     @Test
@@ -250,4 +419,104 @@ class ProjectBeanTest {
         assertThrows(EntityNotFoundException.class, () -> projectBean.updateProject(1L, projectUpdateDto, securityContext));
     }
 
+    @Test
+    void testGetListProjectLogs_SingleProjectionQuery() {
+        List<ProjectLogGetDto> logs = createProjectLogDtos(1, 3);
+        when(projectLogDao.findProjectLogDtosByProjectId(1L)).thenReturn(logs);
+
+        assertEquals(logs, projectBean.getListProjectLogs(1L));
+        verify(projectLogDao, times(1)).findProjectLogDtosByProjectId(1L);
+        verifyNoMoreInteractions(projectLogDao);
+    }
+
+    @Test
+    void testGetProjectLogPage_LatestPageWithFilters() throws Exception {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-02-01T00:00:00Z");
+        when(projectLogDao.findProjectLogPage(1L, LogTypeEnum.PROJECT_TASKS, from, to, null, 0, 11)).thenReturn(createProjectLogDtos(40, 11));
+
+        ProjectLogPageDto page = projectBean.getProjectLogPage(1L, null, 10, "project_tasks", from.toString(), to.toString());
+
+        assertEquals(10, page.getLogs().size());
+        assertTrue(page.isHasMore());
+        assertEquals(40L, page.getLogs().get(0).getId());
+        verify(projectLogDao, never()).findProjectLogCreationDate(anyLong(), anyLong());
+    }
+
+    @Test
+    void testGetProjectLogPage_ContinuesAfterCursor() throws Exception {
+        Instant cursorDate = Instant.parse("2026-01-15T10:00:00Z");
+        when(projectLogDao.findProjectLogCreationDate(1L, 30L)).thenReturn(cursorDate);
+        when(projectLogDao.findProjectLogPage(1L, null, null, null, cursorDate, 30L, GlobalSettings.PROJECT_LOG_PAGE_SIZE + 1))
+                .thenReturn(createProjectLogDtos(29, 5));
+
+        ProjectLogPageDto page = projectBean.getProjectLogPage(1L, 30L, 0, null, null, null);
+
+        assertEquals(5, page.getLogs().size());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void testGetProjectLogPage_PageSizeCapped() throws Exception {
+        when(projectLogDao.findProjectLogPage(anyLong(), any(), any(), any(), any(), anyLong(), anyInt())).thenReturn(new ArrayList<>());
+
+        projectBean.getProjectLogPage(1L, null, 100000, null, null, null);
+
+        verify(projectLogDao).findProjectLogPage(1L, null, null, null, null, 0, GlobalSettings.PROJECT_LOG_MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void testGetProjectLogPage_InvalidInput() {
+        assertThrows(InputValidationException.class, () -> projectBean.getProjectLogPage(1L, null, 10, "UNKNOWN", null, null));
+        assertThrows(InputValidationException.class, () -> projectBean.getProjectLogPage(1L, null, 10, null, "yesterday", null));
+        assertThrows(InputValidationException.class, () -> projectBean.getProjectLogPage(1L, null, 10, null,
+                "2026-02-01T00:00:00Z", "2026-01-01T00:00:00Z"));
+        verifyNoInteractions(projectLogDao);
+    }
+
+    @Test
+    void testGetProjectLogPage_CursorNotInProject() {
+        when(projectLogDao.findProjectLogCreationDate(1L, 99L)).thenReturn(null);
+
+        assertThrows(EntityNotFoundException.class, () -> projectBean.getProjectLogPage(1L, 99L, 10, null, null, null));
+        verify(projectLogDao, never()).findProjectLogPage(anyLong(), any(), any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testCreateProjectLog_HandedToWriterWithoutLoadingLogs() {
+        ProjectEntity projectEntity = mock(ProjectEntity.class);
+        UserEntity userEntity = new UserEntity();
+
+        projectBean.createProjectLog(projectEntity, userEntity, LogTypeEnum.PROJECT_DATA, "Name changed");
+
+        verify(projectLogWriter, times(1)).write(projectEntity, userEntity, LogTypeEnum.PROJECT_DATA, "Name changed");
+        verify(projectEntity, never()).getProjectLogs();
+        verifyNoInteractions(projectLogDao);
+    }
+
+    @Test
+    void testCreateManualProjectLog_WrittenInSameTransaction() throws EntityNotFoundException {
+        ProjectEntity projectEntity = new ProjectEntity();
+        UserEntity userEntity = new UserEntity();
+        AuthUserDto authUserDto = new AuthUserDto();
+        authUserDto.setUserId(2L);
+        ProjectLogCreateDto projectLogCreateDto = new ProjectLogCreateDto();
+        projectLogCreateDto.setContent("Meeting notes");
+        when(projectDao.findProjectById(1L)).thenReturn(projectEntity);
+        when(securityContext.getUserPrincipal()).thenReturn(authUserDto);
+        when(userDao.findUserById(2L)).thenReturn(userEntity);
+
+        projectBean.createManualProjectLog(1L, projectLogCreateDto, securityContext);
+
+        verify(projectLogWriter, times(1)).write(projectEntity, userEntity, LogTypeEnum.MANUAL_ENTRY, "Meeting notes", ProjectLogDeliveryEnum.SAME_TRANSACTION);
+    }
+
+    private List<ProjectLogGetDto> createProjectLogDtos(long newestId, int count) {
+        List<ProjectLogGetDto> logs = new ArrayList<>();
+        Instant creationDate = Instant.parse("2026-01-20T00:00:00Z");
+        for (long id = newestId; id > newestId - count; id--) {
+            logs.add(new ProjectLogGetDto(id, creationDate.minusSeconds(newestId - id), LogTypeEnum.PROJECT_TASKS, "Log " + id, "john", "Project"));
+        }
+        return logs;
+    }
 }
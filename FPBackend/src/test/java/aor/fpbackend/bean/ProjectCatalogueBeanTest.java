@@ -0,0 +1,140 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectDao;
+import aor.fpbackend.dto.Project.ProjectGetDto;
+import aor.fpbackend.dto.Project.ProjectPaginatedDto;
+import aor.fpbackend.exception.InputValidationException;
+import aor.fpbackend.utils.ProjectCatalogue;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProjectCatalogueBeanTest {
+
+    @InjectMocks
+    private ProjectCatalogueBean projectCatalogueBean;
+
+    @Mock
+    private ProjectDao projectDao;
+
+    @Mock
+    private ProjectBean projectBean;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(projectDao.findAllProjectDtos()).thenAnswer(invocation -> createProjects(20));
+        when(projectBean.addProjectMembers(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testGetCatalogue_BuiltOnceAndServedFromMemory() {
+        ProjectCatalogue first = projectCatalogueBean.getCatalogue();
+        ProjectCatalogue second = projectCatalogueBean.getCatalogue();
+
+        assertSame(first, second);
+        assertEquals(20, first.getProjects().size());
+        verify(projectDao, times(1)).findAllProjectDtos();
+        verify(projectBean, times(1)).addProjectMembers(anyList());
+    }
+
+    @Test
+    void testInvalidate_WithoutTransaction_RebuildsWithNewEntityTag() {
+        ProjectCatalogue first = projectCatalogueBean.getCatalogue();
+
+        projectCatalogueBean.invalidate();
+        ProjectCatalogue second = projectCatalogueBean.getCatalogue();
+
+        assertNotEquals(first.getEntityTag(), second.getEntityTag());
+        assertTrue(second.getVersion() > first.getVersion());
+        verify(projectDao, times(2)).findAllProjectDtos();
+    }
+
+    @Test
+    void testInvalidate_InTransaction_AppliedOnlyAfterCommit() {
+        ProjectCatalogue first = projectCatalogueBean.getCatalogue();
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+
+        projectCatalogueBean.invalidate();
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        assertSame(first, projectCatalogueBean.getCatalogue());
+
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        assertNotSame(first, projectCatalogueBean.getCatalogue());
+    }
+
+    @Test
+    void testInvalidate_InTransaction_RolledBackKeepsCatalogue() {
+        ProjectCatalogue first = projectCatalogueBean.getCatalogue();
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+
+        projectCatalogueBean.invalidate();
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertSame(first, projectCatalogueBean.getCatalogue());
+        verify(projectDao, times(1)).findAllProjectDtos();
+    }
+
+    @Test
+    void testGetCatalogue_InvalidatedWhileBuilding_NotKept() {
+        when(projectBean.addProjectMembers(anyList())).thenAnswer(invocation -> {
+            projectCatalogueBean.invalidate();
+            return invocation.getArgument(0);
+        }).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ProjectCatalogue outdated = projectCatalogueBean.getCatalogue();
+        ProjectCatalogue current = projectCatalogueBean.getCatalogue();
+
+        assertNotSame(outdated, current);
+        assertSame(current, projectCatalogueBean.getCatalogue());
+        verify(projectDao, times(2)).findAllProjectDtos();
+    }
+
+    @Test
+    void testGetPage_ReturnsSliceAndTotal() throws InputValidationException {
+        ProjectCatalogue catalogue = projectCatalogueBean.getCatalogue();
+
+        ProjectPaginatedDto page = catalogue.getPage(3, 8);
+
+        assertEquals(20, page.getTotalProjects());
+        assertEquals(4, page.getProjectsForAPage().size());
+        assertEquals(17L, page.getProjectsForAPage().get(0).getId());
+        assertTrue(catalogue.getPage(4, 8).getProjectsForAPage().isEmpty());
+        assertNotEquals(catalogue.getPageEntityTag(1, 8), catalogue.getPageEntityTag(2, 8));
+    }
+
+    @Test
+    void testGetPage_InvalidPage() {
+        ProjectCatalogue catalogue = projectCatalogueBean.getCatalogue();
+
+        assertThrows(InputValidationException.class, () -> catalogue.getPage(0, 8));
+        assertThrows(InputValidationException.class, () -> catalogue.getPageEntityTag(1, 0));
+    }
+
+    private List<ProjectGetDto> createProjects(int count) {
+        List<ProjectGetDto> projects = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            ProjectGetDto project = new ProjectGetDto();
+            project.setId(id);
+            project.setName("Project " + id);
+            projects.add(project);
+        }
+        return projects;
+    }
+}
@@ -0,0 +1,175 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectLogDao;
+import aor.fpbackend.entity.ProjectEntity;
+import aor.fpbackend.entity.UserEntity;
+import aor.fpbackend.enums.LogTypeEnum;
+import aor.fpbackend.enums.ProjectLogDeliveryEnum;
+import aor.fpbackend.utils.GlobalSettings;
+import aor.fpbackend.utils.ProjectLogEvent;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProjectLogWriterBeanTest {
+
+    @InjectMocks
+    private ProjectLogWriterBean projectLogWriterBean;
+
+    @Mock
+    private ProjectLogDao projectLogDao;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @Mock
+    private ProjectEntity projectEntity;
+
+    @Mock
+    private UserEntity userEntity;
+
+    private final List<List<ProjectLogEvent>> insertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(projectEntity.getId()).thenReturn(1L);
+        when(userEntity.getId()).thenReturn(2L);
+        doAnswer(invocation -> insertedBatches.add(new ArrayList<>(invocation.getArgument(0)))).when(projectLogDao).insertLogs(anyList());
+    }
+
+    @Test
+    void testWrite_AfterCommit_QueuedOnCommitAndFlushedInBatches() {
+        Synchronization synchronization = beginTransaction();
+        int count = GlobalSettings.PROJECT_LOG_ID_ALLOCATION_SIZE + 10;
+        for (int i = 0; i < count; i++) {
+            projectLogWriterBean.write(projectEntity, userEntity, LogTypeEnum.PROJECT_DATA, "Change " + i, ProjectLogDeliveryEnum.AFTER_COMMIT);
+        }
+        verify(transactionRegistry, times(1)).registerInterposedSynchronization(any());
+        verifyNoInteractions(projectLogDao);
+
+        synchronization.afterCompletion(Status.STATUS_COMMITTED);
+
+        assertEquals(count, projectLogWriterBean.flush());
+        assertEquals(2, insertedBatches.size());
+        assertEquals(GlobalSettings.PROJECT_LOG_ID_ALLOCATION_SIZE, insertedBatches.get(0).size());
+        assertEquals("Change 0", insertedBatches.get(0).get(0).getContent());
+        assertEquals(1L, insertedBatches.get(0).get(0).getProjectId());
+        assertEquals(2L, insertedBatches.get(0).get(0).getUserId());
+        assertEquals(0, projectLogWriterBean.flush());
+        verify(projectEntity, never()).getProjectLogs();
+    }
+
+    @Test
+    void testWrite_AfterCommit_RolledBackDiscarded() {
+        Synchronization synchronization = beginTransaction();
+        projectLogWriterBean.write(projectEntity, userEntity, LogTypeEnum.PROJECT_DATA, "Change", ProjectLogDeliveryEnum.AFTER_COMMIT);
+
+        synchronization.afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertEquals(0, projectLogWriterBean.flush());
+        verifyNoInteractions(projectLogDao);
+    }
+
+    @Test
+    void testWrite_SameTransaction_PersistedImmediately() {
+        beginTransaction();
+
+        projectLogWriterBean.write(projectEntity, userEntity, LogTypeEnum.MANUAL_ENTRY, "Note", ProjectLogDeliveryEnum.SAME_TRANSACTION);
+
+        assertEquals(1, insertedBatches.size());
+        assertEquals(LogTypeEnum.MANUAL_ENTRY, insertedBatches.get(0).get(0).getType());
+        verify(transactionRegistry, never()).registerInterposedSynchronization(any());
+        assertEquals(0, projectLogWriterBean.flush());
+    }
+
+    @Test
+    void testWrite_NoTransaction_PersistedImmediately() {
+        projectLogWriterBean.write(projectEntity, userEntity, LogTypeEnum.PROJECT_TASKS, "Task", ProjectLogDeliveryEnum.AFTER_COMMIT);
+
+        assertEquals(1, insertedBatches.size());
+        verify(transactionRegistry, never()).registerInterposedSynchronization(any());
+    }
+
+    @Test
+    void testFlush_FailedBatchRetriedOneByOne() {
+        queueCommitted("Good 1", "Bad", "Good 2");
+        doAnswer(invocation -> {
+            List<ProjectLogEvent> events = invocation.getArgument(0);
+            if (events.stream().anyMatch(event -> event.getContent().equals("Bad"))) {
+                throw new PersistenceException("constraint violation");
+            }
+            insertedBatches.add(new ArrayList<>(events));
+            return null;
+        }).when(projectLogDao).insertLogs(anyList());
+
+        assertEquals(2, projectLogWriterBean.flush());
+        assertEquals(List.of("Good 1", "Good 2"), insertedBatches.stream().map(batch -> batch.get(0).getContent()).toList());
+        assertEquals(0, projectLogWriterBean.flush());
+    }
+
+    @Test
+    void testFlush_DatabaseUnavailable_BatchKeptInOrder() {
+        queueCommitted("First", "Second");
+        doThrow(new PersistenceException("connection refused")).when(projectLogDao).insertLogs(anyList());
+
+        assertEquals(0, projectLogWriterBean.flush());
+
+        doAnswer(invocation -> insertedBatches.add(new ArrayList<>(invocation.getArgument(0)))).when(projectLogDao).insertLogs(anyList());
+        assertEquals(2, projectLogWriterBean.flush());
+        assertEquals("First", insertedBatches.get(0).get(0).getContent());
+        assertEquals("Second", insertedBatches.get(0).get(1).getContent());
+    }
+
+    @Test
+    void testFlush_DroppedAfterMaxAttempts() {
+        queueCommitted("Lost");
+        doThrow(new PersistenceException("connection refused")).when(projectLogDao).insertLogs(anyList());
+
+        for (int i = 0; i < GlobalSettings.PROJECT_LOG_MAX_FAILED_ATTEMPTS; i++) {
+            projectLogWriterBean.flush();
+        }
+
+        doAnswer(invocation -> insertedBatches.add(new ArrayList<>(invocation.getArgument(0)))).when(projectLogDao).insertLogs(anyList());
+        assertEquals(0, projectLogWriterBean.flush());
+        assertTrue(insertedBatches.isEmpty());
+    }
+
+    private Synchronization beginTransaction() {
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+        Object[] resource = new Object[1];
+        doAnswer(invocation -> resource[0] = invocation.getArgument(1)).when(transactionRegistry).putResource(any(), any());
+        when(transactionRegistry.getResource(any())).thenAnswer(invocation -> resource[0]);
+        Synchronization[] synchronization = new Synchronization[1];
+        doAnswer(invocation -> synchronization[0] = invocation.getArgument(0)).when(transactionRegistry).registerInterposedSynchronization(any());
+        return new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronization[0].afterCompletion(status);
+            }
+        };
+    }
+
+    private void queueCommitted(String... contents) {
+        Synchronization synchronization = beginTransaction();
+        for (String content : contents) {
+            projectLogWriterBean.write(projectEntity, userEntity, LogTypeEnum.PROJECT_DATA, content, ProjectLogDeliveryEnum.AFTER_COMMIT);
+        }
+        synchronization.afterCompletion(Status.STATUS_COMMITTED);
+    }
+}
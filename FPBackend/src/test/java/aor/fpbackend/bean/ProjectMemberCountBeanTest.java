@@ -0,0 +1,58 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class ProjectMemberCountBeanTest {
+
+    @InjectMocks
+    private ProjectMemberCountBean projectMemberCountBean;
+
+    @Mock
+    private ProjectDao projectDao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testReconcileMemberCounts_ReportsCorrectedProjects() {
+        when(projectDao.reconcileMemberCounts()).thenReturn(3);
+
+        assertEquals(3, projectMemberCountBean.reconcileMemberCounts());
+        verify(projectDao, times(1)).reconcileMemberCounts();
+    }
+
+    @Test
+    void testReconcileMemberCounts_SkippedWhileRunning() {
+        when(projectDao.reconcileMemberCounts()).thenAnswer(invocation -> {
+            assertEquals(0, projectMemberCountBean.reconcileMemberCounts());
+            return 1;
+        });
+
+        assertEquals(1, projectMemberCountBean.reconcileMemberCounts());
+        verify(projectDao, times(1)).reconcileMemberCounts();
+    }
+
+    @Test
+    void testReconcileMemberCounts_FailureReleasesGuard() {
+        when(projectDao.reconcileMemberCounts()).thenThrow(new IllegalStateException("database down")).thenReturn(0);
+
+        try {
+            projectMemberCountBean.reconcileMemberCounts();
+        } catch (IllegalStateException e) {
+            assertEquals("database down", e.getMessage());
+        }
+
+        assertEquals(0, projectMemberCountBean.reconcileMemberCounts());
+        verify(projectDao, times(2)).reconcileMemberCounts();
+    }
+}
@@ -0,0 +1,156 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectMembershipDao;
+import aor.fpbackend.entity.ProjectMembershipEntity;
+import aor.fpbackend.enums.ProjectRoleEnum;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProjectMembershipCacheBeanTest {
+
+    @InjectMocks
+    private ProjectMembershipCacheBean projectMembershipCache;
+
+    @Mock
+    private ProjectMembershipDao projectMembershipDao;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private ProjectMembershipEntity createMembership(ProjectRoleEnum role) {
+        ProjectMembershipEntity membership = new ProjectMembershipEntity();
+        membership.setRole(role);
+        membership.setAccepted(true);
+        return membership;
+    }
+
+    @Test
+    void testGetRole_LoadsOnceThenServesFromCache() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(1L, 2L))
+                .thenReturn(createMembership(ProjectRoleEnum.PROJECT_MANAGER));
+
+        assertEquals(ProjectRoleEnum.PROJECT_MANAGER, projectMembershipCache.getRole(1L, 2L));
+        assertTrue(projectMembershipCache.isMember(1L, 2L));
+        assertTrue(projectMembershipCache.hasRole(1L, 2L, ProjectRoleEnum.PROJECT_MANAGER));
+        assertFalse(projectMembershipCache.hasRole(1L, 2L, ProjectRoleEnum.NORMAL_USER));
+
+        verify(projectMembershipDao, times(1)).findProjectMembershipByUserIdAndProjectId(1L, 2L);
+    }
+
+    @Test
+    void testIsMember_NonMemberIsCached() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(1L, 3L)).thenReturn(null);
+
+        assertFalse(projectMembershipCache.isMember(1L, 3L));
+        assertFalse(projectMembershipCache.isMember(1L, 3L));
+
+        verify(projectMembershipDao, times(1)).findProjectMembershipByUserIdAndProjectId(1L, 3L);
+    }
+
+    @Test
+    void testInvalidate_ReloadsUpdatedRole() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(1L, 2L))
+                .thenReturn(createMembership(ProjectRoleEnum.NORMAL_USER))
+                .thenReturn(createMembership(ProjectRoleEnum.PROJECT_MANAGER));
+
+        assertEquals(ProjectRoleEnum.NORMAL_USER, projectMembershipCache.getRole(1L, 2L));
+        projectMembershipCache.invalidate(1L, 2L);
+
+        assertEquals(ProjectRoleEnum.PROJECT_MANAGER, projectMembershipCache.getRole(1L, 2L));
+        verify(projectMembershipDao, times(2)).findProjectMembershipByUserIdAndProjectId(1L, 2L);
+    }
+
+    @Test
+    void testInvalidateProject() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(anyLong(), anyLong()))
+                .thenReturn(createMembership(ProjectRoleEnum.NORMAL_USER));
+        projectMembershipCache.getRole(1L, 2L);
+        projectMembershipCache.getRole(1L, 3L);
+        projectMembershipCache.getRole(2L, 2L);
+
+        projectMembershipCache.invalidateProject(1L);
+
+        assertEquals(1, projectMembershipCache.size());
+    }
+
+    @Test
+    void testInvalidate_InTransactionWaitsForCommit() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(1L, 2L))
+                .thenReturn(createMembership(ProjectRoleEnum.NORMAL_USER))
+                .thenReturn(createMembership(ProjectRoleEnum.PROJECT_MANAGER));
+        assertEquals(ProjectRoleEnum.NORMAL_USER, projectMembershipCache.getRole(1L, 2L));
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+
+        projectMembershipCache.invalidate(1L, 2L);
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        assertEquals(ProjectRoleEnum.NORMAL_USER, projectMembershipCache.getRole(1L, 2L));
+
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        assertEquals(ProjectRoleEnum.PROJECT_MANAGER, projectMembershipCache.getRole(1L, 2L));
+    }
+
+    @Test
+    void testInvalidate_RolledBackKeepsEntry() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(1L, 2L))
+                .thenReturn(createMembership(ProjectRoleEnum.NORMAL_USER));
+        projectMembershipCache.getRole(1L, 2L);
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+
+        projectMembershipCache.invalidate(1L, 2L);
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertEquals(1, projectMembershipCache.size());
+    }
+
+    @Test
+    void testGetRole_InvalidatedDuringLoadNotCached() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(1L, 2L))
+                .thenAnswer(invocation -> {
+                    // The membership is removed and committed while the old row is being read
+                    projectMembershipCache.invalidate(1L, 2L);
+                    return createMembership(ProjectRoleEnum.PROJECT_MANAGER);
+                })
+                .thenReturn(null);
+
+        assertEquals(ProjectRoleEnum.PROJECT_MANAGER, projectMembershipCache.getRole(1L, 2L));
+        assertEquals(0, projectMembershipCache.size());
+
+        assertFalse(projectMembershipCache.isMember(1L, 2L));
+        verify(projectMembershipDao, times(2)).findProjectMembershipByUserIdAndProjectId(1L, 2L);
+    }
+
+    @Test
+    void testGetRole_ProjectInvalidatedDuringLoadNotCached() {
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(1L, 2L))
+                .thenAnswer(invocation -> {
+                    projectMembershipCache.invalidateProject(1L);
+                    return createMembership(ProjectRoleEnum.NORMAL_USER);
+                });
+        when(projectMembershipDao.findProjectMembershipByUserIdAndProjectId(2L, 2L))
+                .thenReturn(createMembership(ProjectRoleEnum.NORMAL_USER));
+
+        projectMembershipCache.getRole(1L, 2L);
+        projectMembershipCache.getRole(2L, 2L);
+
+        assertEquals(1, projectMembershipCache.size());
+    }
+}
@@ -0,0 +1,155 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.ProjectDao;
+import aor.fpbackend.entity.KeywordEntity;
+import aor.fpbackend.entity.ProjectEntity;
+import aor.fpbackend.entity.SkillEntity;
+import aor.fpbackend.enums.ProjectSearchFieldEnum;
+import aor.fpbackend.enums.QueryParams;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProjectSearchIndexBeanTest {
+
+    private static final Set<ProjectSearchFieldEnum> ALL_FIELDS = EnumSet.allOf(ProjectSearchFieldEnum.class);
+
+    @InjectMocks
+    private ProjectSearchIndexBean projectSearchIndexBean;
+
+    @Mock
+    private ProjectDao projectDao;
+
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(projectDao.findSearchDocuments()).thenReturn(List.of(
+                new Object[]{1L, "Solar Panel Monitor", "Tracks the output of solar installations", "Energy efficiency"},
+                new Object[]{2L, "Robotic Arm", "An arm for the solar laboratory", null},
+                new Object[]{3L, "Gestão de Energia", "Plataforma de monitorização", "Poupança"}));
+        when(projectDao.findKeywordNamesByProject()).thenReturn(List.of(
+                new Object[]{1L, "energy"}, new Object[]{1L, "iot"}, new Object[]{2L, "robotics"}));
+        when(projectDao.findSkillNamesByProject()).thenReturn(List.of(
+                new Object[]{2L, "Java"}, new Object[]{3L, "JavaScript"}));
+        projectSearchIndexBean.rebuild();
+    }
+
+    @Test
+    void testRebuild_IndexesEveryProject() {
+        assertEquals(3, projectSearchIndexBean.size());
+        assertEquals(List.of(2L), projectSearchIndexBean.search("robotics", EnumSet.of(ProjectSearchFieldEnum.KEYWORDS)));
+    }
+
+    @Test
+    void testSearch_RanksNameMatchesFirst() {
+        // Project 1 has "solar" in its name, project 2 only in its description
+        assertEquals(List.of(1L, 2L), projectSearchIndexBean.search("solar", ALL_FIELDS));
+    }
+
+    @Test
+    void testSearch_EveryWordMustMatch() {
+        assertEquals(List.of(1L), projectSearchIndexBean.search("solar energy", ALL_FIELDS));
+        assertTrue(projectSearchIndexBean.search("solar unknown", ALL_FIELDS).isEmpty());
+    }
+
+    @Test
+    void testSearch_PrefixAndDiacritics() {
+        assertEquals(List.of(3L), projectSearchIndexBean.search("gest", ALL_FIELDS));
+        assertEquals(List.of(3L), projectSearchIndexBean.search("GESTAO", ALL_FIELDS));
+        // An exact match ranks above a prefix match
+        assertEquals(List.of(2L, 3L), projectSearchIndexBean.search("java", EnumSet.of(ProjectSearchFieldEnum.SKILLS)));
+    }
+
+    @Test
+    void testSearch_RestrictedToFields() {
+        assertTrue(projectSearchIndexBean.search("solar", EnumSet.of(ProjectSearchFieldEnum.SKILLS)).isEmpty());
+        assertEquals(List.of(1L), projectSearchIndexBean.search("solar", EnumSet.of(ProjectSearchFieldEnum.NAME)));
+    }
+
+    @Test
+    void testResolveTextCriteria_NoTextCriteria() {
+        MultivaluedMap<String, String> parameters = new MultivaluedHashMap<>();
+        parameters.putSingle(QueryParams.STATE, "PLANNING");
+
+        assertNull(projectSearchIndexBean.resolveTextCriteria(parameters));
+    }
+
+    @Test
+    void testResolveTextCriteria_IntersectsCriteriaInRankOrder() {
+        MultivaluedMap<String, String> parameters = new MultivaluedHashMap<>();
+        parameters.putSingle(QueryParams.SEARCH, "solar");
+        parameters.putSingle(QueryParams.SKILLS, "java");
+
+        assertEquals(List.of(2L), projectSearchIndexBean.resolveTextCriteria(parameters));
+    }
+
+    @Test
+    void testUpdate_WithoutTransaction_ReplacesDocument() {
+        ProjectEntity project = createProject(2L, "Welding Robot", "robotics");
+
+        projectSearchIndexBean.update(project);
+
+        assertEquals(List.of(2L), projectSearchIndexBean.search("welding", ALL_FIELDS));
+        assertEquals(List.of(1L), projectSearchIndexBean.search("solar", ALL_FIELDS));
+        assertTrue(projectSearchIndexBean.search("java", EnumSet.of(ProjectSearchFieldEnum.SKILLS)).contains(3L));
+        assertFalse(projectSearchIndexBean.search("java", EnumSet.of(ProjectSearchFieldEnum.SKILLS)).contains(2L));
+    }
+
+    @Test
+    void testUpdate_InTransaction_AppliedOnceOnCommit() {
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+        Object[] resource = new Object[1];
+        doAnswer(invocation -> resource[0] = invocation.getArgument(1)).when(transactionRegistry).putResource(any(), any());
+        when(transactionRegistry.getResource(any())).thenAnswer(invocation -> resource[0]);
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+
+        projectSearchIndexBean.update(createProject(4L, "Hydroponic Farm", "agriculture"));
+        projectSearchIndexBean.update(createProject(4L, "Hydroponic Greenhouse", "agriculture"));
+        verify(transactionRegistry, times(1)).registerInterposedSynchronization(synchronization.capture());
+        assertTrue(projectSearchIndexBean.search("hydroponic", ALL_FIELDS).isEmpty());
+
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        assertEquals(List.of(4L), projectSearchIndexBean.search("greenhouse", ALL_FIELDS));
+        assertTrue(projectSearchIndexBean.search("farm", ALL_FIELDS).isEmpty());
+    }
+
+    @Test
+    void testUpdate_InTransaction_RolledBackIgnored() {
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+
+        projectSearchIndexBean.update(createProject(4L, "Hydroponic Farm", "agriculture"));
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertTrue(projectSearchIndexBean.search("hydroponic", ALL_FIELDS).isEmpty());
+    }
+
+    private ProjectEntity createProject(long id, String name, String keyword) {
+        ProjectEntity project = new ProjectEntity();
+        project.setId(id);
+        project.setName(name);
+        Set<KeywordEntity> keywords = new HashSet<>();
+        keywords.add(new KeywordEntity(keyword));
+        project.setProjectKeywords(keywords);
+        project.setProjectSkills(new HashSet<SkillEntity>());
+        return project;
+    }
+}
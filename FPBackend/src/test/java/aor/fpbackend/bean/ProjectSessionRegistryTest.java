@@ -0,0 +1,90 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.websocket.ProjectSessionRegistry;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProjectSessionRegistryTest {
+
+    private ProjectSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ProjectSessionRegistry();
+    }
+
+    @Test
+    void testRegister_SessionsListedPerProject() {
+        Session first = openSession();
+        Session second = openSession();
+        Session other = openSession();
+
+        registry.register(first, 1L, 10L);
+        registry.register(second, 1L, 11L);
+        registry.register(other, 2L, 10L);
+
+        assertEquals(Set.of(first, second), registry.getProjectSessions(1L));
+        assertEquals(Set.of(other), registry.getProjectSessions(2L));
+        assertTrue(registry.getProjectSessions(3L).isEmpty());
+        assertEquals(1L, registry.getProjectId(first));
+        assertEquals(2L, registry.getProjectId(other));
+    }
+
+    @Test
+    void testUnregister_RemovesOnlyThatSession() {
+        Session first = openSession();
+        Session second = openSession();
+        registry.register(first, 1L, 10L);
+        registry.register(second, 1L, 11L);
+
+        registry.unregister(first);
+
+        assertEquals(Set.of(second), registry.getProjectSessions(1L));
+        assertEquals(Set.of(11L), registry.getConnectedUserIds(1L));
+
+        registry.unregister(second);
+
+        assertTrue(registry.getProjectSessions(1L).isEmpty());
+        assertTrue(registry.getConnectedUserIds(1L).isEmpty());
+    }
+
+    @Test
+    void testUnregister_UnknownSessionIgnored() {
+        Session registered = openSession();
+        registry.register(registered, 1L, 10L);
+
+        registry.unregister(openSession());
+
+        assertEquals(Set.of(registered), registry.getProjectSessions(1L));
+    }
+
+    @Test
+    void testGetConnectedUserIds_OpenSessionsOfTheProjectOnly() {
+        Session first = openSession();
+        Session sameUser = openSession();
+        Session closed = openSession();
+        Session otherProject = openSession();
+        when(closed.isOpen()).thenReturn(false);
+        registry.register(first, 1L, 10L);
+        registry.register(sameUser, 1L, 10L);
+        registry.register(closed, 1L, 11L);
+        registry.register(otherProject, 2L, 12L);
+
+        assertEquals(Set.of(10L), registry.getConnectedUserIds(1L));
+        assertEquals(Set.of(12L), registry.getConnectedUserIds(2L));
+    }
+
+    private static Session openSession() {
+        Session session = mock(Session.class);
+        when(session.getUserProperties()).thenReturn(new HashMap<>());
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+}
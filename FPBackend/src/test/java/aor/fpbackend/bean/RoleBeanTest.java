@@ -27,6 +27,9 @@ class RoleBeanTest {
     @Mock
     private MethodDao methodDao;
 
+    @Mock
+    private RolePermissionBean rolePermissionBean;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -74,6 +77,7 @@ class RoleBeanTest {
         MethodEnum methodEnum = MethodEnum.ADD_SKILL_USER;
 
         RoleEntity roleEntity = new RoleEntity(roleEnum);
+        roleEntity.setId(1L);
         MethodEntity methodEntity = new MethodEntity(methodEnum);
 
         when(roleDao.findRoleByName(roleEnum)).thenReturn(roleEntity);
@@ -83,6 +87,7 @@ class RoleBeanTest {
 
         verify(roleDao, times(1)).findRoleByName(roleEnum);
         verify(methodDao, times(1)).findMethodByName(methodEnum);
+        verify(rolePermissionBean, times(1)).grant(1L, methodEnum);
         assertTrue(roleEntity.getMethods().contains(methodEntity));
         assertTrue(methodEntity.getRoles().contains(roleEntity));
     }
@@ -0,0 +1,102 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.RoleDao;
+import aor.fpbackend.entity.MethodEntity;
+import aor.fpbackend.entity.RoleEntity;
+import aor.fpbackend.enums.MethodEnum;
+import aor.fpbackend.enums.UserRoleEnum;
+import aor.fpbackend.utils.PermissionSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RolePermissionBeanTest {
+
+    @InjectMocks
+    private RolePermissionBean rolePermissionBean;
+
+    @Mock
+    private RoleDao roleDao;
+
+    @Mock
+    private AuthUserCacheBean authUserCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private RoleEntity createRole(long id, UserRoleEnum name, MethodEnum... methods) {
+        RoleEntity role = new RoleEntity(name);
+        role.setId(id);
+        for (MethodEnum method : methods) {
+            role.getMethods().add(new MethodEntity(method, method.name(), method.getValue()));
+        }
+        return role;
+    }
+
+    @Test
+    void testGetPermissions_LoadsAllRolesOnce() {
+        when(roleDao.findAllRolesWithPermissions()).thenReturn(List.of(
+                createRole(1L, UserRoleEnum.ADMIN, MethodEnum.UPDATE_ROLE, MethodEnum.ADD_SKILL_USER),
+                createRole(2L, UserRoleEnum.STANDARD_USER, MethodEnum.ADD_SKILL_USER)));
+
+        assertTrue(rolePermissionBean.getPermissions(1L).contains(MethodEnum.UPDATE_ROLE));
+        assertTrue(rolePermissionBean.getPermissions(2L).contains(MethodEnum.ADD_SKILL_USER));
+        assertFalse(rolePermissionBean.getPermissions(2L).contains(MethodEnum.UPDATE_ROLE));
+        assertSame(PermissionSet.EMPTY, rolePermissionBean.getPermissions(3L));
+
+        verify(roleDao, times(1)).findAllRolesWithPermissions();
+        verify(authUserCache, times(1)).clear();
+    }
+
+    @Test
+    void testGrant_UpdatesRoleAndClearsAuthCache() {
+        when(roleDao.findAllRolesWithPermissions()).thenReturn(List.of(
+                createRole(2L, UserRoleEnum.STANDARD_USER, MethodEnum.ADD_SKILL_USER)));
+        rolePermissionBean.rebuild();
+
+        rolePermissionBean.grant(2L, MethodEnum.GET_ALL_CONFIG);
+
+        assertTrue(rolePermissionBean.getPermissions(2L).contains(MethodEnum.GET_ALL_CONFIG));
+        assertTrue(rolePermissionBean.getPermissions(2L).contains(MethodEnum.ADD_SKILL_USER));
+        verify(authUserCache, times(2)).clear();
+    }
+
+    @Test
+    void testGrant_ExistingPermissionIsNoop() {
+        when(roleDao.findAllRolesWithPermissions()).thenReturn(List.of(
+                createRole(2L, UserRoleEnum.STANDARD_USER, MethodEnum.ADD_SKILL_USER)));
+        rolePermissionBean.rebuild();
+
+        rolePermissionBean.grant(2L, MethodEnum.ADD_SKILL_USER);
+
+        verify(authUserCache, times(1)).clear();
+    }
+
+    @Test
+    void testGrant_BeforeLoadDoesNotQueryDatabase() {
+        rolePermissionBean.grant(1L, MethodEnum.UPDATE_ROLE);
+
+        verify(roleDao, never()).findAllRolesWithPermissions();
+    }
+
+    @Test
+    void testPermissionSet_ContainsOnlyGrantedMethods() {
+        PermissionSet permissions = PermissionSet.of(MethodEnum.UPDATE_ROLE, MethodEnum.GET_ALL_CONFIG);
+
+        assertTrue(permissions.contains(MethodEnum.UPDATE_ROLE));
+        assertTrue(permissions.contains(MethodEnum.GET_ALL_CONFIG));
+        assertFalse(permissions.contains(MethodEnum.ADD_SKILL_USER));
+        assertFalse(permissions.contains((MethodEnum) null));
+        assertEquals(2, permissions.size());
+        assertEquals(permissions, PermissionSet.EMPTY.with(MethodEnum.GET_ALL_CONFIG).with(MethodEnum.UPDATE_ROLE));
+    }
+}
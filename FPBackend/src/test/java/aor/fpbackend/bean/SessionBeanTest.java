@@ -8,11 +8,17 @@ import aor.fpbackend.dto.User.UserLoginDto;
 import aor.fpbackend.entity.RoleEntity;
 import aor.fpbackend.entity.SessionEntity;
 import aor.fpbackend.entity.UserEntity;
+import aor.fpbackend.enums.TokenVerificationModeEnum;
 import aor.fpbackend.enums.UserRoleEnum;
 import aor.fpbackend.exception.*;
 import aor.fpbackend.utils.JwtKeyProvider;
 import aor.fpbackend.utils.PassEncoder;
+import aor.fpbackend.utils.PermissionSet;
+import aor.fpbackend.utils.TokenHasher;
 import io.jsonwebtoken.*;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.core.NewCookie;
 import jakarta.ws.rs.core.Response;
@@ -46,12 +52,27 @@ class SessionBeanTest {
     @Mock
     private ConfigurationBean configurationBean;
 
+    @Mock
+    private AuthUserCacheBean authUserCache;
+
+    @Mock
+    private RolePermissionBean rolePermissionBean;
+
+    @Mock
+    private SessionExpiryBean sessionExpiryBean;
+
+    @Mock
+    private TokenRevocationBean tokenRevocationBean;
+
     @Mock
     private SecurityContext securityContext;
 
     @Mock
     private ContainerRequestContext requestContext;
 
+    @Mock
+    private TransactionSynchronizationRegistry transactionRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -70,18 +91,36 @@ class SessionBeanTest {
 
     @Test
     void testLogout_Success() throws UserNotFoundException {
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
 
         when(securityContext.getUserPrincipal()).thenReturn(authUserDto);
 
         sessionBean.logout(securityContext);
 
         verify(sessionDao, times(1)).inativateSessionbyAuthToken(authUserDto.getToken());
+        verify(authUserCache, times(1)).invalidate(authUserDto.getToken());
+        verify(sessionExpiryBean, times(1)).cancel(TokenHasher.hash(authUserDto.getToken()));
+        verify(tokenRevocationBean, times(1)).revoke(TokenHasher.hash(authUserDto.getToken()));
+    }
+
+    @Test
+    void testLogout_InTransactionInvalidatesCacheAfterCommit() throws UserNotFoundException {
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
+        when(securityContext.getUserPrincipal()).thenReturn(authUserDto);
+        when(transactionRegistry.getTransactionKey()).thenReturn(new Object());
+
+        sessionBean.logout(securityContext);
+
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transactionRegistry).registerInterposedSynchronization(synchronization.capture());
+        verify(authUserCache, never()).invalidate(anyString());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        verify(authUserCache, times(1)).invalidate("token");
     }
 
     @Test
     void testLogout_UserNotFoundException() {
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "", 1L, "username");
 
         when(securityContext.getUserPrincipal()).thenReturn(authUserDto);
 
@@ -89,18 +128,77 @@ class SessionBeanTest {
     }
 
     @Test
-    void testCleanupExpiredTokens_Success() throws DatabaseOperationException {
-        List<SessionEntity> sessions = new ArrayList<>();
+    void testValidateAuthToken_CacheHit() throws InvalidCredentialsException {
+        AuthUserDto cached = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
+
+        when(authUserCache.get("token")).thenReturn(cached);
+
+        AuthUserDto result = sessionBean.validateAuthTokenAndGetUserDetails("token");
+
+        assertSame(cached, result);
+        verifyNoInteractions(sessionDao, userDao);
+    }
+
+    @Test
+    void testValidateAuthToken_InactiveSessionNotCached() {
         SessionEntity sessionEntity = new SessionEntity();
-        sessionEntity.setTokenExpiration(Instant.now().minusSeconds(10));
-        sessionEntity.setActive(true);
-        sessions.add(sessionEntity);
+        sessionEntity.setActive(false);
+        sessionEntity.setTokenExpiration(Instant.now().plusSeconds(60));
 
-        when(sessionDao.findSessionsExpiringInThreeMinutes()).thenReturn(sessions);
+        when(sessionDao.findSessionByAuthToken("token")).thenReturn(sessionEntity);
 
-        sessionBean.cleanupExpiredTokens();
+        assertThrows(InvalidCredentialsException.class, () -> sessionBean.validateAuthTokenAndGetUserDetails("token"));
+        verify(authUserCache, never()).put(anyString(), any(), any(), anyLong());
+    }
+
+    @Test
+    void testValidateAuthToken_StatelessTrustsClaims() throws Exception {
+        String token = sessionBean.generateJwtToken(createUser(), 60000, "auth");
+        sessionBean.setTokenVerificationMode(TokenVerificationModeEnum.STATELESS);
+
+        when(rolePermissionBean.getPermissions(2L)).thenReturn(PermissionSet.EMPTY);
+
+        AuthUserDto result = sessionBean.validateAuthTokenAndGetUserDetails(token);
+
+        assertEquals(1L, result.getUserId());
+        assertEquals(2L, result.getRoleId());
+        assertEquals("testUser", result.getUsername());
+        assertNull(result.getSessionId());
+        verifyNoInteractions(sessionDao, userDao);
+    }
+
+    @Test
+    void testValidateAuthToken_StatelessConfirmsPossibleRevocation() throws Exception {
+        String token = sessionBean.generateJwtToken(createUser(), 60000, "auth");
+        sessionBean.setTokenVerificationMode(TokenVerificationModeEnum.STATELESS);
+        SessionEntity sessionEntity = new SessionEntity();
+        sessionEntity.setActive(false);
+        sessionEntity.setTokenExpiration(Instant.now().plusSeconds(60));
+
+        when(tokenRevocationBean.mightBeRevoked(eq(TokenHasher.hash(token)), eq(1L), any())).thenReturn(true);
+        when(sessionDao.findSessionByAuthToken(token)).thenReturn(sessionEntity);
 
-        verify(sessionDao, times(1)).merge(any(SessionEntity.class));
+        assertThrows(InvalidCredentialsException.class, () -> sessionBean.validateAuthTokenAndGetUserDetails(token));
+        verify(sessionDao, times(1)).findSessionByAuthToken(token);
+    }
+
+    @Test
+    void testValidateAuthToken_StatelessRejectsSessionToken() throws Exception {
+        String token = sessionBean.generateJwtToken(createUser(), 60000, "session");
+        sessionBean.setTokenVerificationMode(TokenVerificationModeEnum.STATELESS);
+
+        assertThrows(InvalidCredentialsException.class, () -> sessionBean.validateAuthTokenAndGetUserDetails(token));
+        verifyNoInteractions(sessionDao);
+    }
+
+    private UserEntity createUser() {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(1L);
+        userEntity.setUsername("testUser");
+        RoleEntity roleEntity = new RoleEntity(UserRoleEnum.STANDARD_USER);
+        roleEntity.setId(2L);
+        userEntity.setRole(roleEntity);
+        return userEntity;
     }
 
 
@@ -126,7 +224,7 @@ class SessionBeanTest {
 
     @Test
     void testCreateNewSessionAndInvalidateOld_Success() throws Exception {
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "oldToken", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "oldToken", 1L, "username");
         UserEntity userEntity = new UserEntity();
         userEntity.setId(1L);
         userEntity.setUsername("testUser");
@@ -134,23 +232,30 @@ class SessionBeanTest {
         userEntity.setRole(roleEntity);
 
         when(userDao.findUserById(1L)).thenReturn(userEntity);
-        when(configurationBean.getConfigValueByKey("sessionTimeout")).thenReturn(60000);
+        when(configurationBean.getSessionTimeout()).thenReturn(60000);
 
         sessionBean.createNewSessionAndInvalidateOld(authUserDto, requestContext, 60000, "oldToken");
 
-        verify(sessionDao, times(1)).persist(any(SessionEntity.class));
+        ArgumentCaptor<SessionEntity> persisted = ArgumentCaptor.forClass(SessionEntity.class);
+        verify(sessionDao, times(1)).persist(persisted.capture());
+        assertEquals(64, persisted.getValue().getAuthTokenHash().length());
         verify(sessionDao, times(1)).inativateSessionbyAuthToken("oldToken");
+        verify(authUserCache, times(1)).invalidate("oldToken");
+        verify(sessionExpiryBean, times(1)).schedule(eq(persisted.getValue().getAuthTokenHash()), anyString(), eq(1L), any(Instant.class));
+        verify(sessionExpiryBean, times(1)).cancel(TokenHasher.hash("oldToken"));
         verify(requestContext, times(1)).setProperty(eq("newAuthToken"), anyString());
         verify(requestContext, times(1)).setProperty(eq("newSessionToken"), anyString());
     }
 
     @Test
     void testCreateInvalidSession_Success() throws Exception {
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
 
         sessionBean.createInvalidSession(authUserDto, requestContext);
 
         verify(sessionDao, times(1)).inativateSessionbyAuthToken(authUserDto.getToken());
+        verify(authUserCache, times(1)).invalidate(authUserDto.getToken());
+        verify(sessionExpiryBean, times(1)).cancel(TokenHasher.hash(authUserDto.getToken()));
         verify(requestContext, times(1)).setProperty("newAuthToken", "null");
         verify(requestContext, times(1)).setProperty("newSessionToken", "null");
     }
@@ -0,0 +1,88 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.SessionDao;
+import aor.fpbackend.utils.GlobalSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SessionExpiryBeanTest {
+
+    @InjectMocks
+    private SessionExpiryBean sessionExpiryBean;
+
+    @Mock
+    private SessionDao sessionDao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSchedule_ReplacesDeadlineOfSameToken() {
+        Instant expiration = Instant.now().plusSeconds(3600);
+
+        sessionExpiryBean.schedule("authToken", "sessionToken", 1L, expiration);
+        sessionExpiryBean.schedule("authToken", "sessionToken", 1L, expiration.plusSeconds(60));
+
+        assertEquals(1, sessionExpiryBean.pendingDeadlines());
+    }
+
+    @Test
+    void testCancel_RemovesDeadline() {
+        sessionExpiryBean.schedule("authToken", "sessionToken", 1L, Instant.now().plusSeconds(3600));
+
+        sessionExpiryBean.cancel("authToken");
+
+        assertEquals(0, sessionExpiryBean.pendingDeadlines());
+    }
+
+    @Test
+    void testFireDueDeadlines_OnlyFiresReachedDeadlines() {
+        Instant now = Instant.now();
+        // Within the forced logout lead time, so already due
+        sessionExpiryBean.schedule("dueToken", "dueSession", 1L, now.plusMillis(GlobalSettings.SESSION_FORCED_LOGOUT_LEAD_MILLIS / 2));
+        // Further than one turn of the wheel, shares a bucket with nearer deadlines
+        sessionExpiryBean.schedule("laterToken", "laterSession", 2L,
+                now.plusMillis((long) GlobalSettings.SESSION_DEADLINE_TICK_MILLIS * GlobalSettings.SESSION_DEADLINE_WHEEL_SIZE * 2));
+
+        sessionExpiryBean.fireDueDeadlines();
+
+        assertEquals(1, sessionExpiryBean.pendingDeadlines());
+        sessionExpiryBean.cancel("laterToken");
+        assertEquals(0, sessionExpiryBean.pendingDeadlines());
+    }
+
+    @Test
+    void testLoadActiveSessions_SchedulesEveryRow() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{"auth1", "session1", 1L, Instant.now().plusSeconds(3600)});
+        rows.add(new Object[]{"auth2", "session2", 2L, Instant.now().plusSeconds(7200)});
+        when(sessionDao.findActiveSessionDeadlines(any(Instant.class))).thenReturn(rows);
+
+        sessionExpiryBean.loadActiveSessions();
+
+        assertEquals(2, sessionExpiryBean.pendingDeadlines());
+    }
+
+    @Test
+    void testDeactivateExpiredSessions_SingleBulkUpdate() {
+        when(sessionDao.deactivateExpiredSessions(any(Instant.class))).thenReturn(3);
+
+        sessionExpiryBean.deactivateExpiredSessions();
+
+        verify(sessionDao, times(1)).deactivateExpiredSessions(any(Instant.class));
+        verifyNoMoreInteractions(sessionDao);
+    }
+}
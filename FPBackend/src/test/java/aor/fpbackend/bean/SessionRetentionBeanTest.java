@@ -0,0 +1,71 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.SessionDao;
+import aor.fpbackend.utils.GlobalSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SessionRetentionBeanTest {
+
+    @InjectMocks
+    private SessionRetentionBean sessionRetentionBean;
+
+    @Mock
+    private SessionDao sessionDao;
+
+    @Mock
+    private ConfigurationBean configurationBean;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testPurgeEndedSessions_DeletesInBatchesUntilExhausted() {
+        int batch = GlobalSettings.SESSION_PURGE_BATCH_SIZE;
+        when(configurationBean.getSessionRetentionDays()).thenReturn(7);
+        when(sessionDao.deleteEndedSessions(any(Instant.class), eq(batch))).thenReturn(batch, batch, 12);
+
+        long purged = sessionRetentionBean.purgeEndedSessions();
+
+        assertEquals(2L * batch + 12, purged);
+        assertEquals(purged, sessionRetentionBean.getLastPurgedRows());
+        verify(sessionDao, times(3)).deleteEndedSessions(any(Instant.class), eq(batch));
+    }
+
+    @Test
+    void testPurgeEndedSessions_UsesConfiguredRetentionWindow() {
+        when(configurationBean.getSessionRetentionDays()).thenReturn(7);
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        when(sessionDao.deleteEndedSessions(cutoff.capture(), anyInt())).thenReturn(0);
+
+        sessionRetentionBean.purgeEndedSessions();
+
+        Duration window = Duration.between(cutoff.getValue(), Instant.now());
+        assertTrue(window.compareTo(Duration.ofDays(7)) >= 0 && window.compareTo(Duration.ofDays(7).plusMinutes(1)) < 0);
+    }
+
+    @Test
+    void testPurgeEndedSessions_FallsBackToDefaultRetention() {
+        when(configurationBean.getSessionRetentionDays()).thenReturn(0);
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        when(sessionDao.deleteEndedSessions(cutoff.capture(), anyInt())).thenReturn(0);
+
+        assertEquals(0, sessionRetentionBean.purgeEndedSessions());
+
+        Duration window = Duration.between(cutoff.getValue(), Instant.now());
+        assertTrue(window.toDays() >= GlobalSettings.DEFAULT_SESSION_RETENTION_DAYS);
+    }
+}
@@ -14,9 +14,11 @@ import aor.fpbackend.entity.UserEntity;
 import aor.fpbackend.enums.ProjectStateEnum;
 import aor.fpbackend.enums.SkillTypeEnum;
 import aor.fpbackend.exception.*;
+import aor.fpbackend.utils.PermissionSet;
 import jakarta.persistence.PersistenceException;
 import jakarta.ws.rs.core.SecurityContext;
 import org.apache.logging.log4j.ThreadContext;
+import aor.fpbackend.dto.Skill.SkillCreateNewProjectDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -38,6 +40,9 @@ class SkillBeanTest {
     @Mock
     private ProjectDao projectDao;
 
+    @Mock
+    private ProjectSearchIndexBean projectSearchIndex;
+
     @Mock
     private UserDao userDao;
 
@@ -52,7 +57,7 @@ class SkillBeanTest {
     @Test
     void testAddSkillUser_Success() throws Exception {
         SkillAddUserDto skillAddUserDto = new SkillAddUserDto("Java", SkillTypeEnum.SOFTWARE);
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
         SkillEntity skillEntity = new SkillEntity("Java", SkillTypeEnum.SOFTWARE);
         UserEntity userEntity = new UserEntity();
 
@@ -70,7 +75,7 @@ class SkillBeanTest {
     @Test
     void testAddSkillUser_ThrowsDuplicatedAttributeException() {
         SkillAddUserDto skillAddUserDto = new SkillAddUserDto("Java", SkillTypeEnum.SOFTWARE);
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
         SkillEntity skillEntity = new SkillEntity("Java", SkillTypeEnum.SOFTWARE);
         UserEntity userEntity = new UserEntity();
         userEntity.setUserSkills(new HashSet<>(Collections.singletonList(skillEntity)));
@@ -146,7 +151,7 @@ class SkillBeanTest {
     @Test
     void testRemoveSkillUser_Success() throws Exception {
         SkillRemoveUserDto skillRemoveUserDto = new SkillRemoveUserDto(1L);
-        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, new HashSet<>(), "token", 1L, "username");
+        AuthUserDto authUserDto = new AuthUserDto(1L, 1L, PermissionSet.EMPTY, "token", 1L, "username");
         SkillEntity skillEntity = new SkillEntity("Java", SkillTypeEnum.SOFTWARE);
         UserEntity userEntity = new UserEntity();
         userEntity.setUserSkills(new HashSet<>(Collections.singletonList(skillEntity)));
@@ -171,5 +176,30 @@ class SkillBeanTest {
         assertTrue(skillTypes.contains(SkillTypeEnum.TOOLS));
     }
 
+    @Test
+    void testFindOrCreateSkills_AllExisting() throws EntityNotFoundException {
+        SkillEntity java = new SkillEntity("Java", SkillTypeEnum.SOFTWARE);
+        when(skillDao.findSkillsByNames(Set.of("java"))).thenReturn(List.of(java));
+
+        Set<SkillEntity> skills = skillBean.findOrCreateSkills(List.of(new SkillCreateNewProjectDto("java", SkillTypeEnum.SOFTWARE)));
 
+        assertEquals(Set.of(java), skills);
+        verify(skillDao, never()).insertSkillsIfAbsent(anyMap());
+    }
+
+    @Test
+    void testFindOrCreateSkills_InsertsMissingInOneStatement() throws EntityNotFoundException {
+        SkillEntity java = new SkillEntity("Java", SkillTypeEnum.SOFTWARE);
+        SkillEntity welding = new SkillEntity("Welding", SkillTypeEnum.HARDWARE);
+        SkillEntity lathe = new SkillEntity("Lathe", SkillTypeEnum.HARDWARE);
+        when(skillDao.findSkillsByNames(Set.of("java", "welding", "lathe"))).thenReturn(List.of(java));
+        when(skillDao.findSkillsByNames(Set.of("welding", "lathe"))).thenReturn(List.of(welding, lathe));
+
+        Set<SkillEntity> skills = skillBean.findOrCreateSkills(List.of(new SkillCreateNewProjectDto("Java", SkillTypeEnum.SOFTWARE),
+                new SkillCreateNewProjectDto("Welding", SkillTypeEnum.HARDWARE), new SkillCreateNewProjectDto("Lathe", SkillTypeEnum.HARDWARE)));
+
+        assertEquals(3, skills.size());
+        verify(skillDao, times(1)).insertSkillsIfAbsent(Map.of("Welding", SkillTypeEnum.HARDWARE, "Lathe", SkillTypeEnum.HARDWARE));
+        verify(skillDao, never()).persist(any());
+    }
 }
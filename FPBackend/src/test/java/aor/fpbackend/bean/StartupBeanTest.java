@@ -39,6 +39,36 @@ class StartupBeanTest {
     @Mock
     private MethodBean methodBean;
 
+    @Mock
+    private RolePermissionBean rolePermissionBean;
+
+    @Mock
+    private NotificationBean notificationBean;
+
+    @Mock
+    private SessionExpiryBean sessionExpiryBean;
+
+    @Mock
+    private SessionRetentionBean sessionRetentionBean;
+
+    @Mock
+    private ProjectSearchIndexBean projectSearchIndex;
+
+    @Mock
+    private ProjectMemberCountBean projectMemberCount;
+
+    @Mock
+    private ProjectLogWriterBean projectLogWriter;
+
+    @Mock
+    private MembershipBean membershipBean;
+
+    @Mock
+    private AssetBean assetBean;
+
+    @Mock
+    private LookupKeyMigrationBean lookupKeyMigration;
+
 
     @BeforeEach
     public void setUp() {
@@ -64,6 +94,16 @@ class StartupBeanTest {
         verify(configBean, times(1)).createDefaultConfigIfNotExistent("sessionTimeout", 36000000);
         verify(methodBean, times(1)).createMethodIfNotExistent(MethodEnum.UPDATE_ROLE, "updates user role", MethodEnum.UPDATE_ROLE.getValue());
         verify(roleBean, times(1)).addPermission(UserRoleEnum.ADMIN, MethodEnum.UPDATE_ROLE);
+        verify(notificationBean, times(1)).alignNotificationIdGenerator();
+        verify(projectLogWriter, times(1)).alignIdGenerator();
+        verify(membershipBean, times(1)).alignMembershipIdGenerator();
+        verify(assetBean, times(1)).alignProjectAssetIdGenerator();
+        verify(configBean, times(1)).createDefaultConfigIfNotExistent("sessionRetentionDays", 30);
+        verify(sessionRetentionBean, times(1)).migrateLegacyTokenColumns();
+        verify(lookupKeyMigration, times(1)).backfillLookupKeys();
+        verify(sessionExpiryBean, times(1)).loadActiveSessions();
+        verify(projectSearchIndex, times(1)).rebuild();
+        verify(projectMemberCount, times(1)).reconcileMemberCounts();
     }
 
     @Test
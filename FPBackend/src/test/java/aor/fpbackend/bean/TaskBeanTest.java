@@ -1,12 +1,12 @@
 package aor.fpbackend.bean;
 
 import aor.fpbackend.dao.ProjectDao;
-import aor.fpbackend.dao.ProjectMembershipDao;
 import aor.fpbackend.dao.TaskDao;
 import aor.fpbackend.dao.UserDao;
 import aor.fpbackend.dto.Authentication.AuthUserDto;
 import aor.fpbackend.dto.Task.TaskDependencyDto;
 import aor.fpbackend.dto.Task.TaskGetDto;
+import aor.fpbackend.dto.Task.TaskScheduleDto;
 import aor.fpbackend.dto.Task.TaskUpdateDto;
 import aor.fpbackend.entity.ProjectEntity;
 import aor.fpbackend.entity.TaskEntity;
@@ -19,6 +19,7 @@ import jakarta.persistence.PersistenceException;
 import jakarta.ws.rs.core.SecurityContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -32,6 +33,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class TaskBeanTest {
@@ -47,12 +49,14 @@ class TaskBeanTest {
     @Mock
     private UserBean userBean;
     @Mock
-    private ProjectMembershipDao projectMemberDao;
+    private ProjectMembershipCacheBean projectMembershipCache;
     @Mock
     private NotificationBean notificationBean;
     @Mock
     private ProjectBean projectBean;
     @Mock
+    private TaskGraphBean taskGraph;
+    @Mock
     private ProjectEntity projectEntity;
     @Mock
     private UserEntity userEntity;
@@ -144,7 +148,7 @@ class TaskBeanTest {
         long responsibleId = 1L;
         when(projectDao.findProjectById(projectId)).thenReturn(projectEntity);
         when(userDao.findUserById(responsibleId)).thenReturn(userEntity);
-        when(projectMemberDao.isUserProjectMember(projectId, responsibleId)).thenReturn(true);
+        when(projectMembershipCache.isMember(projectId, responsibleId)).thenReturn(true);
 
         taskBean.addTask("Title", "Description", Instant.now(), Instant.now().plusSeconds(86400), responsibleId, projectId);
 
@@ -182,6 +186,7 @@ class TaskBeanTest {
         // Mock DAO methods
         when(taskDao.findTaskById(taskDependencyDto.getMainTaskId())).thenReturn(mainTaskEntity);
         when(taskDao.findTaskById(taskDependencyDto.getDependentTaskId())).thenReturn(dependentTaskEntity);
+        when(projectDao.lockProjectById(projectId)).thenReturn(projectEntity);
 
         // Call the method under test
         taskBean.addDependencyTask(projectId, taskDependencyDto);
@@ -231,7 +236,7 @@ class TaskBeanTest {
     void testAddTask_Success() throws EntityNotFoundException, InputValidationException, UnknownHostException, ElementAssociationException {
         when(projectDao.findProjectById(1L)).thenReturn(projectEntity);
         when(userDao.findUserById(1L)).thenReturn(userEntity);
-        when(projectMemberDao.isUserProjectMember(1L, 1L)).thenReturn(true);
+        when(projectMembershipCache.isMember(1L, 1L)).thenReturn(true);
 
         taskBean.addTask("Test Task", "Task Description", Instant.now(), Instant.now().plus(2, ChronoUnit.DAYS), 1L, 1L);
 
@@ -266,7 +271,7 @@ class TaskBeanTest {
     void testAddTask_UserNotProjectMember() {
         when(projectDao.findProjectById(1L)).thenReturn(projectEntity);
         when(userDao.findUserById(1L)).thenReturn(userEntity);
-        when(projectMemberDao.isUserProjectMember(1L, 1L)).thenReturn(false);
+        when(projectMembershipCache.isMember(1L, 1L)).thenReturn(false);
 
         InputValidationException exception = assertThrows(InputValidationException.class, () -> {
             taskBean.addTask("Test Task", "Task Description", Instant.now(), Instant.now().plus(2, ChronoUnit.DAYS), 1L, 1L);
@@ -279,7 +284,7 @@ class TaskBeanTest {
     void testAddTask_InvalidDates() {
         when(projectDao.findProjectById(1L)).thenReturn(projectEntity);
         when(userDao.findUserById(1L)).thenReturn(userEntity);
-        when(projectMemberDao.isUserProjectMember(1L, 1L)).thenReturn(true);
+        when(projectMembershipCache.isMember(1L, 1L)).thenReturn(true);
 
         InputValidationException exception = assertThrows(InputValidationException.class, () -> {
             taskBean.addTask("Test Task", "Task Description", Instant.now().plus(2, ChronoUnit.DAYS), Instant.now(), 1L, 1L);
@@ -292,7 +297,7 @@ class TaskBeanTest {
     void testAddTask_PersistenceException() {
         when(projectDao.findProjectById(1L)).thenReturn(projectEntity);
         when(userDao.findUserById(1L)).thenReturn(userEntity);
-        when(projectMemberDao.isUserProjectMember(1L, 1L)).thenReturn(true);
+        when(projectMembershipCache.isMember(1L, 1L)).thenReturn(true);
         doThrow(PersistenceException.class).when(taskDao).persist(any(TaskEntity.class));
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> {
@@ -328,6 +333,7 @@ class TaskBeanTest {
         // Mock DAO methods
         when(taskDao.findTaskById(1L)).thenReturn(mainTaskEntity);
         when(taskDao.findTaskById(2L)).thenReturn(dependentTaskEntity);
+        when(projectDao.lockProjectById(1L)).thenReturn(projectEntity);
 
         // Call the method under test
         taskBean.addDependencyTask(1L, taskDependencyDto);
@@ -339,6 +345,72 @@ class TaskBeanTest {
         // Verify the interactions with the DAO
         verify(taskDao, times(1)).findTaskById(1L);
         verify(taskDao, times(1)).findTaskById(2L);
+        verify(taskGraph, times(1)).dependencyAdded(1L, 1L, 2L);
+    }
+
+    @Test
+    void testAddDependencyTask_CycleRejected() throws InputValidationException {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(1L);
+        TaskEntity mainTaskEntity = new TaskEntity();
+        mainTaskEntity.setId(1L);
+        mainTaskEntity.setProject(projectEntity);
+        mainTaskEntity.setPlannedEndDate(Instant.now().plusSeconds(3600));
+        TaskEntity dependentTaskEntity = new TaskEntity();
+        dependentTaskEntity.setId(2L);
+        dependentTaskEntity.setProject(projectEntity);
+        dependentTaskEntity.setPlannedStartDate(Instant.now().plusSeconds(7200));
+        when(taskDao.findTaskById(1L)).thenReturn(mainTaskEntity);
+        when(taskDao.findTaskById(2L)).thenReturn(dependentTaskEntity);
+        when(projectDao.lockProjectById(1L)).thenReturn(projectEntity);
+        when(taskGraph.wouldCreateCycle(1L, 1L, 2L)).thenReturn(true);
+
+        InputValidationException exception = assertThrows(InputValidationException.class,
+                () -> taskBean.addDependencyTask(1L, new TaskDependencyDto(1L, 2L)));
+
+        assertEquals("Dependency would create a cycle", exception.getMessage());
+        assertTrue(mainTaskEntity.getDependentTasks().isEmpty());
+        InOrder inOrder = inOrder(projectDao, taskGraph);
+        inOrder.verify(projectDao).lockProjectById(1L);
+        inOrder.verify(taskGraph).wouldCreateCycle(1L, 1L, 2L);
+        verify(taskGraph, never()).dependencyAdded(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testAddDependencyTask_ProjectNotFound() throws InputValidationException {
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setId(1L);
+        TaskEntity mainTaskEntity = new TaskEntity();
+        mainTaskEntity.setId(1L);
+        mainTaskEntity.setProject(projectEntity);
+        mainTaskEntity.setPlannedEndDate(Instant.now().plusSeconds(3600));
+        TaskEntity dependentTaskEntity = new TaskEntity();
+        dependentTaskEntity.setId(2L);
+        dependentTaskEntity.setProject(projectEntity);
+        dependentTaskEntity.setPlannedStartDate(Instant.now().plusSeconds(7200));
+        when(taskDao.findTaskById(1L)).thenReturn(mainTaskEntity);
+        when(taskDao.findTaskById(2L)).thenReturn(dependentTaskEntity);
+        when(projectDao.lockProjectById(1L)).thenReturn(null);
+
+        assertThrows(EntityNotFoundException.class, () -> taskBean.addDependencyTask(1L, new TaskDependencyDto(1L, 2L)));
+        verify(taskGraph, never()).wouldCreateCycle(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testGetProjectSchedule_ValidProjectId() throws EntityNotFoundException, InputValidationException {
+        TaskScheduleDto schedule = new TaskScheduleDto(1L, 5L, List.of(1L), List.of());
+        when(projectDao.findProjectById(1L)).thenReturn(projectEntity);
+        when(taskGraph.getSchedule(1L)).thenReturn(schedule);
+
+        assertSame(schedule, taskBean.getProjectSchedule(1L));
+    }
+
+    @Test
+    void testGetProjectSchedule_ProjectNotFound() throws InputValidationException {
+        when(projectDao.findProjectById(1L)).thenReturn(null);
+
+        assertThrows(EntityNotFoundException.class, () -> taskBean.getProjectSchedule(1L));
+        verify(taskGraph, never()).getSchedule(anyLong());
     }
 
 
@@ -475,6 +547,7 @@ class TaskBeanTest {
         taskBean.updateTask(taskUpdateDto, securityContext);
 
         verify(taskDao).persist(taskEntity);
+        verify(taskGraph).taskChanged(taskEntity);
         assertEquals(TaskStateEnum.FINISHED, taskEntity.getState());
         assertNotNull(taskEntity.getStartDate());
         assertNotNull(taskEntity.getEndDate());
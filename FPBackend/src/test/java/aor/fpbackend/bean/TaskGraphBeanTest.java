@@ -0,0 +1,294 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.TaskDao;
+import aor.fpbackend.dto.Task.TaskScheduleDto;
+import aor.fpbackend.dto.Task.TaskScheduleEntryDto;
+import aor.fpbackend.entity.ProjectEntity;
+import aor.fpbackend.entity.TaskEntity;
+import aor.fpbackend.exception.InputValidationException;
+import aor.fpbackend.utils.TaskGraph;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskGraphBeanTest {
+
+    private static final long PROJECT_ID = 7L;
+    private static final Instant START = Instant.parse("2026-01-05T09:00:00Z");
+
+    @InjectMocks
+    private TaskGraphBean taskGraphBean;
+
+    @Mock
+    private TaskDao taskDao;
+
+    private ProjectEntity projectEntity;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        taskGraphBean.transactionRegistry = null;
+        projectEntity = new ProjectEntity();
+        projectEntity.setId(PROJECT_ID);
+    }
+
+    /**
+     * 1 (2 days) before 2 (3 days) and 3 (1 day), both before 4 (2 days).
+     */
+    private void mockDiamond() {
+        mockTasks(Map.of(1L, 2L, 2L, 3L, 3L, 1L, 4L, 2L), List.of(new long[]{1, 2}, new long[]{1, 3}, new long[]{2, 4}, new long[]{3, 4}));
+    }
+
+    private void mockTasks(Map<Long, Long> durations, List<long[]> dependencies) {
+        List<Object[]> taskRows = new ArrayList<>();
+        durations.forEach((id, days) -> taskRows.add(new Object[]{id, START, START.plus(days, ChronoUnit.DAYS)}));
+        List<Object[]> dependencyRows = new ArrayList<>();
+        dependencies.forEach(dependency -> dependencyRows.add(new Object[]{dependency[0], dependency[1]}));
+        when(taskDao.findTaskGraphRowsByProjectId(PROJECT_ID)).thenReturn(new TaskDao.TaskGraphRows(taskRows, dependencyRows));
+    }
+
+    private TaskEntity task(long id, long days) {
+        TaskEntity taskEntity = new TaskEntity();
+        taskEntity.setId(id);
+        taskEntity.setProject(projectEntity);
+        taskEntity.setPlannedStartDate(START);
+        taskEntity.setPlannedEndDate(START.plus(days, ChronoUnit.DAYS));
+        return taskEntity;
+    }
+
+    private static Map<Long, TaskScheduleEntryDto> byTask(TaskScheduleDto schedule) {
+        return schedule.getTasks().stream().collect(Collectors.toMap(TaskScheduleEntryDto::getTaskId, Function.identity()));
+    }
+
+    @Test
+    void testGetSchedule_ComputesCriticalPathAndSlack() throws InputValidationException {
+        mockDiamond();
+
+        TaskScheduleDto schedule = taskGraphBean.getSchedule(PROJECT_ID);
+
+        assertEquals(7, schedule.getProjectDuration());
+        assertEquals(List.of(1L, 2L, 4L), schedule.getCriticalPath());
+        assertEquals(1L, schedule.getTasks().get(0).getTaskId());
+        assertEquals(4L, schedule.getTasks().get(3).getTaskId());
+        Map<Long, TaskScheduleEntryDto> tasks = byTask(schedule);
+        assertEquals(2, tasks.get(3L).getEarliestStart());
+        assertEquals(4, tasks.get(3L).getLatestStart());
+        assertEquals(5, tasks.get(3L).getLatestFinish());
+        assertEquals(2, tasks.get(3L).getSlack());
+        assertFalse(tasks.get(3L).isCritical());
+        assertEquals(5, tasks.get(4L).getEarliestStart());
+        assertTrue(tasks.get(4L).isCritical());
+    }
+
+    @Test
+    void testWouldCreateCycle_FollowsIndirectDependencies() throws InputValidationException {
+        mockDiamond();
+
+        assertTrue(taskGraphBean.wouldCreateCycle(PROJECT_ID, 4L, 1L));
+        assertTrue(taskGraphBean.wouldCreateCycle(PROJECT_ID, 2L, 2L));
+        assertFalse(taskGraphBean.wouldCreateCycle(PROJECT_ID, 2L, 3L));
+        assertFalse(taskGraphBean.wouldCreateCycle(PROJECT_ID, 3L, 2L));
+    }
+
+    @Test
+    void testWouldCreateCycle_SeesCommittedDependencyNotYetApplied() throws InputValidationException {
+        mockDiamond();
+        taskGraphBean.getSchedule(PROJECT_ID);
+        // 4 -> 5 committed by a concurrent transaction whose changes have not reached the cached graph yet
+        mockTasks(Map.of(1L, 2L, 2L, 3L, 3L, 1L, 4L, 2L, 5L, 1L),
+                List.of(new long[]{1, 2}, new long[]{1, 3}, new long[]{2, 4}, new long[]{3, 4}, new long[]{4, 5}));
+
+        assertTrue(taskGraphBean.wouldCreateCycle(PROJECT_ID, 5L, 1L));
+        assertEquals(8, taskGraphBean.getSchedule(PROJECT_ID).getProjectDuration());
+        verify(taskDao, times(2)).findTaskGraphRowsByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void testGetSchedule_GraphLoadedDuringACommitIsNotCached() throws InputValidationException {
+        mockDiamond();
+        when(taskDao.findTaskGraphRowsByProjectId(PROJECT_ID)).thenAnswer(invocation -> {
+            // A change of the project commits while its rows are read
+            taskGraphBean.dependencyAdded(PROJECT_ID, 2L, 3L);
+            return new TaskDao.TaskGraphRows(new ArrayList<>(), new ArrayList<>());
+        });
+
+        taskGraphBean.getSchedule(PROJECT_ID);
+
+        assertEquals(0, taskGraphBean.size());
+    }
+
+    @Test
+    void testGetSchedule_CyclicDependenciesInDatabase() {
+        mockTasks(Map.of(1L, 1L, 2L, 1L), List.of(new long[]{1, 2}, new long[]{2, 1}));
+
+        assertThrows(InputValidationException.class, () -> taskGraphBean.getSchedule(PROJECT_ID));
+        assertEquals(0, taskGraphBean.size());
+    }
+
+    @Test
+    void testChanges_AppliedToCachedGraphWithoutReload() throws InputValidationException {
+        mockDiamond();
+        taskGraphBean.getSchedule(PROJECT_ID);
+
+        // 3 now lasts 4 days, and a new task 5 (1 day) follows 4
+        taskGraphBean.taskChanged(task(3L, 4L));
+        taskGraphBean.taskChanged(task(5L, 1L));
+        taskGraphBean.dependencyAdded(PROJECT_ID, 4L, 5L);
+        TaskScheduleDto schedule = taskGraphBean.getSchedule(PROJECT_ID);
+
+        assertEquals(9, schedule.getProjectDuration());
+        assertEquals(List.of(1L, 3L, 4L, 5L), schedule.getCriticalPath());
+        assertEquals(1, byTask(schedule).get(2L).getSlack());
+
+        taskGraphBean.dependencyRemoved(PROJECT_ID, 3L, 4L);
+        taskGraphBean.taskRemoved(task(2L, 3L));
+        schedule = taskGraphBean.getSchedule(PROJECT_ID);
+
+        assertEquals(6, schedule.getProjectDuration());
+        assertEquals(List.of(1L, 3L), schedule.getCriticalPath());
+        assertEquals(4, schedule.getTasks().size());
+        verify(taskDao, times(1)).findTaskGraphRowsByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void testChanges_AppliedOnlyWhenTheTransactionCommits() throws InputValidationException {
+        mockDiamond();
+        taskGraphBean.getSchedule(PROJECT_ID);
+        TransactionSynchronizationRegistry registry = mock(TransactionSynchronizationRegistry.class);
+        Map<Object, Object> resources = new HashMap<>();
+        when(registry.getTransactionKey()).thenReturn("tx");
+        when(registry.getResource(any())).thenAnswer(invocation -> resources.get(invocation.getArgument(0)));
+        doAnswer(invocation -> resources.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(registry).putResource(any(), any());
+        taskGraphBean.transactionRegistry = registry;
+
+        taskGraphBean.taskChanged(task(1L, 10L));
+        taskGraphBean.dependencyAdded(PROJECT_ID, 3L, 2L);
+        ArgumentCaptor<Synchronization> synchronization = ArgumentCaptor.forClass(Synchronization.class);
+        verify(registry, times(1)).registerInterposedSynchronization(synchronization.capture());
+
+        assertEquals(7, taskGraphBean.getSchedule(PROJECT_ID).getProjectDuration());
+        synchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertEquals(7, taskGraphBean.getSchedule(PROJECT_ID).getProjectDuration());
+        synchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+        assertEquals(16, taskGraphBean.getSchedule(PROJECT_ID).getProjectDuration());
+        assertEquals(List.of(1L, 3L, 2L, 4L), taskGraphBean.getSchedule(PROJECT_ID).getCriticalPath());
+    }
+
+    @Test
+    void testChanges_FailingChangeDropsTheGraph() throws InputValidationException {
+        mockDiamond();
+        taskGraphBean.getSchedule(PROJECT_ID);
+        assertEquals(1, taskGraphBean.size());
+
+        // Committed by a concurrent transaction that did not see the existing path 1 -> 2 -> 4
+        taskGraphBean.dependencyAdded(PROJECT_ID, 4L, 1L);
+
+        assertEquals(0, taskGraphBean.size());
+        taskGraphBean.getSchedule(PROJECT_ID);
+        verify(taskDao, times(2)).findTaskGraphRowsByProjectId(PROJECT_ID);
+    }
+
+    @Test
+    void testIncrementalUpdates_MatchAFullRebuild() {
+        Random random = new Random(42);
+        Map<Long, Long> durations = new HashMap<>();
+        Set<List<Long>> edges = new HashSet<>();
+        for (long id = 1; id <= 200; id++) {
+            durations.put(id, (long) random.nextInt(10));
+        }
+        TaskGraph graph = TaskGraph.build(durations, List.of());
+        for (int step = 0; step < 3000; step++) {
+            List<Long> ids = new ArrayList<>(durations.keySet());
+            long a = ids.get(random.nextInt(ids.size()));
+            long b = ids.get(random.nextInt(ids.size()));
+            int operation = random.nextInt(20);
+            if (operation < 12) {
+                boolean cycle = a == b || reaches(edges, b, a);
+                assertEquals(cycle, graph.wouldCreateCycle(a, b));
+                if (cycle) {
+                    long from = a;
+                    long to = b;
+                    assertThrows(IllegalArgumentException.class, () -> graph.addDependency(from, to));
+                } else {
+                    assertEquals(edges.add(List.of(a, b)), graph.addDependency(a, b));
+                }
+            } else if (operation < 16) {
+                assertEquals(edges.remove(List.of(a, b)), graph.removeDependency(a, b));
+            } else if (operation < 19) {
+                long duration = random.nextInt(10);
+                durations.put(a, duration);
+                graph.putTask(a, duration);
+            } else {
+                durations.remove(a);
+                edges.removeIf(edge -> edge.contains(a));
+                graph.removeTask(a);
+                long added = 1000 + step;
+                durations.put(added, 3L);
+                graph.putTask(added, 3L);
+            }
+            if (step % 100 == 99) {
+                List<long[]> pairs = edges.stream().map(edge -> new long[]{edge.get(0), edge.get(1)}).toList();
+                TaskGraph rebuilt = TaskGraph.build(durations, pairs);
+                TaskGraph.Snapshot expected = rebuilt.snapshot();
+                TaskGraph.Snapshot actual = graph.snapshot();
+                assertEquals(expected.projectDuration(), actual.projectDuration());
+                assertEquals(new HashSet<>(expected.schedule()), new HashSet<>(actual.schedule()));
+                assertTopologicalOrder(actual.schedule(), edges);
+                assertEquals(actual.projectDuration(), criticalPathLength(actual.criticalPath(), durations, edges));
+            }
+        }
+    }
+
+    private static boolean reaches(Set<List<Long>> edges, long from, long to) {
+        Deque<Long> stack = new ArrayDeque<>(List.of(from));
+        Set<Long> visited = new HashSet<>(List.of(from));
+        while (!stack.isEmpty()) {
+            long node = stack.pop();
+            for (List<Long> edge : edges) {
+                if (edge.get(0) == node) {
+                    if (edge.get(1) == to) {
+                        return true;
+                    }
+                    if (visited.add(edge.get(1))) {
+                        stack.push(edge.get(1));
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void assertTopologicalOrder(List<TaskGraph.ScheduledTask> schedule, Set<List<Long>> edges) {
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < schedule.size(); i++) {
+            position.put(schedule.get(i).taskId(), i);
+        }
+        for (List<Long> edge : edges) {
+            assertTrue(position.get(edge.get(0)) < position.get(edge.get(1)), "edge " + edge + " against the order");
+        }
+    }
+
+    private static long criticalPathLength(List<Long> path, Map<Long, Long> durations, Set<List<Long>> edges) {
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(edges.contains(List.of(path.get(i - 1), path.get(i))));
+        }
+        return path.stream().mapToLong(durations::get).sum();
+    }
+}
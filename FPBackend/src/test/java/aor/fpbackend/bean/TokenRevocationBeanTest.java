@@ -0,0 +1,78 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.dao.SessionDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationBeanTest {
+
+    @InjectMocks
+    private TokenRevocationBean tokenRevocationBean;
+
+    @Mock
+    private SessionDao sessionDao;
+
+    @Mock
+    private ConfigurationBean configurationBean;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(configurationBean.getSessionTimeout()).thenReturn(60000);
+    }
+
+    @Test
+    void testMightBeRevoked_RevokedToken() {
+        tokenRevocationBean.revoke("revokedHash");
+
+        assertTrue(tokenRevocationBean.mightBeRevoked("revokedHash", 1L, Instant.now()));
+        assertFalse(tokenRevocationBean.mightBeRevoked("activeHash", 1L, Instant.now()));
+    }
+
+    @Test
+    void testMightBeRevoked_ClaimsOfUserRevoked() {
+        Instant issuedBefore = Instant.now().minusSeconds(10);
+        tokenRevocationBean.revokeClaimsOfUser(1L);
+
+        assertTrue(tokenRevocationBean.mightBeRevoked("tokenHash", 1L, issuedBefore));
+        assertFalse(tokenRevocationBean.mightBeRevoked("tokenHash", 1L, Instant.now().plusSeconds(10)));
+        assertFalse(tokenRevocationBean.mightBeRevoked("tokenHash", 2L, issuedBefore));
+    }
+
+    @Test
+    void testRebuild_LoadsRevokedSessionsAndKeepsRecentRevocations() {
+        when(sessionDao.findRevokedTokenHashes(any(Instant.class))).thenReturn(List.of("storedHash"));
+        tokenRevocationBean.revoke("recentHash");
+
+        tokenRevocationBean.rebuild();
+
+        assertTrue(tokenRevocationBean.mightBeRevoked("storedHash", 1L, Instant.now()));
+        assertTrue(tokenRevocationBean.mightBeRevoked("recentHash", 1L, Instant.now()));
+        verify(sessionDao, times(1)).findRevokedTokenHashes(any(Instant.class));
+    }
+
+    @Test
+    void testMightBeRevoked_FalsePositiveRateWithinBounds() {
+        for (int i = 0; i < 10000; i++) {
+            tokenRevocationBean.revoke("revoked-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(tokenRevocationBean.mightBeRevoked("revoked-" + i, 1L, Instant.now()));
+            if (tokenRevocationBean.mightBeRevoked("active-" + i, 1L, Instant.now())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 100, "False positives: " + falsePositives);
+    }
+}
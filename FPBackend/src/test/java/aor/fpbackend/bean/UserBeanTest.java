@@ -50,6 +50,8 @@ class UserBeanTest {
     @Mock
     private SessionBean sessionBean;
     @Mock
+    private ProjectCatalogueBean projectCatalogue;
+    @Mock
     private SecurityContext securityContext;
     @Mock
     private ProjectMembershipDao projectMemberDao;
@@ -67,6 +69,7 @@ class UserBeanTest {
         emailService = mock(EmailService.class);
         passEncoder = mock(PassEncoder.class);
         sessionBean = mock(SessionBean.class);
+        projectCatalogue = mock(ProjectCatalogueBean.class);
         securityContext = mock(SecurityContext.class);
 
         userBean.userDao = userDao;
@@ -75,6 +78,7 @@ class UserBeanTest {
         userBean.emailService = emailService;
         userBean.passEncoder = passEncoder;
         userBean.sessionBean = sessionBean;
+        userBean.projectCatalogue = projectCatalogue;
         userBean.projectMemberDao = projectMemberDao;
     }
 
@@ -0,0 +1,193 @@
+package aor.fpbackend.bean;
+
+import aor.fpbackend.enums.SlowConsumerPolicyEnum;
+import aor.fpbackend.websocket.WebSocketMetrics;
+import aor.fpbackend.websocket.WebSocketOutbox;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.io.EOFException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WebSocketOutboxBeanTest {
+
+    @InjectMocks
+    private WebSocketOutboxBean webSocketOutboxBean;
+
+    @Mock
+    private ManagedThreadFactory threadFactory;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private RemoteEndpoint.Async asyncRemote;
+
+    // Send tasks are collected instead of run, so that the queue fills up
+    private final List<Runnable> pendingSends = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getAsyncRemote()).thenReturn(asyncRemote);
+        // The client accepts every message at once
+        doAnswer(invocation -> {
+            invocation.<SendHandler>getArgument(1).onResult(new SendResult());
+            return null;
+        }).when(asyncRemote).sendText(anyString(), any(SendHandler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        WebSocketOutbox.stop();
+    }
+
+    @Test
+    void testStart_DeliversOnManagedThreads() {
+        when(threadFactory.newThread(any(Runnable.class))).thenAnswer(invocation -> new Thread((Runnable) invocation.getArgument(0)));
+        webSocketOutboxBean.start();
+
+        WebSocketOutbox.send(session, "hello");
+
+        verify(asyncRemote, timeout(5000)).sendText(eq("hello"), any(SendHandler.class));
+        verify(threadFactory, atLeastOnce()).newThread(any(Runnable.class));
+        webSocketOutboxBean.stop();
+        WebSocketOutbox.send(session, "after stop");
+        verify(asyncRemote, never()).sendText(eq("after stop"), any(SendHandler.class));
+    }
+
+    @Test
+    void testSend_QueueIsBounded() {
+        WebSocketOutbox.start(pendingSends::add, 2, 1000, SlowConsumerPolicyEnum.DROP_OLDEST);
+
+        for (int i = 0; i < 5; i++) {
+            WebSocketOutbox.send(session, "message " + i);
+        }
+
+        WebSocketMetrics metrics = WebSocketOutbox.getMetrics();
+        assertEquals(2, metrics.getQueueDepth());
+        assertEquals(2, metrics.getMaxQueueDepth());
+        assertEquals(1, pendingSends.size());
+    }
+
+    @Test
+    void testSend_DropOldestKeepsTheNewestMessagesInOrder() {
+        WebSocketOutbox.start(pendingSends::add, 2, 1000, SlowConsumerPolicyEnum.DROP_OLDEST);
+        WebSocketOutbox.send(session, "a");
+        WebSocketOutbox.send(session, "b");
+        WebSocketOutbox.send(session, "c");
+
+        runPendingSends();
+
+        InOrder inOrder = inOrder(asyncRemote);
+        inOrder.verify(asyncRemote).sendText(eq("b"), any(SendHandler.class));
+        inOrder.verify(asyncRemote).sendText(eq("c"), any(SendHandler.class));
+        verify(asyncRemote, never()).sendText(eq("a"), any(SendHandler.class));
+        WebSocketMetrics metrics = WebSocketOutbox.getMetrics();
+        assertEquals(1, metrics.getDropped());
+        assertEquals(2, metrics.getSent());
+        assertEquals(0, metrics.getQueueDepth());
+        assertEquals(0, metrics.getDisconnected());
+    }
+
+    @Test
+    void testSend_DisconnectClosesSessionWithFullQueue() throws IOException {
+        WebSocketOutbox.start(pendingSends::add, 2, 1000, SlowConsumerPolicyEnum.DISCONNECT);
+        WebSocketOutbox.send(session, "a");
+        WebSocketOutbox.send(session, "b");
+        WebSocketOutbox.send(session, "c");
+
+        ArgumentCaptor<CloseReason> closeReason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(session).close(closeReason.capture());
+        assertEquals(CloseReason.CloseCodes.TRY_AGAIN_LATER, closeReason.getValue().getCloseCode());
+        runPendingSends();
+        verify(asyncRemote, never()).sendText(anyString(), any(SendHandler.class));
+        WebSocketMetrics metrics = WebSocketOutbox.getMetrics();
+        assertEquals(1, metrics.getDropped());
+        assertEquals(1, metrics.getDisconnected());
+        assertEquals(0, metrics.getQueueDepth());
+    }
+
+    @Test
+    void testSend_OneSendInFlightPerSessionWithoutWaiting() {
+        List<SendHandler> handlers = new ArrayList<>();
+        doAnswer(invocation -> handlers.add(invocation.getArgument(1))).when(asyncRemote).sendText(anyString(), any(SendHandler.class));
+        WebSocketOutbox.start(Runnable::run, 4, 1000, SlowConsumerPolicyEnum.DROP_OLDEST);
+
+        WebSocketOutbox.send(session, "a");
+        WebSocketOutbox.send(session, "b");
+
+        verify(asyncRemote, times(1)).sendText(anyString(), any(SendHandler.class));
+        assertEquals(1, WebSocketOutbox.getMetrics().getQueueDepth());
+
+        handlers.get(0).onResult(new SendResult());
+
+        InOrder inOrder = inOrder(asyncRemote);
+        inOrder.verify(asyncRemote).sendText(eq("a"), any(SendHandler.class));
+        inOrder.verify(asyncRemote).sendText(eq("b"), any(SendHandler.class));
+        assertEquals(1, WebSocketOutbox.getMetrics().getSent());
+    }
+
+    @Test
+    void testSend_SlowClientIsDisconnectedAfterTheTimeout() throws Exception {
+        // The client never accepts the message, and the container does not enforce the timeout
+        doNothing().when(asyncRemote).sendText(anyString(), any(SendHandler.class));
+        WebSocketOutbox.start(Runnable::run, 2, 10, SlowConsumerPolicyEnum.DROP_OLDEST);
+
+        WebSocketOutbox.send(session, "a");
+        verify(session, never()).close(any(CloseReason.class));
+        Thread.sleep(20);
+        WebSocketOutbox.send(session, "b");
+
+        verify(session).close(any(CloseReason.class));
+        WebSocketMetrics metrics = WebSocketOutbox.getMetrics();
+        assertEquals(1, metrics.getFailed());
+        assertEquals(1, metrics.getDisconnected());
+        assertEquals(0, metrics.getSent());
+    }
+
+    @Test
+    void testSend_FailedSendBeforeTheTimeoutKeepsTheSession() throws IOException {
+        doAnswer(invocation -> {
+            invocation.<SendHandler>getArgument(1).onResult(new SendResult(new EOFException("broken pipe")));
+            return null;
+        }).when(asyncRemote).sendText(eq("a"), any(SendHandler.class));
+        WebSocketOutbox.start(Runnable::run, 2, 1000, SlowConsumerPolicyEnum.DROP_OLDEST);
+
+        WebSocketOutbox.send(session, "a");
+        WebSocketOutbox.send(session, "b");
+
+        verify(session, never()).close(any(CloseReason.class));
+        WebSocketMetrics metrics = WebSocketOutbox.getMetrics();
+        assertEquals(1, metrics.getFailed());
+        assertEquals(1, metrics.getSent());
+    }
+
+    private void runPendingSends() {
+        while (!pendingSends.isEmpty()) {
+            pendingSends.remove(0).run();
+        }
+    }
+}
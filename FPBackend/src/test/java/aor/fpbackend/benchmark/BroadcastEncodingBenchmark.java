@@ -0,0 +1,83 @@
+package aor.fpbackend.benchmark;
+
+import aor.fpbackend.dto.GroupMessage.GroupMessageGetDto;
+import aor.fpbackend.dto.User.UserBasicInfoDto;
+import aor.fpbackend.dto.Websocket.WebSocketMessageDto;
+import aor.fpbackend.enums.WebSocketMessageType;
+import aor.fpbackend.utils.GsonSetup;
+import aor.fpbackend.websocket.WebSocketOutbox;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of preparing one group chat message for N recipient sessions.
+ * <ul>
+ *     <li>{@code encodePerSession}: the previous notification path, one Gson serialization per session.</li>
+ *     <li>{@code encodeOnce}: {@link WebSocketOutbox#encode(WebSocketMessageDto)} once, the same string handed to
+ *     every session.</li>
+ * </ul>
+ * The interesting figure is {@code gc.alloc.rate.norm} (bytes allocated per fan-out) reported by the GC profiler.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=aor.fpbackend.benchmark.BroadcastEncodingBenchmark}, or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastEncodingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int sessions;
+
+    private final Gson gson = GsonSetup.createGson();
+    private WebSocketMessageDto message;
+
+    @Setup
+    public void setup() {
+        Set<Long> readBy = new HashSet<>();
+        for (long i = 1; i <= 20; i++) {
+            readBy.add(i);
+        }
+        GroupMessageGetDto groupMessage = new GroupMessageGetDto(42L,
+                "Meeting moved to 15:00, please review the updated task plan before then.",
+                new UserBasicInfoDto(7L, "benchmarkUser", "https://example.org/photo.png", 2L),
+                Instant.now(), readBy, false, 3L);
+        message = new WebSocketMessageDto(WebSocketMessageType.NEW_GROUP_MESSAGE.toString(), groupMessage);
+    }
+
+    @Benchmark
+    public void encodePerSession(Blackhole blackhole) {
+        for (int i = 0; i < sessions; i++) {
+            blackhole.consume(gson.toJson(message));
+        }
+    }
+
+    @Benchmark
+    public void encodeOnce(Blackhole blackhole) {
+        String payload = WebSocketOutbox.encode(message);
+        for (int i = 0; i < sessions; i++) {
+            blackhole.consume(payload);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BroadcastEncodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
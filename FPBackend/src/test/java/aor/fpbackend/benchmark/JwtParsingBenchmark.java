@@ -0,0 +1,86 @@
+package aor.fpbackend.benchmark;
+
+import aor.fpbackend.utils.JwtKeyProvider;
+import aor.fpbackend.utils.ParsedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT handling in the authorization path.
+ * <ul>
+ *     <li>{@code parseTwicePerRequest}: the previous behaviour, a new parser built and the token
+ *     verified once for validation and once more for the renewal check.</li>
+ *     <li>{@code parseOncePerRequest}: the token verified once with the shared parser and the
+ *     expiration read from the resulting {@link ParsedToken}.</li>
+ * </ul>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=aor.fpbackend.benchmark.JwtParsingBenchmark}, or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParsingBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .claim("type", "auth")
+                .setSubject("1")
+                .claim("username", "benchmarkUser")
+                .claim("role", 2L)
+                .claim("photo", "https://example.org/photo.png")
+                .claim("userId", 1L)
+                .signWith(JwtKeyProvider.getKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Benchmark
+    public void parseTwicePerRequest(Blackhole blackhole) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(JwtKeyProvider.getKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        blackhole.consume(Long.parseLong(claims.getSubject()));
+        Date expiration = Jwts.parserBuilder()
+                .setSigningKey(JwtKeyProvider.getKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getExpiration();
+        blackhole.consume(expiration.getTime());
+    }
+
+    @Benchmark
+    public void parseOncePerRequest(Blackhole blackhole) {
+        ParsedToken parsedToken = ParsedToken.parse(token);
+        blackhole.consume(parsedToken.getUserId());
+        blackhole.consume(parsedToken.getExpiration().toEpochMilli());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtParsingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,74 @@
+package aor.fpbackend.benchmark;
+
+import aor.fpbackend.utils.PassEncoder;
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password checks per second with 16 concurrent logins, as the hashing pool grows on a machine whose number of
+ * cores is fixed.
+ * <ul>
+ *     <li>{@code pooledMatches}: {@link PassEncoder#matches(String, String)} with a pool of {@code workers}
+ *     threads; the 16 callers queue for them.</li>
+ *     <li>{@code callerThreadMatches}: BCrypt on the calling thread, as before the pool, i.e. every request
+ *     thread hashing at once. It does not depend on {@code workers}.</li>
+ * </ul>
+ * The pool bounds how many cores hashing may take, not how many the machine has: throughput should grow with
+ * {@code workers} up to the number of cores of the machine, the production default, and stay flat past it, while
+ * the caller thread variant uses every core without any bound. Pass {@code -p workers=<cores>} to measure the
+ * default pool size of another machine.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=aor.fpbackend.benchmark.LoginThroughputBenchmark}, or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    private PassEncoder passEncoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passEncoder = new PassEncoder(workers, 1024, Executors.defaultThreadFactory());
+        hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(12));
+    }
+
+    @TearDown
+    public void tearDown() {
+        passEncoder.shutdown();
+    }
+
+    @Benchmark
+    public boolean pooledMatches() {
+        return passEncoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean callerThreadMatches() {
+        return BCrypt.checkpw(PASSWORD, hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoginThroughputBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
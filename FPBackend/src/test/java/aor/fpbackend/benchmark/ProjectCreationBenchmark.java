@@ -0,0 +1,338 @@
+package aor.fpbackend.benchmark;
+
+import aor.fpbackend.bean.*;
+import aor.fpbackend.dao.*;
+import aor.fpbackend.dto.Authentication.AuthUserDto;
+import aor.fpbackend.dto.Keyword.KeywordCreateNewProjectDto;
+import aor.fpbackend.dto.Project.ProjectAssetCreateNewProjectDto;
+import aor.fpbackend.dto.Project.ProjectCreateDto;
+import aor.fpbackend.dto.Skill.SkillCreateNewProjectDto;
+import aor.fpbackend.dto.User.UsernameDto;
+import aor.fpbackend.entity.*;
+import aor.fpbackend.enums.ProjectStateEnum;
+import aor.fpbackend.enums.SkillTypeEnum;
+import jakarta.ws.rs.core.SecurityContext;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Projects created per second with a 20-relation payload: 5 members, 5 skills, 5 keywords and 5 assets.
+ * <ul>
+ *     <li>{@code perItemRelations}: the previous path, the project read back by name and every relation added
+ *     through {@link MembershipBean#addUserToProject}, {@link SkillBean#addSkillProject},
+ *     {@link KeywordBean#addKeyword} and {@link AssetBean#addProjectAssetToProject}.</li>
+ *     <li>{@code bulkRelations}: {@link ProjectBean#createProject}, one query per relation type.</li>
+ * </ul>
+ * The beans are the real ones; their DAOs are fakes in which every call that reaches the database spins for
+ * {@code roundTripMicros}. Inserts of entities with a table id generator are deferred to the flush, which sends
+ * the same batches for both paths and is left out, as are the lazy collection loads of the previous path, so
+ * the figure for {@code perItemRelations} is optimistic. {@code newTags} is how many of the 10 skills and
+ * keywords do not exist yet.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=aor.fpbackend.benchmark.ProjectCreationBenchmark}, or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProjectCreationBenchmark {
+
+    private static final int RELATIONS_PER_TYPE = 5;
+
+    @Param({"100", "500"})
+    private long roundTripMicros;
+
+    @Param({"0", "10"})
+    private int newTags;
+
+    private final Map<String, UserEntity> users = new HashMap<>();
+    private final Map<String, SkillEntity> skills = new HashMap<>();
+    private final Map<String, KeywordEntity> keywords = new HashMap<>();
+    private final Map<String, AssetEntity> assets = new HashMap<>();
+    // Tags inserted by the current operation; the others of the payload exist beforehand
+    private final Set<String> createdTags = new HashSet<>();
+    private final Set<String> missingTags = new HashSet<>();
+
+    private ProjectBean projectBean;
+    private MembershipBean membershipBean;
+    private SkillBean skillBean;
+    private KeywordBean keywordBean;
+    private AssetBean assetBean;
+    private ProjectDao projectDao;
+    private UserDao userDao;
+    private LaboratoryDao labDao;
+    private ProjectCreateDto projectCreateDto;
+    private SecurityContext securityContext;
+    private UserEntity creator;
+    private ProjectEntity currentProject;
+    private long projectCount;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        creator = createUser(1L, "creator");
+        users.put(creator.getUsername(), creator);
+        projectCreateDto = new ProjectCreateDto();
+        projectCreateDto.setConclusionDate(Instant.now().plus(90, ChronoUnit.DAYS));
+        projectCreateDto.setLaboratoryId(1L);
+        Set<UsernameDto> usernames = new HashSet<>();
+        Set<SkillCreateNewProjectDto> skillDtos = new HashSet<>();
+        Set<KeywordCreateNewProjectDto> keywordDtos = new HashSet<>();
+        Set<ProjectAssetCreateNewProjectDto> assetDtos = new HashSet<>();
+        for (int i = 0; i < RELATIONS_PER_TYPE; i++) {
+            UserEntity user = createUser(i + 2L, "member" + i);
+            users.put(user.getUsername(), user);
+            usernames.add(new UsernameDto(user.getId(), user.getUsername()));
+            skillDtos.add(new SkillCreateNewProjectDto("skill" + i, SkillTypeEnum.SOFTWARE));
+            keywordDtos.add(new KeywordCreateNewProjectDto("keyword" + i));
+            AssetEntity asset = new AssetEntity();
+            asset.setName("asset" + i);
+            assets.put(asset.getName(), asset);
+            assetDtos.add(new ProjectAssetCreateNewProjectDto(asset.getName(), 2));
+        }
+        projectCreateDto.setUsers(usernames);
+        projectCreateDto.setSkills(skillDtos);
+        projectCreateDto.setKeywords(keywordDtos);
+        projectCreateDto.setAssets(assetDtos);
+        for (int i = 0; i < RELATIONS_PER_TYPE; i++) {
+            skills.put("skill" + i, new SkillEntity("skill" + i, SkillTypeEnum.SOFTWARE));
+            keywords.put("keyword" + i, new KeywordEntity("keyword" + i));
+        }
+        List<String> tagNames = new ArrayList<>();
+        for (int i = 0; i < RELATIONS_PER_TYPE; i++) {
+            tagNames.add("skill" + i);
+            tagNames.add("keyword" + i);
+        }
+        missingTags.addAll(tagNames.subList(0, newTags));
+
+        AuthUserDto authUserDto = new AuthUserDto();
+        authUserDto.setUserId(creator.getId());
+        securityContext = Mockito.mock(SecurityContext.class);
+        Mockito.when(securityContext.getUserPrincipal()).thenReturn(authUserDto);
+        ConfigurationBean configurationBean = Mockito.mock(ConfigurationBean.class);
+        Mockito.when(configurationBean.getMaxProjectMembers()).thenReturn(50);
+
+        projectDao = database(ProjectDao.class, this::projectDaoCall);
+        userDao = database(UserDao.class, this::userDaoCall);
+        labDao = database(LaboratoryDao.class, invocation -> new LaboratoryEntity());
+        SkillDao skillDao = database(SkillDao.class, this::skillDaoCall);
+        KeywordDao keywordDao = database(KeywordDao.class, this::keywordDaoCall);
+        AssetDao assetDao = database(AssetDao.class, this::assetDaoCall);
+        ProjectMembershipDao projectMemberDao = deferredInserts(ProjectMembershipDao.class);
+        ProjectAssetDao projectAssetDao = deferredInserts(ProjectAssetDao.class);
+
+        projectBean = new ProjectBean();
+        membershipBean = new MembershipBean();
+        skillBean = new SkillBean();
+        keywordBean = new KeywordBean();
+        assetBean = new AssetBean();
+        Object[] collaborators = {projectDao, userDao, labDao, skillDao, keywordDao, assetDao, projectMemberDao, projectAssetDao,
+                configurationBean, projectBean, membershipBean, skillBean, keywordBean, assetBean,
+                Mockito.mock(ProjectLogWriterBean.class), Mockito.mock(ProjectMembershipCacheBean.class),
+                Mockito.mock(ProjectCatalogueBean.class), Mockito.mock(ProjectSearchIndexBean.class),
+                Mockito.mock(NotificationBean.class), Mockito.mock(TaskBean.class), Mockito.mock(SessionBean.class)};
+        for (Object bean : new Object[]{projectBean, membershipBean, skillBean, keywordBean, assetBean}) {
+            inject(bean, collaborators);
+        }
+    }
+
+    @Benchmark
+    public ProjectEntity perItemRelations() throws Exception {
+        startProject();
+        // The previous createProject, up to the final task which both paths add the same way
+        userDao.findUserById(creator.getId());
+        labDao.findLaboratoryById(projectCreateDto.getLaboratoryId());
+        projectDao.checkProjectNameExist(projectCreateDto.getName());
+        ProjectEntity projectEntity = new ProjectEntity();
+        projectEntity.setName(projectCreateDto.getName());
+        projectEntity.setState(ProjectStateEnum.PLANNING);
+        projectDao.persist(projectEntity);
+        ProjectEntity persistedProject = projectDao.findProjectByName(projectEntity.getName());
+        membershipBean.addUserToProject(creator.getUsername(), persistedProject.getId(), true, true, creator);
+        for (UsernameDto user : projectCreateDto.getUsers()) {
+            membershipBean.addUserToProject(user.getUsername(), persistedProject.getId(), true, false, creator);
+        }
+        for (SkillCreateNewProjectDto skill : projectCreateDto.getSkills()) {
+            skillBean.addSkillProject(skill.getName(), skill.getType(), persistedProject.getId());
+        }
+        for (KeywordCreateNewProjectDto keyword : projectCreateDto.getKeywords()) {
+            keywordBean.addKeyword(keyword.getName(), persistedProject.getId());
+        }
+        for (ProjectAssetCreateNewProjectDto asset : projectCreateDto.getAssets()) {
+            assetBean.addProjectAssetToProject(asset.getName(), persistedProject.getId(), asset.getUsedQuantity());
+        }
+        return persistedProject;
+    }
+
+    @Benchmark
+    public ProjectEntity bulkRelations() throws Exception {
+        startProject();
+        projectBean.createProject(projectCreateDto, securityContext);
+        return currentProject;
+    }
+
+    private void startProject() {
+        createdTags.clear();
+        projectCreateDto.setName("Project " + ++projectCount);
+    }
+
+    private Object projectDaoCall(InvocationOnMock invocation) {
+        switch (invocation.getMethod().getName()) {
+            case "persist":
+                currentProject = invocation.getArgument(0);
+                currentProject.setId(projectCount);
+                return null;
+            case "findProjectById":
+            case "findProjectByName":
+                return currentProject;
+            case "reserveMemberSlot":
+            case "reserveMemberSlots":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Object userDaoCall(InvocationOnMock invocation) {
+        switch (invocation.getMethod().getName()) {
+            case "findUserById":
+                return creator;
+            case "findValidatedUserByUsername":
+                return users.get(invocation.<String>getArgument(0));
+            default:
+                return findAll(users, invocation.getArgument(0));
+        }
+    }
+
+    private Object skillDaoCall(InvocationOnMock invocation) {
+        switch (invocation.getMethod().getName()) {
+            case "checkSkillExist":
+                return exists(invocation.getArgument(0));
+            case "persist":
+                createdTags.add(invocation.<SkillEntity>getArgument(0).getName());
+                return null;
+            case "insertSkillsIfAbsent":
+                createdTags.addAll(invocation.<Map<String, SkillTypeEnum>>getArgument(0).keySet());
+                return null;
+            case "findSkillByName":
+                return skills.get(invocation.<String>getArgument(0));
+            default:
+                return findExisting(skills, invocation.getArgument(0));
+        }
+    }
+
+    private Object keywordDaoCall(InvocationOnMock invocation) {
+        switch (invocation.getMethod().getName()) {
+            case "checkKeywordExist":
+                return exists(invocation.getArgument(0));
+            case "persist":
+                createdTags.add(invocation.<KeywordEntity>getArgument(0).getName());
+                return null;
+            case "insertKeywordsIfAbsent":
+                createdTags.addAll(invocation.getArgument(0));
+                return null;
+            case "findKeywordByName":
+                return keywords.get(invocation.<String>getArgument(0));
+            default:
+                return findExisting(keywords, invocation.getArgument(0));
+        }
+    }
+
+    private Object assetDaoCall(InvocationOnMock invocation) {
+        if (invocation.getMethod().getName().equals("findAssetByName")) {
+            return assets.get(invocation.<String>getArgument(0));
+        }
+        return findAll(assets, invocation.getArgument(0));
+    }
+
+    private boolean exists(String tagName) {
+        return !missingTags.contains(tagName) || createdTags.contains(tagName);
+    }
+
+    private <T> List<T> findExisting(Map<String, T> entities, Collection<String> names) {
+        List<T> found = new ArrayList<>();
+        for (String name : names) {
+            if (exists(name)) {
+                found.add(entities.get(name));
+            }
+        }
+        return found;
+    }
+
+    private static <T> List<T> findAll(Map<String, T> entities, Collection<String> names) {
+        List<T> found = new ArrayList<>();
+        for (String name : names) {
+            found.add(entities.get(name));
+        }
+        return found;
+    }
+
+    /**
+     * A DAO whose every call costs one database round trip.
+     */
+    private <T> T database(Class<T> type, Function<InvocationOnMock, Object> response) {
+        Answer<Object> answer = invocation -> {
+            long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+            return response.apply(invocation);
+        };
+        return Mockito.mock(type, Mockito.withSettings().defaultAnswer(answer));
+    }
+
+    /**
+     * A DAO of entities with a table id generator, whose inserts wait for the flush.
+     */
+    private static <T> T deferredInserts(Class<T> type) {
+        return Mockito.mock(type);
+    }
+
+    private static UserEntity createUser(long id, String username) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setUsername(username);
+        user.setConfirmed(true);
+        return user;
+    }
+
+    /**
+     * Sets every field of the bean that a collaborator fits, as the container does for @EJB fields.
+     */
+    private static void inject(Object bean, Object[] collaborators) throws IllegalAccessException {
+        for (Field field : bean.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            for (Object collaborator : collaborators) {
+                if (collaborator != bean && field.getType().isInstance(collaborator)) {
+                    field.setAccessible(true);
+                    field.set(bean, collaborator);
+                    break;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ProjectCreationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,158 @@
+package aor.fpbackend.benchmark;
+
+import aor.fpbackend.utils.TaskGraph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping the schedule of a 5,000-task project current after one task or dependency changes.
+ * <ul>
+ *     <li>{@code rebuildAfterDurationChange} and {@code rebuildAfterDependencyAdded}: the whole graph sorted and
+ *     scheduled again with {@link TaskGraph#build}, which is what recomputing from the entities costs at best.</li>
+ *     <li>{@code incrementalDurationChange}: {@link TaskGraph#putTask} on a random task with a new duration.</li>
+ *     <li>{@code incrementalDependencyAddAndRemove}: {@link TaskGraph#addDependency}, cycle check and reordering
+ *     included, then {@link TaskGraph#removeDependency} to restore the graph, on a random pair that does not
+ *     close a cycle.</li>
+ *     <li>{@code cycleCheck}: {@link TaskGraph#wouldCreateCycle} on a random pair.</li>
+ *     <li>{@code readSchedule}: {@link TaskGraph#snapshot}, the duration, schedule and critical path.</li>
+ * </ul>
+ * {@code shape} is "layered", 50 layers of 100 tasks each depending on 3 tasks of the previous layer, or "deep",
+ * each task depending on 2 random earlier tasks, which gives long chains and large reorderings.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=aor.fpbackend.benchmark.TaskGraphBenchmark}, or from the IDE through {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskGraphBenchmark {
+
+    private static final int TASKS = 5000;
+    private static final int LAYER_SIZE = 100;
+    private static final int SAMPLES = 1024;
+
+    @Param({"layered", "deep"})
+    private String shape;
+
+    private final Map<Long, Long> durations = new HashMap<>();
+    private final List<long[]> dependencies = new ArrayList<>();
+    private TaskGraph graph;
+    private long[] changedTasks;
+    private long[][] newDependencies;
+    private long[][] cycleCheckPairs;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Set<Long> seen = new HashSet<>();
+        for (long id = 1; id <= TASKS; id++) {
+            durations.put(id, 1L + random.nextInt(10));
+            if ("layered".equals(shape)) {
+                if (id > LAYER_SIZE) {
+                    long previousLayerStart = ((id - 1) / LAYER_SIZE - 1) * LAYER_SIZE + 1;
+                    for (int i = 0; i < 3; i++) {
+                        addDependency(previousLayerStart + random.nextInt(LAYER_SIZE), id, seen);
+                    }
+                }
+            } else if (id > 1) {
+                for (int i = 0; i < 2; i++) {
+                    addDependency(1 + random.nextInt((int) id - 1), id, seen);
+                }
+            }
+        }
+        graph = TaskGraph.build(durations, dependencies);
+        changedTasks = new long[SAMPLES];
+        cycleCheckPairs = new long[SAMPLES][];
+        newDependencies = new long[SAMPLES][];
+        int found = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            changedTasks[i] = 1 + random.nextInt(TASKS);
+            cycleCheckPairs[i] = new long[]{1 + random.nextInt(TASKS), 1 + random.nextInt(TASKS)};
+        }
+        while (found < SAMPLES) {
+            long prerequisite = 1 + random.nextInt(TASKS);
+            long dependent = 1 + random.nextInt(TASKS);
+            if (!seen.contains(prerequisite * (TASKS + 1) + dependent) && !graph.wouldCreateCycle(prerequisite, dependent)) {
+                newDependencies[found++] = new long[]{prerequisite, dependent};
+            }
+        }
+    }
+
+    private void addDependency(long prerequisite, long dependent, Set<Long> seen) {
+        if (seen.add(prerequisite * (TASKS + 1) + dependent)) {
+            dependencies.add(new long[]{prerequisite, dependent});
+        }
+    }
+
+    private int nextSample() {
+        next = (next + 1) & (SAMPLES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public long rebuildAfterDurationChange() {
+        long task = changedTasks[nextSample()];
+        durations.put(task, durations.get(task) % 10 + 1);
+        TaskGraph rebuilt = TaskGraph.build(durations, dependencies);
+        return rebuilt.getProjectDuration();
+    }
+
+    @Benchmark
+    public long rebuildAfterDependencyAdded() {
+        dependencies.add(newDependencies[nextSample()]);
+        TaskGraph rebuilt = TaskGraph.build(durations, dependencies);
+        dependencies.remove(dependencies.size() - 1);
+        return rebuilt.getProjectDuration();
+    }
+
+    @Benchmark
+    public long incrementalDurationChange() {
+        long task = changedTasks[nextSample()];
+        long duration = durations.get(task) % 10 + 1;
+        durations.put(task, duration);
+        graph.putTask(task, duration);
+        return graph.getProjectDuration();
+    }
+
+    @Benchmark
+    public long incrementalDependencyAddAndRemove() {
+        long[] dependency = newDependencies[nextSample()];
+        graph.addDependency(dependency[0], dependency[1]);
+        long projectDuration = graph.getProjectDuration();
+        graph.removeDependency(dependency[0], dependency[1]);
+        return projectDuration;
+    }
+
+    @Benchmark
+    public boolean cycleCheck() {
+        long[] pair = cycleCheckPairs[nextSample()];
+        return graph.wouldCreateCycle(pair[0], pair[1]);
+    }
+
+    @Benchmark
+    public TaskGraph.Snapshot readSchedule() {
+        return graph.snapshot();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TaskGraphBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}